@@ -32,4 +32,8 @@ abstract class BaseCallHomeTopology extends AbstractNetconfTopology {
               processingExecutor, schemaRepositoryProvider, dataBroker, mountPointService,
               encryptionService, deviceActionFactory);
     }
+
+    void close() {
+        keepaliveTimer.stop();
+    }
 }
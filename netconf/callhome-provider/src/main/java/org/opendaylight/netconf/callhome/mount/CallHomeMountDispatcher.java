@@ -105,6 +105,12 @@ public class CallHomeMountDispatcher implements NetconfClientDispatcher, CallHom
                 schemaRepositoryProvider, dataBroker, mountService, encryptionService, deviceActionFactory);
     }
 
+    void closeTopology() {
+        if (topology != null) {
+            topology.close();
+        }
+    }
+
     @Override
     public void onNetconfSubsystemOpened(final CallHomeProtocolSessionContext session,
                                          final CallHomeChannelActivator activator) {
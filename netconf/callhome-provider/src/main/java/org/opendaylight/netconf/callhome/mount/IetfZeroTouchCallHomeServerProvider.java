@@ -136,6 +136,7 @@ public class IetfZeroTouchCallHomeServerProvider implements AutoCloseable, DataT
         if (server != null) {
             server.close();
         }
+        mountDispacher.closeTopology();
 
         LOG.info("Successfully closed provider for {}", APPNAME);
     }
@@ -7,20 +7,26 @@
  */
 package org.opendaylight.netconf.mdsal.connector.ops.get;
 
-import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.FluentFuture;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.dom.DOMResult;
+import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
+import org.opendaylight.mdsal.dom.api.DOMDataTreeReadWriteTransaction;
 import org.opendaylight.netconf.api.DocumentedException;
-import org.opendaylight.netconf.api.DocumentedException.ErrorSeverity;
-import org.opendaylight.netconf.api.DocumentedException.ErrorTag;
-import org.opendaylight.netconf.api.DocumentedException.ErrorType;
+import org.opendaylight.netconf.api.xml.DeferredXmlContent;
 import org.opendaylight.netconf.api.xml.XmlElement;
 import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
+import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.mdsal.connector.CurrentSchemaContext;
 import org.opendaylight.netconf.mdsal.connector.ops.Datastore;
 import org.opendaylight.netconf.util.mapping.AbstractSingletonNetconfOperation;
@@ -142,38 +148,139 @@ public abstract class AbstractGet extends AbstractSingletonNetconfOperation {
     }
 
     /**
-     * Obtain data root according to filter from operation element.
+     * Read data of all data roots, as obtained by {@link #getDataRootsFromFilter(XmlElement)}. All reads are issued
+     * before waiting for any of them, so that the datastore can process them in parallel.
      *
-     * @param operationElement operation element
-     * @return if filter is present and not empty returns Optional of the InstanceIdentifier to the read location
-     *      in datastore. Empty filter returns Optional.absent() which should equal an empty &lt;data/&gt;
-     *      container in the response. If filter is not present we want to read the entire datastore - return ROOT.
-     * @throws DocumentedException if not possible to get identifier from filter
+     * @param tx transaction to read from
+     * @param store datastore to read
+     * @param dataRoots data roots to read
+     * @return data of each of the data roots, in the same order
+     * @throws InterruptedException if interrupted while waiting for the data
+     * @throws ExecutionException if any of the reads fails
      */
-    protected Optional<YangInstanceIdentifier> getDataRootFromFilter(final XmlElement operationElement)
-            throws DocumentedException {
-        final Optional<XmlElement> filterElement = operationElement.getOnlyChildElementOptionally(FILTER);
-        if (filterElement.isPresent()) {
-            if (filterElement.get().getChildElements().size() == 0) {
-                return Optional.empty();
+    protected static List<Optional<NormalizedNode<?, ?>>> readDataRoots(final DOMDataTreeReadWriteTransaction tx,
+            final LogicalDatastoreType store, final List<YangInstanceIdentifier> dataRoots)
+            throws InterruptedException, ExecutionException {
+        final List<FluentFuture<Optional<NormalizedNode<?, ?>>>> reads = new ArrayList<>(dataRoots.size());
+        for (final YangInstanceIdentifier dataRoot : dataRoots) {
+            reads.add(tx.read(store, dataRoot));
+        }
+
+        final List<Optional<NormalizedNode<?, ?>>> result = new ArrayList<>(reads.size());
+        for (final FluentFuture<Optional<NormalizedNode<?, ?>>> read : reads) {
+            result.add(read.get());
+        }
+        return result;
+    }
+
+    /**
+     * Serialize data read from multiple data roots into a single data element.
+     *
+     * @param document document to create the data element in
+     * @param dataRoots data roots which were read
+     * @param data data of each of the data roots, in the same order
+     * @return data element
+     */
+    protected Element serializeDataRoots(final Document document, final List<YangInstanceIdentifier> dataRoots,
+                                         final List<Optional<NormalizedNode<?, ?>>> data) {
+        if (dataRoots.size() == 1 && dataRoots.get(0).equals(ROOT)) {
+            // There was no filter, hence the reply is not filtered as DOM and the data can be streamed when sent
+            return deferredDataElement(document, data.get(0));
+        }
+
+        Element result = null;
+        for (int i = 0; i < dataRoots.size(); i++) {
+            final Optional<NormalizedNode<?, ?>> node = data.get(i);
+            if (node.isPresent()) {
+                final Element element = serializeNodeWithParentStructure(document, dataRoots.get(i), node.get());
+                if (result == null) {
+                    result = element;
+                } else {
+                    // Data roots do not share a top-level node, hence their elements can be simply moved
+                    while (element.hasChildNodes()) {
+                        result.appendChild(element.getFirstChild());
+                    }
+                }
             }
-            return Optional.of(getInstanceIdentifierFromFilter(filterElement.get()));
         }
+        return result != null ? result : document.createElement(XmlNetconfConstants.DATA_KEY);
+    }
 
-        return Optional.of(ROOT);
+    /**
+     * Create a data element holding the whole datastore as {@link DeferredXmlContent}, so that it is written straight
+     * to the session when the reply is sent, rather than being built as DOM first.
+     *
+     * @param document document to create the data element in
+     * @param data data of the datastore root
+     * @return data element
+     */
+    private Element deferredDataElement(final Document document, final Optional<NormalizedNode<?, ?>> data) {
+        // The element has to be namespaced, otherwise the reply would be built with a copy of it, without the content
+        final Element result = XmlUtil.createElement(document, XmlNetconfConstants.DATA_KEY,
+            Optional.of(XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0));
+        if (data.isPresent()) {
+            final SchemaContext context = schemaContext.getCurrentContext();
+            final ContainerNode root = (ContainerNode) data.get();
+            DeferredXmlContent.attach(result, xmlWriter -> writeRootChildren(xmlWriter, context, root));
+        }
+        return result;
     }
 
-    @VisibleForTesting
-    protected YangInstanceIdentifier getInstanceIdentifierFromFilter(final XmlElement filterElement)
+    private static void writeRootChildren(final XMLStreamWriter xmlWriter, final SchemaContext context,
+                                          final ContainerNode root) throws XMLStreamException {
+        final NormalizedNodeWriter nnWriter = NormalizedNodeWriter.forStreamWriter(
+            XMLStreamNormalizedNodeStreamWriter.create(xmlWriter, context, getSchemaPath(ROOT)), true);
+        try {
+            for (final DataContainerChild<? extends PathArgument, ?> child : root.getValue()) {
+                nnWriter.write(child);
+            }
+            nnWriter.flush();
+        } catch (final IOException e) {
+            throw new XMLStreamException("Failed to write data", e);
+        }
+    }
+
+    /**
+     * Obtain data roots according to filter from operation element. Each root element of the filter is validated into
+     * its own data root, data roots of the same top-level node are then replaced by their closest common ancestor.
+     *
+     * @param operationElement operation element
+     * @return data roots to read, at most one for each top-level node. An empty filter returns no data roots, which
+     *      should result in an empty &lt;data/&gt; container in the response. If filter is not present we want to read
+     *      the entire datastore - ROOT is returned.
+     * @throws DocumentedException if not possible to get identifier from filter
+     */
+    protected List<YangInstanceIdentifier> getDataRootsFromFilter(final XmlElement operationElement)
             throws DocumentedException {
+        final Optional<XmlElement> filterElement = operationElement.getOnlyChildElementOptionally(FILTER);
+        if (!filterElement.isPresent()) {
+            return ImmutableList.of(ROOT);
+        }
 
-        if (filterElement.getChildElements().size() != 1) {
-            throw new DocumentedException("Multiple filter roots not supported yet",
-                    ErrorType.APPLICATION, ErrorTag.OPERATION_NOT_SUPPORTED, ErrorSeverity.ERROR);
+        final List<YangInstanceIdentifier> dataRoots = new ArrayList<>();
+        for (final XmlElement element : filterElement.get().getChildElements()) {
+            addDataRoot(dataRoots, validator.validate(element));
         }
+        return dataRoots;
+    }
 
-        final XmlElement element = filterElement.getOnlyChildElement();
-        return validator.validate(element);
+    private static void addDataRoot(final List<YangInstanceIdentifier> dataRoots,
+                                    final YangInstanceIdentifier dataRoot) {
+        final ListIterator<YangInstanceIdentifier> it = dataRoots.listIterator();
+        while (it.hasNext()) {
+            final List<PathArgument> existing = it.next().getPathArguments();
+            final List<PathArgument> added = dataRoot.getPathArguments();
+            if (existing.get(0).equals(added.get(0))) {
+                int common = 1;
+                while (common < existing.size() && common < added.size()
+                        && existing.get(common).equals(added.get(common))) {
+                    common++;
+                }
+                it.set(YangInstanceIdentifier.create(existing.subList(0, common)));
+                return;
+            }
+        }
+        dataRoots.add(dataRoot);
     }
 
     protected static final class GetConfigExecution {
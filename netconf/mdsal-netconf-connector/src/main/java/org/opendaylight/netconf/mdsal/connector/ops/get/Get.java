@@ -7,6 +7,7 @@
  */
 package org.opendaylight.netconf.mdsal.connector.ops.get;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
@@ -44,27 +45,21 @@ public class Get extends AbstractGet {
     protected Element handleWithNoSubsequentOperations(final Document document, final XmlElement operationElement)
             throws DocumentedException {
 
-        final Optional<YangInstanceIdentifier> dataRootOptional = getDataRootFromFilter(operationElement);
-        if (!dataRootOptional.isPresent()) {
+        final List<YangInstanceIdentifier> dataRoots = getDataRootsFromFilter(operationElement);
+        if (dataRoots.isEmpty()) {
             return document.createElement(XmlNetconfConstants.DATA_KEY);
         }
 
-        final YangInstanceIdentifier dataRoot = dataRootOptional.get();
-
         final DOMDataTreeReadWriteTransaction rwTx = getTransaction(Datastore.running);
         try {
-            final Optional<NormalizedNode<?, ?>> normalizedNodeOptional = rwTx.read(
-                    LogicalDatastoreType.OPERATIONAL, dataRoot).get();
+            final List<Optional<NormalizedNode<?, ?>>> data = readDataRoots(rwTx, LogicalDatastoreType.OPERATIONAL,
+                    dataRoots);
             transactionProvider.abortRunningTransaction(rwTx);
 
-            if (!normalizedNodeOptional.isPresent()) {
-                return document.createElement(XmlNetconfConstants.DATA_KEY);
-            }
-
-            return serializeNodeWithParentStructure(document, dataRoot, normalizedNodeOptional.get());
+            return serializeDataRoots(document, dataRoots, data);
         } catch (final InterruptedException | ExecutionException e) {
-            LOG.warn("Unable to read data: {}", dataRoot, e);
-            throw new IllegalStateException("Unable to read data " + dataRoot, e);
+            LOG.warn("Unable to read data: {}", dataRoots, e);
+            throw new IllegalStateException("Unable to read data " + dataRoots, e);
         }
     }
 
@@ -8,6 +8,7 @@
 package org.opendaylight.netconf.mdsal.connector.ops.get;
 
 import com.google.common.base.Preconditions;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
@@ -53,32 +54,26 @@ public class GetConfig extends AbstractGet {
             throw e;
         }
 
-        final Optional<YangInstanceIdentifier> dataRootOptional = getDataRootFromFilter(operationElement);
-        if (!dataRootOptional.isPresent()) {
+        final List<YangInstanceIdentifier> dataRoots = getDataRootsFromFilter(operationElement);
+        if (dataRoots.isEmpty()) {
             return document.createElement(XmlNetconfConstants.DATA_KEY);
         }
 
-        final YangInstanceIdentifier dataRoot = dataRootOptional.get();
-
         // Proper exception should be thrown
         Preconditions.checkState(getConfigExecution.getDatastore().isPresent(), "Source element missing from request");
 
         final DOMDataTreeReadWriteTransaction rwTx = getTransaction(getConfigExecution.getDatastore().get());
         try {
-            final Optional<NormalizedNode<?, ?>> normalizedNodeOptional = rwTx.read(
-                    LogicalDatastoreType.CONFIGURATION, dataRoot).get();
+            final List<Optional<NormalizedNode<?, ?>>> data = readDataRoots(rwTx, LogicalDatastoreType.CONFIGURATION,
+                    dataRoots);
             if (getConfigExecution.getDatastore().get() == Datastore.running) {
                 transactionProvider.abortRunningTransaction(rwTx);
             }
 
-            if (!normalizedNodeOptional.isPresent()) {
-                return document.createElement(XmlNetconfConstants.DATA_KEY);
-            }
-
-            return serializeNodeWithParentStructure(document, dataRoot, normalizedNodeOptional.get());
+            return serializeDataRoots(document, dataRoots, data);
         } catch (final InterruptedException | ExecutionException e) {
-            LOG.warn("Unable to read data: {}", dataRoot, e);
-            throw new IllegalStateException("Unable to read data " + dataRoot, e);
+            LOG.warn("Unable to read data: {}", dataRoots, e);
+            throw new IllegalStateException("Unable to read data " + dataRoots, e);
         }
     }
 
@@ -36,6 +36,7 @@ import org.opendaylight.mdsal.dom.api.DOMSchemaService;
 import org.opendaylight.mdsal.dom.broker.SerializedDOMDataBroker;
 import org.opendaylight.mdsal.dom.spi.store.DOMStore;
 import org.opendaylight.mdsal.dom.store.inmemory.InMemoryDOMDataStoreFactory;
+import org.opendaylight.netconf.api.xml.DeferredXmlContent;
 import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.mapping.api.NetconfOperation;
 import org.opendaylight.netconf.mapping.api.NetconfOperationChainedExecution;
@@ -210,6 +211,8 @@ public abstract class AbstractNetconfOperationTest {
 
     protected static Document executeOperation(final NetconfOperation op, final Document request) throws Exception {
         final Document response = op.handle(request, NetconfOperationChainedExecution.EXECUTION_TERMINATION_POINT);
+        // Unfiltered get and get-config defer writing of their data, build it so that it can be inspected
+        DeferredXmlContent.materialize(response);
         LOG.debug("Got response {}", response);
         return response;
     }
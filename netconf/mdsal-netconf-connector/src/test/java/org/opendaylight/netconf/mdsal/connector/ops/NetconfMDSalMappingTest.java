@@ -11,8 +11,13 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import com.google.common.collect.ImmutableList;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import java.io.StringWriter;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerFactory;
@@ -25,11 +30,16 @@ import org.opendaylight.netconf.api.DocumentedException;
 import org.opendaylight.netconf.api.DocumentedException.ErrorSeverity;
 import org.opendaylight.netconf.api.DocumentedException.ErrorTag;
 import org.opendaylight.netconf.api.DocumentedException.ErrorType;
+import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.xml.XmlElement;
+import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.opendaylight.netconf.mapping.api.NetconfOperationChainedExecution;
 import org.opendaylight.netconf.mdsal.connector.CurrentSchemaContext;
 import org.opendaylight.netconf.mdsal.connector.TransactionProvider;
 import org.opendaylight.netconf.mdsal.connector.ops.get.GetConfig;
+import org.opendaylight.netconf.nettyutil.handler.NetconfMessageToCompactXMLEncoder;
+import org.opendaylight.netconf.nettyutil.handler.NetconfMessageToXMLEncoder;
 import org.opendaylight.netconf.util.test.XmlFileLoader;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
@@ -43,12 +53,13 @@ public class NetconfMDSalMappingTest extends AbstractNetconfOperationTest {
     private static final Logger LOG = LoggerFactory.getLogger(NetconfMDSalMappingTest.class);
 
     private static final String TARGET_KEY = "target";
-    private static final String FILTER_NODE = "filter";
     private static final String GET_CONFIG = "get-config";
     private static final QName TOP = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "top");
     private static final QName USERS = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "users");
     private static final QName USER = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "user");
     private static final QName MODULES = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26", "modules");
+    private static final QName MAPPING_NODES = QName.create("urn:opendaylight:mdsal:mapping:test", "2015-02-26",
+            "mapping-nodes");
     private static final QName AUGMENTED_CONTAINER = QName.create("urn:opendaylight:mdsal:mapping:test",
             "2015-02-26", "augmented-container");
     private static final QName AUGMENTED_STRING_IN_CONT = QName.create("urn:opendaylight:mdsal:mapping:test",
@@ -151,6 +162,32 @@ public class NetconfMDSalMappingTest extends AbstractNetconfOperationTest {
         deleteDatastore();
     }
 
+    @Test
+    public void testEncodeStreamedGetConfig() throws Exception {
+        verifyResponse(edit("messages/mapping/editConfigs/editConfig_merge_n1.xml"), RPC_REPLY_OK);
+
+        // The reply is not materialized, its data is written by the encoders
+        final GetConfig getConfig = new GetConfig(SESSION_ID_FOR_REPORTING, getCurrentSchemaContext(),
+            getTransactionProvider());
+        final Document reply = getConfig.handle(
+            XmlFileLoader.xmlFileToDocument("messages/mapping/getConfig_candidate.xml"),
+            NetconfOperationChainedExecution.EXECUTION_TERMINATION_POINT);
+
+        for (final NetconfMessageToXMLEncoder encoder : ImmutableList.of(new NetconfMessageToXMLEncoder(),
+                new NetconfMessageToCompactXMLEncoder())) {
+            final ByteBuf encoded = Unpooled.buffer();
+            encoder.encode(null, new NetconfMessage(reply), encoded);
+
+            final Document decoded = XmlUtil.readXmlToDocument(encoded.toString(StandardCharsets.UTF_8));
+            final Element data = XmlElement.fromDomDocument(decoded).getOnlyChildElement().getDomElement();
+            assertEquals(XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0, data.getNamespaceURI());
+            verifyResponse(decoded, XmlFileLoader.xmlFileToDocument(
+                "messages/mapping/editConfigs/editConfig_merge_n1_control.xml"));
+        }
+
+        deleteDatastore();
+    }
+
     @Test
     public void testKeyOrder() throws Exception {
         verifyResponse(edit("messages/mapping/editConfigs/editConfig_merge_multiple_keys_1.xml"), RPC_REPLY_OK);
@@ -609,13 +646,23 @@ public class NetconfMDSalMappingTest extends AbstractNetconfOperationTest {
 
     }
 
+    @Test
+    public void testMultipleFilterRoots() throws Exception {
+        final TestingGetConfig getConfig = new TestingGetConfig(SESSION_ID_FOR_REPORTING, getCurrentSchemaContext(),
+                getTransactionProvider());
+        final Document request =
+                XmlFileLoader.xmlFileToDocument("messages/mapping/filters/get-filter-multiple-roots.xml");
+        // Roots within top are merged into top itself
+        assertEquals(ImmutableList.of(YangInstanceIdentifier.of(TOP), YangInstanceIdentifier.of(MAPPING_NODES)),
+                getConfig.getDataRootsFromDocument(request));
+    }
+
     private void verifyFilterIdentifier(final String resource, final YangInstanceIdentifier identifier)
             throws Exception {
         final TestingGetConfig getConfig = new TestingGetConfig(SESSION_ID_FOR_REPORTING, getCurrentSchemaContext(),
                 getTransactionProvider());
         final Document request = XmlFileLoader.xmlFileToDocument(resource);
-        final YangInstanceIdentifier iid = getConfig.getInstanceIdentifierFromDocument(request);
-        assertEquals(identifier, iid);
+        assertEquals(ImmutableList.of(identifier), getConfig.getDataRootsFromDocument(request));
     }
 
     private class TestingGetConfig extends GetConfig {
@@ -624,10 +671,8 @@ public class NetconfMDSalMappingTest extends AbstractNetconfOperationTest {
             super(sessionId, schemaContext, transactionProvider);
         }
 
-        YangInstanceIdentifier getInstanceIdentifierFromDocument(final Document request) throws DocumentedException {
-            final XmlElement filterElement = XmlElement.fromDomDocument(request).getOnlyChildElement(GET_CONFIG)
-                    .getOnlyChildElement(FILTER_NODE);
-            return getInstanceIdentifierFromFilter(filterElement);
+        List<YangInstanceIdentifier> getDataRootsFromDocument(final Document request) throws DocumentedException {
+            return getDataRootsFromFilter(XmlElement.fromDomDocument(request).getOnlyChildElement(GET_CONFIG));
         }
     }
 
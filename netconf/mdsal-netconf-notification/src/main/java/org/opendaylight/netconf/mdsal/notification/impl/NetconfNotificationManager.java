@@ -13,15 +13,28 @@ import static java.util.Objects.requireNonNull;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multiset;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import org.checkerframework.checker.lock.qual.GuardedBy;
+import org.opendaylight.controller.config.threadpool.ScheduledThreadPool;
+import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.mdsal.notification.impl.ops.NotificationsTransformUtil;
 import org.opendaylight.netconf.notifications.BaseNotificationPublisherRegistration;
 import org.opendaylight.netconf.notifications.NetconfNotification;
@@ -32,6 +45,8 @@ import org.opendaylight.netconf.notifications.NotificationListenerRegistration;
 import org.opendaylight.netconf.notifications.NotificationPublisherRegistration;
 import org.opendaylight.netconf.notifications.NotificationRegistration;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.notification._1._0.rev080714.StreamNameType;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netmod.notification.rev080714.NotificationComplete;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netmod.notification.rev080714.ReplayComplete;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netmod.notification.rev080714.netconf.Streams;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netmod.notification.rev080714.netconf.StreamsBuilder;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netmod.notification.rev080714.netconf.streams.Stream;
@@ -40,13 +55,27 @@ import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netmod.notification.r
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.notifications.rev120206.NetconfCapabilityChange;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.notifications.rev120206.NetconfSessionEnd;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.notifications.rev120206.NetconfSessionStart;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev130715.DateAndTime;
+import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.binding.Notification;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
 
 /**
  *  A thread-safe implementation NetconfNotificationRegistry.
+ *
+ * <p>
+ * If created with a positive replay log size, the last that many notifications are kept in a replay log, from which
+ * they are replayed to subscriptions with a start time.
+ *
+ * <p>
+ * Notifications are queued for each listener and delivered outside of the registry's lock, so that slow listeners do
+ * not hold up publishers. Delivery to a listener is suspended while it is not
+ * {@link NetconfNotificationListener#isReady(Runnable) ready}. Once a listener has {@code maxQueuedNotifications}
+ * notifications queued, further notifications are dropped for it until it catches up.
  */
 public class NetconfNotificationManager implements NetconfNotificationCollector, NetconfNotificationRegistry,
         NetconfNotificationListener, AutoCloseable {
@@ -64,11 +93,11 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
     }
 
     private static final Logger LOG = LoggerFactory.getLogger(NetconfNotificationManager.class);
+    private static final String SUBSCRIPTION_NOTIFICATION_NAMESPACE = ReplayComplete.QNAME.getNamespace().toString();
+    private static final int DEFAULT_MAX_QUEUED_NOTIFICATIONS = 1024;
 
-    // TODO excessive synchronization provides thread safety but is most likely not optimal
-    // (combination of concurrent collections might improve performance)
-    // And also calling callbacks from a synchronized block is dangerous
-    // since the listeners/publishers can block the whole notification processing
+    // Registrations and the replay log are guarded by this object. Notifications are only queued while holding it and
+    // are delivered to listeners outside of it, stream listeners are still invoked while holding it.
 
     @GuardedBy("this")
     private final Multimap<StreamNameType, GenericNotificationListenerReg> notificationListeners =
@@ -86,15 +115,74 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
     @GuardedBy("this")
     private final Set<GenericNotificationPublisherReg> notificationPublishers = new HashSet<>();
 
+    // Last notifications of all streams, as all of them are sent to all listeners
+    @GuardedBy("this")
+    private final Deque<NetconfNotification> replayLog = new ArrayDeque<>();
+
+    // Completes subscriptions at their stop time. Created on demand and shut down on close, unless one is supplied.
+    @GuardedBy("this")
+    private ScheduledExecutorService scheduler;
+    private final boolean ownScheduler;
+
+    private final int replayLogSize;
+    private final int maxQueuedNotifications;
+    private final Date replayLogCreationTime = new Date();
+
+    public NetconfNotificationManager() {
+        this(0);
+    }
+
+    public NetconfNotificationManager(final int replayLogSize) {
+        this(replayLogSize, DEFAULT_MAX_QUEUED_NOTIFICATIONS);
+    }
+
+    public NetconfNotificationManager(final int replayLogSize, final int maxQueuedNotifications) {
+        this(replayLogSize, maxQueuedNotifications, null);
+    }
+
+    /**
+     * Create a notification manager.
+     *
+     * @param replayLogSize number of last notifications kept for replay, 0 disables replay
+     * @param maxQueuedNotifications number of notifications queued for a listener before further ones are dropped
+     * @param scheduledThreadPool thread pool completing subscriptions at their stop time. If null, the manager
+     *                            creates its own thread once it is needed.
+     */
+    public NetconfNotificationManager(final int replayLogSize, final int maxQueuedNotifications,
+            final ScheduledThreadPool scheduledThreadPool) {
+        checkArgument(replayLogSize >= 0, "Replay log size %s has to be non-negative", replayLogSize);
+        checkArgument(maxQueuedNotifications > 0, "Maximum number of queued notifications %s has to be positive",
+            maxQueuedNotifications);
+        this.replayLogSize = replayLogSize;
+        this.maxQueuedNotifications = maxQueuedNotifications;
+        this.scheduler = scheduledThreadPool == null ? null : scheduledThreadPool.getExecutor();
+        this.ownScheduler = scheduledThreadPool == null;
+    }
+
     @Override
-    public synchronized void onNotification(final StreamNameType stream, final NetconfNotification notification) {
-        LOG.debug("Notification of type {} detected", stream);
-        if (LOG.isTraceEnabled()) {
-            LOG.debug("Notification of type {} detected: {}", stream, notification);
+    public void onNotification(final StreamNameType stream, final NetconfNotification notification) {
+        final List<GenericNotificationListenerReg> listeners;
+        synchronized (this) {
+            LOG.debug("Notification of type {} detected", stream);
+            if (LOG.isTraceEnabled()) {
+                LOG.debug("Notification of type {} detected: {}", stream, notification);
+            }
+
+            listeners = ImmutableList.copyOf(notificationListeners.get(BASE_STREAM_NAME));
+            for (final GenericNotificationListenerReg listenerReg : listeners) {
+                listenerReg.offer(notification);
+            }
+
+            if (replayLogSize > 0) {
+                if (replayLog.size() == replayLogSize) {
+                    replayLog.removeFirst();
+                }
+                replayLog.addLast(notification);
+            }
         }
 
-        for (final GenericNotificationListenerReg listenerReg : notificationListeners.get(BASE_STREAM_NAME)) {
-            listenerReg.getListener().onNotification(BASE_STREAM_NAME, notification);
+        for (final GenericNotificationListenerReg listenerReg : listeners) {
+            listenerReg.deliver();
         }
     }
 
@@ -122,6 +210,84 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
         return genericNotificationListenerReg;
     }
 
+    @Override
+    public NotificationListenerRegistration registerNotificationListener(final StreamNameType stream,
+            final NetconfNotificationListener listener, final Date startTime, final Optional<Date> stopTime) {
+        requireNonNull(stream);
+        requireNonNull(listener);
+        requireNonNull(startTime);
+
+        final GenericNotificationListenerReg genericNotificationListenerReg =
+                new GenericNotificationListenerReg(listener, stopTime.orElse(null));
+        synchronized (this) {
+            checkArgument(isReplaySupported(stream), "Stream %s does not support replay", stream.getValue());
+            LOG.trace("Notification listener registered for stream: {}, replaying notifications since {}", stream,
+                startTime);
+
+            for (final NetconfNotification notification : replayLog) {
+                final Date eventTime = notification.getEventTime();
+                if (!eventTime.before(startTime) && (!stopTime.isPresent() || !eventTime.after(stopTime.get()))) {
+                    genericNotificationListenerReg.add(notification);
+                }
+            }
+            genericNotificationListenerReg.add(subscriptionNotification(ReplayComplete.QNAME));
+
+            final long stopDelay = stopTime.map(time -> time.getTime() - System.currentTimeMillis())
+                .orElse(Long.MAX_VALUE);
+            if (stopDelay <= 0) {
+                genericNotificationListenerReg.add(subscriptionNotification(NotificationComplete.QNAME));
+            } else {
+                if (stopTime.isPresent()) {
+                    genericNotificationListenerReg.stopFuture = scheduler().schedule(
+                        genericNotificationListenerReg::complete, stopDelay, TimeUnit.MILLISECONDS);
+                }
+                notificationListeners.put(BASE_STREAM_NAME, genericNotificationListenerReg);
+            }
+        }
+
+        genericNotificationListenerReg.deliver();
+        return genericNotificationListenerReg;
+    }
+
+    @GuardedBy("this")
+    private ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("netconf-notification-stop-%d").setDaemon(true).build());
+        }
+        return scheduler;
+    }
+
+    @Override
+    public boolean isReplaySupported(final StreamNameType streamNameType) {
+        return replayLogSize > 0 && BASE_STREAM_NAME.equals(streamNameType);
+    }
+
+    /**
+     * Check whether a notification signals the progress of a subscription, i.e. it is either a
+     * {@code replayComplete} or a {@code notificationComplete} notification.
+     *
+     * @param notification notification to check
+     * @return true if the notification signals the progress of a subscription
+     */
+    public static boolean isSubscriptionNotification(final NetconfNotification notification) {
+        for (Node child = notification.getDocument().getDocumentElement().getFirstChild(); child != null;
+                child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE
+                    && SUBSCRIPTION_NOTIFICATION_NAMESPACE.equals(child.getNamespaceURI())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static NetconfNotification subscriptionNotification(final QName name) {
+        final Document document = XmlUtil.newDocument();
+        document.appendChild(XmlUtil.createElement(document, name.getLocalName(),
+            Optional.of(name.getNamespace().toString())));
+        return new NetconfNotification(document);
+    }
+
     @Override
     public synchronized Streams getNotificationPublishers() {
         return new StreamsBuilder().setStream(Lists.newArrayList(streamMetadata.values())).build();
@@ -165,6 +331,11 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
 
         // Clear stream Listeners
         streamListeners.clear();
+
+        if (ownScheduler && scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
     }
 
     @Override
@@ -233,8 +404,13 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
 
     @Override
     public BaseNotificationPublisherRegistration registerBaseNotificationPublisher() {
+        final Stream baseStream = replayLogSize == 0 ? BASE_NETCONF_STREAM : new StreamBuilder(BASE_NETCONF_STREAM)
+                .setReplaySupport(true)
+                .setReplayLogCreationTime(new DateAndTime(
+                    NetconfNotification.RFC3339_DATE_FORMATTER.apply(replayLogCreationTime)))
+                .build();
         final NotificationPublisherRegistration notificationPublisherRegistration =
-                registerNotificationPublisher(BASE_NETCONF_STREAM);
+                registerNotificationPublisher(baseStream);
         return new BaseNotificationPublisherReg(notificationPublisherRegistration);
     }
 
@@ -303,18 +479,152 @@ public class NetconfNotificationManager implements NetconfNotificationCollector,
 
     private class GenericNotificationListenerReg implements NotificationListenerRegistration {
         private final NetconfNotificationListener listener;
+        // Time to stop listening at, null if none
+        private final Date stopTime;
+        // Completion at stopTime, guarded by the owning NetconfNotificationManager
+        private ScheduledFuture<?> stopFuture;
+
+        @GuardedBy("this")
+        private final Deque<NetconfNotification> queue = new ArrayDeque<>();
+        @GuardedBy("this")
+        private boolean delivering;
+        // Set once a listener which was not ready becomes ready again
+        @GuardedBy("this")
+        private boolean readyAgain;
+        @GuardedBy("this")
+        private boolean closed;
+        @GuardedBy("this")
+        private int dropped;
 
         GenericNotificationListenerReg(final NetconfNotificationListener listener) {
+            this(listener, null);
+        }
+
+        GenericNotificationListenerReg(final NetconfNotificationListener listener, final Date stopTime) {
             this.listener = listener;
+            this.stopTime = stopTime;
         }
 
         public NetconfNotificationListener getListener() {
             return listener;
         }
 
+        /**
+         * Queue a notification, unless there are too many notifications queued already.
+         */
+        synchronized void offer(final NetconfNotification notification) {
+            if (closed) {
+                return;
+            }
+            if (queue.size() >= maxQueuedNotifications) {
+                if (dropped++ == 0) {
+                    LOG.warn("Notification listener {} does not keep up, dropping notifications", listener);
+                }
+                return;
+            }
+            if (dropped != 0) {
+                LOG.warn("Notification listener {} caught up, {} notifications were dropped", listener, dropped);
+                dropped = 0;
+            }
+            queue.addLast(notification);
+        }
+
+        /**
+         * Queue a notification regardless of the number of notifications queued already.
+         */
+        synchronized void add(final NetconfNotification notification) {
+            if (!closed) {
+                queue.addLast(notification);
+            }
+        }
+
+        /**
+         * Deliver queued notifications to the listener, unless another thread is delivering them already or the
+         * listener is not ready. Must not be invoked with the lock of the registry held.
+         */
+        @SuppressWarnings("checkstyle:IllegalCatch")
+        void deliver() {
+            synchronized (this) {
+                if (delivering) {
+                    return;
+                }
+                delivering = true;
+            }
+
+            while (true) {
+                synchronized (this) {
+                    if (queue.isEmpty()) {
+                        delivering = false;
+                        return;
+                    }
+                    readyAgain = false;
+                }
+
+                if (!listener.isReady(this::onReady)) {
+                    synchronized (this) {
+                        // Unless the listener became ready in the meantime, onReady() resumes the delivery
+                        if (!readyAgain) {
+                            delivering = false;
+                            return;
+                        }
+                    }
+                    continue;
+                }
+
+                final NetconfNotification notification;
+                synchronized (this) {
+                    notification = queue.pollFirst();
+                    if (notification == null) {
+                        delivering = false;
+                        return;
+                    }
+                }
+
+                try {
+                    if (stopTime != null && notification.getEventTime().after(stopTime)
+                            && !isSubscriptionNotification(notification)) {
+                        complete();
+                    } else {
+                        listener.onNotification(BASE_STREAM_NAME, notification);
+                    }
+                } catch (RuntimeException e) {
+                    LOG.warn("Notification listener {} failed to process notification {}", listener, notification,
+                        e);
+                }
+            }
+        }
+
+        private void onReady() {
+            synchronized (this) {
+                readyAgain = true;
+            }
+            deliver();
+        }
+
+        void complete() {
+            synchronized (NetconfNotificationManager.this) {
+                if (!notificationListeners.remove(BASE_STREAM_NAME, this)) {
+                    return;
+                }
+                LOG.trace("Notification listener reached its stop time {}", stopTime);
+                add(subscriptionNotification(NotificationComplete.QNAME));
+            }
+            deliver();
+        }
+
         @Override
         public void close() {
-            notificationListeners.remove(BASE_STREAM_NAME, this);
+            synchronized (NetconfNotificationManager.this) {
+                notificationListeners.remove(BASE_STREAM_NAME, this);
+                if (stopFuture != null) {
+                    stopFuture.cancel(false);
+                    stopFuture = null;
+                }
+            }
+            synchronized (this) {
+                closed = true;
+                queue.clear();
+            }
         }
     }
 }
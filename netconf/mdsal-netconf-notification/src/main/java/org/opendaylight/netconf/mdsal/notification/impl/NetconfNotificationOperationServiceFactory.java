@@ -8,11 +8,13 @@
 
 package org.opendaylight.netconf.mdsal.notification.impl;
 
-import java.util.Collections;
+import com.google.common.collect.ImmutableSet;
 import java.util.Set;
 import org.opendaylight.controller.sal.common.util.NoopAutoCloseable;
+import org.opendaylight.netconf.api.capability.BasicCapability;
 import org.opendaylight.netconf.api.capability.Capability;
 import org.opendaylight.netconf.api.monitoring.CapabilityListener;
+import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.mapping.api.NetconfOperationService;
 import org.opendaylight.netconf.mapping.api.NetconfOperationServiceFactory;
 import org.opendaylight.netconf.mapping.api.NetconfOperationServiceFactoryListener;
@@ -20,6 +22,11 @@ import org.opendaylight.netconf.notifications.NetconfNotificationRegistry;
 
 public class NetconfNotificationOperationServiceFactory implements NetconfOperationServiceFactory, AutoCloseable {
 
+    // Other rpcs are handled while a subscription is active, i.e. notifications are interleaved with their replies
+    private static final Set<Capability> CAPABILITIES = ImmutableSet.of(
+        new BasicCapability(XmlNetconfConstants.URN_IETF_PARAMS_NETCONF_CAPABILITY_NOTIFICATION_1_0),
+        new BasicCapability(XmlNetconfConstants.URN_IETF_PARAMS_NETCONF_CAPABILITY_INTERLEAVE_1_0));
+
     private final NetconfNotificationRegistry netconfNotificationRegistry;
     private final NetconfOperationServiceFactoryListener netconfOperationServiceFactoryListener;
 
@@ -35,11 +42,11 @@ public class NetconfNotificationOperationServiceFactory implements NetconfOperat
     @Override
     public Set<Capability> getCapabilities() {
         // TODO
-        // No capabilities exposed to prevent clashes with schemas from
+        // No module capabilities exposed to prevent clashes with schemas from
         // config-netconf-connector (it exposes all the schemas)
         // If the schemas exposed by config-netconf-connector are filtered,
         // this class would expose monitoring related models
-        return Collections.emptySet();
+        return CAPABILITIES;
     }
 
     @Override
@@ -7,14 +7,19 @@
  */
 package org.opendaylight.netconf.mdsal.notification.impl.ops;
 
-import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.collect.ImmutableMap;
+import io.netty.channel.ChannelFuture;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import org.opendaylight.netconf.api.DocumentedException;
+import org.opendaylight.netconf.api.DocumentedException.ErrorSeverity;
+import org.opendaylight.netconf.api.DocumentedException.ErrorTag;
+import org.opendaylight.netconf.api.DocumentedException.ErrorType;
 import org.opendaylight.netconf.api.NetconfSession;
 import org.opendaylight.netconf.api.xml.XmlElement;
 import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
@@ -25,7 +30,7 @@ import org.opendaylight.netconf.notifications.NetconfNotificationListener;
 import org.opendaylight.netconf.notifications.NetconfNotificationRegistry;
 import org.opendaylight.netconf.notifications.NotificationListenerRegistration;
 import org.opendaylight.netconf.util.mapping.AbstractSingletonNetconfOperation;
-import org.opendaylight.netconf.util.messages.SubtreeFilter;
+import org.opendaylight.netconf.util.messages.CompiledSubtreeFilter;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.notification._1._0.rev080714.CreateSubscriptionInput;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.notification._1._0.rev080714.StreamNameType;
 import org.slf4j.Logger;
@@ -36,7 +41,8 @@ import org.w3c.dom.Element;
 /**
  * Create subscription listens for create subscription requests
  * and registers notification listeners into notification registry.
- * Received notifications are sent to the client right away
+ * Received notifications are sent to the client right away, a subscription with a start time first receives the
+ * notifications replayed by the registry.
  */
 public class CreateSubscription extends AbstractSingletonNetconfOperation
         implements SessionAwareNetconfOperation, AutoCloseable {
@@ -44,6 +50,8 @@ public class CreateSubscription extends AbstractSingletonNetconfOperation
     private static final Logger LOG = LoggerFactory.getLogger(CreateSubscription.class);
 
     static final String CREATE_SUBSCRIPTION = "create-subscription";
+    private static final String START_TIME = "startTime";
+    private static final String STOP_TIME = "stopTime";
 
     private final NetconfNotificationRegistry notifications;
     private final List<NotificationListenerRegistration> subscriptions = new ArrayList<>();
@@ -64,19 +72,16 @@ public class CreateSubscription extends AbstractSingletonNetconfOperation
         // Binding doesn't support anyxml nodes yet, so filter could not be retrieved
         // xml -> normalized node -> CreateSubscriptionInput conversion could be slower than current approach
 
-        final Optional<XmlElement> filter = operationElement.getOnlyChildElementWithSameNamespaceOptionally("filter");
-
-        // Replay not supported
-        final Optional<XmlElement> startTime =
-                operationElement.getOnlyChildElementWithSameNamespaceOptionally("startTime");
-        checkArgument(!startTime.isPresent(), "StartTime element not yet supported");
-
-        // Stop time not supported
-        final Optional<XmlElement> stopTime =
-                operationElement.getOnlyChildElementWithSameNamespaceOptionally("stopTime");
-        checkArgument(!stopTime.isPresent(), "StopTime element not yet supported");
+        final Optional<XmlElement> filterElement =
+                operationElement.getOnlyChildElementWithSameNamespaceOptionally("filter");
+        // The filter is applied to every notification, compile it once
+        final Optional<CompiledSubtreeFilter> filter = filterElement.isPresent()
+                ? Optional.of(CompiledSubtreeFilter.compile(filterElement.get())) : Optional.empty();
 
+        final Optional<Date> startTime = parseTimeIfPresent(operationElement, START_TIME);
+        final Optional<Date> stopTime = parseTimeIfPresent(operationElement, STOP_TIME);
         final StreamNameType streamNameType = parseStreamIfPresent(operationElement);
+        validateReplay(streamNameType, startTime, stopTime);
 
         requireNonNull(netconfSession);
         // Premature streams are allowed (meaning listener can register even if no provider is available yet)
@@ -85,13 +90,55 @@ public class CreateSubscription extends AbstractSingletonNetconfOperation
                     getNetconfSessionIdForReporting());
         }
 
-        final NotificationListenerRegistration notificationListenerRegistration = notifications
-                .registerNotificationListener(streamNameType, new NotificationSubscription(netconfSession, filter));
+        final NotificationSubscription subscription = new NotificationSubscription(netconfSession, filter);
+        final NotificationListenerRegistration notificationListenerRegistration = startTime.isPresent()
+                ? notifications.registerNotificationListener(streamNameType, subscription, startTime.get(), stopTime)
+                : notifications.registerNotificationListener(streamNameType, subscription);
         subscriptions.add(notificationListenerRegistration);
 
         return document.createElement(XmlNetconfConstants.OK);
     }
 
+    private void validateReplay(final StreamNameType streamNameType, final Optional<Date> startTime,
+            final Optional<Date> stopTime) throws DocumentedException {
+        if (stopTime.isPresent()) {
+            if (!startTime.isPresent()) {
+                throw new DocumentedException("StopTime element requires StartTime element", ErrorType.PROTOCOL,
+                        ErrorTag.MISSING_ELEMENT, ErrorSeverity.ERROR, ImmutableMap.of("bad-element", START_TIME));
+            }
+            if (stopTime.get().before(startTime.get())) {
+                throw new DocumentedException("StopTime element has to be later than StartTime element",
+                        ErrorType.PROTOCOL, ErrorTag.BAD_ELEMENT, ErrorSeverity.ERROR,
+                        ImmutableMap.of("bad-element", STOP_TIME));
+            }
+        }
+        if (startTime.isPresent()) {
+            if (startTime.get().after(new Date())) {
+                throw new DocumentedException("StartTime element cannot be in the future", ErrorType.PROTOCOL,
+                        ErrorTag.BAD_ELEMENT, ErrorSeverity.ERROR, ImmutableMap.of("bad-element", START_TIME));
+            }
+            if (!notifications.isReplaySupported(streamNameType)) {
+                throw new DocumentedException("Stream " + streamNameType.getValue() + " does not support replay",
+                        ErrorType.PROTOCOL, ErrorTag.BAD_ELEMENT, ErrorSeverity.ERROR,
+                        ImmutableMap.of("bad-element", START_TIME));
+            }
+        }
+    }
+
+    private static Optional<Date> parseTimeIfPresent(final XmlElement operationElement, final String name)
+            throws DocumentedException {
+        final Optional<XmlElement> time = operationElement.getOnlyChildElementWithSameNamespaceOptionally(name);
+        if (!time.isPresent()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(NetconfNotification.RFC3339_DATE_PARSER.apply(time.get().getTextContent()));
+        } catch (final DateTimeParseException e) {
+            throw new DocumentedException(name + " element is not a valid date-and-time", e, ErrorType.PROTOCOL,
+                    ErrorTag.BAD_ELEMENT, ErrorSeverity.ERROR, ImmutableMap.of("bad-element", name));
+        }
+    }
+
     private static StreamNameType parseStreamIfPresent(final XmlElement operationElement) throws DocumentedException {
         final Optional<XmlElement> stream = operationElement.getOnlyChildElementWithSameNamespaceOptionally("stream");
         return stream.isPresent() ? new StreamNameType(stream.get().getTextContent())
@@ -124,30 +171,49 @@ public class CreateSubscription extends AbstractSingletonNetconfOperation
 
     private static class NotificationSubscription implements NetconfNotificationListener {
         private final NetconfSession currentSession;
-        private final Optional<XmlElement> filter;
+        private final Optional<CompiledSubtreeFilter> filter;
+        // Last notification written to the session, deliveries may happen on different threads
+        private volatile ChannelFuture lastWrite;
 
-        NotificationSubscription(final NetconfSession currentSession, final Optional<XmlElement> filter) {
+        NotificationSubscription(final NetconfSession currentSession, final Optional<CompiledSubtreeFilter> filter) {
             this.currentSession = currentSession;
             this.filter = filter;
         }
 
         @Override
         public void onNotification(final StreamNameType stream, final NetconfNotification notification) {
-            if (filter.isPresent()) {
+            // Progress of the subscription is always reported
+            if (filter.isPresent() && !NetconfNotificationManager.isSubscriptionNotification(notification)) {
                 try {
-                    final Optional<Document> filtered =
-                            SubtreeFilter.applySubtreeNotificationFilter(this.filter.get(), notification.getDocument());
+                    // Subscriptions with equal filters share the filtered notification and hence its encoding
+                    final CompiledSubtreeFilter compiled = filter.get();
+                    final Optional<NetconfNotification> filtered =
+                        notification.getFiltered(compiled, compiled::filterNotification);
                     if (filtered.isPresent()) {
-                        final Date eventTime = notification.getEventTime();
-                        currentSession.sendMessage(new NetconfNotification(filtered.get(), eventTime));
+                        send(filtered.get());
                     }
                 } catch (DocumentedException e) {
                     LOG.warn("Failed to process notification {}", notification, e);
-                    currentSession.sendMessage(notification);
+                    send(notification);
                 }
             } else {
-                currentSession.sendMessage(notification);
+                send(notification);
+            }
+        }
+
+        private void send(final NetconfNotification notification) {
+            lastWrite = currentSession.sendMessage(notification);
+        }
+
+        @Override
+        public boolean isReady(final Runnable onReady) {
+            // Hold off while the session is congested and our own notifications are still being written out
+            final ChannelFuture last = lastWrite;
+            if (last == null || last.isDone() || currentSession.isWritable()) {
+                return true;
             }
+            last.addListener(future -> onReady.run());
+            return false;
         }
     }
 }
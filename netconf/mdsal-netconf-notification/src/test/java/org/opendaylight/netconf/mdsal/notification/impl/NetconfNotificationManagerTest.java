@@ -9,10 +9,16 @@
 package org.opendaylight.netconf.mdsal.notification.impl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
@@ -23,11 +29,19 @@ import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.opendaylight.controller.config.threadpool.ScheduledThreadPool;
 import org.opendaylight.netconf.notifications.BaseNotificationPublisherRegistration;
 import org.opendaylight.netconf.notifications.NetconfNotification;
 import org.opendaylight.netconf.notifications.NetconfNotificationCollector;
@@ -161,6 +175,148 @@ public class NetconfNotificationManagerTest {
         verifyNoMoreInteractions(listener);
     }
 
+    @Test
+    public void testReplay() throws Exception {
+        final NetconfNotificationManager netconfNotificationManager = new NetconfNotificationManager(2);
+        final BaseNotificationPublisherRegistration baseNotificationPublisherRegistration =
+                netconfNotificationManager.registerBaseNotificationPublisher();
+        assertTrue(netconfNotificationManager.isReplaySupported(NetconfNotificationManager.BASE_STREAM_NAME));
+        assertTrue(netconfNotificationManager.getNotificationPublishers().getStream().get(0).isReplaySupport());
+
+        final NetconfCapabilityChange notification = new NetconfCapabilityChangeBuilder().build();
+        for (int i = 0; i < 3; i++) {
+            baseNotificationPublisherRegistration.onCapabilityChanged(notification);
+        }
+
+        final NetconfNotificationListener listener = mock(NetconfNotificationListener.class);
+        netconfNotificationManager.registerNotificationListener(NetconfNotificationManager.BASE_STREAM_NAME,
+                listener, new Date(0), Optional.empty());
+
+        // Only the logged notifications are replayed, followed by replayComplete
+        final ArgumentCaptor<NetconfNotification> captor = ArgumentCaptor.forClass(NetconfNotification.class);
+        verify(listener, times(3)).onNotification(eq(NetconfNotificationManager.BASE_STREAM_NAME), captor.capture());
+        final List<NetconfNotification> replayed = captor.getAllValues();
+        assertFalse(NetconfNotificationManager.isSubscriptionNotification(replayed.get(0)));
+        assertFalse(NetconfNotificationManager.isSubscriptionNotification(replayed.get(1)));
+        assertTrue(NetconfNotificationManager.isSubscriptionNotification(replayed.get(2)));
+
+        baseNotificationPublisherRegistration.onCapabilityChanged(notification);
+        verify(listener, times(4)).onNotification(any(StreamNameType.class), any(NetconfNotification.class));
+    }
+
+    @Test
+    public void testReplayPastStopTime() throws Exception {
+        final NetconfNotificationManager netconfNotificationManager = new NetconfNotificationManager(10);
+        final BaseNotificationPublisherRegistration baseNotificationPublisherRegistration =
+                netconfNotificationManager.registerBaseNotificationPublisher();
+        final NetconfCapabilityChange notification = new NetconfCapabilityChangeBuilder().build();
+        baseNotificationPublisherRegistration.onCapabilityChanged(notification);
+
+        final NetconfNotificationListener listener = mock(NetconfNotificationListener.class);
+        netconfNotificationManager.registerNotificationListener(NetconfNotificationManager.BASE_STREAM_NAME,
+                listener, new Date(0), Optional.of(new Date()));
+
+        // The notification, replayComplete and notificationComplete, the listener is not registered
+        verify(listener, times(3)).onNotification(any(StreamNameType.class), any(NetconfNotification.class));
+        baseNotificationPublisherRegistration.onCapabilityChanged(notification);
+        verify(listener, times(3)).onNotification(any(StreamNameType.class), any(NetconfNotification.class));
+    }
+
+    @Test
+    public void testReplayStopTimeScheduled() throws Exception {
+        final ScheduledThreadPool threadPool = mock(ScheduledThreadPool.class);
+        final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        doReturn(scheduler).when(threadPool).getExecutor();
+        doReturn(mock(ScheduledFuture.class)).when(scheduler).schedule(any(Runnable.class), anyLong(),
+            any(TimeUnit.class));
+        final NetconfNotificationManager netconfNotificationManager = new NetconfNotificationManager(10, 10,
+            threadPool);
+        final BaseNotificationPublisherRegistration baseNotificationPublisherRegistration =
+                netconfNotificationManager.registerBaseNotificationPublisher();
+
+        final NetconfNotificationListener listener = mock(NetconfNotificationListener.class);
+        netconfNotificationManager.registerNotificationListener(NetconfNotificationManager.BASE_STREAM_NAME,
+                listener, new Date(0), Optional.of(new Date(System.currentTimeMillis() + 3600000)));
+        verify(listener, times(1)).onNotification(any(StreamNameType.class), any(NetconfNotification.class));
+
+        // The subscription is completed on the supplied thread pool once its stop time passes
+        final ArgumentCaptor<Runnable> complete = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(complete.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+        complete.getValue().run();
+
+        final ArgumentCaptor<NetconfNotification> captor = ArgumentCaptor.forClass(NetconfNotification.class);
+        verify(listener, times(2)).onNotification(any(StreamNameType.class), captor.capture());
+        assertTrue(NetconfNotificationManager.isSubscriptionNotification(captor.getValue()));
+        baseNotificationPublisherRegistration.onCapabilityChanged(new NetconfCapabilityChangeBuilder().build());
+        verify(listener, times(2)).onNotification(any(StreamNameType.class), any(NetconfNotification.class));
+    }
+
+    @Test
+    public void testNotificationsDroppedForSlowListener() throws Exception {
+        final NetconfNotificationManager netconfNotificationManager = new NetconfNotificationManager(0, 1);
+        final BaseNotificationPublisherRegistration baseNotificationPublisherRegistration =
+                netconfNotificationManager.registerBaseNotificationPublisher();
+        final NetconfCapabilityChange notification = new NetconfCapabilityChangeBuilder().build();
+
+        // Notifications published while the listener processes the first one are queued, up to the limit
+        final List<NetconfNotification> received = new ArrayList<>();
+        netconfNotificationManager.registerNotificationListener(NetconfNotificationManager.BASE_STREAM_NAME,
+            (stream, netconfNotification) -> {
+                received.add(netconfNotification);
+                if (received.size() == 1) {
+                    baseNotificationPublisherRegistration.onCapabilityChanged(notification);
+                    baseNotificationPublisherRegistration.onCapabilityChanged(notification);
+                    assertEquals(1, received.size());
+                }
+            });
+
+        baseNotificationPublisherRegistration.onCapabilityChanged(notification);
+        assertEquals(2, received.size());
+
+        baseNotificationPublisherRegistration.onCapabilityChanged(notification);
+        assertEquals(3, received.size());
+    }
+
+    @Test
+    public void testNotificationsQueuedForListenerNotReady() throws Exception {
+        final NetconfNotificationManager netconfNotificationManager = new NetconfNotificationManager(0, 2);
+        final BaseNotificationPublisherRegistration baseNotificationPublisherRegistration =
+                netconfNotificationManager.registerBaseNotificationPublisher();
+        final NetconfCapabilityChange notification = new NetconfCapabilityChangeBuilder().build();
+
+        final List<NetconfNotification> received = new ArrayList<>();
+        final List<Runnable> readyCallbacks = new ArrayList<>();
+        final AtomicBoolean ready = new AtomicBoolean(true);
+        netconfNotificationManager.registerNotificationListener(NetconfNotificationManager.BASE_STREAM_NAME,
+            new NetconfNotificationListener() {
+                @Override
+                public void onNotification(final StreamNameType stream,
+                        final NetconfNotification netconfNotification) {
+                    received.add(netconfNotification);
+                }
+
+                @Override
+                public boolean isReady(final Runnable onReady) {
+                    if (!ready.get()) {
+                        readyCallbacks.add(onReady);
+                    }
+                    return ready.get();
+                }
+            });
+
+        // The listener is not ready after the first notification, the queue holds two more
+        baseNotificationPublisherRegistration.onCapabilityChanged(notification);
+        ready.set(false);
+        baseNotificationPublisherRegistration.onCapabilityChanged(notification);
+        baseNotificationPublisherRegistration.onCapabilityChanged(notification);
+        baseNotificationPublisherRegistration.onCapabilityChanged(notification);
+        assertEquals(1, received.size());
+
+        ready.set(true);
+        readyCallbacks.get(0).run();
+        assertEquals(3, received.size());
+    }
+
     @Test
     public void testClose() throws Exception {
         final NetconfNotificationManager netconfNotificationManager = new NetconfNotificationManager();
@@ -9,15 +9,21 @@
 package org.opendaylight.netconf.mdsal.notification.impl.ops;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
 import org.hamcrest.CoreMatchers;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.opendaylight.netconf.api.DocumentedException;
 import org.opendaylight.netconf.api.NetconfSession;
 import org.opendaylight.netconf.api.xml.XmlElement;
 import org.opendaylight.netconf.api.xml.XmlUtil;
@@ -34,6 +40,12 @@ public class CreateSubscriptionTest {
             + "xmlns:netconf=\"urn:ietf:params:xml:ns:netconf:base:1.0\">\n"
             + "<stream>TESTSTREAM</stream>"
             + "</create-subscription>";
+    private static final String CREATE_SUBSCRIPTION_REPLAY_XML = "<create-subscription\n"
+            + "xmlns=\"urn:ietf:params:xml:ns:netconf:notification:1.0\">\n"
+            + "<stream>TESTSTREAM</stream>"
+            + "<startTime>2020-01-01T00:00:00Z</startTime>"
+            + "<stopTime>2020-01-02T00:00:00Z</stopTime>"
+            + "</create-subscription>";
 
     @Mock
     private NetconfNotificationRegistry notificationRegistry;
@@ -59,4 +71,31 @@ public class CreateSubscriptionTest {
 
         Assert.assertThat(XmlUtil.toString(element), CoreMatchers.containsString("ok"));
     }
+
+    @Test
+    public void testReplay() throws Exception {
+        doReturn(true).when(notificationRegistry).isReplaySupported(any(StreamNameType.class));
+        doReturn(mock(NotificationListenerRegistration.class)).when(notificationRegistry)
+                .registerNotificationListener(any(StreamNameType.class), any(NetconfNotificationListener.class),
+                    any(Date.class), any());
+        final CreateSubscription createSubscription = new CreateSubscription("id", notificationRegistry);
+        createSubscription.setSession(mock(NetconfSession.class));
+
+        final Element element = createSubscription.handleWithNoSubsequentOperations(XmlUtil.newDocument(),
+                XmlElement.fromDomElement(XmlUtil.readXmlToElement(CREATE_SUBSCRIPTION_REPLAY_XML)));
+
+        Assert.assertThat(XmlUtil.toString(element), CoreMatchers.containsString("ok"));
+        verify(notificationRegistry).registerNotificationListener(eq(new StreamNameType("TESTSTREAM")),
+                any(NetconfNotificationListener.class), eq(Date.from(Instant.parse("2020-01-01T00:00:00Z"))),
+                eq(Optional.of(Date.from(Instant.parse("2020-01-02T00:00:00Z")))));
+    }
+
+    @Test(expected = DocumentedException.class)
+    public void testReplayNotSupported() throws Exception {
+        final CreateSubscription createSubscription = new CreateSubscription("id", notificationRegistry);
+        createSubscription.setSession(mock(NetconfSession.class));
+
+        createSubscription.handleWithNoSubsequentOperations(XmlUtil.newDocument(),
+                XmlElement.fromDomElement(XmlUtil.readXmlToElement(CREATE_SUBSCRIPTION_REPLAY_XML)));
+    }
 }
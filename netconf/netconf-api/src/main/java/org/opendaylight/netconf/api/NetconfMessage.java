@@ -9,6 +9,9 @@
 package org.opendaylight.netconf.api;
 
 import java.io.StringWriter;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
@@ -17,6 +20,7 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.TransformerFactoryConfigurationError;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
+import org.opendaylight.netconf.api.xml.DeferredXmlContent;
 import org.w3c.dom.Document;
 
 /**
@@ -25,6 +29,7 @@ import org.w3c.dom.Document;
  */
 public class NetconfMessage {
     private static final Transformer TRANSFORMER;
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY;
 
     static {
         final Transformer t;
@@ -37,6 +42,9 @@ public class NetconfMessage {
         t.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
 
         TRANSFORMER = t;
+
+        XML_OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+        XML_OUTPUT_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
     }
 
     private final Document doc;
@@ -56,6 +64,10 @@ public class NetconfMessage {
 
     @Override
     public String toString() {
+        if (DeferredXmlContent.isPresent(doc)) {
+            return toStreamedString();
+        }
+
         final StreamResult result = new StreamResult(new StringWriter());
         final DOMSource source = new DOMSource(doc.getDocumentElement());
 
@@ -70,4 +82,16 @@ public class NetconfMessage {
 
         return result.getWriter().toString();
     }
+
+    private String toStreamedString() {
+        final StringWriter result = new StringWriter();
+        try {
+            final XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(result);
+            DeferredXmlContent.writeNode(writer, doc.getDocumentElement());
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Failed to encode document", e);
+        }
+        return result.toString();
+    }
 }
@@ -23,6 +23,27 @@ public interface NetconfSession extends Closeable {
 
     ChannelFuture sendMessage(NetconfMessage message);
 
+    /**
+     * Check whether this session can accept more outgoing messages without them being buffered. Callers producing
+     * messages at a high rate should hold off while this method returns false.
+     *
+     * @return True if the session's outbound buffers are below their high watermark
+     */
+    default boolean isWritable() {
+        return true;
+    }
+
+    /**
+     * Pause or resume reading of incoming messages. Consumers which cannot keep up with the incoming messages can
+     * pause reading until they catch up, so that the remote peer is slowed down by transport flow control. Messages
+     * which have already been read may still be delivered after reading is paused.
+     *
+     * @param autoRead True to resume reading, false to pause it
+     */
+    default void setAutoRead(final boolean autoRead) {
+        // No-op by default
+    }
+
     @Override
     void close();
 }
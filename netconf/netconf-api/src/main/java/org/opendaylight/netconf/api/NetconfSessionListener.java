@@ -39,4 +39,14 @@ public interface NetconfSessionListener<S extends NetconfSession> {
      * @param message Protocol message
      */
     void onMessage(S session, NetconfMessage message);
+
+    /**
+     * Fired when the session can accept more outgoing messages again, i.e. {@link NetconfSession#isWritable()} has
+     * turned true.
+     *
+     * @param session that became writable
+     */
+    default void onSessionWritable(final S session) {
+        // No-op by default
+    }
 }
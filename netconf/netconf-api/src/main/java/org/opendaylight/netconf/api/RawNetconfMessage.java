@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.api;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * A {@link NetconfMessage} which retains the raw UTF-8 encoded bytes it was received as. Only the root element, its
+ * {@code message-id} attribute and the shape of its children are known upfront, the DOM {@link Document} is
+ * materialized only when {@link #getDocument()} is invoked. Consumers aware of this class can parse the message
+ * directly from {@link #openStream()}, bypassing the DOM altogether.
+ */
+public final class RawNetconfMessage extends NetconfMessage {
+    private final byte[] bytes;
+    private final String rootNamespace;
+    private final String rootName;
+    private final String messageId;
+    private final String firstChildName;
+    private final boolean singleChild;
+
+    private volatile Document document;
+
+    public RawNetconfMessage(final byte[] bytes, final String rootNamespace, final String rootName,
+            final String messageId, final String firstChildName, final boolean singleChild) {
+        this.bytes = requireNonNull(bytes);
+        this.rootNamespace = rootNamespace;
+        this.rootName = requireNonNull(rootName);
+        this.messageId = messageId;
+        this.firstChildName = firstChildName;
+        this.singleChild = singleChild;
+    }
+
+    public String getRootElementNamespace() {
+        return rootNamespace;
+    }
+
+    public String getRootElementName() {
+        return rootName;
+    }
+
+    public Optional<String> getMessageId() {
+        return Optional.ofNullable(messageId);
+    }
+
+    /**
+     * Return the local name of the first child element of the root element, if present.
+     *
+     * @return First child element name
+     */
+    public Optional<String> getFirstChildName() {
+        return Optional.ofNullable(firstChildName);
+    }
+
+    /**
+     * Check whether this message's root element has a single {@code ok} child element.
+     *
+     * @return True if this is an ok reply
+     */
+    public boolean isOkReply() {
+        return singleChild && XmlNetconfConstants.OK.equals(firstChildName);
+    }
+
+    /**
+     * Check whether this message's root element has a single {@code rpc-error} child element.
+     *
+     * @return True if this is an error reply
+     */
+    public boolean isErrorReply() {
+        return singleChild && DocumentedException.RPC_ERROR.equals(firstChildName);
+    }
+
+    public int length() {
+        return bytes.length;
+    }
+
+    public InputStream openStream() {
+        return new ByteArrayInputStream(bytes);
+    }
+
+    @Override
+    public Document getDocument() {
+        Document local = document;
+        if (local == null) {
+            synchronized (this) {
+                local = document;
+                if (local == null) {
+                    try {
+                        local = XmlUtil.readXmlToDocument(openStream());
+                    } catch (SAXException | IOException e) {
+                        throw new IllegalStateException("Failed to parse message " + this, e);
+                    }
+                    document = local;
+                }
+            }
+        }
+        return local;
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import org.checkerframework.checker.lock.qual.GuardedBy;
+import org.w3c.dom.Document;
+
+/**
+ * A {@link NetconfMessage} which is sent to multiple sessions, such as a notification. Its encoded forms are retained,
+ * so that it is serialized only once for all sessions using the same encoding. The document of such a message must not
+ * be modified once the message has been sent.
+ */
+public class SharedNetconfMessage extends NetconfMessage {
+    @GuardedBy("this")
+    private final Map<Object, byte[]> encoded = new HashMap<>(2);
+
+    public SharedNetconfMessage(final Document doc) {
+        super(doc);
+    }
+
+    /**
+     * Return this message encoded with an encoding, encoding it if it has not been encoded with it yet. Encoding is
+     * serialized, as a DOM {@link Document} cannot be safely traversed by multiple threads at once.
+     *
+     * @param encoding identifier of the encoding
+     * @param writer writer of the encoding, used if this message has not been encoded with it yet
+     * @return encoded message, which must not be modified
+     * @throws IOException if the message cannot be encoded
+     */
+    public final synchronized byte[] getEncoded(final Object encoding, final DocumentWriter writer)
+            throws IOException {
+        byte[] bytes = encoded.get(encoding);
+        if (bytes == null) {
+            final ByteArrayOutputStream os = new ByteArrayOutputStream();
+            writer.write(getDocument(), os);
+            bytes = os.toByteArray();
+            encoded.put(encoding, bytes);
+        }
+        return bytes;
+    }
+
+    /**
+     * Writer of an encoding of a {@link Document}.
+     */
+    @FunctionalInterface
+    public interface DocumentWriter {
+        /**
+         * Write a document into an output stream.
+         *
+         * @param document document to write
+         * @param os target output stream
+         * @throws IOException if an I/O error occurs
+         */
+        void write(Document document, OutputStream os) throws IOException;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.api.xml;
+
+import static javax.xml.XMLConstants.XMLNS_ATTRIBUTE_NS_URI;
+
+import com.google.common.base.Strings;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.dom.DOMResult;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.UserDataHandler;
+
+/**
+ * Content of a DOM {@link Element}, which is not built as DOM nodes, but written directly to an
+ * {@link XMLStreamWriter} when the document holding the element is serialized. This allows large content, such as the
+ * data of a get-config reply, to be serialized straight from its source. Any DOM children of such an element follow
+ * the deferred content.
+ *
+ * <p>Deferred content is retained when the element is imported into another document or cloned. It is only written by
+ * {@link #writeNode(XMLStreamWriter, Node)}, other serializers must {@link #materialize(Document)} the document first.
+ */
+public final class DeferredXmlContent {
+    /**
+     * Writer of deferred content.
+     */
+    @FunctionalInterface
+    public interface Writer {
+        /**
+         * Write the content of an element. The start and end of the element itself are written by the caller.
+         *
+         * @param writer target writer
+         * @throws XMLStreamException if the content cannot be written
+         */
+        void write(XMLStreamWriter writer) throws XMLStreamException;
+    }
+
+    private static final String KEY = DeferredXmlContent.class.getName();
+    private static final UserDataHandler HANDLER = DeferredXmlContent::copy;
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY;
+
+    static {
+        XML_OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+        XML_OUTPUT_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
+    }
+
+    private DeferredXmlContent() {
+
+    }
+
+    /**
+     * Attach deferred content to an element.
+     *
+     * @param element element to attach content to
+     * @param content writer of the content
+     */
+    public static void attach(final Element element, final Writer content) {
+        element.setUserData(KEY, content, HANDLER);
+        element.getOwnerDocument().setUserData(KEY, Boolean.TRUE, null);
+    }
+
+    /**
+     * Check whether any element of a document has deferred content.
+     *
+     * @param document document to check
+     * @return true if the document has deferred content
+     */
+    public static boolean isPresent(final Document document) {
+        return document.getUserData(KEY) != null;
+    }
+
+    /**
+     * Write a node, including deferred content of it and its descendants.
+     *
+     * @param writer target writer
+     * @param node node to write
+     * @throws XMLStreamException if the node cannot be written
+     */
+    public static void writeNode(final XMLStreamWriter writer, final Node node) throws XMLStreamException {
+        switch (node.getNodeType()) {
+            case Node.ELEMENT_NODE:
+                writeElement(writer, (Element) node);
+                break;
+            case Node.TEXT_NODE:
+                writer.writeCharacters(node.getNodeValue());
+                break;
+            case Node.CDATA_SECTION_NODE:
+                writer.writeCData(node.getNodeValue());
+                break;
+            case Node.COMMENT_NODE:
+                writer.writeComment(node.getNodeValue());
+                break;
+            case Node.PROCESSING_INSTRUCTION_NODE:
+                writer.writeProcessingInstruction(node.getNodeName(), node.getNodeValue());
+                break;
+            default:
+                // Document type and entity references are not allowed in NETCONF messages
+                break;
+        }
+    }
+
+    /**
+     * Replace deferred content of a document with DOM nodes, so that it can be serialized by means which do not know
+     * about deferred content.
+     *
+     * @param document document to materialize
+     * @throws XMLStreamException if deferred content cannot be written
+     */
+    public static void materialize(final Document document) throws XMLStreamException {
+        if (isPresent(document)) {
+            materialize(document.getDocumentElement());
+            document.setUserData(KEY, null, null);
+        }
+    }
+
+    private static void materialize(final Element element) throws XMLStreamException {
+        final Writer content = (Writer) element.getUserData(KEY);
+        if (content != null) {
+            // Deferred content precedes existing children, move them aside while it is written
+            final List<Node> children = new ArrayList<>();
+            while (element.hasChildNodes()) {
+                children.add(element.removeChild(element.getFirstChild()));
+            }
+
+            final XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(new DOMResult(element));
+            content.write(writer);
+            writer.flush();
+            element.setUserData(KEY, null, null);
+
+            for (Node child : children) {
+                element.appendChild(child);
+            }
+        }
+
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                materialize((Element) child);
+            }
+        }
+    }
+
+    private static void writeElement(final XMLStreamWriter writer, final Element element)
+            throws XMLStreamException {
+        final String localName = element.getLocalName() != null ? element.getLocalName() : element.getTagName();
+        final String namespace = element.getNamespaceURI() != null ? element.getNamespaceURI()
+            : inheritedNamespace(element);
+        writer.writeStartElement(Strings.nullToEmpty(element.getPrefix()), localName, namespace);
+
+        final NamedNodeMap attributes = element.getAttributes();
+        for (int i = 0; i < attributes.getLength(); ++i) {
+            final Attr attr = (Attr) attributes.item(i);
+            if (XMLNS_ATTRIBUTE_NS_URI.equals(attr.getNamespaceURI())) {
+                if (attr.getPrefix() == null) {
+                    writer.writeDefaultNamespace(attr.getValue());
+                } else {
+                    writer.writeNamespace(attr.getLocalName(), attr.getValue());
+                }
+            } else if (attr.getNamespaceURI() != null) {
+                writer.writeAttribute(Strings.nullToEmpty(attr.getPrefix()), attr.getNamespaceURI(),
+                    attr.getLocalName(), attr.getValue());
+            } else {
+                writer.writeAttribute(attr.getLocalName() != null ? attr.getLocalName() : attr.getName(),
+                    attr.getValue());
+            }
+        }
+
+        final Writer content = (Writer) element.getUserData(KEY);
+        if (content != null) {
+            content.write(writer);
+        }
+
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            writeNode(writer, child);
+        }
+        writer.writeEndElement();
+    }
+
+    private static String inheritedNamespace(final Element element) {
+        // Elements created without a namespace, such as <ok/> of many replies, are meant to be in the default namespace
+        // of their parent, as they would be when parsed back. Writing them with no namespace would undeclare it.
+        final Node parent = element.getParentNode();
+        return parent != null ? Strings.nullToEmpty(parent.lookupNamespaceURI(null)) : "";
+    }
+
+    private static void copy(final short operation, final String key, final Object data, final Node src,
+            final Node dst) {
+        if (dst instanceof Element && (operation == UserDataHandler.NODE_CLONED
+                || operation == UserDataHandler.NODE_IMPORTED)) {
+            attach((Element) dst, (Writer) data);
+        }
+    }
+}
@@ -40,6 +40,8 @@ public final class XmlNetconfConstants {
     public static final String URN_IETF_PARAMS_XML_NS_NETCONF_EXI_1_0 = "urn:ietf:params:xml:ns:netconf:exi:1.0";
     public static final String URN_IETF_PARAMS_NETCONF_CAPABILITY_NOTIFICATION_1_0 =
             "urn:ietf:params:netconf:capability:notification:1.0";
+    public static final String URN_IETF_PARAMS_NETCONF_CAPABILITY_INTERLEAVE_1_0 =
+            "urn:ietf:params:netconf:capability:interleave:1.0";
 
     public static final String URN_IETF_PARAMS_NETCONF_CAPABILITY_EXI_1_0 =
             "urn:ietf:params:netconf:capability:exi:1.0";
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.api.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+public class DeferredXmlContentTest {
+    private static final DeferredXmlContent.Writer CONTENT = writer -> {
+        writer.writeStartElement("a", "foo", "urn:a");
+        writer.writeCharacters("deferred");
+        writer.writeEndElement();
+    };
+
+    @Test
+    public void testMaterialize() throws Exception {
+        final Document doc = XmlUtil.readXmlToDocument("<data xmlns=\"urn:data\"><b xmlns=\"urn:b\"/></data>");
+        assertFalse(DeferredXmlContent.isPresent(doc));
+        DeferredXmlContent.attach(doc.getDocumentElement(), CONTENT);
+        assertTrue(DeferredXmlContent.isPresent(doc));
+
+        DeferredXmlContent.materialize(doc);
+        assertFalse(DeferredXmlContent.isPresent(doc));
+        assertMaterialized(doc.getDocumentElement());
+    }
+
+    @Test
+    public void testImportRetainsContent() throws Exception {
+        final Document doc = XmlUtil.readXmlToDocument("<data xmlns=\"urn:data\"><b xmlns=\"urn:b\"/></data>");
+        DeferredXmlContent.attach(doc.getDocumentElement(), CONTENT);
+
+        final Document copy = XmlUtil.newDocument();
+        copy.appendChild(copy.importNode(doc.getDocumentElement(), true));
+        assertTrue(DeferredXmlContent.isPresent(copy));
+
+        DeferredXmlContent.materialize(copy);
+        assertMaterialized(copy.getDocumentElement());
+    }
+
+    private static void assertMaterialized(final Element data) {
+        assertEquals(2, data.getChildNodes().getLength());
+        final Element foo = (Element) data.getFirstChild();
+        assertEquals("urn:a", foo.getNamespaceURI());
+        assertEquals("deferred", foo.getTextContent());
+        assertEquals("urn:b", data.getLastChild().getNamespaceURI());
+    }
+}
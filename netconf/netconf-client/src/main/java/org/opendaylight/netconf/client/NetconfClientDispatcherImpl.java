@@ -129,7 +129,8 @@ public class NetconfClientDispatcherImpl
         final List<Uri> odlHelloCapabilities = cfg.getOdlHelloCapabilities();
         if (odlHelloCapabilities == null || odlHelloCapabilities.isEmpty()) {
             return new NetconfClientSessionNegotiatorFactory(timer, cfg.getAdditionalHeader(),
-                    cfg.getConnectionTimeoutMillis());
+                    cfg.getConnectionTimeoutMillis(), NetconfClientSessionNegotiatorFactory.EXI_CLIENT_CAPABILITIES,
+                    cfg.isCompactEncoding());
         } else {
             // LinkedHashSet since perhaps the device cares about order of hello message capabilities.
             // This allows user control of the order while complying with the existing interface.
@@ -138,7 +139,7 @@ public class NetconfClientDispatcherImpl
                 stringCapabilities.add(uri.getValue());
             }
             return new NetconfClientSessionNegotiatorFactory(timer, cfg.getAdditionalHeader(),
-                    cfg.getConnectionTimeoutMillis(), stringCapabilities);
+                    cfg.getConnectionTimeoutMillis(), stringCapabilities, cfg.isCompactEncoding());
         }
     }
 }
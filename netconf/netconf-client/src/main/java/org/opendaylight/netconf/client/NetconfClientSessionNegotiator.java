@@ -64,6 +64,17 @@ public class NetconfClientSessionNegotiator extends
         super(sessionPreferences, promise, channel, timer, sessionListener, connectionTimeoutMillis);
     }
 
+    protected NetconfClientSessionNegotiator(final NetconfClientSessionPreferences sessionPreferences,
+                                             final Promise<NetconfClientSession> promise,
+                                             final Channel channel,
+                                             final Timer timer,
+                                             final NetconfClientSessionListener sessionListener,
+                                             final long connectionTimeoutMillis,
+                                             final boolean compactEncoding) {
+        super(sessionPreferences, promise, channel, timer, sessionListener, connectionTimeoutMillis,
+            compactEncoding);
+    }
+
     @SuppressWarnings("checkstyle:IllegalCatch")
     @Override
     @SuppressFBWarnings("BC_UNCONFIRMED_CAST")
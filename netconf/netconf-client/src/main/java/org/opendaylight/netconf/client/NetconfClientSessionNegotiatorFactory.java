@@ -71,6 +71,7 @@ public class NetconfClientSessionNegotiatorFactory
     private final long connectionTimeoutMillis;
     private final Timer timer;
     private final EXIParameters options;
+    private final boolean compactEncoding;
 
     public NetconfClientSessionNegotiatorFactory(final Timer timer,
                                                  final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
@@ -91,15 +92,40 @@ public class NetconfClientSessionNegotiatorFactory
         this(timer, additionalHeader, connectionTimeoutMillis, exiOptions, EXI_CLIENT_CAPABILITIES);
     }
 
+    public NetconfClientSessionNegotiatorFactory(final Timer timer,
+                                                 final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
+                                                 final long connectionTimeoutMillis, final Set<String> capabilities,
+                                                 final boolean compactEncoding) {
+        this(timer, additionalHeader, connectionTimeoutMillis, DEFAULT_OPTIONS, capabilities, compactEncoding);
+    }
+
     public NetconfClientSessionNegotiatorFactory(final Timer timer,
                                                  final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
                                                  final long connectionTimeoutMillis, final EXIParameters exiOptions,
                                                  final Set<String> capabilities) {
+        this(timer, additionalHeader, connectionTimeoutMillis, exiOptions, capabilities, false);
+    }
+
+    /**
+     * Create a new factory.
+     *
+     * @param timer Timer used for negotiation timeouts
+     * @param additionalHeader Optional additional hello message header
+     * @param connectionTimeoutMillis Negotiation timeout
+     * @param exiOptions EXI parameters used to start EXI
+     * @param capabilities Client capabilities to advertise
+     * @param compactEncoding Whether outgoing messages should be serialized without indentation
+     */
+    public NetconfClientSessionNegotiatorFactory(final Timer timer,
+                                                 final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
+                                                 final long connectionTimeoutMillis, final EXIParameters exiOptions,
+                                                 final Set<String> capabilities, final boolean compactEncoding) {
         this.timer = requireNonNull(timer);
         this.additionalHeader = additionalHeader;
         this.connectionTimeoutMillis = connectionTimeoutMillis;
         this.options = exiOptions;
         this.clientCapabilities = capabilities;
+        this.compactEncoding = compactEncoding;
     }
 
     @Override
@@ -112,6 +138,6 @@ public class NetconfClientSessionNegotiatorFactory
 
         NetconfClientSessionPreferences proposal = new NetconfClientSessionPreferences(helloMessage, startExiMessage);
         return new NetconfClientSessionNegotiator(proposal, promise, channel, timer,
-                sessionListenerFactory.getSessionListener(), connectionTimeoutMillis);
+                sessionListenerFactory.getSessionListener(), connectionTimeoutMillis, compactEncoding);
     }
 }
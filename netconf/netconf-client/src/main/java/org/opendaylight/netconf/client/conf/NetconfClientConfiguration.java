@@ -41,13 +41,15 @@ public class NetconfClientConfiguration {
 
     private final List<Uri> odlHelloCapabilities;
 
+    private final boolean compactEncoding;
+
     NetconfClientConfiguration(final NetconfClientProtocol protocol, final InetSocketAddress address,
                                final Long connectionTimeoutMillis,
                                final NetconfHelloMessageAdditionalHeader additionalHeader,
                                final NetconfClientSessionListener sessionListener,
                                final ReconnectStrategy reconnectStrategy, final AuthenticationHandler authHandler,
                                final SslHandlerFactory sslHandlerFactory,
-                               final List<Uri> odlHelloCapabilities) {
+                               final List<Uri> odlHelloCapabilities, final boolean compactEncoding) {
         this.address = address;
         this.connectionTimeoutMillis = connectionTimeoutMillis;
         this.additionalHeader = additionalHeader;
@@ -57,6 +59,7 @@ public class NetconfClientConfiguration {
         this.authHandler = authHandler;
         this.sslHandlerFactory = sslHandlerFactory;
         this.odlHelloCapabilities = odlHelloCapabilities;
+        this.compactEncoding = compactEncoding;
         validateConfiguration();
     }
 
@@ -96,6 +99,10 @@ public class NetconfClientConfiguration {
         return odlHelloCapabilities;
     }
 
+    public boolean isCompactEncoding() {
+        return compactEncoding;
+    }
+
     private void validateConfiguration() {
         switch (requireNonNull(clientProtocol)) {
             case TLS:
@@ -144,7 +151,8 @@ public class NetconfClientConfiguration {
                 .add("reconnectStrategy", reconnectStrategy)
                 .add("clientProtocol", clientProtocol)
                 .add("authHandler", authHandler)
-                .add("sslHandlerFactory", sslHandlerFactory);
+                .add("sslHandlerFactory", sslHandlerFactory)
+                .add("compactEncoding", compactEncoding);
     }
 
     public enum NetconfClientProtocol {
@@ -31,6 +31,7 @@ public class NetconfClientConfigurationBuilder {
     private NetconfClientConfiguration.NetconfClientProtocol clientProtocol = DEFAULT_CLIENT_PROTOCOL;
     private SslHandlerFactory sslHandlerFactory;
     private List<Uri> odlHelloCapabilities;
+    private boolean compactEncoding;
 
 
     protected NetconfClientConfigurationBuilder() {
@@ -96,6 +97,12 @@ public class NetconfClientConfigurationBuilder {
         return this;
     }
 
+    @SuppressWarnings("checkstyle:hiddenField")
+    public NetconfClientConfigurationBuilder withCompactEncoding(final boolean compactEncoding) {
+        this.compactEncoding = compactEncoding;
+        return this;
+    }
+
     final InetSocketAddress getAddress() {
         return address;
     }
@@ -132,8 +139,13 @@ public class NetconfClientConfigurationBuilder {
         return odlHelloCapabilities;
     }
 
+    final boolean isCompactEncoding() {
+        return compactEncoding;
+    }
+
     public NetconfClientConfiguration build() {
         return new NetconfClientConfiguration(clientProtocol, address, connectionTimeoutMillis, additionalHeader,
-                sessionListener, reconnectStrategy, authHandler, sslHandlerFactory, odlHelloCapabilities);
+                sessionListener, reconnectStrategy, authHandler, sslHandlerFactory, odlHelloCapabilities,
+                compactEncoding);
     }
 }
@@ -32,9 +32,10 @@ public final class NetconfReconnectingClientConfiguration extends NetconfClientC
                                            final ReconnectStrategyFactory connectStrategyFactory,
                                            final AuthenticationHandler authHandler,
                                            final SslHandlerFactory sslHandlerFactory,
-                                           final List<Uri> odlHelloCapabilities) {
+                                           final List<Uri> odlHelloCapabilities,
+                                           final boolean compactEncoding) {
         super(clientProtocol, address, connectionTimeoutMillis, additionalHeader, sessionListener, reconnectStrategy,
-                authHandler, sslHandlerFactory, odlHelloCapabilities);
+                authHandler, sslHandlerFactory, odlHelloCapabilities, compactEncoding);
         this.connectStrategyFactory = connectStrategyFactory;
         validateReconnectConfiguration();
     }
@@ -39,7 +39,7 @@ public final class NetconfReconnectingClientConfigurationBuilder extends Netconf
     public NetconfReconnectingClientConfiguration build() {
         return new NetconfReconnectingClientConfiguration(getProtocol(), getAddress(), getConnectionTimeoutMillis(),
                 getAdditionalHeader(), getSessionListener(), getReconnectStrategy(), connectStrategyFactory,
-                getAuthHandler(), getSslHandlerFactory(), getOdlHelloCapabilities());
+                getAuthHandler(), getSslHandlerFactory(), getOdlHelloCapabilities(), isCompactEncoding());
     }
 
     // Override setter methods to return subtype
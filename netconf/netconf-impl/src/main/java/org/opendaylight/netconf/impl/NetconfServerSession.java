@@ -57,6 +57,7 @@ public final class NetconfServerSession extends AbstractNetconfSession<NetconfSe
 
     private final NetconfHelloMessageAdditionalHeader header;
     private final NetconfServerSessionListener sessionListener;
+    private final Channel channel;
 
     private ZonedDateTime loginTime;
     private long inRpcSuccess;
@@ -70,6 +71,7 @@ public final class NetconfServerSession extends AbstractNetconfSession<NetconfSe
         super(sessionListener, channel, sessionId);
         this.header = header;
         this.sessionListener = sessionListener;
+        this.channel = channel;
         LOG.debug("Session {} created", this);
     }
 
@@ -88,6 +90,13 @@ public final class NetconfServerSession extends AbstractNetconfSession<NetconfSe
         this.delayedClose = true;
     }
 
+    /**
+     * Stop or resume reading of incoming messages.
+     */
+    void setAutoRead(final boolean autoRead) {
+        channel.config().setAutoRead(autoRead);
+    }
+
     @Override
     public ChannelFuture sendMessage(final NetconfMessage netconfMessage) {
         final ChannelFuture channelFuture = super.sendMessage(netconfMessage);
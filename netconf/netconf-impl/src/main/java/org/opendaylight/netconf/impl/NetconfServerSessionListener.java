@@ -8,8 +8,15 @@
 
 package org.opendaylight.netconf.impl;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.checkerframework.checker.lock.qual.GuardedBy;
 import org.opendaylight.netconf.api.DocumentedException;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.NetconfSessionListener;
@@ -26,22 +33,51 @@ import org.opendaylight.netconf.util.messages.SubtreeFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 
+/**
+ * Listener of a single NETCONF server session, handling its incoming rpcs.
+ *
+ * <p>
+ * Rpcs are handled either right away on the I/O thread which received them, or, if an executor is provided, on that
+ * executor. Rpcs of a session are handled one by one in the order they were received in both cases, so their replies
+ * are sent in that order as well. At most {@code maxInFlightRpcs} rpcs of a session are queued for the executor, once
+ * that many are queued reading of the session is suspended until one of them is handled.
+ */
 public class NetconfServerSessionListener implements NetconfSessionListener<NetconfServerSession> {
 
     private static final Logger LOG = LoggerFactory.getLogger(NetconfServerSessionListener.class);
     private final SessionListener monitoringSessionListener;
     private final NetconfOperationRouter operationRouter;
     private final AutoCloseable onSessionDownCloseable;
+    private final Executor rpcExecutor;
+    private final int maxInFlightRpcs;
+
+    // Rpcs received but not handled yet, the head is being handled by rpcExecutor
+    @GuardedBy("this")
+    private final Queue<NetconfMessage> pendingRpcs = new ArrayDeque<>();
+    @GuardedBy("this")
+    private boolean down;
 
     public NetconfServerSessionListener(final NetconfOperationRouter operationRouter,
                                         final NetconfMonitoringService monitoringService,
                                         final AutoCloseable onSessionDownCloseable) {
+        this(operationRouter, monitoringService, onSessionDownCloseable, null, 1);
+    }
+
+    public NetconfServerSessionListener(final NetconfOperationRouter operationRouter,
+                                        final NetconfMonitoringService monitoringService,
+                                        final AutoCloseable onSessionDownCloseable, final Executor rpcExecutor,
+                                        final int maxInFlightRpcs) {
+        checkArgument(maxInFlightRpcs > 0, "Maximum number of rpcs in flight %s has to be positive",
+                maxInFlightRpcs);
         this.operationRouter = operationRouter;
         this.monitoringSessionListener = monitoringService.getSessionListener();
         this.onSessionDownCloseable = onSessionDownCloseable;
+        this.rpcExecutor = rpcExecutor;
+        this.maxInFlightRpcs = maxInFlightRpcs;
     }
 
     @Override
@@ -57,6 +93,10 @@ public class NetconfServerSessionListener implements NetconfSessionListener<Netc
 
     @SuppressWarnings("checkstyle:IllegalCatch")
     public void onDown(final NetconfServerSession netconfNetconfServerSession) {
+        synchronized (this) {
+            down = true;
+            pendingRpcs.clear();
+        }
         monitoringSessionListener.onSessionDown(netconfNetconfServerSession);
 
         try {
@@ -79,9 +119,79 @@ public class NetconfServerSessionListener implements NetconfSessionListener<Netc
         onDown(netconfNetconfServerSession);
     }
 
-    @SuppressWarnings("checkstyle:IllegalCatch")
     @Override
     public void onMessage(final NetconfServerSession session, final NetconfMessage netconfMessage) {
+        if (rpcExecutor == null) {
+            handleMessage(session, netconfMessage);
+            return;
+        }
+
+        final boolean submit;
+        synchronized (this) {
+            if (down) {
+                LOG.debug("Session {} is down, ignoring message {}", session, netconfMessage);
+                return;
+            }
+            pendingRpcs.add(netconfMessage);
+            if (pendingRpcs.size() == maxInFlightRpcs) {
+                LOG.debug("Session {} has {} rpcs in flight, suspending reading", session, maxInFlightRpcs);
+                session.setAutoRead(false);
+            }
+            submit = pendingRpcs.size() == 1;
+        }
+
+        if (submit) {
+            submitPending(session);
+        }
+    }
+
+    private void submitPending(final NetconfServerSession session) {
+        try {
+            rpcExecutor.execute(() -> handlePending(session));
+        } catch (final RejectedExecutionException e) {
+            LOG.warn("Failed to submit rpc of session {}, closing it", session, e);
+            session.close();
+        }
+    }
+
+    private void handlePending(final NetconfServerSession session) {
+        final NetconfMessage netconfMessage;
+        synchronized (this) {
+            netconfMessage = pendingRpcs.peek();
+        }
+        if (netconfMessage == null) {
+            // Session went down in the meantime
+            return;
+        }
+
+        try {
+            handleMessage(session, netconfMessage);
+        } catch (final IllegalStateException e) {
+            // Already reported, there is nobody to propagate it to
+            LOG.debug("Failed to handle message on session {}", session, e);
+        }
+
+        final boolean more;
+        synchronized (this) {
+            if (pendingRpcs.isEmpty()) {
+                return;
+            }
+            if (pendingRpcs.size() == maxInFlightRpcs) {
+                LOG.debug("Session {} has less than {} rpcs in flight, resuming reading", session, maxInFlightRpcs);
+                session.setAutoRead(true);
+            }
+            pendingRpcs.remove();
+            more = !pendingRpcs.isEmpty();
+        }
+
+        // Resubmit rather than handle the next rpc right away, so that sessions share the executor fairly
+        if (more) {
+            submitPending(session);
+        }
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void handleMessage(final NetconfServerSession session, final NetconfMessage netconfMessage) {
         try {
 
             Preconditions.checkState(operationRouter != null, "Cannot handle message, session up was not yet received");
@@ -118,7 +228,6 @@ public class NetconfServerSessionListener implements NetconfSessionListener<Netc
         final Node rootNode = incomingDocument.getDocumentElement();
 
         if (rootNode.getLocalName().equals(XmlNetconfConstants.RPC_KEY)) {
-            final Document responseDocument = XmlUtil.newDocument();
             checkMessageId(rootNode);
 
             Document rpcReply = operationRouter.onNetconfMessage(incomingDocument, session);
@@ -127,8 +236,7 @@ public class NetconfServerSessionListener implements NetconfSessionListener<Netc
 
             session.onIncommingRpcSuccess();
 
-            responseDocument.appendChild(responseDocument.importNode(rpcReply.getDocumentElement(), true));
-            return new NetconfMessage(responseDocument);
+            return new NetconfMessage(responseDocument(incomingDocument, rpcReply));
         } else {
             // unknown command, send RFC 4741 p.70 unknown-element
             /*
@@ -143,6 +251,24 @@ public class NetconfServerSessionListener implements NetconfSessionListener<Netc
         }
     }
 
+    /**
+     * Get the document to send as response to an rpc. Operations create a new document holding just the reply, which
+     * can be sent as it is. Copying it would keep the whole reply, e.g. the data of a get-config, in memory twice.
+     * Any other document is copied. Either way, data of unfiltered get and get-config replies is not part of the DOM,
+     * it is held as {@link org.opendaylight.netconf.api.xml.DeferredXmlContent} and written when the reply is encoded.
+     */
+    private static Document responseDocument(final Document incomingDocument, final Document rpcReply) {
+        final Element rpcReplyElement = rpcReply.getDocumentElement();
+        if (rpcReply != incomingDocument && rpcReply.getFirstChild() == rpcReplyElement
+                && rpcReply.getLastChild() == rpcReplyElement) {
+            return rpcReply;
+        }
+
+        final Document responseDocument = XmlUtil.newDocument();
+        responseDocument.appendChild(responseDocument.importNode(rpcReplyElement, true));
+        return responseDocument;
+    }
+
     private static void checkMessageId(final Node rootNode) throws DocumentedException {
 
         final NamedNodeMap attributes = rootNode.getAttributes();
@@ -42,6 +42,15 @@ public class NetconfServerSessionNegotiator
                 connectionTimeoutMillis);
     }
 
+    protected NetconfServerSessionNegotiator(
+            NetconfServerSessionPreferences sessionPreferences,
+            Promise<NetconfServerSession> promise, Channel channel,
+            Timer timer, NetconfServerSessionListener sessionListener,
+            long connectionTimeoutMillis, boolean compactEncoding) {
+        super(sessionPreferences, promise, channel, timer, sessionListener,
+                connectionTimeoutMillis, compactEncoding);
+    }
+
     @Override
     protected void handleMessage(NetconfHelloMessage netconfMessage)
             throws NetconfDocumentedException {
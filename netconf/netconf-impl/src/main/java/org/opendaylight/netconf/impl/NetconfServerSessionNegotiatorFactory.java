@@ -11,11 +11,14 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.netty.channel.Channel;
 import io.netty.util.Timer;
 import io.netty.util.concurrent.Promise;
 import java.net.SocketAddress;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.opendaylight.netconf.api.NetconfServerSessionPreferences;
 import org.opendaylight.netconf.api.NetconfSessionListenerFactory;
 import org.opendaylight.netconf.api.messages.NetconfHelloMessage;
@@ -30,7 +33,7 @@ import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.netconf.state.Capabilities;
 
 public class NetconfServerSessionNegotiatorFactory
-    implements NetconfSessionNegotiatorFactory<NetconfServerSession, NetconfServerSessionListener> {
+    implements NetconfSessionNegotiatorFactory<NetconfServerSession, NetconfServerSessionListener>, AutoCloseable {
 
     public static final Set<String> DEFAULT_BASE_CAPABILITIES = ImmutableSet.of(
             XmlNetconfConstants.URN_IETF_PARAMS_NETCONF_BASE_1_0,
@@ -45,6 +48,10 @@ public class NetconfServerSessionNegotiatorFactory
     private final long connectionTimeoutMillis;
     private final NetconfMonitoringService monitoringService;
     private final Set<String> baseCapabilities;
+    private final boolean compactEncoding;
+    // Handles rpcs of all sessions, null if they are handled on I/O threads
+    private final ExecutorService rpcExecutor;
+    private final int maxInFlightRpcs;
 
     public NetconfServerSessionNegotiatorFactory(final Timer timer,
             final NetconfOperationServiceFactory netconfOperationProvider,
@@ -58,6 +65,35 @@ public class NetconfServerSessionNegotiatorFactory
                                                  final SessionIdProvider idProvider, final long connectionTimeoutMillis,
                                                  final NetconfMonitoringService monitoringService,
                                                  final Set<String> baseCapabilities) {
+        this(timer, netconfOperationProvider, idProvider, connectionTimeoutMillis, monitoringService,
+            baseCapabilities, false);
+    }
+
+    public NetconfServerSessionNegotiatorFactory(final Timer timer,
+                                                 final NetconfOperationServiceFactory netconfOperationProvider,
+                                                 final SessionIdProvider idProvider, final long connectionTimeoutMillis,
+                                                 final NetconfMonitoringService monitoringService,
+                                                 final Set<String> baseCapabilities, final boolean compactEncoding) {
+        this(timer, netconfOperationProvider, idProvider, connectionTimeoutMillis, monitoringService,
+            baseCapabilities, compactEncoding, 0, 1);
+    }
+
+    /**
+     * Create a factory which handles rpcs off the I/O threads.
+     *
+     * @param rpcThreads number of threads handling rpcs of all sessions, rpcs are handled on I/O threads if zero
+     * @param maxInFlightRpcs maximum number of rpcs of a session waiting to be handled, reading of the session is
+     *                        suspended while it is reached
+     */
+    public NetconfServerSessionNegotiatorFactory(final Timer timer,
+                                                 final NetconfOperationServiceFactory netconfOperationProvider,
+                                                 final SessionIdProvider idProvider, final long connectionTimeoutMillis,
+                                                 final NetconfMonitoringService monitoringService,
+                                                 final Set<String> baseCapabilities, final boolean compactEncoding,
+                                                 final int rpcThreads, final int maxInFlightRpcs) {
+        Preconditions.checkArgument(rpcThreads >= 0, "Number of rpc threads %s has to be non-negative", rpcThreads);
+        Preconditions.checkArgument(maxInFlightRpcs > 0, "Maximum number of rpcs in flight %s has to be positive",
+                maxInFlightRpcs);
         this.timer = timer;
         this.aggregatedOpService = netconfOperationProvider;
         this.idProvider = idProvider;
@@ -65,6 +101,10 @@ public class NetconfServerSessionNegotiatorFactory
         this.monitoringService = monitoringService;
         this.baseCapabilities = validateBaseCapabilities(baseCapabilities == null ? DEFAULT_BASE_CAPABILITIES :
                 baseCapabilities);
+        this.compactEncoding = compactEncoding;
+        this.rpcExecutor = rpcThreads == 0 ? null : Executors.newFixedThreadPool(rpcThreads,
+            new ThreadFactoryBuilder().setNameFormat("netconf-server-rpc-%d").setDaemon(true).build());
+        this.maxInFlightRpcs = maxInFlightRpcs;
     }
 
     private static ImmutableSet<String> validateBaseCapabilities(final Set<String> baseCapabilities) {
@@ -102,7 +142,8 @@ public class NetconfServerSessionNegotiatorFactory
             new NetconfServerSessionPreferences(createHelloMessage(sessionId, monitoringService), sessionId);
 
         return new NetconfServerSessionNegotiator(proposal, promise, channel, timer,
-                getListener(Long.toString(sessionId), channel.parent().localAddress()), connectionTimeoutMillis);
+                getListener(Long.toString(sessionId), channel.parent().localAddress()), connectionTimeoutMillis,
+                compactEncoding);
     }
 
     private NetconfServerSessionListener getListener(final String netconfSessionIdForReporting,
@@ -111,7 +152,8 @@ public class NetconfServerSessionNegotiatorFactory
                 socketAddress);
         final NetconfOperationRouter operationRouter =
                 new NetconfOperationRouterImpl(service, monitoringService, netconfSessionIdForReporting);
-        return new NetconfServerSessionListener(operationRouter, monitoringService, service);
+        return new NetconfServerSessionListener(operationRouter, monitoringService, service, rpcExecutor,
+                maxInFlightRpcs);
     }
 
     protected NetconfOperationService getOperationServiceForAddress(final String netconfSessionIdForReporting,
@@ -132,4 +174,11 @@ public class NetconfServerSessionNegotiatorFactory
     public static Set<String> transformCapabilities(final Capabilities capabilities) {
         return Sets.newHashSet(Collections2.transform(capabilities.getCapability(), Uri::getValue));
     }
+
+    @Override
+    public void close() {
+        if (rpcExecutor != null) {
+            rpcExecutor.shutdown();
+        }
+    }
 }
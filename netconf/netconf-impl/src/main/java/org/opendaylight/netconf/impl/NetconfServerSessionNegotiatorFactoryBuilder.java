@@ -22,6 +22,9 @@ public class NetconfServerSessionNegotiatorFactoryBuilder {
     private long connectionTimeoutMillis;
     private NetconfMonitoringService monitoringService;
     private Set<String> baseCapabilities;
+    private boolean compactEncoding;
+    private int rpcThreads;
+    private int maxInFlightRpcs = 1;
 
     public NetconfServerSessionNegotiatorFactoryBuilder() {
     }
@@ -58,11 +61,26 @@ public class NetconfServerSessionNegotiatorFactoryBuilder {
         return this;
     }
 
+    public NetconfServerSessionNegotiatorFactoryBuilder setCompactEncoding(final boolean compactEncoding) {
+        this.compactEncoding = compactEncoding;
+        return this;
+    }
+
+    public NetconfServerSessionNegotiatorFactoryBuilder setRpcThreads(final int rpcThreads) {
+        this.rpcThreads = rpcThreads;
+        return this;
+    }
+
+    public NetconfServerSessionNegotiatorFactoryBuilder setMaxInFlightRpcs(final int maxInFlightRpcs) {
+        this.maxInFlightRpcs = maxInFlightRpcs;
+        return this;
+    }
 
     public NetconfServerSessionNegotiatorFactory build() {
         validate();
         return new NetconfServerSessionNegotiatorFactory(timer, aggregatedOpService, idProvider,
-                connectionTimeoutMillis, monitoringService, baseCapabilities);
+                connectionTimeoutMillis, monitoringService, baseCapabilities, compactEncoding, rpcThreads,
+                maxInFlightRpcs);
     }
 
 
@@ -72,6 +90,8 @@ public class NetconfServerSessionNegotiatorFactoryBuilder {
         requireNonNull(idProvider, "SessionIdProvider not initialized");
         checkArgument(connectionTimeoutMillis > 0, "connection time out <=0");
         requireNonNull(monitoringService, "NetconfMonitoringService not initialized");
+        checkArgument(rpcThreads >= 0, "rpc threads < 0");
+        checkArgument(maxInFlightRpcs > 0, "max in flight rpcs <= 0");
 
         if (baseCapabilities == null) {
             baseCapabilities = NetconfServerSessionNegotiatorFactory.DEFAULT_BASE_CAPABILITIES;
@@ -10,10 +10,18 @@ package org.opendaylight.netconf.impl.osgi;
 import static com.google.common.base.Preconditions.checkState;
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableTable;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimaps;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
 import java.util.NavigableMap;
 import java.util.Set;
 import java.util.TreeMap;
@@ -30,15 +38,29 @@ import org.opendaylight.netconf.mapping.api.NetconfOperation;
 import org.opendaylight.netconf.mapping.api.NetconfOperationChainedExecution;
 import org.opendaylight.netconf.mapping.api.NetconfOperationService;
 import org.opendaylight.netconf.mapping.api.SessionAwareNetconfOperation;
+import org.opendaylight.netconf.util.mapping.AbstractNetconfOperation;
+import org.opendaylight.netconf.util.mapping.AbstractNetconfOperation.OperationNameAndNamespace;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 
+/**
+ * Routes incoming messages to the operations which can handle them.
+ *
+ * <p>
+ * Operations which handle messages by operation name and namespace alone are indexed when the router is created,
+ * along with their execution chains, so that they are dispatched without calling their canHandle. Only the
+ * remaining operations are asked whether they can handle each message.
+ */
 public class NetconfOperationRouterImpl implements NetconfOperationRouter {
 
     private static final Logger LOG = LoggerFactory.getLogger(NetconfOperationRouterImpl.class);
     private final NetconfOperationService netconfOperationServiceSnapshot;
     private final Collection<NetconfOperation> allNetconfOperations;
+    // Operations handling messages by name, indexed by operation namespace and name
+    private final ImmutableTable<String, String, IndexedOperations> indexedOperations;
+    // Operations which need to be asked whether they can handle a message
+    private final Collection<NetconfOperation> dynamicOperations;
 
     public NetconfOperationRouterImpl(final NetconfOperationService netconfOperationServiceSnapshot,
                                       final NetconfMonitoringService netconfMonitoringService, final String sessionId) {
@@ -52,6 +74,31 @@ public class NetconfOperationRouterImpl implements NetconfOperationRouter {
         ops.addAll(netconfOperationServiceSnapshot.getNetconfOperations());
 
         allNetconfOperations = ImmutableSet.copyOf(ops);
+
+        final ListMultimap<Entry<String, String>, AbstractNetconfOperation> byName = ArrayListMultimap.create();
+        final ImmutableList.Builder<NetconfOperation> dynamic = ImmutableList.builder();
+        for (final NetconfOperation operation : allNetconfOperations) {
+            if (operation instanceof AbstractNetconfOperation
+                    && ((AbstractNetconfOperation) operation).handlesByName()) {
+                final AbstractNetconfOperation named = (AbstractNetconfOperation) operation;
+                if (!named.getHandledPriority().isCannotHandle()) {
+                    byName.put(new SimpleImmutableEntry<>(named.getHandledOperationNamespace(),
+                        named.getHandledOperationName()), named);
+                }
+            } else {
+                dynamic.add(operation);
+            }
+        }
+
+        final ImmutableTable.Builder<String, String, IndexedOperations> index = ImmutableTable.builder();
+        for (final Entry<Entry<String, String>, List<AbstractNetconfOperation>> entry
+                : Multimaps.asMap(byName).entrySet()) {
+            index.put(entry.getKey().getKey(), entry.getKey().getValue(), new IndexedOperations(entry.getValue()));
+        }
+        indexedOperations = index.build();
+        dynamicOperations = dynamic.build();
+        LOG.debug("Session {}: indexed {} operations, {} operations dispatched dynamically", sessionId,
+            byName.size(), dynamicOperations.size());
     }
 
     @SuppressWarnings("checkstyle:IllegalCatch")
@@ -117,10 +164,36 @@ public class NetconfOperationRouterImpl implements NetconfOperationRouter {
     private NetconfOperationExecution getNetconfOperationWithHighestPriority(
             final Document message, final NetconfServerSession session) throws DocumentedException {
 
-        final NavigableMap<HandlingPriority, NetconfOperation> sortedByPriority =
-                getSortedNetconfOperationsWithCanHandle(
-                message, session);
+        final OperationNameAndNamespace operation;
+        try {
+            operation = new OperationNameAndNamespace(message);
+        } catch (DocumentedException e) {
+            // Let all operations have a look at the message, as they did before indexing
+            LOG.debug("Unable to determine operation of message, dispatching it dynamically", e);
+            return createExecutionChain(message, getSortedNetconfOperationsWithCanHandle(message, session,
+                allNetconfOperations));
+        }
+
+        final IndexedOperations indexed = indexedOperations.get(operation.getNamespace(),
+            operation.getOperationName());
+        final TreeMap<HandlingPriority, NetconfOperation> sortedByPriority =
+                getSortedNetconfOperationsWithCanHandle(message, session, dynamicOperations);
+        if (indexed == null) {
+            return createExecutionChain(message, sortedByPriority);
+        }
 
+        setSession(indexed.operations, session);
+        if (sortedByPriority.isEmpty() && indexed.executionChain != null) {
+            return indexed.executionChain;
+        }
+        for (final AbstractNetconfOperation netconfOperation : indexed.operations) {
+            addOperation(sortedByPriority, netconfOperation.getHandledPriority(), netconfOperation, message);
+        }
+        return createExecutionChain(message, sortedByPriority);
+    }
+
+    private static NetconfOperationExecution createExecutionChain(final Document message,
+            final NavigableMap<HandlingPriority, NetconfOperation> sortedByPriority) {
         if (sortedByPriority.isEmpty()) {
             throw new IllegalArgumentException(String.format("No %s available to handle message %s",
                     NetconfOperation.class.getName(), XmlUtil.toString(message)));
@@ -129,30 +202,72 @@ public class NetconfOperationRouterImpl implements NetconfOperationRouter {
         return NetconfOperationExecution.createExecutionChain(sortedByPriority, sortedByPriority.lastKey());
     }
 
-    private TreeMap<HandlingPriority, NetconfOperation> getSortedNetconfOperationsWithCanHandle(
-            final Document message, final NetconfServerSession session) throws DocumentedException {
+    private static TreeMap<HandlingPriority, NetconfOperation> getSortedNetconfOperationsWithCanHandle(
+            final Document message, final NetconfServerSession session,
+            final Collection<? extends NetconfOperation> netconfOperations) throws DocumentedException {
         final TreeMap<HandlingPriority, NetconfOperation> sortedPriority = new TreeMap<>();
 
-        for (final NetconfOperation netconfOperation : allNetconfOperations) {
+        for (final NetconfOperation netconfOperation : netconfOperations) {
             final HandlingPriority handlingPriority = netconfOperation.canHandle(message);
-            if (netconfOperation instanceof DefaultNetconfOperation) {
-                ((DefaultNetconfOperation) netconfOperation).setNetconfSession(session);
-            }
-            if (netconfOperation instanceof SessionAwareNetconfOperation) {
-                ((SessionAwareNetconfOperation) netconfOperation).setSession(session);
-            }
+            setSession(netconfOperation, session);
             if (!handlingPriority.equals(HandlingPriority.CANNOT_HANDLE)) {
-
-                checkState(!sortedPriority.containsKey(handlingPriority),
-                        "Multiple %s available to handle message %s with priority %s, %s and %s",
-                        NetconfOperation.class.getName(), message, handlingPriority, netconfOperation, sortedPriority
-                                .get(handlingPriority));
-                sortedPriority.put(handlingPriority, netconfOperation);
+                addOperation(sortedPriority, handlingPriority, netconfOperation, message);
             }
         }
         return sortedPriority;
     }
 
+    private static void addOperation(final TreeMap<HandlingPriority, NetconfOperation> sortedPriority,
+            final HandlingPriority handlingPriority, final NetconfOperation netconfOperation,
+            final Document message) {
+        checkState(!sortedPriority.containsKey(handlingPriority),
+                "Multiple %s available to handle message %s with priority %s, %s and %s",
+                NetconfOperation.class.getName(), message, handlingPriority, netconfOperation, sortedPriority
+                        .get(handlingPriority));
+        sortedPriority.put(handlingPriority, netconfOperation);
+    }
+
+    private static void setSession(final Collection<? extends NetconfOperation> netconfOperations,
+            final NetconfServerSession session) {
+        for (final NetconfOperation netconfOperation : netconfOperations) {
+            setSession(netconfOperation, session);
+        }
+    }
+
+    private static void setSession(final NetconfOperation netconfOperation, final NetconfServerSession session) {
+        if (netconfOperation instanceof DefaultNetconfOperation) {
+            ((DefaultNetconfOperation) netconfOperation).setNetconfSession(session);
+        }
+        if (netconfOperation instanceof SessionAwareNetconfOperation) {
+            ((SessionAwareNetconfOperation) netconfOperation).setSession(session);
+        }
+    }
+
+    /**
+     * Operations handling a particular operation name and namespace, along with their execution chain. There is no
+     * execution chain if multiple operations share a priority, dispatching reports that as an error.
+     */
+    private static final class IndexedOperations {
+        final List<AbstractNetconfOperation> operations;
+        final NetconfOperationExecution executionChain;
+
+        IndexedOperations(final List<AbstractNetconfOperation> operations) {
+            this.operations = ImmutableList.copyOf(operations);
+            this.executionChain = createExecutionChain(operations);
+        }
+
+        private static NetconfOperationExecution createExecutionChain(
+                final List<AbstractNetconfOperation> operations) {
+            final TreeMap<HandlingPriority, NetconfOperation> sortedByPriority = new TreeMap<>();
+            for (final AbstractNetconfOperation operation : operations) {
+                if (sortedByPriority.putIfAbsent(operation.getHandledPriority(), operation) != null) {
+                    return null;
+                }
+            }
+            return NetconfOperationExecution.createExecutionChain(sortedByPriority, sortedByPriority.lastKey());
+        }
+    }
+
     private static final class NetconfOperationExecution implements NetconfOperationChainedExecution {
         private final NetconfOperation netconfOperation;
         private final NetconfOperationChainedExecution subsequentExecution;
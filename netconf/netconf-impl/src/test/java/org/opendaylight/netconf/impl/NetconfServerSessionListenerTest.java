@@ -10,12 +10,16 @@ package org.opendaylight.netconf.impl;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
 import org.custommonkey.xmlunit.Diff;
 import org.custommonkey.xmlunit.XMLUnit;
 import org.junit.Assert;
@@ -104,6 +108,54 @@ public class NetconfServerSessionListenerTest {
         Assert.assertTrue(diff.toString(), diff.similar());
     }
 
+    @Test
+    public void testOnMessageReplyNotCopied() throws Exception {
+        final Document reply = XmlUtil.readXmlToDocument("<rpc-reply message-id=\"101\" "
+                + "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><data/></rpc-reply>");
+        doReturn(reply).when(router).onNetconfMessage(any(), any());
+        listener.onMessage(session, new NetconfMessage(XmlUtil.readXmlToDocument("<rpc message-id=\"101\" "
+                + "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><get/></rpc>")));
+        channel.runPendingTasks();
+        final NetconfMessage sentMsg = channel.readOutbound();
+        Assert.assertSame(reply, sentMsg.getDocument());
+    }
+
+    @Test
+    public void testOnMessageOffloaded() throws Exception {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        listener = new NetconfServerSessionListener(router, monitoring, closeable, tasks::add, 2);
+        final Document first = XmlUtil.readXmlToDocument("<rpc message-id=\"101\" "
+                + "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><first/></rpc>");
+        final Document second = XmlUtil.readXmlToDocument("<rpc message-id=\"102\" "
+                + "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><second/></rpc>");
+        doReturn(XmlUtil.readXmlToDocument("<rpc-reply message-id=\"101\" "
+                + "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><ok/></rpc-reply>"))
+            .when(router).onNetconfMessage(eq(first), any());
+        doReturn(XmlUtil.readXmlToDocument("<rpc-reply message-id=\"102\" "
+                + "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><ok/></rpc-reply>"))
+            .when(router).onNetconfMessage(eq(second), any());
+
+        listener.onMessage(session, new NetconfMessage(first));
+        listener.onMessage(session, new NetconfMessage(second));
+        // Nothing is handled on the calling thread, reading stops once the limit is reached
+        verify(router, never()).onNetconfMessage(any(), any());
+        Assert.assertFalse(channel.config().isAutoRead());
+        Assert.assertEquals(1, tasks.size());
+
+        // Rpcs are handled one by one, in the order they were received
+        tasks.remove().run();
+        verify(router).onNetconfMessage(eq(first), any());
+        verify(router, never()).onNetconfMessage(eq(second), any());
+        Assert.assertTrue(channel.config().isAutoRead());
+        tasks.remove().run();
+        verify(router).onNetconfMessage(eq(second), any());
+        Assert.assertTrue(tasks.isEmpty());
+
+        channel.runPendingTasks();
+        Assert.assertEquals("101", messageId(channel.readOutbound()));
+        Assert.assertEquals("102", messageId(channel.readOutbound()));
+    }
+
     @Test
     public void testOnMessageRuntimeFail() throws Exception {
         doThrow(new RuntimeException("runtime fail")).when(router).onNetconfMessage(any(), any());
@@ -154,6 +206,10 @@ public class NetconfServerSessionListenerTest {
         verify(monitoringListener).onSessionEvent(argThat(sessionEventIs(SessionEvent.Type.NOTIFICATION)));
     }
 
+    private static String messageId(final NetconfMessage message) {
+        return message.getDocument().getDocumentElement().getAttribute("message-id");
+    }
+
     private ArgumentMatcher<SessionEvent> sessionEventIs(final SessionEvent.Type type) {
         return event -> event.getType().equals(type) && event.getSession().equals(session);
     }
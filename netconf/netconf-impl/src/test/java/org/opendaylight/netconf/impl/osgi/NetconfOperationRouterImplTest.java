@@ -10,11 +10,13 @@ package org.opendaylight.netconf.impl.osgi;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import java.io.IOException;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
 import org.junit.Assert;
 import org.junit.Before;
@@ -24,12 +26,16 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.opendaylight.netconf.api.DocumentedException;
+import org.opendaylight.netconf.api.xml.XmlElement;
+import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.mapping.api.HandlingPriority;
 import org.opendaylight.netconf.mapping.api.NetconfOperation;
 import org.opendaylight.netconf.mapping.api.NetconfOperationChainedExecution;
 import org.opendaylight.netconf.mapping.api.NetconfOperationService;
+import org.opendaylight.netconf.util.mapping.AbstractSingletonNetconfOperation;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.xml.sax.SAXException;
 
 public class NetconfOperationRouterImplTest {
@@ -49,6 +55,10 @@ public class NetconfOperationRouterImplTest {
     private NetconfOperation maxPrioMock;
     @Mock
     private NetconfOperation defaultPrioMock;
+    @Mock
+    private NetconfOperationService operationService3;
+    @Mock
+    private NetconfOperation cannotHandleMock;
 
     private NetconfOperationRouterImpl operationRouter;
     private NetconfOperationRouterImpl emptyOperationRouter;
@@ -116,10 +126,66 @@ public class NetconfOperationRouterImplTest {
         }
     }
 
+    @Test
+    public void testOnNetconfMessageIndexed() throws Exception {
+        final TestOperation test = new TestOperation("test");
+        final TestOperation other = new TestOperation("other");
+        doReturn(HandlingPriority.CANNOT_HANDLE).when(cannotHandleMock).canHandle(any(Document.class));
+        final Set<NetconfOperation> operations = new HashSet<>();
+        operations.add(test);
+        operations.add(other);
+        operations.add(cannotHandleMock);
+        doReturn(operations).when(operationService3).getNetconfOperations();
+
+        final NetconfOperationRouterImpl router = new NetconfOperationRouterImpl(operationService3, null,
+            "session-1");
+        final Document document = router.onNetconfMessage(TEST_RPC_DOC, null);
+        Assert.assertEquals(XmlNetconfConstants.OK, document.getDocumentElement().getFirstChild().getLocalName());
+
+        // Only operations which cannot be indexed are asked whether they can handle the message
+        Assert.assertEquals(1, test.handled);
+        Assert.assertEquals(0, other.handled);
+        verify(cannotHandleMock).canHandle(any(Document.class));
+        verify(cannotHandleMock, never()).handle(any(Document.class), any(NetconfOperationChainedExecution.class));
+    }
+
+    @Test
+    public void testHandlesByName() {
+        Assert.assertTrue(new TestOperation("test").handlesByName());
+        Assert.assertFalse(new TestOperation("test") {
+            @Override
+            protected HandlingPriority canHandle(final String operationName, final String operationNamespace) {
+                return HandlingPriority.HANDLE_WITH_MAX_PRIORITY;
+            }
+        }.handlesByName());
+    }
+
     @Test
     public void testClose() throws Exception {
         operationRouter.close();
         verify(operationService).close();
     }
 
+    private static class TestOperation extends AbstractSingletonNetconfOperation {
+        private final String operationName;
+        int handled;
+
+        TestOperation(final String operationName) {
+            super("session-1");
+            this.operationName = operationName;
+        }
+
+        @Override
+        protected Element handleWithNoSubsequentOperations(final Document document,
+                final XmlElement operationElement) {
+            handled++;
+            return XmlUtil.createElement(document, XmlNetconfConstants.OK, Optional.empty());
+        }
+
+        @Override
+        protected String getOperationName() {
+            return operationName;
+        }
+    }
+
 }
@@ -22,6 +22,7 @@ import org.opendaylight.netconf.api.NetconfSession;
 import org.opendaylight.netconf.api.NetconfSessionListener;
 import org.opendaylight.netconf.api.NetconfTerminationReason;
 import org.opendaylight.netconf.api.xml.XmlElement;
+import org.opendaylight.netconf.nettyutil.handler.NetconfChunkAggregator;
 import org.opendaylight.netconf.nettyutil.handler.NetconfEXICodec;
 import org.opendaylight.netconf.nettyutil.handler.NetconfEXIToMessageDecoder;
 import org.opendaylight.netconf.nettyutil.handler.NetconfMessageToEXIEncoder;
@@ -87,6 +88,24 @@ public abstract class AbstractNetconfSession<S extends NetconfSession,L extends
         return promise;
     }
 
+    @Override
+    public boolean isWritable() {
+        return channel.isWritable();
+    }
+
+    @Override
+    public void setAutoRead(final boolean autoRead) {
+        channel.config().setAutoRead(autoRead);
+    }
+
+    @Override
+    public void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) {
+            sessionListener.onSessionWritable(thisInstance());
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
     protected void endOfInput() {
         LOG.debug("Session {} end of input detected while session was in state {}", this, isUp() ? "up"
                 : "initialized");
@@ -147,6 +166,12 @@ public abstract class AbstractNetconfSession<S extends NetconfSession,L extends
             throw new IllegalStateException("Cannot instantiate encoder for options", e);
         }
 
+        // EXI decoder operates on whole messages, hence streaming chunk framing needs to go
+        final ChannelHandler aggregator = channel.pipeline().get(AbstractChannelInitializer.NETCONF_MESSAGE_AGGREGATOR);
+        if (aggregator instanceof NetconfChunkAggregator && ((NetconfChunkAggregator) aggregator).isStreaming()) {
+            replaceChannelHandler(AbstractChannelInitializer.NETCONF_MESSAGE_AGGREGATOR, new NetconfChunkAggregator());
+        }
+
         addExiHandlers(exiDecoder, exiEncoder);
         LOG.debug("Session {} EXI handlers added to pipeline", this);
     }
@@ -32,9 +32,12 @@ import org.opendaylight.netconf.api.messages.NetconfHelloMessage;
 import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.nettyutil.handler.FramingMechanismHandlerFactory;
 import org.opendaylight.netconf.nettyutil.handler.NetconfChunkAggregator;
+import org.opendaylight.netconf.nettyutil.handler.NetconfMessageToCompactXMLEncoder;
 import org.opendaylight.netconf.nettyutil.handler.NetconfMessageToXMLEncoder;
+import org.opendaylight.netconf.nettyutil.handler.NetconfXMLStreamToMessageDecoder;
 import org.opendaylight.netconf.nettyutil.handler.NetconfXMLToHelloMessageDecoder;
 import org.opendaylight.netconf.nettyutil.handler.NetconfXMLToMessageDecoder;
+import org.opendaylight.netconf.nettyutil.handler.NetconfXMLToRawMessageDecoder;
 import org.opendaylight.netconf.util.messages.FramingMechanism;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,6 +52,20 @@ public abstract class AbstractNetconfSessionNegotiator<P extends NetconfSessionP
 
     public static final String NAME_OF_EXCEPTION_HANDLER = "lastExceptionHandler";
 
+    /**
+     * When set, chunked framing passes chunk payloads to a streaming XML decoder as they arrive instead of
+     * aggregating whole messages first, bounding per-session buffer memory by the chunk size.
+     */
+    private static final boolean STREAMING_CHUNK_FRAMING =
+        Boolean.getBoolean("org.opendaylight.netconf.streaming-chunk-framing");
+
+    /**
+     * When set, incoming messages are decoded into {@link org.opendaylight.netconf.api.RawNetconfMessage}s, which
+     * retain the message bytes and build a DOM document only on demand.
+     */
+    private static final boolean RAW_MESSAGE_DECODER =
+        Boolean.getBoolean("org.opendaylight.netconf.raw-message-decoder");
+
     protected final P sessionPreferences;
     protected final Channel channel;
 
@@ -66,16 +83,25 @@ public abstract class AbstractNetconfSessionNegotiator<P extends NetconfSessionP
     private State state = State.IDLE;
     private final Timer timer;
     private final long connectionTimeoutMillis;
+    private final boolean compactEncoding;
 
     protected AbstractNetconfSessionNegotiator(final P sessionPreferences, final Promise<S> promise,
                                                final Channel channel, final Timer timer,
                                                final L sessionListener, final long connectionTimeoutMillis) {
+        this(sessionPreferences, promise, channel, timer, sessionListener, connectionTimeoutMillis, false);
+    }
+
+    protected AbstractNetconfSessionNegotiator(final P sessionPreferences, final Promise<S> promise,
+                                               final Channel channel, final Timer timer,
+                                               final L sessionListener, final long connectionTimeoutMillis,
+                                               final boolean compactEncoding) {
         this.channel = requireNonNull(channel);
         this.promise = requireNonNull(promise);
         this.sessionPreferences = sessionPreferences;
         this.timer = timer;
         this.sessionListener = sessionListener;
         this.connectionTimeoutMillis = connectionTimeoutMillis;
+        this.compactEncoding = compactEncoding;
     }
 
     protected final void startNegotiation() {
@@ -182,7 +208,19 @@ public abstract class AbstractNetconfSessionNegotiator<P extends NetconfSessionP
         replaceChannelHandler(channel, AbstractChannelInitializer.NETCONF_MESSAGE_FRAME_ENCODER,
                 FramingMechanismHandlerFactory.createHandler(FramingMechanism.CHUNK));
         replaceChannelHandler(channel, AbstractChannelInitializer.NETCONF_MESSAGE_AGGREGATOR,
-                new NetconfChunkAggregator());
+                new NetconfChunkAggregator(STREAMING_CHUNK_FRAMING));
+    }
+
+    private static ChannelHandler createMessageDecoder(final Channel channel) {
+        if (isStreamingChunkFraming(channel)) {
+            return new NetconfXMLStreamToMessageDecoder();
+        }
+        return RAW_MESSAGE_DECODER ? new NetconfXMLToRawMessageDecoder() : new NetconfXMLToMessageDecoder();
+    }
+
+    private static boolean isStreamingChunkFraming(final Channel channel) {
+        final ChannelHandler aggregator = channel.pipeline().get(AbstractChannelInitializer.NETCONF_MESSAGE_AGGREGATOR);
+        return aggregator instanceof NetconfChunkAggregator && ((NetconfChunkAggregator) aggregator).isStreaming();
     }
 
     private boolean shouldUseChunkFraming(final Document doc) {
@@ -199,7 +237,7 @@ public abstract class AbstractNetconfSessionNegotiator<P extends NetconfSessionP
      */
     protected final void replaceHelloMessageInboundHandler(final S session) {
         ChannelHandler helloMessageHandler = replaceChannelHandler(channel,
-                AbstractChannelInitializer.NETCONF_MESSAGE_DECODER, new NetconfXMLToMessageDecoder());
+                AbstractChannelInitializer.NETCONF_MESSAGE_DECODER, createMessageDecoder(channel));
 
         checkState(helloMessageHandler instanceof NetconfXMLToHelloMessageDecoder,
                 "Pipeline handlers misplaced on session: %s, pipeline: %s", session, channel.pipeline());
@@ -220,7 +258,7 @@ public abstract class AbstractNetconfSessionNegotiator<P extends NetconfSessionP
      */
     private void replaceHelloMessageOutboundHandler() {
         replaceChannelHandler(channel, AbstractChannelInitializer.NETCONF_MESSAGE_ENCODER,
-                new NetconfMessageToXMLEncoder());
+                compactEncoding ? new NetconfMessageToCompactXMLEncoder() : new NetconfMessageToXMLEncoder());
     }
 
     private static ChannelHandler replaceChannelHandler(final Channel channel, final String handlerKey,
@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+/**
+ * Marker emitted by a streaming {@link NetconfChunkAggregator} after the last fragment of a message has been passed
+ * downstream.
+ */
+public final class ChunkedMessageEnd {
+    public static final ChunkedMessageEnd INSTANCE = new ChunkedMessageEnd();
+
+    private ChunkedMessageEnd() {
+        // Hidden on purpose
+    }
+
+    @Override
+    public String toString() {
+        return "ChunkedMessageEnd";
+    }
+}
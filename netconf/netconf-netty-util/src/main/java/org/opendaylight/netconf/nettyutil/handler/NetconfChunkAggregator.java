@@ -17,6 +17,16 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Decoder of RFC6242 chunked framing. In its default mode it aggregates all chunks of a message into a single
+ * {@link ByteBuf}, which is emitted once the end-of-chunks marker is encountered.
+ *
+ * <p>
+ * When instantiated in streaming mode, chunk payloads are passed downstream as soon as they arrive, as a sequence of
+ * {@link ByteBuf} fragments, terminated by {@link ChunkedMessageEnd#INSTANCE}. Memory retained by this decoder is
+ * then bounded by the chunk size rather than the message size. Downstream handlers need to be able to deal with
+ * partial input, such as {@link NetconfXMLStreamToMessageDecoder}.
+ */
 public class NetconfChunkAggregator extends ByteToMessageDecoder {
     private static final Logger LOG = LoggerFactory.getLogger(NetconfChunkAggregator.class);
     private static final String GOT_PARAM_WHILE_WAITING_FOR_PARAM = "Got byte {} while waiting for {}";
@@ -38,10 +48,23 @@ public class NetconfChunkAggregator extends ByteToMessageDecoder {
     }
 
     private final int maxChunkSize = DEFAULT_MAXIMUM_CHUNK_SIZE;
+    private final boolean streaming;
     private State state = State.HEADER_ONE;
     private long chunkSize;
     private CompositeByteBuf chunk;
 
+    public NetconfChunkAggregator() {
+        this(false);
+    }
+
+    public NetconfChunkAggregator(final boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    public final boolean isStreaming() {
+        return streaming;
+    }
+
     private static void checkNewLine(final byte byteToCheck, final String errorMessage) {
         if (byteToCheck != '\n') {
             LOG.debug(GOT_PARAM_WHILE_WAITING_FOR_PARAM, byteToCheck, (byte)'\n');
@@ -103,12 +126,19 @@ public class NetconfChunkAggregator extends ByteToMessageDecoder {
                     break;
                 }
                 case DATA:
-                    /*
-                     * FIXME: this gathers all data into one big chunk before passing
-                     *        it on. Make sure the pipeline can work with partial data
-                     *        and then change this piece to pass the data on as it
-                     *        comes through.
-                     */
+                    if (streaming) {
+                        // Pass on whatever part of the chunk we have, retaining only a slice of the cumulation
+                        // buffer. ByteToMessageDecoder takes care of not discarding bytes still referenced by it.
+                        final int available = (int) Math.min(in.readableBytes(), chunkSize);
+                        out.add(in.readRetainedSlice(available));
+                        chunkSize -= available;
+                        if (chunkSize != 0) {
+                            LOG.trace("Passed on {} bytes, {} remaining in chunk", available, chunkSize);
+                            return;
+                        }
+                        state = State.FOOTER_ONE;
+                        break;
+                    }
                     if (in.readableBytes() < chunkSize) {
                         LOG.debug("Buffer has {} bytes, need {} to complete chunk", in.readableBytes(), chunkSize);
                         in.discardReadBytes();
@@ -141,8 +171,12 @@ public class NetconfChunkAggregator extends ByteToMessageDecoder {
                     final byte b = in.readByte();
                     checkNewLine(b,"Malformed chunk footer encountered (byte 3)");
                     state = State.HEADER_ONE;
-                    out.add(chunk);
-                    chunk = null;
+                    if (streaming) {
+                        out.add(ChunkedMessageEnd.INSTANCE);
+                    } else {
+                        out.add(chunk);
+                        chunk = null;
+                    }
                     break;
                 }
                 default:
@@ -150,7 +184,9 @@ public class NetconfChunkAggregator extends ByteToMessageDecoder {
             }
         }
 
-        in.discardReadBytes();
+        if (!streaming) {
+            in.discardReadBytes();
+        }
     }
 
     private void extractNewChunkOrMessageEnd(final byte byteToCheck) {
@@ -168,7 +204,9 @@ public class NetconfChunkAggregator extends ByteToMessageDecoder {
     }
 
     private void initChunk() {
-        chunk = Unpooled.compositeBuffer();
+        if (!streaming) {
+            chunk = Unpooled.compositeBuffer();
+        }
     }
 
     private void aggregateChunks(final ByteBuf newChunk) {
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+import org.w3c.dom.Document;
+
+/**
+ * A {@link NetconfMessageToXMLEncoder} which does not indent its output. Documents are walked directly and written
+ * as UTF-8 through a StAX writer into the target buffer, without going through a JAXP identity transform.
+ */
+public final class NetconfMessageToCompactXMLEncoder extends NetconfMessageToXMLEncoder {
+    public NetconfMessageToCompactXMLEncoder() {
+        this(Optional.empty());
+    }
+
+    public NetconfMessageToCompactXMLEncoder(final Optional<String> clientId) {
+        super(clientId);
+    }
+
+    @Override
+    protected void writeDocument(final Document document, final OutputStream os) throws IOException {
+        writeStreamedDocument(document, os);
+    }
+}
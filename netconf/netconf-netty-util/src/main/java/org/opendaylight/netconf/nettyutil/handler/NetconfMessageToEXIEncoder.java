@@ -15,11 +15,13 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 import java.io.IOException;
 import java.io.OutputStream;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.sax.SAXResult;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.xml.DeferredXmlContent;
 import org.opendaylight.netconf.shaded.exificient.core.exceptions.EXIException;
 import org.opendaylight.netconf.shaded.exificient.main.api.sax.SAXEncoder;
 import org.slf4j.Logger;
@@ -39,9 +41,12 @@ public final class NetconfMessageToEXIEncoder extends MessageToByteEncoder<Netco
 
     @Override
     protected void encode(final ChannelHandlerContext ctx, final NetconfMessage msg, final ByteBuf out)
-            throws IOException, TransformerException, EXIException {
+            throws IOException, TransformerException, EXIException, XMLStreamException {
         LOG.trace("Sent to encode : {}", msg);
 
+        // The EXI encoder consumes SAX events produced from DOM, hence any deferred content has to be built first
+        DeferredXmlContent.materialize(msg.getDocument());
+
         try (OutputStream os = new ByteBufOutputStream(out)) {
             final SAXEncoder encoder = codec.getWriter();
             encoder.setOutputStream(os);
@@ -7,6 +7,7 @@
  */
 package org.opendaylight.netconf.nettyutil.handler;
 
+import com.fasterxml.aalto.stax.OutputFactoryImpl;
 import com.google.common.annotations.VisibleForTesting;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufOutputStream;
@@ -17,17 +18,32 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.Optional;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import org.eclipse.jdt.annotation.Nullable;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.SharedNetconfMessage;
+import org.opendaylight.netconf.api.xml.DeferredXmlContent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Comment;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
 
 public class NetconfMessageToXMLEncoder extends MessageToByteEncoder<NetconfMessage> {
     private static final Logger LOG = LoggerFactory.getLogger(NetconfMessageToXMLEncoder.class);
+    private static final XMLOutputFactory OUTPUT_FACTORY;
+
+    static {
+        final XMLOutputFactory factory = new OutputFactoryImpl();
+        // DOM documents built from NormalizedNodes do not carry namespace declarations, have the writer add them
+        factory.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, Boolean.TRUE);
+        OUTPUT_FACTORY = factory;
+    }
 
     private final @Nullable String clientId;
 
@@ -45,20 +61,77 @@ public class NetconfMessageToXMLEncoder extends MessageToByteEncoder<NetconfMess
             throws IOException, TransformerException {
         LOG.trace("Sent to encode : {}", msg);
 
+        if (clientId == null && msg instanceof SharedNetconfMessage) {
+            // Encoders of the same class produce the same output, so the message is serialized only once for them
+            out.writeBytes(((SharedNetconfMessage) msg).getEncoded(getClass(), this::writeSharedDocument));
+            return;
+        }
+
         if (clientId != null) {
             Comment comment = msg.getDocument().createComment("clientId:" + clientId);
             msg.getDocument().appendChild(comment);
         }
 
         try (OutputStream os = new ByteBufOutputStream(out)) {
-            // Wrap OutputStreamWriter with BufferedWriter as suggested in javadoc for OutputStreamWriter
+            if (DeferredXmlContent.isPresent(msg.getDocument())) {
+                // Deferred content, such as get-config data, is only written by the streamed form
+                writeStreamedDocument(msg.getDocument(), os);
+            } else {
+                writeDocument(msg.getDocument(), os);
+            }
+        }
+    }
+
+    private void writeSharedDocument(final Document document, final OutputStream os) throws IOException {
+        try {
+            writeDocument(document, os);
+        } catch (TransformerException e) {
+            throw new IOException("Failed to serialize document", e);
+        }
+    }
+
+    /**
+     * Serialize a document into an output stream. Default implementation emits indented XML.
+     *
+     * @param document Document to serialize
+     * @param os Target output stream
+     * @throws IOException if an I/O error occurs
+     * @throws TransformerException if the document cannot be serialized
+     */
+    protected void writeDocument(final Document document, final OutputStream os)
+            throws IOException, TransformerException {
+        // Wrap OutputStreamWriter with BufferedWriter as suggested in javadoc for OutputStreamWriter
+
+        // Using custom BufferedWriter that does not provide newLine method as performance improvement
+        // see javadoc for BufferedWriter
+        StreamResult result = new StreamResult(new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8)));
+        DOMSource source = new DOMSource(document);
+        ThreadLocalTransformers.getPrettyTransformer().transform(source, result);
+    }
 
-            // Using custom BufferedWriter that does not provide newLine method as performance improvement
-            // see javadoc for BufferedWriter
-            StreamResult result =
-                    new StreamResult(new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8)));
-            DOMSource source = new DOMSource(msg.getDocument());
-            ThreadLocalTransformers.getPrettyTransformer().transform(source, result);
+    /**
+     * Serialize a document into an output stream without indentation. The document is walked directly and written as
+     * UTF-8 through a StAX writer, including any {@link DeferredXmlContent}.
+     *
+     * @param document Document to serialize
+     * @param os Target output stream
+     * @throws IOException if an I/O error occurs or the document cannot be serialized
+     */
+    static void writeStreamedDocument(final Document document, final OutputStream os) throws IOException {
+        try {
+            final XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(os, StandardCharsets.UTF_8.name());
+            try {
+                writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+                for (Node child = document.getFirstChild(); child != null; child = child.getNextSibling()) {
+                    DeferredXmlContent.writeNode(writer, child);
+                }
+                writer.writeEndDocument();
+                writer.flush();
+            } finally {
+                writer.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to serialize document", e);
         }
     }
 }
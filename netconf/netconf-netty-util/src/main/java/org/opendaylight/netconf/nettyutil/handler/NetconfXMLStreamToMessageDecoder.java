@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import static javax.xml.XMLConstants.XMLNS_ATTRIBUTE;
+import static javax.xml.XMLConstants.XMLNS_ATTRIBUTE_NS_URI;
+
+import com.fasterxml.aalto.AsyncByteBufferFeeder;
+import com.fasterxml.aalto.AsyncXMLInputFactory;
+import com.fasterxml.aalto.AsyncXMLStreamReader;
+import com.fasterxml.aalto.stax.InputFactoryImpl;
+import com.google.common.base.Strings;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageDecoder;
+import java.nio.ByteBuffer;
+import java.util.List;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import org.opendaylight.netconf.api.FailedNetconfMessage;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+
+/**
+ * Counterpart to {@link NetconfXMLToMessageDecoder} working on top of a streaming {@link NetconfChunkAggregator}.
+ * Message fragments are fed into a non-blocking XML parser as they arrive and the resulting DOM is built
+ * incrementally, hence the raw bytes of a message are never held in their entirety. A {@link NetconfMessage} is
+ * emitted when {@link ChunkedMessageEnd} is received.
+ */
+public final class NetconfXMLStreamToMessageDecoder extends MessageToMessageDecoder<Object> {
+    private static final Logger LOG = LoggerFactory.getLogger(NetconfXMLStreamToMessageDecoder.class);
+    private static final AsyncXMLInputFactory INPUT_FACTORY;
+
+    static {
+        final AsyncXMLInputFactory factory = new InputFactoryImpl();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        INPUT_FACTORY = factory;
+    }
+
+    private AsyncXMLStreamReader<AsyncByteBufferFeeder> reader;
+    private Document document;
+    private Node current;
+    private XMLStreamException failure;
+    private long leadingWhitespace;
+
+    @Override
+    public boolean acceptInboundMessage(final Object msg) {
+        return msg instanceof ByteBuf || msg instanceof ChunkedMessageEnd;
+    }
+
+    @Override
+    protected void decode(final ChannelHandlerContext ctx, final Object msg, final List<Object> out) {
+        if (msg instanceof ChunkedMessageEnd) {
+            endOfMessage(out);
+            return;
+        }
+
+        final ByteBuf in = (ByteBuf) msg;
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("Received fragment to decode: {}", ByteBufUtil.hexDump(in));
+        }
+        if (failure != null) {
+            LOG.trace("Discarding {} bytes of a malformed message", in.readableBytes());
+            return;
+        }
+
+        if (reader == null) {
+            // See NetconfXMLToMessageDecoder for the reasoning behind stripping leading whitespace
+            while (in.isReadable() && NetconfXMLToMessageDecoder.isWhitespace(in.getByte(in.readerIndex()))) {
+                in.skipBytes(1);
+                leadingWhitespace++;
+            }
+            if (!in.isReadable()) {
+                return;
+            }
+            if (leadingWhitespace != 0) {
+                LOG.warn("XML message with unwanted leading bytes detected. Discarded {} leading whitespace byte(s)",
+                    leadingWhitespace);
+            }
+            startMessage();
+        }
+
+        try {
+            for (ByteBuffer buffer : in.nioBuffers()) {
+                reader.getInputFeeder().feedInput(buffer);
+                processEvents();
+            }
+        } catch (XMLStreamException e) {
+            LOG.debug("Failed to parse message fragment", e);
+            failure = e;
+        }
+    }
+
+    private void startMessage() {
+        reader = INPUT_FACTORY.createAsyncForByteBuffer();
+        document = XmlUtil.newDocument();
+        current = document;
+    }
+
+    private void endOfMessage(final List<Object> out) {
+        if (reader == null) {
+            LOG.debug("No more content in incoming buffer.");
+            resetState();
+            return;
+        }
+
+        if (failure == null) {
+            try {
+                reader.getInputFeeder().endOfInput();
+                processEvents();
+                if (current != document || document.getDocumentElement() == null) {
+                    throw new XMLStreamException("Unexpected end of message", reader.getLocation());
+                }
+            } catch (XMLStreamException e) {
+                failure = e;
+            }
+        }
+
+        if (failure != null) {
+            LOG.error("Failed to parse received message", failure);
+            out.add(new FailedNetconfMessage(failure));
+        } else {
+            out.add(new NetconfMessage(document));
+        }
+        resetState();
+    }
+
+    private void resetState() {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                LOG.debug("Failed to close reader", e);
+            }
+        }
+        reader = null;
+        document = null;
+        current = null;
+        failure = null;
+        leadingWhitespace = 0;
+    }
+
+    private void processEvents() throws XMLStreamException {
+        while (reader.hasNext()) {
+            final int event = reader.next();
+            switch (event) {
+                case AsyncXMLStreamReader.EVENT_INCOMPLETE:
+                    return;
+                case XMLStreamConstants.START_ELEMENT:
+                    current = current.appendChild(createElement());
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    current = current.getParentNode();
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (current != document) {
+                        appendText(reader.getText());
+                    }
+                    break;
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    current.appendChild(document.createProcessingInstruction(reader.getPITarget(),
+                        reader.getPIData()));
+                    break;
+                default:
+                    // Comments are ignored, as they are by XmlUtil. Document start/end carries no information.
+                    break;
+            }
+        }
+    }
+
+    private Element createElement() {
+        final Element element = document.createElementNS(Strings.emptyToNull(reader.getNamespaceURI()),
+            qualifiedName(reader.getPrefix(), reader.getLocalName()));
+
+        for (int i = 0; i < reader.getNamespaceCount(); ++i) {
+            final String prefix = reader.getNamespacePrefix(i);
+            element.setAttributeNS(XMLNS_ATTRIBUTE_NS_URI,
+                Strings.isNullOrEmpty(prefix) ? XMLNS_ATTRIBUTE : XMLNS_ATTRIBUTE + ':' + prefix,
+                Strings.nullToEmpty(reader.getNamespaceURI(i)));
+        }
+        for (int i = 0; i < reader.getAttributeCount(); ++i) {
+            element.setAttributeNS(Strings.emptyToNull(reader.getAttributeNamespace(i)),
+                qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+                reader.getAttributeValue(i));
+        }
+        return element;
+    }
+
+    private void appendText(final String text) {
+        // Equivalent of DocumentBuilderFactory.setCoalescing(true): the parser may report text in multiple pieces
+        final Node last = current.getLastChild();
+        if (last != null && last.getNodeType() == Node.TEXT_NODE) {
+            ((Text) last).appendData(text);
+        } else {
+            current.appendChild(document.createTextNode(text));
+        }
+    }
+
+    private static String qualifiedName(final String prefix, final String localName) {
+        return Strings.isNullOrEmpty(prefix) ? localName : prefix + ':' + localName;
+    }
+}
@@ -92,7 +92,7 @@ public final class NetconfXMLToMessageDecoder extends ByteToMessageDecoder {
      * @param byteToCheck byte to check
      * @return true if the byte is a whitespace/control character
      */
-    private static boolean isWhitespace(final byte byteToCheck) {
+    static boolean isWhitespace(final byte byteToCheck) {
         return byteToCheck <= 0x0d && byteToCheck >= 0x09 || byteToCheck == 0x20;
     }
 }
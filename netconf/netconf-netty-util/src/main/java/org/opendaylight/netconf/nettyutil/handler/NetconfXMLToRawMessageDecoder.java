@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import com.fasterxml.aalto.AsyncByteArrayFeeder;
+import com.fasterxml.aalto.AsyncXMLInputFactory;
+import com.fasterxml.aalto.AsyncXMLStreamReader;
+import com.fasterxml.aalto.stax.InputFactoryImpl;
+import com.google.common.base.Strings;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import java.util.List;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import org.opendaylight.netconf.api.FailedNetconfMessage;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.RawNetconfMessage;
+import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Alternative to {@link NetconfXMLToMessageDecoder}, which does not build a DOM document for incoming messages.
+ * Message bytes are retained in a {@link RawNetconfMessage} and only scanned by a non-blocking StAX reader to
+ * ensure well-formedness and to pick up the root element, its {@code message-id} and the shape of its children.
+ */
+public final class NetconfXMLToRawMessageDecoder extends ByteToMessageDecoder {
+    private static final Logger LOG = LoggerFactory.getLogger(NetconfXMLToRawMessageDecoder.class);
+    private static final AsyncXMLInputFactory INPUT_FACTORY;
+
+    static {
+        final AsyncXMLInputFactory factory = new InputFactoryImpl();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        INPUT_FACTORY = factory;
+    }
+
+    @Override
+    public void decode(final ChannelHandlerContext ctx, final ByteBuf in, final List<Object> out) {
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("Received to decode: {}", ByteBufUtil.hexDump(in));
+        }
+
+        // See NetconfXMLToMessageDecoder for the reasoning behind stripping leading whitespace
+        final int start = in.readerIndex();
+        while (in.isReadable() && NetconfXMLToMessageDecoder.isWhitespace(in.getByte(in.readerIndex()))) {
+            in.skipBytes(1);
+        }
+        if (in.readerIndex() != start) {
+            LOG.warn("XML message with unwanted leading bytes detected. Discarded the {} leading byte(s): '{}'",
+                in.readerIndex() - start, ByteBufUtil.hexDump(in, start, in.readerIndex() - start));
+        }
+        if (!in.isReadable()) {
+            LOG.debug("No more content in incoming buffer.");
+            return;
+        }
+
+        final byte[] bytes = new byte[in.readableBytes()];
+        in.readBytes(bytes);
+
+        NetconfMessage msg;
+        try {
+            msg = scan(bytes);
+        } catch (XMLStreamException e) {
+            LOG.error("Failed to parse received message", e);
+            msg = new FailedNetconfMessage(e);
+        }
+        out.add(msg);
+    }
+
+    private static RawNetconfMessage scan(final byte[] bytes) throws XMLStreamException {
+        final AsyncXMLStreamReader<AsyncByteArrayFeeder> reader = INPUT_FACTORY.createAsyncFor(bytes);
+        try {
+            reader.getInputFeeder().endOfInput();
+
+            String rootNamespace = null;
+            String rootName = null;
+            String messageId = null;
+            String firstChildName = null;
+            int childCount = 0;
+            int depth = 0;
+
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        if (depth == 0) {
+                            rootNamespace = Strings.emptyToNull(reader.getNamespaceURI());
+                            rootName = reader.getLocalName();
+                            messageId = reader.getAttributeValue(null, XmlNetconfConstants.MESSAGE_ID);
+                        } else if (depth == 1) {
+                            if (childCount == 0) {
+                                firstChildName = reader.getLocalName();
+                            }
+                            childCount++;
+                        }
+                        depth++;
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        depth--;
+                        break;
+                    case AsyncXMLStreamReader.EVENT_INCOMPLETE:
+                        throw new XMLStreamException("Unexpected end of message", reader.getLocation());
+                    default:
+                        break;
+                }
+            }
+
+            if (rootName == null) {
+                throw new XMLStreamException("Message does not contain a root element", reader.getLocation());
+            }
+            return new RawNetconfMessage(bytes, rootNamespace, rootName, messageId, firstChildName, childCount == 1);
+        } finally {
+            reader.close();
+        }
+    }
+}
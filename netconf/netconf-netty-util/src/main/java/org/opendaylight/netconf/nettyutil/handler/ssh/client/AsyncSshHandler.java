@@ -56,7 +56,7 @@ public class AsyncSshHandler extends ChannelOutboundHandlerAdapter {
     private final SshClient sshClient;
     private final Future<?> negotiationFuture;
 
-    private AsyncSshHandlerReader sshReadAsyncListener;
+    private volatile AsyncSshHandlerReader sshReadAsyncListener;
     private AsyncSshHandlerWriter sshWriteAsyncHandler;
 
     private ClientChannel channel;
@@ -165,7 +165,8 @@ public class AsyncSshHandler extends ChannelOutboundHandlerAdapter {
 
         ClientChannel localChannel = channel;
         sshReadAsyncListener = new AsyncSshHandlerReader(() -> AsyncSshHandler.this.disconnect(ctx, ctx.newPromise()),
-            ctx::fireChannelRead, localChannel.toString(), localChannel.getAsyncOut());
+            ctx::fireChannelRead, localChannel.toString(), localChannel.getAsyncOut(),
+            () -> ctx.channel().config().isAutoRead());
 
         // if readAsyncListener receives immediate close,
         // it will close this handler and closing this handler sets channel variable to null
@@ -186,11 +187,48 @@ public class AsyncSshHandler extends ChannelOutboundHandlerAdapter {
         disconnect(ctx, ctx.newPromise());
     }
 
+    /**
+     * Return the number of write requests waiting for the SSH window to open.
+     *
+     * @return Number of pending write requests
+     */
+    public synchronized int getPendingWriteCount() {
+        return sshWriteAsyncHandler == null ? 0 : sshWriteAsyncHandler.getPendingWriteCount();
+    }
+
+    /**
+     * Return the number of bytes waiting for the SSH window to open.
+     *
+     * @return Number of pending bytes
+     */
+    public synchronized long getPendingWriteBytes() {
+        return sshWriteAsyncHandler == null ? 0 : sshWriteAsyncHandler.getPendingWriteBytes();
+    }
+
+    /**
+     * Return the total time the channel has been marked unwritable due to pending writes.
+     *
+     * @return Total stall time in nanoseconds
+     */
+    public synchronized long getWriteStallTimeNanos() {
+        return sshWriteAsyncHandler == null ? 0 : sshWriteAsyncHandler.getStallTimeNanos();
+    }
+
     @Override
     public synchronized void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) {
         sshWriteAsyncHandler.write(ctx, msg, promise);
     }
 
+    @Override
+    public void read(final ChannelHandlerContext ctx) {
+        // Reads are suspended by the reader while auto-read is off, restart them once a read is requested
+        final AsyncSshHandlerReader reader = sshReadAsyncListener;
+        if (reader != null) {
+            reader.resume();
+        }
+        ctx.read();
+    }
+
     @Override
     public synchronized void connect(final ChannelHandlerContext ctx, final SocketAddress remoteAddress,
                                      final SocketAddress localAddress, final ChannelPromise promise) throws Exception {
@@ -10,6 +10,7 @@ package org.opendaylight.netconf.nettyutil.handler.ssh.client;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import java.util.function.BooleanSupplier;
 import org.apache.sshd.common.future.SshFutureListener;
 import org.apache.sshd.common.io.IoInputStream;
 import org.apache.sshd.common.io.IoReadFuture;
@@ -20,7 +21,8 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Listener on async input stream from SSH session.
- * This listeners schedules reads in a loop until the session is closed or read fails.
+ * This listeners schedules reads in a loop until the session is closed or read fails. The loop is suspended while
+ * reading is not allowed, until {@link #resume()} is called.
  */
 public final class AsyncSshHandlerReader implements SshFutureListener<IoReadFuture>, AutoCloseable {
 
@@ -30,18 +32,27 @@ public final class AsyncSshHandlerReader implements SshFutureListener<IoReadFutu
 
     private final AutoCloseable connectionClosedCallback;
     private final ReadMsgHandler readHandler;
+    private final BooleanSupplier readAllowed;
 
     private final String channelId;
     private IoInputStream asyncOut;
     private Buffer buf;
     private IoReadFuture currentReadFuture;
+    private boolean suspended;
 
     public AsyncSshHandlerReader(final AutoCloseable connectionClosedCallback, final ReadMsgHandler readHandler,
                                  final String channelId, final IoInputStream asyncOut) {
+        this(connectionClosedCallback, readHandler, channelId, asyncOut, () -> true);
+    }
+
+    public AsyncSshHandlerReader(final AutoCloseable connectionClosedCallback, final ReadMsgHandler readHandler,
+                                 final String channelId, final IoInputStream asyncOut,
+                                 final BooleanSupplier readAllowed) {
         this.connectionClosedCallback = connectionClosedCallback;
         this.readHandler = readHandler;
         this.channelId = channelId;
         this.asyncOut = asyncOut;
+        this.readAllowed = readAllowed;
         buf = new ByteArrayBuffer(BUFFER_SIZE);
         asyncOut.read(buf).addListener(this);
     }
@@ -75,14 +86,34 @@ public final class AsyncSshHandlerReader implements SshFutureListener<IoReadFutu
             }
             readHandler.onMessageRead(msg);
 
-            // Schedule next read
-            buf = new ByteArrayBuffer(BUFFER_SIZE);
-            currentReadFuture = asyncOut.read(buf);
-            currentReadFuture.addListener(this);
+            if (readAllowed.getAsBoolean()) {
+                scheduleRead();
+            } else {
+                LOG.debug("Suspending reads on channel: {}", channelId);
+                currentReadFuture = null;
+                suspended = true;
+            }
         }
         return false;
     }
 
+    private void scheduleRead() {
+        buf = new ByteArrayBuffer(BUFFER_SIZE);
+        currentReadFuture = asyncOut.read(buf);
+        currentReadFuture.addListener(this);
+    }
+
+    /**
+     * Resume reading if it has been suspended because reading was not allowed.
+     */
+    public synchronized void resume() {
+        if (suspended && asyncOut != null) {
+            LOG.debug("Resuming reads on channel: {}", channelId);
+            suspended = false;
+            scheduleRead();
+        }
+    }
+
     /**
      * Closing of the {@link AsyncSshHandlerReader}. This method should never be called with any locks held since
      * call to {@link AutoCloseable#close()} can be a source of ABBA deadlock.
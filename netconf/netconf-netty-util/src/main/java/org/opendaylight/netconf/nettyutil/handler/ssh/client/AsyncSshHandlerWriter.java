@@ -10,14 +10,20 @@ package org.opendaylight.netconf.nettyutil.handler.ssh.client;
 
 import com.google.common.base.Preconditions;
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundBuffer;
 import io.netty.channel.ChannelPromise;
+import io.netty.channel.WriteBufferWaterMark;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
 import org.apache.sshd.common.io.IoOutputStream;
+import org.apache.sshd.common.io.IoWriteFuture;
 import org.apache.sshd.common.io.WritePendingException;
 import org.apache.sshd.common.util.buffer.Buffer;
 import org.apache.sshd.common.util.buffer.ByteArrayBuffer;
@@ -27,25 +33,28 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Async Ssh writer. Takes messages(byte arrays) and sends them encrypted to remote server.
- * Also handles pending writes by caching requests until pending state is over.
+ * Also handles pending writes by caching requests until pending state is over. Once the pending state is over,
+ * small requests queued in the meantime are sent in a single packet.
  */
 public final class AsyncSshHandlerWriter implements AutoCloseable {
 
     private static final Logger LOG = LoggerFactory
             .getLogger(AsyncSshHandlerWriter.class);
 
-    // public static final int MAX_PENDING_WRITES = 1000;
-    // TODO implement Limiting mechanism for pending writes
-    // But there is a possible issue with limiting:
-    // 1. What to do when queue is full ? Immediate Fail for every request ?
-    // 2. At this level we might be dealing with Chunks of messages(not whole messages)
-    // and unexpected behavior might occur when we send/queue 1 chunk and fail the other chunks
+    // Pending writes are not failed when the queue grows, as at this level we might be dealing with chunks of messages
+    // (not whole messages) and failing some of them would corrupt the stream. Instead we toggle the channel's
+    // writability based on its configured WriteBufferWaterMark, so that producers can observe Channel.isWritable().
+    private static final int WRITABILITY_INDEX = 1;
+
+    // Queued requests are coalesced into a single packet only up to this many bytes, as MINA buffers are array-based
+    // and coalescing requires a copy. Larger requests are written on their own, without copying heap buffers.
+    private static final int MAX_BATCH_BYTES = 8192;
 
     private final Object asyncInLock = new Object();
     private volatile IoOutputStream asyncIn;
 
     // Order has to be preserved for queued writes
-    private final Deque<PendingWriteRequest> pending = new LinkedList<>();
+    private final Deque<PendingWriteRequest> pending = new ArrayDeque<>();
 
     public AsyncSshHandlerWriter(final IoOutputStream asyncIn) {
         this.asyncIn = asyncIn;
@@ -53,6 +62,14 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
 
     @GuardedBy("asyncInLock")
     private boolean isWriteExecuted = false;
+    @GuardedBy("asyncInLock")
+    private long pendingBytes;
+    @GuardedBy("asyncInLock")
+    private long stallStartNanos;
+    @GuardedBy("asyncInLock")
+    private long stallNanos;
+    @GuardedBy("asyncInLock")
+    private boolean stalled;
 
     public void write(final ChannelHandlerContext ctx,
             final Object msg, final ChannelPromise promise) {
@@ -76,15 +93,14 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
                     return;
                 }
 
-                writeWithPendingDetection(ctx, promise, byteBufMsg, false);
+                writeWithPendingDetection(ctx, promise, byteBufMsg);
             }
         }
     }
 
-    //sending message with pending
-    //if resending message not succesfull, then attribute wasPending is true
+    //sending message with pending detection, if the write is not possible the message is queued
     private void writeWithPendingDetection(final ChannelHandlerContext ctx, final ChannelPromise promise,
-                                           final ByteBuf byteBufMsg, final boolean wasPending) {
+                                           final ByteBuf byteBufMsg) {
         try {
 
             if (LOG.isTraceEnabled()) {
@@ -105,23 +121,7 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
                             ctx.channel(), future.isWritten(), future.getException(), byteBufToString(byteBufMsg));
                     }
 
-                    // Notify success or failure
-                    if (future.isWritten()) {
-                        promise.setSuccess();
-                    } else {
-                        LOG.warn("Ssh write request failed on channel: {} for message: {}", ctx.channel(),
-                                byteBufToString(byteBufMsg), future.getException());
-                        promise.setFailure(future.getException());
-                    }
-
-                    //rescheduling message from queue after successfully sent
-                    if (wasPending) {
-                        byteBufMsg.resetReaderIndex();
-                        pending.remove();
-                    }
-
-                    // Not needed anymore, release
-                    byteBufMsg.release();
+                    completeRequest(ctx, promise, byteBufMsg, future);
                 }
 
                 // Check pending queue and schedule next
@@ -131,28 +131,80 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
             });
 
         } catch (final IOException | WritePendingException e) {
-            if (!wasPending) {
-                queueRequest(ctx, byteBufMsg, promise);
-            }
+            queueRequest(ctx, byteBufMsg, promise);
         }
     }
 
+    // Drain leading pending requests into a single packet, see batchSize(). Requests stay queued until the write
+    // completes, so that requests arriving in the meantime are queued behind them.
     private void writePendingIfAny() {
         synchronized (asyncInLock) {
-            if (pending.peek() == null) {
+            if (pending.isEmpty()) {
                 isWriteExecuted = false;
                 return;
             }
 
-            final PendingWriteRequest pendingWrite = pending.peek();
-            final ByteBuf msg = pendingWrite.msg;
+            final PendingWriteRequest first = pending.peek();
+            final int count = batchSize();
             if (LOG.isTraceEnabled()) {
-                LOG.trace("Writing pending request on channel: {}, message: {}",
-                        pendingWrite.ctx.channel(), byteBufToString(msg));
+                LOG.trace("Writing {} pending request(s) on channel: {}", count, first.ctx.channel());
+            }
+
+            final Buffer buffer = count == 1 ? toBuffer(first.msg) : toBuffer(pending, count);
+            try {
+                asyncIn.writePacket(buffer).addListener(future -> {
+                    synchronized (asyncInLock) {
+                        if (LOG.isTraceEnabled()) {
+                            LOG.trace("Ssh write of {} pending request(s) finished on channel: {} with result: {}: "
+                                + "and ex:{}", count, first.ctx.channel(), future.isWritten(), future.getException());
+                        }
+
+                        for (int i = 0; i < count; ++i) {
+                            final PendingWriteRequest request = pending.remove();
+                            pendingBytes -= request.length;
+                            completeRequest(request.ctx, request.promise, request.msg, future);
+                        }
+                        updateWritability(first.ctx);
+                    }
+
+                    writePendingIfAny();
+                });
+            } catch (final IOException | WritePendingException e) {
+                // Requests remain queued and will be retried on next completion
+                LOG.debug("Failed to write pending requests on channel: {}", first.ctx.channel(), e);
             }
+        }
+    }
 
-            writeWithPendingDetection(pendingWrite.ctx, pendingWrite.promise, msg, true);
+    // Number of leading pending requests to write in a single packet, at least one. Requests are added while their
+    // total size stays within MAX_BATCH_BYTES.
+    @GuardedBy("asyncInLock")
+    private int batchSize() {
+        int count = 0;
+        long length = 0;
+        for (PendingWriteRequest request : pending) {
+            length += request.length;
+            if (count != 0 && length > MAX_BATCH_BYTES) {
+                break;
+            }
+            count++;
         }
+        return count;
+    }
+
+    private static void completeRequest(final ChannelHandlerContext ctx, final ChannelPromise promise,
+            final ByteBuf byteBufMsg, final IoWriteFuture future) {
+        // Notify success or failure
+        if (future.isWritten()) {
+            promise.setSuccess();
+        } else {
+            LOG.warn("Ssh write request failed on channel: {} for message: {}", ctx.channel(),
+                    byteBufToString(byteBufMsg), future.getException());
+            promise.setFailure(future.getException());
+        }
+
+        // Not needed anymore, release
+        byteBufMsg.release();
     }
 
     public static String byteBufToString(final ByteBuf msg) {
@@ -167,7 +219,10 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
         if (LOG.isTraceEnabled()) {
             LOG.trace("Queueing request due to pending: {}", byteBufToString(msg));
         }
-        new PendingWriteRequest(ctx, msg, promise).pend(pending);
+        final PendingWriteRequest request = new PendingWriteRequest(ctx, msg, promise);
+        request.pend(pending);
+        pendingBytes += request.length;
+        updateWritability(ctx);
 //        } catch (final Exception ex) {
 //            LOG.warn("Unable to queue write request on channel: {}. Setting fail for the request: {}",
 //                    ctx.channel(), ex, byteBufToString(msg));
@@ -176,16 +231,107 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
 //        }
     }
 
+    @GuardedBy("asyncInLock")
+    private void updateWritability(final ChannelHandlerContext ctx) {
+        final Channel channel = ctx.channel();
+        final WriteBufferWaterMark waterMark = channel.config().getWriteBufferWaterMark();
+        if (!stalled && pendingBytes > waterMark.high()) {
+            LOG.debug("Pending writes on channel: {} reached {} bytes in {} request(s), marking channel unwritable",
+                channel, pendingBytes, pending.size());
+            stalled = true;
+            stallStartNanos = System.nanoTime();
+            setWritable(channel, false);
+        } else if (stalled && pendingBytes < waterMark.low()) {
+            final long stall = System.nanoTime() - stallStartNanos;
+            LOG.debug("Pending writes on channel: {} dropped to {} bytes after {}ms, marking channel writable",
+                channel, pendingBytes, TimeUnit.NANOSECONDS.toMillis(stall));
+            stalled = false;
+            stallNanos += stall;
+            setWritable(channel, true);
+        }
+    }
+
+    private static void setWritable(final Channel channel, final boolean writable) {
+        // Outbound buffer is not present once the channel is closed
+        final ChannelOutboundBuffer outboundBuffer = channel.unsafe().outboundBuffer();
+        if (outboundBuffer != null) {
+            outboundBuffer.setUserDefinedWritability(WRITABILITY_INDEX, writable);
+        }
+    }
+
+    /**
+     * Return the number of write requests waiting for the SSH window to open.
+     *
+     * @return Number of pending write requests
+     */
+    public int getPendingWriteCount() {
+        synchronized (asyncInLock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Return the number of bytes waiting for the SSH window to open.
+     *
+     * @return Number of pending bytes
+     */
+    public long getPendingWriteBytes() {
+        synchronized (asyncInLock) {
+            return pendingBytes;
+        }
+    }
+
+    /**
+     * Return the total time this writer has spent with pending bytes above the channel's high watermark, including
+     * any ongoing stall.
+     *
+     * @return Total stall time in nanoseconds
+     */
+    public long getStallTimeNanos() {
+        synchronized (asyncInLock) {
+            return stalled ? stallNanos + System.nanoTime() - stallStartNanos : stallNanos;
+        }
+    }
+
     @Override
     public void close() {
         asyncIn = null;
     }
 
+    // The returned buffer may share memory with the message, hence the message must not be released until the write
+    // completes. The message's reader index is left untouched.
     private static Buffer toBuffer(final ByteBuf msg) {
-        // TODO Buffer vs ByteBuf translate, Can we handle that better ?
         msg.resetReaderIndex();
-        final byte[] temp = new byte[msg.readableBytes()];
-        msg.readBytes(temp, 0, msg.readableBytes());
+        final int length = msg.readableBytes();
+        if (msg.hasArray()) {
+            // Heap buffer: expose the backing array directly
+            return new ByteArrayBuffer(msg.array(), msg.arrayOffset() + msg.readerIndex(), length);
+        }
+
+        // Direct or composite buffer: MINA buffers are array-based, we need a single copy
+        final byte[] temp = new byte[length];
+        msg.getBytes(msg.readerIndex(), temp);
+        return new ByteArrayBuffer(temp);
+    }
+
+    private static Buffer toBuffer(final Queue<PendingWriteRequest> requests, final int count) {
+        int length = 0;
+        final Iterator<PendingWriteRequest> lengths = requests.iterator();
+        for (int i = 0; i < count; ++i) {
+            final ByteBuf msg = lengths.next().msg;
+            msg.resetReaderIndex();
+            length += msg.readableBytes();
+        }
+
+        final byte[] temp = new byte[length];
+        int offset = 0;
+        final Iterator<PendingWriteRequest> it = requests.iterator();
+        for (int i = 0; i < count; ++i) {
+            final ByteBuf msg = it.next().msg;
+            final int readable = msg.readableBytes();
+            msg.getBytes(msg.readerIndex(), temp, offset, readable);
+            offset += readable;
+        }
         return new ByteArrayBuffer(temp);
     }
 
@@ -193,6 +339,7 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
         private final ChannelHandlerContext ctx;
         private final ByteBuf msg;
         private final ChannelPromise promise;
+        private final int length;
 
         PendingWriteRequest(final ChannelHandlerContext ctx, final ByteBuf msg, final ChannelPromise promise) {
             this.ctx = ctx;
@@ -200,6 +347,7 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
             msg.resetReaderIndex();
             this.msg = msg;
             this.promise = promise;
+            this.length = msg.readableBytes();
         }
 
         public void pend(final Queue<PendingWriteRequest> pending) {
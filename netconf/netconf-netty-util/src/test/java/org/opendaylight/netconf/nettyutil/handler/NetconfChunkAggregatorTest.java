@@ -8,6 +8,7 @@
 package org.opendaylight.netconf.nettyutil.handler;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
@@ -66,4 +67,47 @@ public class NetconfChunkAggregatorTest {
 
         assertEquals(EXPECTED_MESSAGE, chunk.toString(StandardCharsets.UTF_8));
     }
+
+    @Test
+    public void testStreamingMultipleChunks() throws Exception {
+        final NetconfChunkAggregator streaming = new NetconfChunkAggregator(true);
+        final List<Object> output = new ArrayList<>();
+        final ByteBuf input = Unpooled.copiedBuffer(CHUNKED_MESSAGE.getBytes(StandardCharsets.UTF_8));
+        streaming.decode(null, input, output);
+
+        assertEquals(4, output.size());
+        assertSame(ChunkedMessageEnd.INSTANCE, output.get(3));
+        assertEquals(EXPECTED_MESSAGE, concatFragments(output.subList(0, 3)));
+    }
+
+    @Test
+    public void testStreamingPartialChunk() throws Exception {
+        final NetconfChunkAggregator streaming = new NetconfChunkAggregator(true);
+        final List<Object> output = new ArrayList<>();
+        final ByteBuf input = Unpooled.copiedBuffer(CHUNKED_MESSAGE_ONE.substring(0, 50)
+            .getBytes(StandardCharsets.UTF_8));
+        streaming.decode(null, input, output);
+
+        // Partial chunk payload is passed on without waiting for the rest of the chunk
+        assertEquals(1, output.size());
+        assertEquals(EXPECTED_MESSAGE.substring(0, 44), concatFragments(output));
+
+        output.clear();
+        input.writeBytes(CHUNKED_MESSAGE_ONE.substring(50).getBytes(StandardCharsets.UTF_8));
+        streaming.decode(null, input, output);
+
+        assertEquals(2, output.size());
+        assertSame(ChunkedMessageEnd.INSTANCE, output.get(1));
+        assertEquals(EXPECTED_MESSAGE.substring(44), concatFragments(output.subList(0, 1)));
+    }
+
+    private static String concatFragments(final List<Object> fragments) {
+        final StringBuilder sb = new StringBuilder();
+        for (Object fragment : fragments) {
+            final ByteBuf buf = (ByteBuf) fragment;
+            sb.append(buf.toString(StandardCharsets.UTF_8));
+            buf.release();
+        }
+        return sb.toString();
+    }
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import org.junit.Test;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.SharedNetconfMessage;
+import org.opendaylight.netconf.api.xml.DeferredXmlContent;
+import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+public class NetconfMessageToCompactXMLEncoderTest {
+    private static final String MESSAGE = "<rpc-reply message-id=\"101\" "
+            + "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">"
+            + "<data><a:foo xmlns:a=\"urn:a\" a:bar=\"baz\"><a:leaf>some &lt;text&gt;</a:leaf></a:foo>"
+            + "<b xmlns=\"urn:b\"/></data></rpc-reply>";
+
+    @Test
+    public void testEncode() throws Exception {
+        final String encoded = encode(new NetconfMessageToCompactXMLEncoder());
+        assertTrue(encoded.startsWith("<?xml"));
+        assertFalse(encoded.contains("\n"));
+
+        final Element root = XmlUtil.readXmlToDocument(encoded).getDocumentElement();
+        assertEquals("rpc-reply", root.getLocalName());
+        assertEquals("urn:ietf:params:xml:ns:netconf:base:1.0", root.getNamespaceURI());
+        assertEquals("101", root.getAttribute("message-id"));
+
+        final Element data = (Element) root.getFirstChild();
+        assertEquals(2, data.getChildNodes().getLength());
+        final Element foo = (Element) data.getFirstChild();
+        assertEquals("urn:a", foo.getNamespaceURI());
+        assertEquals("baz", foo.getAttributeNS("urn:a", "bar"));
+        assertEquals("some <text>", foo.getTextContent());
+        assertEquals("urn:b", data.getLastChild().getNamespaceURI());
+    }
+
+    @Test
+    public void testEncodeProgrammaticDocument() throws Exception {
+        // Documents created from NormalizedNodes do not carry explicit xmlns attributes
+        final Document doc = XmlUtil.newDocument();
+        final Element root = doc.createElementNS("urn:ietf:params:xml:ns:netconf:base:1.0", "rpc");
+        root.setAttribute("message-id", "m-1");
+        root.appendChild(doc.createElementNS("urn:foo", "foo"));
+        doc.appendChild(root);
+
+        final ByteBuf destination = Unpooled.buffer();
+        new NetconfMessageToCompactXMLEncoder().encode(null, new NetconfMessage(doc), destination);
+
+        final Element decoded = XmlUtil.readXmlToDocument(destination.toString(StandardCharsets.UTF_8))
+                .getDocumentElement();
+        assertEquals("urn:ietf:params:xml:ns:netconf:base:1.0", decoded.getNamespaceURI());
+        assertEquals("m-1", decoded.getAttribute("message-id"));
+        assertEquals("urn:foo", decoded.getFirstChild().getNamespaceURI());
+    }
+
+    @Test
+    public void testEncodeOkReply() throws Exception {
+        // Operations create <ok/> without a namespace, it has to stay in the namespace of rpc-reply
+        final Document doc = XmlUtil.newDocument();
+        final Element root = XmlUtil.createElement(doc, XmlNetconfConstants.RPC_REPLY_KEY,
+            Optional.of(XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0));
+        root.setAttribute("message-id", "101");
+        root.appendChild(doc.createElement(XmlNetconfConstants.OK));
+        doc.appendChild(root);
+
+        final ByteBuf destination = Unpooled.buffer();
+        new NetconfMessageToCompactXMLEncoder().encode(null, new NetconfMessage(doc), destination);
+        final String encoded = destination.toString(StandardCharsets.UTF_8);
+        assertFalse(encoded, encoded.contains("xmlns=\"\""));
+
+        final Element ok = (Element) XmlUtil.readXmlToDocument(encoded).getDocumentElement().getFirstChild();
+        assertEquals(XmlNetconfConstants.OK, ok.getLocalName());
+        assertEquals(XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0, ok.getNamespaceURI());
+    }
+
+    @Test
+    public void testEncodedSizeSmallerThanPretty() throws Exception {
+        final int pretty = encode(new NetconfMessageToXMLEncoder()).getBytes(StandardCharsets.UTF_8).length;
+        final int compact = encode(new NetconfMessageToCompactXMLEncoder()).getBytes(StandardCharsets.UTF_8).length;
+        assertTrue("Compact encoding " + compact + " is not smaller than " + pretty, compact < pretty);
+    }
+
+    @Test
+    public void testSharedMessageEncodedOnce() throws Exception {
+        final Document doc = XmlUtil.readXmlToDocument(MESSAGE);
+        final SharedNetconfMessage message = new SharedNetconfMessage(doc);
+
+        final ByteBuf first = Unpooled.buffer();
+        new NetconfMessageToCompactXMLEncoder().encode(null, message, first);
+        doc.getDocumentElement().setAttribute("message-id", "102");
+
+        // Another session with the same encoding reuses the serialized form
+        final ByteBuf second = Unpooled.buffer();
+        new NetconfMessageToCompactXMLEncoder().encode(null, message, second);
+        assertEquals(first, second);
+
+        // A different encoding serializes the message again
+        final ByteBuf pretty = Unpooled.buffer();
+        new NetconfMessageToXMLEncoder().encode(null, message, pretty);
+        assertEquals("102", XmlUtil.readXmlToDocument(pretty.toString(StandardCharsets.UTF_8)).getDocumentElement()
+            .getAttribute("message-id"));
+    }
+
+    @Test
+    public void testEncodeDeferredContent() throws Exception {
+        final Document doc = XmlUtil.readXmlToDocument("<rpc-reply message-id=\"101\" "
+            + "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><data><b xmlns=\"urn:b\"/></data></rpc-reply>");
+        DeferredXmlContent.attach((Element) doc.getDocumentElement().getFirstChild(), writer -> {
+            writer.writeStartElement("a", "foo", "urn:a");
+            writer.writeCharacters("deferred");
+            writer.writeEndElement();
+        });
+
+        // Deferred content is written by the pretty encoder too, and precedes DOM children
+        final ByteBuf destination = Unpooled.buffer();
+        new NetconfMessageToXMLEncoder().encode(null, new NetconfMessage(doc), destination);
+
+        final Element data = (Element) XmlUtil.readXmlToDocument(destination.toString(StandardCharsets.UTF_8))
+                .getDocumentElement().getFirstChild();
+        assertEquals(2, data.getChildNodes().getLength());
+        final Element foo = (Element) data.getFirstChild();
+        assertEquals("urn:a", foo.getNamespaceURI());
+        assertEquals("deferred", foo.getTextContent());
+        assertEquals("urn:b", data.getLastChild().getNamespaceURI());
+    }
+
+    private static String encode(final NetconfMessageToXMLEncoder encoder) throws Exception {
+        final ByteBuf destination = Unpooled.buffer();
+        encoder.encode(null, new NetconfMessage(XmlUtil.readXmlToDocument(MESSAGE)), destination);
+        return destination.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import org.junit.Test;
+import org.opendaylight.netconf.api.FailedNetconfMessage;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.w3c.dom.Element;
+
+public class NetconfXMLStreamToMessageDecoderTest {
+    private final NetconfXMLStreamToMessageDecoder decoder = new NetconfXMLStreamToMessageDecoder();
+    private final ArrayList<Object> out = new ArrayList<>();
+
+    @Test
+    public void testDecodeNoMoreContent() throws Exception {
+        decoder.decode(null, Unpooled.wrappedBuffer("\r\n".getBytes(StandardCharsets.UTF_8)), out);
+        decoder.decode(null, ChunkedMessageEnd.INSTANCE, out);
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    public void testDecodeFragments() throws Exception {
+        feed("\n<?xml version=\"1.0\" encoding=\"UTF-8\"?><rpc-reply message-id=\"101\" xmlns=\"urn:ietf:para");
+        feed("ms:xml:ns:netconf:base:1.0\" xmlns:a=\"urn:a\"><data><a:foo a:bar=\"baz\">some");
+        assertEquals(0, out.size());
+        feed(" text</a:foo><!-- comment --></data></rpc-reply>");
+        decoder.decode(null, ChunkedMessageEnd.INSTANCE, out);
+
+        assertEquals(1, out.size());
+        assertFalse(out.get(0) instanceof FailedNetconfMessage);
+        final Element root = ((NetconfMessage) out.get(0)).getDocument().getDocumentElement();
+        assertEquals("rpc-reply", root.getLocalName());
+        assertEquals("urn:ietf:params:xml:ns:netconf:base:1.0", root.getNamespaceURI());
+        assertEquals("101", root.getAttribute("message-id"));
+
+        final Element data = (Element) root.getFirstChild();
+        assertEquals(1, data.getChildNodes().getLength());
+        final Element foo = (Element) data.getFirstChild();
+        assertEquals("urn:a", foo.getNamespaceURI());
+        assertEquals("baz", foo.getAttributeNS("urn:a", "bar"));
+        assertEquals(1, foo.getChildNodes().getLength());
+        assertEquals("some text", foo.getTextContent());
+    }
+
+    @Test
+    public void testDecodeMultipleMessages() throws Exception {
+        feed("<msg/>");
+        decoder.decode(null, ChunkedMessageEnd.INSTANCE, out);
+        feed("<msg2/>");
+        decoder.decode(null, ChunkedMessageEnd.INSTANCE, out);
+
+        assertEquals(2, out.size());
+        assertEquals("msg2", ((NetconfMessage) out.get(1)).getDocument().getDocumentElement().getLocalName());
+    }
+
+    @Test
+    public void testDecodeGibberish() throws Exception {
+        feed("\r\n?xml version>");
+        decoder.decode(null, ChunkedMessageEnd.INSTANCE, out);
+        assertEquals(1, out.size());
+        assertTrue(out.get(0) instanceof FailedNetconfMessage);
+
+        // Decoder recovers for next message
+        feed("<msg/>");
+        decoder.decode(null, ChunkedMessageEnd.INSTANCE, out);
+        assertEquals(2, out.size());
+        assertFalse(out.get(1) instanceof FailedNetconfMessage);
+    }
+
+    @Test
+    public void testDecodeTruncated() throws Exception {
+        feed("<msg><foo>");
+        decoder.decode(null, ChunkedMessageEnd.INSTANCE, out);
+        assertEquals(1, out.size());
+        assertTrue(out.get(0) instanceof FailedNetconfMessage);
+    }
+
+    private void feed(final String fragment) throws Exception {
+        decoder.decode(null, Unpooled.wrappedBuffer(fragment.getBytes(StandardCharsets.UTF_8)), out);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Optional;
+import org.junit.Test;
+import org.opendaylight.netconf.api.FailedNetconfMessage;
+import org.opendaylight.netconf.api.RawNetconfMessage;
+
+public class NetconfXMLToRawMessageDecoderTest {
+    private final ArrayList<Object> out = new ArrayList<>();
+
+    @Test
+    public void testDecodeNoMoreContent() throws Exception {
+        new NetconfXMLToRawMessageDecoder().decode(null, Unpooled.wrappedBuffer("\r\n".getBytes()), out);
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    public void testDecodeDataReply() throws Exception {
+        final RawNetconfMessage msg = decode("\n<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<rpc-reply message-id=\"101\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">"
+            + "<data><foo xmlns=\"urn:foo\"><ok/></foo></data></rpc-reply>");
+
+        assertEquals("rpc-reply", msg.getRootElementName());
+        assertEquals("urn:ietf:params:xml:ns:netconf:base:1.0", msg.getRootElementNamespace());
+        assertEquals(Optional.of("101"), msg.getMessageId());
+        assertEquals(Optional.of("data"), msg.getFirstChildName());
+        assertFalse(msg.isOkReply());
+        assertFalse(msg.isErrorReply());
+
+        // DOM is still available on demand
+        assertEquals("rpc-reply", msg.getDocument().getDocumentElement().getLocalName());
+    }
+
+    @Test
+    public void testDecodeOkAndErrorReply() throws Exception {
+        assertTrue(decode("<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><ok/></rpc-reply>")
+            .isOkReply());
+        out.clear();
+        assertTrue(decode("<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">"
+            + "<rpc-error><error-tag>foo</error-tag></rpc-error></rpc-reply>").isErrorReply());
+    }
+
+    @Test
+    public void testDecodeNotification() throws Exception {
+        final RawNetconfMessage msg = decode("<notification xmlns=\"urn:ietf:params:xml:ns:netconf:notification:1.0\">"
+            + "<eventTime>2020-01-01T00:00:00Z</eventTime><event xmlns=\"urn:foo\"/></notification>");
+        assertEquals("notification", msg.getRootElementName());
+        assertEquals(Optional.empty(), msg.getMessageId());
+    }
+
+    @Test
+    public void testDecodeGibberish() throws Exception {
+        new NetconfXMLToRawMessageDecoder().decode(null, Unpooled.wrappedBuffer("\r\n?xml version>".getBytes()),
+            out);
+        assertEquals(1, out.size());
+        assertTrue(out.get(0) instanceof FailedNetconfMessage);
+    }
+
+    @Test
+    public void testDecodeTruncated() throws Exception {
+        new NetconfXMLToRawMessageDecoder().decode(null, Unpooled.wrappedBuffer("<msg><foo>".getBytes()), out);
+        assertEquals(1, out.size());
+        assertTrue(out.get(0) instanceof FailedNetconfMessage);
+    }
+
+    private RawNetconfMessage decode(final String message) {
+        new NetconfXMLToRawMessageDecoder().decode(null,
+            Unpooled.wrappedBuffer(message.getBytes(StandardCharsets.UTF_8)), out);
+        assertEquals(1, out.size());
+        return (RawNetconfMessage) out.get(0);
+    }
+}
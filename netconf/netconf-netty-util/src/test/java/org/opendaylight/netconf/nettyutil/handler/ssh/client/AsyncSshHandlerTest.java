@@ -7,6 +7,11 @@
  */
 package org.opendaylight.netconf.nettyutil.handler.ssh.client;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyObject;
@@ -29,11 +34,14 @@ import com.google.common.util.concurrent.SettableFuture;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelConfig;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
 import io.netty.channel.DefaultChannelPromise;
 import io.netty.channel.EventLoop;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
 import java.io.IOException;
 import java.net.SocketAddress;
 import org.apache.sshd.client.SshClient;
@@ -56,6 +64,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.opendaylight.netconf.nettyutil.handler.ssh.authentication.AuthenticationHandler;
@@ -149,6 +158,10 @@ public class AsyncSshHandlerTest {
 
     private void stubChannel() {
         doReturn("channel").when(channel).toString();
+        final ChannelConfig config = mock(ChannelConfig.class);
+        doReturn(WriteBufferWaterMark.DEFAULT).when(config).getWriteBufferWaterMark();
+        doReturn(config).when(channel).config();
+        doReturn(mock(Channel.Unsafe.class)).when(channel).unsafe();
     }
 
     private void stubEventLoop() {
@@ -365,6 +378,139 @@ public class AsyncSshHandlerTest {
         verify(secondWritePromise).setSuccess();
     }
 
+    @Test
+    public void testWritePendingBatched() throws Exception {
+        asyncSshHandler.connect(ctx, remoteAddress, localAddress, promise);
+
+        final IoInputStream asyncOut = getMockedIoInputStream();
+        final IoOutputStream asyncIn = getMockedIoOutputStream();
+        final IoWriteFuture ioWriteFuture = asyncIn.writePacket(new ByteArrayBuffer());
+
+        final ChannelSubsystem subsystemChannel = getMockedSubsystemChannel(asyncOut, asyncIn);
+        final ClientSession sshSession = getMockedSshSession(subsystemChannel);
+        final ConnectFuture connectFuture = getSuccessConnectFuture(sshSession);
+
+        sshConnectListener.operationComplete(connectFuture);
+        sshAuthListener.operationComplete(getSuccessAuthFuture());
+        sshChannelOpenListener.operationComplete(getSuccessOpenFuture());
+
+        // intercept listener for first write, so that subsequent writes get queued
+        final ListenableFuture<SshFutureListener<IoWriteFuture>> firstWriteListenerFuture =
+                stubAddListener(ioWriteFuture);
+        final ChannelPromise firstWritePromise = getMockedPromise();
+        asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{0, 1, 2, 3, 4, 5}), firstWritePromise);
+        final SshFutureListener<IoWriteFuture> firstWriteListener = firstWriteListenerFuture.get();
+
+        final ListenableFuture<SshFutureListener<IoWriteFuture>> pendingListener = stubAddListener(ioWriteFuture);
+        final ChannelPromise secondWritePromise = getMockedPromise();
+        asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{6, 7, 8}), secondWritePromise);
+        final ChannelPromise thirdWritePromise = getMockedPromise();
+        asyncSshHandler.write(ctx, Unpooled.directBuffer().writeBytes(new byte[]{9, 10}), thirdWritePromise);
+        verifyZeroInteractions(secondWritePromise, thirdWritePromise);
+
+        // first write finished, both queued requests should go out in a single packet
+        firstWriteListener.operationComplete(ioWriteFuture);
+        final ArgumentCaptor<Buffer> captor = ArgumentCaptor.forClass(Buffer.class);
+        verify(asyncIn, times(3)).writePacket(captor.capture());
+        assertArrayEquals(new byte[]{6, 7, 8, 9, 10}, captor.getValue().getCompactData());
+
+        pendingListener.get().operationComplete(ioWriteFuture);
+        verify(firstWritePromise).setSuccess();
+        verify(secondWritePromise).setSuccess();
+        verify(thirdWritePromise).setSuccess();
+    }
+
+    @Test
+    public void testWritePendingLargeNotBatched() throws Exception {
+        asyncSshHandler.connect(ctx, remoteAddress, localAddress, promise);
+
+        final IoInputStream asyncOut = getMockedIoInputStream();
+        final IoOutputStream asyncIn = getMockedIoOutputStream();
+        final IoWriteFuture ioWriteFuture = asyncIn.writePacket(new ByteArrayBuffer());
+
+        final ChannelSubsystem subsystemChannel = getMockedSubsystemChannel(asyncOut, asyncIn);
+        final ClientSession sshSession = getMockedSshSession(subsystemChannel);
+        final ConnectFuture connectFuture = getSuccessConnectFuture(sshSession);
+
+        sshConnectListener.operationComplete(connectFuture);
+        sshAuthListener.operationComplete(getSuccessAuthFuture());
+        sshChannelOpenListener.operationComplete(getSuccessOpenFuture());
+
+        final ListenableFuture<SshFutureListener<IoWriteFuture>> firstWriteListenerFuture =
+                stubAddListener(ioWriteFuture);
+        final ChannelPromise firstWritePromise = getMockedPromise();
+        asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{0, 1, 2, 3, 4, 5}), firstWritePromise);
+        final SshFutureListener<IoWriteFuture> firstWriteListener = firstWriteListenerFuture.get();
+
+        final ListenableFuture<SshFutureListener<IoWriteFuture>> largeListener = stubAddListener(ioWriteFuture);
+        final byte[] large = new byte[16384];
+        final ChannelPromise largeWritePromise = getMockedPromise();
+        asyncSshHandler.write(ctx, Unpooled.wrappedBuffer(large), largeWritePromise);
+        final ChannelPromise smallWritePromise = getMockedPromise();
+        asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{6, 7, 8}), smallWritePromise);
+
+        // first write finished, the large request goes out on its own, sharing the message's array
+        firstWriteListener.operationComplete(ioWriteFuture);
+        final ArgumentCaptor<Buffer> captor = ArgumentCaptor.forClass(Buffer.class);
+        verify(asyncIn, times(3)).writePacket(captor.capture());
+        assertSame(large, captor.getValue().array());
+
+        final ListenableFuture<SshFutureListener<IoWriteFuture>> smallListener = stubAddListener(ioWriteFuture);
+        largeListener.get().operationComplete(ioWriteFuture);
+        verify(asyncIn, times(4)).writePacket(captor.capture());
+        assertArrayEquals(new byte[]{6, 7, 8}, captor.getValue().getCompactData());
+
+        smallListener.get().operationComplete(ioWriteFuture);
+        verify(firstWritePromise).setSuccess();
+        verify(largeWritePromise).setSuccess();
+        verify(smallWritePromise).setSuccess();
+    }
+
+    @Test
+    public void testWritePendingWatermark() throws Exception {
+        final EmbeddedChannel embeddedChannel = new EmbeddedChannel();
+        embeddedChannel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(4, 8));
+        doReturn(embeddedChannel).when(ctx).channel();
+        asyncSshHandler.connect(ctx, remoteAddress, localAddress, promise);
+
+        final IoInputStream asyncOut = getMockedIoInputStream();
+        final IoOutputStream asyncIn = getMockedIoOutputStream();
+        final IoWriteFuture ioWriteFuture = asyncIn.writePacket(new ByteArrayBuffer());
+
+        final ChannelSubsystem subsystemChannel = getMockedSubsystemChannel(asyncOut, asyncIn);
+        final ClientSession sshSession = getMockedSshSession(subsystemChannel);
+        final ConnectFuture connectFuture = getSuccessConnectFuture(sshSession);
+
+        sshConnectListener.operationComplete(connectFuture);
+        sshAuthListener.operationComplete(getSuccessAuthFuture());
+        sshChannelOpenListener.operationComplete(getSuccessOpenFuture());
+
+        final ListenableFuture<SshFutureListener<IoWriteFuture>> firstWriteListenerFuture =
+                stubAddListener(ioWriteFuture);
+        asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{0, 1, 2, 3, 4, 5}), getMockedPromise());
+        final SshFutureListener<IoWriteFuture> firstWriteListener = firstWriteListenerFuture.get();
+        final ListenableFuture<SshFutureListener<IoWriteFuture>> pendingListener = stubAddListener(ioWriteFuture);
+
+        // queue up to the high watermark, channel stays writable
+        asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{0, 1, 2, 3, 4, 5}), getMockedPromise());
+        assertTrue(embeddedChannel.isWritable());
+        assertEquals(1, asyncSshHandler.getPendingWriteCount());
+
+        // go over the high watermark
+        asyncSshHandler.write(ctx, Unpooled.copiedBuffer(new byte[]{0, 1, 2, 3, 4, 5}), getMockedPromise());
+        assertFalse(embeddedChannel.isWritable());
+        assertEquals(2, asyncSshHandler.getPendingWriteCount());
+        assertEquals(12, asyncSshHandler.getPendingWriteBytes());
+
+        // flush the queue, channel becomes writable again
+        firstWriteListener.operationComplete(ioWriteFuture);
+        pendingListener.get().operationComplete(ioWriteFuture);
+        assertTrue(embeddedChannel.isWritable());
+        assertEquals(0, asyncSshHandler.getPendingWriteCount());
+        assertEquals(0, asyncSshHandler.getPendingWriteBytes());
+        assertTrue(asyncSshHandler.getWriteStallTimeNanos() > 0);
+    }
+
     @Ignore("Pending queue is not limited")
     @Test
     public void testWritePendingMax() throws Exception {
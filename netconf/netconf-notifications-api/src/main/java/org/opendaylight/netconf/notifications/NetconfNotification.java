@@ -21,17 +21,22 @@ import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoField;
 import java.time.temporal.TemporalAccessor;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
-import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.DocumentedException;
+import org.opendaylight.netconf.api.SharedNetconfMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
 /**
- * Special kind of netconf message that contains a timestamp.
+ * Special kind of netconf message that contains a timestamp. As it is usually sent to all subscribed sessions, it is
+ * a {@link SharedNetconfMessage}.
  */
-public final class NetconfNotification extends NetconfMessage {
+public final class NetconfNotification extends SharedNetconfMessage {
 
     private static final Logger LOG = LoggerFactory.getLogger(NetconfNotification.class);
 
@@ -170,6 +175,9 @@ public final class NetconfNotification extends NetconfMessage {
 
     private final Date eventTime;
 
+    // Results of filtering this notification by equal filters, guarded by this object. Created on demand.
+    private Map<Object, Optional<NetconfNotification>> filtered;
+
     /**
      * Create new notification and capture the timestamp in the constructor.
      */
@@ -196,6 +204,45 @@ public final class NetconfNotification extends NetconfMessage {
         return eventTime;
     }
 
+    /**
+     * Return this notification filtered by a filter, filtering it only once for all equal filters. The filtered
+     * notification is shared as well, so it is also encoded only once for all sessions using equal filters. Filtering
+     * is serialized with encoding, as the document cannot be safely traversed by multiple threads at once.
+     *
+     * @param filter filter, compared by {@link Object#equals(Object)} to filters this notification was filtered by
+     * @param function function applying the filter to the document of this notification, yielding notification
+     *                 content or empty if nothing matches
+     * @return filtered notification, or empty if nothing matches
+     * @throws DocumentedException if the notification cannot be filtered
+     */
+    public synchronized Optional<NetconfNotification> getFiltered(final Object filter, final ContentFilter function)
+            throws DocumentedException {
+        if (filtered == null) {
+            filtered = new HashMap<>(2);
+        }
+        Optional<NetconfNotification> result = filtered.get(filter);
+        if (result == null) {
+            result = function.filter(getDocument()).map(content -> new NetconfNotification(content, eventTime));
+            filtered.put(filter, result);
+        }
+        return result;
+    }
+
+    /**
+     * Function filtering notification content out of a notification document.
+     */
+    @FunctionalInterface
+    public interface ContentFilter {
+        /**
+         * Filter a notification document. The document must not be modified.
+         *
+         * @param notification notification document
+         * @return document containing the filtered notification content, or empty if nothing matches
+         * @throws DocumentedException if the notification cannot be filtered
+         */
+        Optional<Document> filter(Document notification) throws DocumentedException;
+    }
+
     private static Document wrapNotification(final Document notificationContent, final Date eventTime) {
         requireNonNull(notificationContent);
         requireNonNull(eventTime);
@@ -20,4 +20,15 @@ public interface NetconfNotificationListener {
      */
     void onNotification(StreamNameType stream, NetconfNotification notification);
 
+    /**
+     * Check whether the listener can accept more notifications without them piling up in its outbound buffers. Delivery
+     * to a listener which is not ready is suspended until it runs the supplied callback. Notifications are queued for
+     * it in the meantime, and are dropped once too many of them are queued.
+     *
+     * @param onReady callback to run once the listener is ready again, if this method returns false
+     * @return True if the listener is ready
+     */
+    default boolean isReady(final Runnable onReady) {
+        return true;
+    }
 }
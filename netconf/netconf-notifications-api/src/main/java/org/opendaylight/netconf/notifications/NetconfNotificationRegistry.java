@@ -8,6 +8,8 @@
 
 package org.opendaylight.netconf.notifications;
 
+import java.util.Date;
+import java.util.Optional;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.notification._1._0.rev080714.StreamNameType;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netmod.notification.rev080714.netconf.Streams;
 
@@ -19,6 +21,31 @@ public interface NetconfNotificationRegistry {
     NotificationListenerRegistration registerNotificationListener(StreamNameType stream,
                                                                   NetconfNotificationListener listener);
 
+    /**
+     * Add listener for a certain notification type, replaying logged notifications first, as described in RFC 5277.
+     * The listener receives the notifications of the stream logged since {@code startTime} followed by a
+     * {@code replayComplete} notification and, once {@code stopTime} passes, a {@code notificationComplete}
+     * notification, after which it is unregistered.
+     *
+     * @param stream stream to listen to
+     * @param listener listener to register
+     * @param startTime time to start the replay at
+     * @param stopTime time to stop listening at, if any
+     * @return registration of the listener
+     * @throws IllegalArgumentException if the stream does not support replay
+     */
+    default NotificationListenerRegistration registerNotificationListener(final StreamNameType stream,
+            final NetconfNotificationListener listener, final Date startTime, final Optional<Date> stopTime) {
+        throw new IllegalArgumentException("Stream " + stream.getValue() + " does not support replay");
+    }
+
+    /**
+     * Check whether notifications of a stream can be replayed.
+     */
+    default boolean isReplaySupported(final StreamNameType streamNameType) {
+        return false;
+    }
+
     /**
      * Check stream availability.
      */
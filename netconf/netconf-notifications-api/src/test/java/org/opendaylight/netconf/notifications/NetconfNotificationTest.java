@@ -9,9 +9,14 @@
 package org.opendaylight.netconf.notifications;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 import org.opendaylight.yangtools.util.xml.UntrustedXML;
 import org.w3c.dom.Document;
@@ -55,4 +60,32 @@ public class NetconfNotificationTest {
         assertEquals(eventTime, netconfNotification.getEventTime());
 
     }
+
+    @Test
+    public void testFilteredShared() throws Exception {
+        final Document document = UntrustedXML.newDocumentBuilder().newDocument();
+        document.appendChild(document.createElement("test-root"));
+        final NetconfNotification netconfNotification = new NetconfNotification(document);
+
+        final AtomicInteger filterings = new AtomicInteger();
+        final NetconfNotification.ContentFilter function = notification -> {
+            filterings.incrementAndGet();
+            final Document content = UntrustedXML.newDocumentBuilder().newDocument();
+            content.appendChild(content.importNode(notification.getDocumentElement().getFirstChild(), true));
+            return Optional.of(content);
+        };
+
+        // Equal filters share a single filtered notification
+        final NetconfNotification filtered = netconfNotification.getFiltered(Optional.of("filter"), function).get();
+        assertSame(filtered, netconfNotification.getFiltered(Optional.of("filter"), function).get());
+        assertEquals(1, filterings.get());
+        assertEquals(netconfNotification.getEventTime(), filtered.getEventTime());
+
+        assertNotSame(filtered, netconfNotification.getFiltered("other", function).get());
+        assertEquals(2, filterings.get());
+
+        // Empty results are shared as well
+        assertFalse(netconfNotification.getFiltered("none", notification -> Optional.empty()).isPresent());
+        assertFalse(netconfNotification.getFiltered("none", function).isPresent());
+    }
 }
@@ -15,6 +15,8 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.util.HashedWheelTimer;
 import io.netty.util.concurrent.EventExecutor;
 import java.util.Collection;
 import java.util.Map;
@@ -75,6 +77,10 @@ public class NetconfTopologyManager
     private final DOMActionProviderService actionProviderRegistry;
     private final ClusterSingletonServiceProvider clusterSingletonServiceProvider;
     private final ScheduledExecutorService keepaliveExecutor;
+    // Keepalive and request timeouts of all devices are tracked on a single wheel, its thread starts with the first
+    // timeout
+    private final HashedWheelTimer keepaliveTimer = new HashedWheelTimer(new ThreadFactoryBuilder()
+        .setNameFormat("netconf-keepalive-timer-%d").setDaemon(true).build(), 100, TimeUnit.MILLISECONDS);
     private final ListeningExecutorService processingExecutor;
     private final ActorSystem actorSystem;
     private final EventExecutor eventExecutor;
@@ -225,6 +231,7 @@ public class NetconfTopologyManager
 
         contexts.clear();
         clusterRegistrations.clear();
+        keepaliveTimer.stop();
     }
 
     @SuppressWarnings("checkstyle:IllegalCatch")
@@ -292,6 +299,7 @@ public class NetconfTopologyManager
                 .setActorSystem(actorSystem)
                 .setEventExecutor(eventExecutor)
                 .setKeepaliveExecutor(keepaliveExecutor)
+                .setKeepaliveTimer(keepaliveTimer)
                 .setProcessingExecutor(processingExecutor)
                 .setTopologyId(topologyId)
                 .setNetconfClientDispatcher(clientDispatcher)
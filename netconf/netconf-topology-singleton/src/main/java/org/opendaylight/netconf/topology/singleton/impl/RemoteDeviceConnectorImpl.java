@@ -162,8 +162,8 @@ public class RemoteDeviceConnectorImpl implements RemoteDeviceConnector {
         if (keepaliveDelay > 0) {
             LOG.info("{}: Adding keepalive facade.", remoteDeviceId);
             salFacade = new KeepaliveSalFacade(remoteDeviceId, salFacade,
-                    netconfTopologyDeviceSetup.getKeepaliveExecutor(), keepaliveDelay,
-                    defaultRequestTimeoutMillis);
+                    netconfTopologyDeviceSetup.getKeepaliveExecutor(), netconfTopologyDeviceSetup.getKeepaliveTimer(),
+                    keepaliveDelay, defaultRequestTimeoutMillis);
         }
 
         final NetconfDevice.SchemaResourcesDTO schemaResourcesDTO = netconfTopologyDeviceSetup.getSchemaResourcesDTO();
@@ -209,6 +209,12 @@ public class RemoteDeviceConnectorImpl implements RemoteDeviceConnector {
                     .setId(remoteDeviceId)
                     .setDeviceActionFactory(deviceActionFactory)
                     .setSalFacade(salFacade)
+                    .setNotificationQueueDepth(node.getNotificationDecodingQueueDepth() == null
+                            ? NetconfTopologyUtils.DEFAULT_NOTIFICATION_DECODING_QUEUE_DEPTH
+                            : node.getNotificationDecodingQueueDepth().toJava())
+                    .setNotificationOverflowPolicy(node.getNotificationOverflowPolicy() == null
+                            ? NetconfTopologyUtils.DEFAULT_NOTIFICATION_OVERFLOW_POLICY
+                            : node.getNotificationOverflowPolicy())
                     .build();
         }
 
@@ -221,13 +227,18 @@ public class RemoteDeviceConnectorImpl implements RemoteDeviceConnector {
             LOG.info("{}: Concurrent rpc limit is smaller than 1, no limit will be enforced.", remoteDeviceId);
         }
 
-        NetconfDeviceCommunicator netconfDeviceCommunicator =
-             userCapabilities.isPresent() ? new NetconfDeviceCommunicator(remoteDeviceId, device,
-             new UserPreferences(userCapabilities.get(),
+        final int rpcQueueDepth = node.getConcurrentRpcQueueDepth() == null
+                ? NetconfTopologyUtils.DEFAULT_CONCURRENT_RPC_QUEUE_DEPTH : node.getConcurrentRpcQueueDepth().toJava();
+        final long rpcQueueTimeoutMillis = node.getConcurrentRpcQueueTimeoutMillis() == null
+                ? NetconfTopologyUtils.DEFAULT_CONCURRENT_RPC_QUEUE_TIMEOUT_MILLIS
+                : node.getConcurrentRpcQueueTimeoutMillis().toJava();
+
+        NetconfDeviceCommunicator netconfDeviceCommunicator = new NetconfDeviceCommunicator(remoteDeviceId, device,
+             userCapabilities.map(caps -> new UserPreferences(caps,
                  node.getYangModuleCapabilities() == null ? false : node.getYangModuleCapabilities().isOverride(),
-                 node.getNonModuleCapabilities() == null ? false : node.getNonModuleCapabilities().isOverride()),
-             rpcMessageLimit)
-            : new NetconfDeviceCommunicator(remoteDeviceId, device, rpcMessageLimit);
+                 node.getNonModuleCapabilities() == null ? false : node.getNonModuleCapabilities().isOverride()))
+                 .orElse(null),
+             rpcMessageLimit, rpcQueueDepth, rpcQueueTimeoutMillis, netconfTopologyDeviceSetup.getKeepaliveExecutor());
 
         if (salFacade instanceof KeepaliveSalFacade) {
             ((KeepaliveSalFacade)salFacade).setListener(netconfDeviceCommunicator);
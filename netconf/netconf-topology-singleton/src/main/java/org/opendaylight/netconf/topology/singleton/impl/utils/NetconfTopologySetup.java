@@ -9,6 +9,7 @@ package org.opendaylight.netconf.topology.singleton.impl.utils;
 
 import akka.actor.ActorSystem;
 import com.google.common.util.concurrent.ListeningExecutorService;
+import io.netty.util.Timer;
 import io.netty.util.concurrent.EventExecutor;
 import java.util.concurrent.ScheduledExecutorService;
 import org.opendaylight.aaa.encrypt.AAAEncryptionService;
@@ -31,6 +32,7 @@ public class NetconfTopologySetup {
     private final InstanceIdentifier<Node> instanceIdentifier;
     private final Node node;
     private final ScheduledExecutorService keepaliveExecutor;
+    private final Timer keepaliveTimer;
     private final ListeningExecutorService processingExecutor;
     private final ActorSystem actorSystem;
     private final EventExecutor eventExecutor;
@@ -50,6 +52,7 @@ public class NetconfTopologySetup {
         this.instanceIdentifier = builder.getInstanceIdentifier();
         this.node = builder.getNode();
         this.keepaliveExecutor = builder.getKeepaliveExecutor();
+        this.keepaliveTimer = builder.getKeepaliveTimer();
         this.processingExecutor = builder.getProcessingExecutor();
         this.actorSystem = builder.getActorSystem();
         this.eventExecutor = builder.getEventExecutor();
@@ -94,6 +97,10 @@ public class NetconfTopologySetup {
         return keepaliveExecutor;
     }
 
+    public Timer getKeepaliveTimer() {
+        return keepaliveTimer;
+    }
+
     public ActorSystem getActorSystem() {
         return actorSystem;
     }
@@ -139,6 +146,7 @@ public class NetconfTopologySetup {
         private InstanceIdentifier<Node> instanceIdentifier;
         private Node node;
         private ScheduledExecutorService keepaliveExecutor;
+        private Timer keepaliveTimer;
         private ListeningExecutorService processingExecutor;
         private ActorSystem actorSystem;
         private EventExecutor eventExecutor;
@@ -223,6 +231,15 @@ public class NetconfTopologySetup {
             return this;
         }
 
+        Timer getKeepaliveTimer() {
+            return keepaliveTimer;
+        }
+
+        public NetconfTopologySetupBuilder setKeepaliveTimer(final Timer keepaliveTimer) {
+            this.keepaliveTimer = keepaliveTimer;
+            return this;
+        }
+
         ListeningExecutorService getProcessingExecutor() {
             return processingExecutor;
         }
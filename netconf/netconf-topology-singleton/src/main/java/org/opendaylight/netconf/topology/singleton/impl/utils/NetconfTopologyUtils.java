@@ -22,6 +22,7 @@ import org.opendaylight.netconf.sal.connect.netconf.NetconfStateSchemasResolverI
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeConnectionParameters.NotificationOverflowPolicy;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NetworkTopology;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TopologyId;
@@ -54,6 +55,11 @@ public final class NetconfTopologyUtils {
     public static final boolean DEFAULT_RECONNECT_ON_CHANGED_SCHEMA = false;
     public static final boolean DEFAULT_IS_TCP_ONLY = false;
     public static final int DEFAULT_CONCURRENT_RPC_LIMIT = 0;
+    public static final int DEFAULT_CONCURRENT_RPC_QUEUE_DEPTH = 0;
+    public static final long DEFAULT_CONCURRENT_RPC_QUEUE_TIMEOUT_MILLIS = 60000L;
+    public static final int DEFAULT_NOTIFICATION_DECODING_QUEUE_DEPTH = 0;
+    public static final NotificationOverflowPolicy DEFAULT_NOTIFICATION_OVERFLOW_POLICY =
+        NotificationOverflowPolicy.DropOldest;
     public static final int DEFAULT_MAX_CONNECTION_ATTEMPTS = 0;
     public static final int DEFAULT_BETWEEN_ATTEMPTS_TIMEOUT_MILLIS = 2000;
     public static final long DEFAULT_CONNECTION_TIMEOUT_MILLIS = 20000L;
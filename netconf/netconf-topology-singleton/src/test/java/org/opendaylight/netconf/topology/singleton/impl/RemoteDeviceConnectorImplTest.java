@@ -24,6 +24,7 @@ import akka.actor.ActorSystem;
 import akka.util.Timeout;
 import com.google.common.net.InetAddresses;
 import com.google.common.util.concurrent.ListeningExecutorService;
+import io.netty.util.Timer;
 import io.netty.util.concurrent.EventExecutor;
 import java.net.InetSocketAddress;
 import java.util.concurrent.ScheduledExecutorService;
@@ -84,6 +85,9 @@ public class RemoteDeviceConnectorImplTest {
     @Mock
     private ScheduledExecutorService keepaliveExecutor;
 
+    @Mock
+    private Timer keepaliveTimer;
+
     @Mock
     private ListeningExecutorService processingExecutor;
 
@@ -128,6 +132,7 @@ public class RemoteDeviceConnectorImplTest {
         builder.setRpcProviderRegistry(rpcProviderRegistry);
         builder.setClusterSingletonServiceProvider(clusterSingletonServiceProvider);
         builder.setKeepaliveExecutor(keepaliveExecutor);
+        builder.setKeepaliveTimer(keepaliveTimer);
         builder.setProcessingExecutor(processingExecutor);
         builder.setActorSystem(actorSystem);
         builder.setEventExecutor(eventExecutor);
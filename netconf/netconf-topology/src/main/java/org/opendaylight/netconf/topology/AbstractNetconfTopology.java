@@ -18,7 +18,9 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.common.util.concurrent.Uninterruptibles;
+import io.netty.util.HashedWheelTimer;
 import io.netty.util.concurrent.EventExecutor;
 import java.io.File;
 import java.math.BigDecimal;
@@ -69,6 +71,7 @@ import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.optional.rev190614.NetconfNodeAugmentedOptional;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeConnectionParameters.NotificationOverflowPolicy;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.parameters.Protocol;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.parameters.Protocol.Name;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.available.capabilities.AvailableCapability.CapabilityOrigin;
@@ -106,6 +109,11 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
     protected static final int DEFAULT_KEEPALIVE_DELAY = 0;
     protected static final boolean DEFAULT_RECONNECT_ON_CHANGED_SCHEMA = false;
     protected static final int DEFAULT_CONCURRENT_RPC_LIMIT = 0;
+    protected static final int DEFAULT_CONCURRENT_RPC_QUEUE_DEPTH = 0;
+    protected static final long DEFAULT_CONCURRENT_RPC_QUEUE_TIMEOUT_MILLIS = 60000L;
+    protected static final int DEFAULT_NOTIFICATION_DECODING_QUEUE_DEPTH = 0;
+    protected static final NotificationOverflowPolicy DEFAULT_NOTIFICATION_OVERFLOW_POLICY =
+        NotificationOverflowPolicy.DropOldest;
     private static final boolean DEFAULT_IS_TCP_ONLY = false;
     private static final int DEFAULT_MAX_CONNECTION_ATTEMPTS = 0;
     private static final int DEFAULT_BETWEEN_ATTEMPTS_TIMEOUT_MILLIS = 2000;
@@ -201,6 +209,10 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
     private final DeviceActionFactory deviceActionFactory;
     private final NetconfKeystoreAdapter keystoreAdapter;
     protected final ScheduledThreadPool keepaliveExecutor;
+    // Keepalive and request timeouts of all devices are tracked on a single wheel, its thread starts with the first
+    // timeout and has to be stopped when the topology is closed
+    protected final HashedWheelTimer keepaliveTimer = new HashedWheelTimer(new ThreadFactoryBuilder()
+        .setNameFormat("netconf-keepalive-timer-%d").setDaemon(true).build(), 100, TimeUnit.MILLISECONDS);
     protected final ListeningExecutorService processingExecutor;
     protected final SharedSchemaRepository sharedSchemaRepository;
     protected final DataBroker dataBroker;
@@ -338,7 +350,7 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
         if (keepaliveDelay > 0) {
             LOG.warn("Adding keepalive facade, for device {}", nodeId);
             salFacade = new KeepaliveSalFacade(remoteDeviceId, salFacade, this.keepaliveExecutor.getExecutor(),
-                    keepaliveDelay, defaultRequestTimeoutMillis);
+                    keepaliveTimer, keepaliveDelay, defaultRequestTimeoutMillis);
         }
 
         // pre register yang library sources as fallback schemas to schema registry
@@ -382,7 +394,11 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
                     .setNode(node)
                     .setEventExecutor(eventExecutor)
                     .setNodeOptional(nodeOptional)
-                    .setDeviceActionFactory(deviceActionFactory);
+                    .setDeviceActionFactory(deviceActionFactory)
+                    .setNotificationQueueDepth(node.getNotificationDecodingQueueDepth() == null
+                        ? DEFAULT_NOTIFICATION_DECODING_QUEUE_DEPTH : node.getNotificationDecodingQueueDepth().toJava())
+                    .setNotificationOverflowPolicy(node.getNotificationOverflowPolicy() == null
+                        ? DEFAULT_NOTIFICATION_OVERFLOW_POLICY : node.getNotificationOverflowPolicy());
             device = netconfDeviceBuilder.build();
         }
 
@@ -394,10 +410,14 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
             LOG.info("Concurrent rpc limit is smaller than 1, no limit will be enforced for device {}", remoteDeviceId);
         }
 
-        NetconfDeviceCommunicator netconfDeviceCommunicator =
-             userCapabilities.isPresent() ? new NetconfDeviceCommunicator(remoteDeviceId, device,
-                     userCapabilities.get(), rpcMessageLimit)
-            : new NetconfDeviceCommunicator(remoteDeviceId, device, rpcMessageLimit);
+        final int rpcQueueDepth = node.getConcurrentRpcQueueDepth() == null ? DEFAULT_CONCURRENT_RPC_QUEUE_DEPTH
+            : node.getConcurrentRpcQueueDepth().toJava();
+        final long rpcQueueTimeoutMillis = node.getConcurrentRpcQueueTimeoutMillis() == null
+            ? DEFAULT_CONCURRENT_RPC_QUEUE_TIMEOUT_MILLIS : node.getConcurrentRpcQueueTimeoutMillis().toJava();
+
+        NetconfDeviceCommunicator netconfDeviceCommunicator = new NetconfDeviceCommunicator(remoteDeviceId, device,
+            userCapabilities.orElse(null), rpcMessageLimit, rpcQueueDepth, rpcQueueTimeoutMillis,
+            keepaliveExecutor.getExecutor());
 
         if (salFacade instanceof KeepaliveSalFacade) {
             ((KeepaliveSalFacade)salFacade).setListener(netconfDeviceCommunicator);
@@ -28,6 +28,7 @@ import org.opendaylight.netconf.sal.connect.api.DeviceActionFactory;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceSalFacade;
+import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfTopologyStatusWriter;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.netconf.topology.AbstractNetconfTopology;
 import org.opendaylight.netconf.topology.api.SchemaRepositoryProvider;
@@ -49,6 +50,8 @@ public class NetconfTopologyImpl extends AbstractNetconfTopology
     private static final Logger LOG = LoggerFactory.getLogger(NetconfTopologyImpl.class);
 
     private ListenerRegistration<NetconfTopologyImpl> datastoreListenerRegistration = null;
+    private long statusWriteWindow;
+    private NetconfTopologyStatusWriter statusWriter = null;
 
     public NetconfTopologyImpl(final String topologyId, final NetconfClientDispatcher clientDispatcher,
             final EventExecutor eventExecutor, final ScheduledThreadPool keepaliveExecutor,
@@ -83,17 +86,36 @@ public class NetconfTopologyImpl extends AbstractNetconfTopology
             datastoreListenerRegistration.close();
             datastoreListenerRegistration = null;
         }
+        if (statusWriter != null) {
+            statusWriter.close();
+            statusWriter = null;
+        }
+        keepaliveTimer.stop();
+    }
+
+    /**
+     * Sets the window in milliseconds over which operational status updates of all devices are batched, using
+     * blueprint. Zero keeps writing the status of each device in its own transactions.
+     */
+    public void setStatusWriteWindow(final long statusWriteWindow) {
+        this.statusWriteWindow = statusWriteWindow;
     }
 
     @Override
     protected RemoteDeviceHandler<NetconfSessionPreferences> createSalFacade(final RemoteDeviceId id) {
-        return new NetconfDeviceSalFacade(id, mountPointService, dataBroker, topologyId);
+        return new NetconfDeviceSalFacade(id, mountPointService, dataBroker, topologyId, statusWriter,
+            keepaliveExecutor.getExecutor());
     }
 
     /**
      * Invoked by blueprint.
      */
     public void init() {
+        if (statusWriteWindow > 0) {
+            statusWriter = new NetconfTopologyStatusWriter(dataBroker, statusWriteWindow,
+                keepaliveExecutor.getExecutor());
+        }
+
         final WriteTransaction wtx = dataBroker.newWriteOnlyTransaction();
         initTopology(wtx, LogicalDatastoreType.CONFIGURATION);
         initTopology(wtx, LogicalDatastoreType.OPERATIONAL);
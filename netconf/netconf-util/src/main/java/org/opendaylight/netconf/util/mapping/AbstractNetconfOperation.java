@@ -7,6 +7,7 @@
  */
 package org.opendaylight.netconf.util.mapping;
 
+import java.lang.reflect.Method;
 import java.util.Map;
 import java.util.Optional;
 import org.opendaylight.netconf.api.DocumentedException;
@@ -22,6 +23,21 @@ import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
 public abstract class AbstractNetconfOperation implements NetconfOperation {
+    // Whether a class relies on the canHandle implementation of this class
+    private static final ClassValue<Boolean> HANDLES_BY_NAME = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            for (Class<?> cls = type; cls != AbstractNetconfOperation.class; cls = cls.getSuperclass()) {
+                for (Method method : cls.getDeclaredMethods()) {
+                    if ("canHandle".equals(method.getName()) && !method.isSynthetic()) {
+                        return Boolean.FALSE;
+                    }
+                }
+            }
+            return Boolean.TRUE;
+        }
+    };
+
     private final String netconfSessionIdForReporting;
 
     protected AbstractNetconfOperation(final String netconfSessionIdForReporting) {
@@ -45,6 +61,30 @@ public abstract class AbstractNetconfOperation implements NetconfOperation {
                 : HandlingPriority.CANNOT_HANDLE;
     }
 
+    /**
+     * Check whether this operation decides if it can handle a message solely based on the message's operation name
+     * and namespace, i.e. whether it does not override canHandle. Such an operation handles exactly the messages
+     * with {@link #getHandledOperationName()} and {@link #getHandledOperationNamespace()}, with
+     * {@link #getHandledPriority()}, and can be dispatched without calling canHandle.
+     *
+     * @return true if the operation handles messages by operation name and namespace
+     */
+    public final boolean handlesByName() {
+        return HANDLES_BY_NAME.get(getClass());
+    }
+
+    public final String getHandledOperationName() {
+        return getOperationName();
+    }
+
+    public final String getHandledOperationNamespace() {
+        return getOperationNamespace();
+    }
+
+    public final HandlingPriority getHandledPriority() {
+        return getHandlingPriority();
+    }
+
     public static final class OperationNameAndNamespace {
         private final String operationName;
         private final String namespace;
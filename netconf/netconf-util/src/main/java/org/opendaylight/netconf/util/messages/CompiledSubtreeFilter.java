@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.util.messages;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import javax.xml.XMLConstants;
+import org.opendaylight.netconf.api.DocumentedException;
+import org.opendaylight.netconf.api.xml.XmlElement;
+import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.opendaylight.netconf.util.messages.SubtreeFilter.MatchingResult;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+
+/**
+ * A filter element compiled into an immutable tree of filter nodes, which can be applied to any number of documents.
+ * Filtering yields the same result as {@link SubtreeFilter}, but the data is walked in a single pass: filter nodes
+ * which may select a data element are looked up by its local name, and DOM nodes are not wrapped in
+ * {@link XmlElement}s.
+ *
+ * <p>Compiled filters are equal if they select the same data, even if they were compiled from different elements. This
+ * allows the result of filtering a shared document to be shared by all users of equal filters.
+ */
+public final class CompiledSubtreeFilter {
+    private final FilterNode root;
+    private final boolean subtree;
+
+    private CompiledSubtreeFilter(final FilterNode root, final boolean subtree) {
+        this.root = root;
+        this.subtree = subtree;
+    }
+
+    /**
+     * Compile a filter element.
+     *
+     * @param filter filter element
+     * @return compiled filter
+     * @throws DocumentedException if the filter is not valid
+     */
+    public static CompiledSubtreeFilter compile(final XmlElement filter) throws DocumentedException {
+        return new CompiledSubtreeFilter(new FilterNode(filter), SubtreeFilter.isSupported(filter));
+    }
+
+    /**
+     * Filter the data of a get or get-config reply. If the filter is not of type "subtree", the reply is returned
+     * unchanged.
+     *
+     * @param rpcReply rpc-reply document
+     * @return document containing the filtered reply
+     * @throws DocumentedException if the reply cannot be filtered
+     */
+    public Document filterRpcReply(final Document rpcReply) throws DocumentedException {
+        if (!subtree) {
+            return rpcReply;
+        }
+
+        final Document result = XmlUtil.newDocument();
+        // even if filter is empty, copy /rpc/data
+        final Element rpcReplyElement = rpcReply.getDocumentElement();
+        final Node rpcReplyDst = result.importNode(rpcReplyElement, false);
+        result.appendChild(rpcReplyDst);
+        final Element dataSrc = XmlElement.fromDomElement(rpcReplyElement).getOnlyChildElement(
+            XmlNetconfConstants.DATA_KEY, XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0).getDomElement();
+        final Element dataDst = (Element) result.importNode(dataSrc, false);
+        rpcReplyDst.appendChild(dataDst);
+        root.applyChildren(dataSrc, dataDst);
+        return result;
+    }
+
+    /**
+     * Filter notification content. If the filter is not of type "subtree", the unchanged notification content is
+     * returned. The notification document is not modified.
+     *
+     * @param notification notification document
+     * @return document containing the filtered notification content, or empty if nothing matches
+     * @throws DocumentedException if the notification cannot be filtered
+     */
+    public Optional<Document> filterNotification(final Document notification) throws DocumentedException {
+        final XmlElement content = SubtreeFilter.notificationContent(notification);
+        if (!subtree) {
+            return Optional.of(SubtreeFilter.extractNotificationContent(content));
+        }
+
+        final Document result = XmlUtil.newDocument();
+        final Element dataDst = (Element) result.importNode(notification.getDocumentElement(), false);
+        final Element contentSrc = content.getDomElement();
+        for (FilterNode filterNode : root.childrenMatching(contentSrc)) {
+            filterNode.apply(contentSrc, dataDst);
+        }
+        if (dataDst.getFirstChild() == null) {
+            return Optional.empty();
+        }
+        result.appendChild(dataDst.getFirstChild());
+        return Optional.of(result);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(root, subtree);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CompiledSubtreeFilter)) {
+            return false;
+        }
+        final CompiledSubtreeFilter other = (CompiledSubtreeFilter) obj;
+        return subtree == other.subtree && root.equals(other.root);
+    }
+
+    private static String localName(final Element element) {
+        final String localName = element.getLocalName();
+        return Strings.isNullOrEmpty(localName) ? element.getTagName() : localName;
+    }
+
+    private static String namespace(final Element element) {
+        return Strings.emptyToNull(element.getNamespaceURI());
+    }
+
+    private static Optional<String> onlyTextContent(final Element element) {
+        final Node child = element.getFirstChild();
+        return child instanceof Text && child.getNextSibling() == null ? Optional.of(((Text) child).getWholeText())
+            : Optional.empty();
+    }
+
+    /**
+     * A filter element: a selection or containment node, or a content match node.
+     */
+    private static final class FilterNode {
+        private final String namespace;
+        // Content to match, empty for selection and containment nodes
+        private final Optional<String> content;
+        // Namespace and unprefixed content of prefixed content, null if the content is not prefixed
+        private final String contentNamespace;
+        private final String unprefixedContent;
+        private final List<AttributeMatch> attributes;
+        private final int childCount;
+        private final ImmutableListMultimap<String, FilterNode> childrenByName;
+        // Filter trees are immutable and compared as a whole, hash them only once
+        private final int hashCode;
+
+        FilterNode(final XmlElement filter) throws DocumentedException {
+            namespace = filter.getNamespaceOptionally().orElse(null);
+            content = filter.getOnlyTextContentOptionally();
+
+            Map.Entry<String, String> prefixToNamespace = null;
+            if (content.isPresent()) {
+                try {
+                    prefixToNamespace = filter.findNamespaceOfTextContent();
+                } catch (IllegalArgumentException e) {
+                    // if we can't find namespace of prefix - it's not a prefix
+                    prefixToNamespace = null;
+                }
+            }
+            if (prefixToNamespace != null && !prefixToNamespace.getKey().equals(XmlElement.DEFAULT_NAMESPACE_PREFIX)) {
+                contentNamespace = prefixToNamespace.getValue();
+                unprefixedContent = filter.getTextContent().substring(prefixToNamespace.getKey().length() + 1);
+            } else {
+                contentNamespace = null;
+                unprefixedContent = null;
+            }
+
+            final ImmutableList.Builder<AttributeMatch> attributesBuilder = ImmutableList.builder();
+            final NamedNodeMap attrs = filter.getDomElement().getAttributes();
+            for (int i = 0; i < attrs.getLength(); i++) {
+                final Attr attr = (Attr) attrs.item(i);
+                // ignore namespace declarations
+                if (!XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attr.getNamespaceURI())) {
+                    attributesBuilder.add(new AttributeMatch(attr));
+                }
+            }
+            attributes = attributesBuilder.build();
+
+            final List<XmlElement> children = filter.getChildElements();
+            final ImmutableListMultimap.Builder<String, FilterNode> childrenBuilder = ImmutableListMultimap.builder();
+            for (XmlElement child : children) {
+                childrenBuilder.put(child.getName(), new FilterNode(child));
+            }
+            childCount = children.size();
+            childrenByName = childrenBuilder.build();
+            hashCode = Objects.hash(namespace, content, attributes, childrenByName);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FilterNode)) {
+                return false;
+            }
+            final FilterNode other = (FilterNode) obj;
+            return hashCode == other.hashCode && Objects.equals(namespace, other.namespace)
+                && content.equals(other.content) && Objects.equals(contentNamespace, other.contentNamespace)
+                && attributes.equals(other.attributes) && childrenByName.equals(other.childrenByName);
+        }
+
+        /**
+         * Return the child filter nodes with the same name and namespace as a data element, in filter order.
+         */
+        List<FilterNode> childrenMatching(final Element src) {
+            final ImmutableList<FilterNode> candidates = childrenByName.get(localName(src));
+            if (candidates.isEmpty()) {
+                return candidates;
+            }
+            final String srcNamespace = namespace(src);
+            if (candidates.size() == 1) {
+                return Objects.equals(candidates.get(0).namespace, srcNamespace) ? candidates : ImmutableList.of();
+            }
+            return candidates.stream().filter(candidate -> Objects.equals(candidate.namespace, srcNamespace))
+                .collect(ImmutableList.toImmutableList());
+        }
+
+        /**
+         * Apply child filter nodes to all child elements of src, appending matches to dst.
+         */
+        void applyChildren(final Element src, final Element dst) throws DocumentedException {
+            for (Node child = src.getFirstChild(); child != null; child = child.getNextSibling()) {
+                if (child.getNodeType() == Node.ELEMENT_NODE) {
+                    for (FilterNode filterChild : childrenMatching((Element) child)) {
+                        filterChild.apply((Element) child, dst);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Apply this filter node to a data element with the same name and namespace, appending the data selected by
+         * it to dstParent.
+         */
+        MatchingResult apply(final Element src, final Element dstParent) throws DocumentedException {
+            final MatchingResult matches = matches(src);
+            if (matches != MatchingResult.TAG_MATCH && matches != MatchingResult.CONTENT_MATCH) {
+                return matches;
+            }
+
+            final Document document = dstParent.getOwnerDocument();
+            if (childCount == 0) {
+                // copy to depth if this is leaf of filter tree
+                dstParent.appendChild(document.importNode(src, true));
+                return matches;
+            }
+
+            Element copied = (Element) document.importNode(src, false);
+            boolean shouldAppend = false;
+            int numberOfTextMatchingChildren = 0;
+            for (Node child = src.getFirstChild(); child != null; child = child.getNextSibling()) {
+                if (child.getNodeType() != Node.ELEMENT_NODE) {
+                    continue;
+                }
+                for (FilterNode filterChild : childrenMatching((Element) child)) {
+                    final MatchingResult childMatch = filterChild.apply((Element) child, copied);
+                    if (childMatch == MatchingResult.CONTENT_MISMATCH) {
+                        return MatchingResult.NO_MATCH;
+                    }
+                    if (childMatch == MatchingResult.CONTENT_MATCH) {
+                        numberOfTextMatchingChildren++;
+                    }
+                    shouldAppend |= childMatch != MatchingResult.NO_MATCH;
+                }
+            }
+            // if only text matching child filters are specified, all children are added
+            if (numberOfTextMatchingChildren == childCount) {
+                copied = (Element) document.importNode(src, true);
+            }
+            if (shouldAppend) {
+                dstParent.appendChild(copied);
+            }
+            return matches;
+        }
+
+        private MatchingResult matches(final Element src) throws DocumentedException {
+            if (content.isPresent()) {
+                return content.equals(onlyTextContent(src)) || prefixedContentMatches(src)
+                    ? MatchingResult.CONTENT_MATCH : MatchingResult.CONTENT_MISMATCH;
+            }
+            // combination of content and attributes is not supported
+            for (AttributeMatch attribute : attributes) {
+                if (!attribute.matches(src)) {
+                    return MatchingResult.NO_MATCH;
+                }
+            }
+            return MatchingResult.TAG_MATCH;
+        }
+
+        private boolean prefixedContentMatches(final Element src) throws DocumentedException {
+            if (contentNamespace == null) {
+                return false;
+            }
+
+            final XmlElement srcElement = XmlElement.fromDomElement(src);
+            final Map.Entry<String, String> prefixToNamespace;
+            try {
+                prefixToNamespace = srcElement.findNamespaceOfTextContent();
+            } catch (IllegalArgumentException e) {
+                // if we can't find namespace of prefix - it's not a prefix, so it doesn't match
+                return false;
+            }
+            return contentNamespace.equals(prefixToNamespace.getValue()) && unprefixedContent.equals(
+                srcElement.getTextContent().substring(prefixToNamespace.getKey().length() + 1));
+        }
+    }
+
+    private static final class AttributeMatch {
+        private final String localName;
+        private final String namespace;
+        private final String value;
+
+        AttributeMatch(final Attr attr) {
+            localName = attr.getLocalName();
+            namespace = attr.getNamespaceURI();
+            value = attr.getValue();
+        }
+
+        boolean matches(final Element src) {
+            return value.equals(src.getAttributeNS(namespace, localName));
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(localName, namespace, value);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof AttributeMatch)) {
+                return false;
+            }
+            final AttributeMatch other = (AttributeMatch) obj;
+            return Objects.equals(localName, other.localName) && Objects.equals(namespace, other.namespace)
+                && value.equals(other.value);
+        }
+    }
+}
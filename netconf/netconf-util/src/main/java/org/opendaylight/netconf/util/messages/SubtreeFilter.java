@@ -7,8 +7,11 @@
  */
 package org.opendaylight.netconf.util.messages;
 
+import com.google.common.annotations.VisibleForTesting;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import javax.xml.XMLConstants;
 import org.opendaylight.netconf.api.DocumentedException;
 import org.opendaylight.netconf.api.xml.XmlElement;
@@ -48,9 +51,7 @@ public final class SubtreeFilter {
             }
             XmlElement filter = maybeFilter.get();
             if (isSupported(filter)) {
-
-                // do
-                return filtered(maybeFilter.get(), rpcReply);
+                return CompiledSubtreeFilter.compile(filter).filterRpcReply(rpcReply);
             }
         }
 
@@ -59,7 +60,8 @@ public final class SubtreeFilter {
 
     /**
      * Filters notification content. If filter type isn't of type "subtree", returns unchanged notification content.
-     * If no match is found, absent is returned.
+     * If no match is found, absent is returned. The notification document is not modified. Use
+     * {@link CompiledSubtreeFilter} to apply the same filter to multiple notifications.
      * @param filter filter
      * @param notification notification
      * @return document containing filtered notification content
@@ -67,40 +69,51 @@ public final class SubtreeFilter {
      */
     public static Optional<Document> applySubtreeNotificationFilter(final XmlElement filter,
             final Document notification) throws DocumentedException {
-        removeEventTimeNode(notification);
+        final XmlElement content = notificationContent(notification);
         if (isSupported(filter)) {
-            return Optional.ofNullable(filteredNotification(filter, notification));
+            return Optional.ofNullable(filteredNotification(filter, notification, content));
         }
-        return Optional.of(extractNotificationContent(notification));
+        return Optional.of(extractNotificationContent(content));
     }
 
-    private static void removeEventTimeNode(final Document document) {
-        final Node eventTimeNode = document.getDocumentElement().getElementsByTagNameNS(XmlNetconfConstants
-                .URN_IETF_PARAMS_NETCONF_CAPABILITY_NOTIFICATION_1_0, XmlNetconfConstants.EVENT_TIME).item(0);
-        document.getDocumentElement().removeChild(eventTimeNode);
+    /**
+     * Return the content of a notification, i.e. the only child element of its root besides eventTime.
+     */
+    static XmlElement notificationContent(final Document notification) throws DocumentedException {
+        final List<XmlElement> children = XmlElement.fromDomDocument(notification).getChildElements().stream()
+                .filter(child -> !XmlNetconfConstants.EVENT_TIME.equals(child.getName())
+                    || !XmlNetconfConstants.URN_IETF_PARAMS_NETCONF_CAPABILITY_NOTIFICATION_1_0.equals(
+                        child.getNamespaceOptionally().orElse(null)))
+                .collect(Collectors.toList());
+        if (children.size() != 1) {
+            throw new DocumentedException(String.format("One content element expected in notification but was %s",
+                    children.size()),
+                    DocumentedException.ErrorType.APPLICATION,
+                    DocumentedException.ErrorTag.INVALID_VALUE,
+                    DocumentedException.ErrorSeverity.ERROR);
+        }
+        return children.get(0);
     }
 
-    private static boolean isSupported(final XmlElement filter) {
+    static boolean isSupported(final XmlElement filter) {
         return "subtree".equals(filter.getAttribute("type"))
                 || "subtree".equals(filter.getAttribute("type",
                 XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0));
     }
 
-    private static Document extractNotificationContent(final Document notification) throws DocumentedException {
-        XmlElement root = XmlElement.fromDomElement(notification.getDocumentElement());
-        XmlElement content = root.getOnlyChildElement();
-        notification.removeChild(root.getDomElement());
-        notification.appendChild(content.getDomElement());
-        return notification;
+    static Document extractNotificationContent(final XmlElement content) {
+        final Document result = XmlUtil.newDocument();
+        result.appendChild(result.importNode(content.getDomElement(), true));
+        return result;
     }
 
-    private static Document filteredNotification(final XmlElement filter,
-                                                 final Document originalNotification) throws DocumentedException {
+    private static Document filteredNotification(final XmlElement filter, final Document originalNotification,
+                                                 final XmlElement content) throws DocumentedException {
         Document result = XmlUtil.newDocument();
         XmlElement dataSrc = XmlElement.fromDomDocument(originalNotification);
         Element dataDst = (Element) result.importNode(dataSrc.getDomElement(), false);
         for (XmlElement filterChild : filter.getChildElements()) {
-            addSubtree2(filterChild, dataSrc.getOnlyChildElement(), XmlElement.fromDomElement(dataDst));
+            addSubtree2(filterChild, content, XmlElement.fromDomElement(dataDst));
         }
         if (dataDst.getFirstChild() != null) {
             result.appendChild(dataDst.getFirstChild());
@@ -109,7 +122,11 @@ public final class SubtreeFilter {
         return null;
     }
 
-    private static Document filtered(final XmlElement filter, final Document originalReplyDocument)
+    /**
+     * Filter a reply by interpreting the filter element directly, as a reference for {@link CompiledSubtreeFilter}.
+     */
+    @VisibleForTesting
+    static Document filtered(final XmlElement filter, final Document originalReplyDocument)
             throws DocumentedException {
         Document result = XmlUtil.newDocument();
         // even if filter is empty, copy /rpc/data
@@ -60,6 +60,9 @@ public class SubtreeFilterNotificationTest {
         Document postFilterDocument = getDocument("post-filter.xml");
         Optional<Document> actualPostFilterDocumentOpt =
                 SubtreeFilter.applySubtreeNotificationFilter(filter, preFilterDocument);
+        // The notification itself is left intact, as it is shared by all subscribers
+        final Diff unchanged = XMLUnit.compareXML(getDocument("pre-filter.xml"), preFilterDocument);
+        assertTrue(unchanged.toString(), unchanged.similar());
         if (actualPostFilterDocumentOpt.isPresent()) {
             Document actualPostFilterDocument = actualPostFilterDocumentOpt.get();
             LOG.info("Actual document: {}", XmlUtil.toString(actualPostFilterDocument));
@@ -68,6 +71,22 @@ public class SubtreeFilterNotificationTest {
         } else {
             assertEquals("empty", XmlElement.fromDomDocument(postFilterDocument).getName());
         }
+
+        // The compiled filter yields the same result as interpreting the filter directly
+        final CompiledSubtreeFilter compiled = CompiledSubtreeFilter.compile(filter);
+        Optional<Document> compiledPostFilterDocumentOpt = compiled.filterNotification(preFilterDocument);
+
+        // Filters compiled from equal elements are equal, so that they can share filtered notifications
+        final CompiledSubtreeFilter recompiled =
+                CompiledSubtreeFilter.compile(XmlElement.fromDomDocument(getDocument("filter.xml")));
+        assertEquals(compiled, recompiled);
+        assertEquals(compiled.hashCode(), recompiled.hashCode());
+        assertEquals(actualPostFilterDocumentOpt.isPresent(), compiledPostFilterDocumentOpt.isPresent());
+        if (compiledPostFilterDocumentOpt.isPresent()) {
+            Diff oracleDiff = XMLUnit.compareXML(actualPostFilterDocumentOpt.get(),
+                    compiledPostFilterDocumentOpt.get());
+            assertTrue(oracleDiff.toString(), oracleDiff.identical());
+        }
     }
 
     public Document getDocument(String fileName) throws SAXException, IOException {
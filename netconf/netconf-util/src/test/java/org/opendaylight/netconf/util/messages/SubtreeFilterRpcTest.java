@@ -14,6 +14,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import org.custommonkey.xmlunit.Diff;
 import org.custommonkey.xmlunit.XMLUnit;
 import org.junit.Before;
@@ -21,6 +22,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameters;
+import org.opendaylight.netconf.api.xml.XmlElement;
+import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -61,6 +64,15 @@ public class SubtreeFilterRpcTest {
         Diff diff = XMLUnit.compareXML(postFilterDocument, actualPostFilterDocument);
         assertTrue(diff.toString(), diff.similar());
 
+        // The compiled filter yields the same result as interpreting the filter directly
+        Optional<XmlElement> filter = XmlElement.fromDomDocument(requestDocument).getOnlyChildElement()
+                .getOnlyChildElementOptionally(XmlNetconfConstants.FILTER,
+                        XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0);
+        if (filter.isPresent() && SubtreeFilter.isSupported(filter.get())) {
+            Diff oracleDiff = XMLUnit.compareXML(SubtreeFilter.filtered(filter.get(), getDocument("pre-filter.xml")),
+                    actualPostFilterDocument);
+            assertTrue(oracleDiff.toString(), oracleDiff.identical());
+        }
     }
 
     public Document getDocument(String fileName) throws SAXException, IOException {
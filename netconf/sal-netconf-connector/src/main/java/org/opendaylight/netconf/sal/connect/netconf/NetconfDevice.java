@@ -31,6 +31,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import org.checkerframework.checker.lock.qual.GuardedBy;
 import org.opendaylight.mdsal.dom.api.DOMRpcResult;
@@ -53,6 +54,7 @@ import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.notifications.rev120206.NetconfCapabilityChange;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.optional.rev190614.NetconfNodeAugmentedOptional;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeConnectionParameters.NotificationOverflowPolicy;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.available.capabilities.AvailableCapabilityBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.unavailable.capabilities.UnavailableCapability;
 import org.opendaylight.yangtools.rcf8528.data.util.EmptyMountPointContext;
@@ -130,6 +132,16 @@ public class NetconfDevice
             final ListeningExecutorService globalProcessingExecutor, final boolean reconnectOnSchemasChange,
             final DeviceActionFactory deviceActionFactory, final NetconfNode node, final EventExecutor eventExecutor,
             final NetconfNodeAugmentedOptional nodeOptional) {
+        this(schemaResourcesDTO, id, salFacade, globalProcessingExecutor, reconnectOnSchemasChange,
+            deviceActionFactory, node, eventExecutor, nodeOptional, 0, NotificationOverflowPolicy.DropOldest);
+    }
+
+    public NetconfDevice(final SchemaResourcesDTO schemaResourcesDTO, final RemoteDeviceId id,
+            final RemoteDeviceHandler<NetconfSessionPreferences> salFacade,
+            final ListeningExecutorService globalProcessingExecutor, final boolean reconnectOnSchemasChange,
+            final DeviceActionFactory deviceActionFactory, final NetconfNode node, final EventExecutor eventExecutor,
+            final NetconfNodeAugmentedOptional nodeOptional, final int notificationQueueDepth,
+            final NotificationOverflowPolicy notificationOverflowPolicy) {
         this.id = id;
         this.reconnectOnSchemasChange = reconnectOnSchemasChange;
         this.deviceActionFactory = deviceActionFactory;
@@ -142,7 +154,9 @@ public class NetconfDevice
         this.salFacade = salFacade;
         this.stateSchemasResolver = schemaResourcesDTO.getStateSchemasResolver();
         this.processingExecutor = requireNonNull(globalProcessingExecutor);
-        this.notificationHandler = new NotificationHandler(salFacade, id);
+        this.notificationHandler = notificationQueueDepth < 1 ? new NotificationHandler(salFacade, id)
+            : new NotificationHandler(salFacade, id, processingExecutor, notificationQueueDepth,
+                notificationOverflowPolicy);
     }
 
     @Override
@@ -155,6 +169,7 @@ public class NetconfDevice
         // http://netty.io/wiki/thread-model.html
         setConnected(true);
         LOG.debug("{}: Session to remote device established with {}", id, remoteSessionCapabilities);
+        notificationHandler.setReadControl(listener::setAutoRead);
 
         final BaseSchema baseSchema = resolveBaseSchema(remoteSessionCapabilities.isNotificationsSupported());
         final NetconfDeviceRpc initRpc = new NetconfDeviceRpc(baseSchema.getSchemaContext(), listener,
@@ -168,7 +183,8 @@ public class NetconfDevice
 
         // Set up the SchemaContext for the device
         final ListenableFuture<SchemaContext> futureSchema = Futures.transformAsync(sourceResolverFuture,
-            deviceSources -> assembleSchemaContext(deviceSources, remoteSessionCapabilities), processingExecutor);
+            deviceSources -> assembleSchemaContext(deviceSources, remoteSessionCapabilities, listener),
+            processingExecutor);
 
         // Potentially acquire mount point list and interpret it
         final ListenableFuture<MountPointContext> futureContext = Futures.transformAsync(futureSchema,
@@ -177,8 +193,10 @@ public class NetconfDevice
         Futures.addCallback(futureContext, new FutureCallback<MountPointContext>() {
             @Override
             public void onSuccess(final MountPointContext result) {
+                // A single transformer serves RPCs, actions and notifications of the device
+                final NetconfMessageTransformer transformer = new NetconfMessageTransformer(result, true, baseSchema);
                 handleSalInitializationSuccess(result, remoteSessionCapabilities,
-                    getDeviceSpecificRpc(result, listener), listener);
+                    getDeviceSpecificRpc(result, listener, transformer), listener, transformer);
             }
 
             @Override
@@ -247,14 +265,12 @@ public class NetconfDevice
     private synchronized void handleSalInitializationSuccess(final MountPointContext result,
                                         final NetconfSessionPreferences remoteSessionCapabilities,
                                         final DOMRpcService deviceRpc,
-                                        final RemoteDeviceCommunicator<NetconfMessage> listener) {
+                                        final RemoteDeviceCommunicator<NetconfMessage> listener,
+                                        final MessageTransformer<NetconfMessage> transformer) {
         //NetconfDevice.SchemaSetup can complete after NetconfDeviceCommunicator was closed. In that case do nothing,
         //since salFacade.onDeviceDisconnected was already called.
         if (connected) {
-            final BaseSchema baseSchema =
-                remoteSessionCapabilities.isNotificationsSupported()
-                        ? BaseSchema.BASE_NETCONF_CTX_WITH_NOTIFICATIONS : BaseSchema.BASE_NETCONF_CTX;
-            this.messageTransformer = new NetconfMessageTransformer(result, true, baseSchema);
+            this.messageTransformer = transformer;
 
             // salFacade.onDeviceConnected has to be called before the notification handler is initialized
             this.salFacade.onDeviceConnected(result, remoteSessionCapabilities, deviceRpc,
@@ -296,7 +312,7 @@ public class NetconfDevice
     @SuppressFBWarnings(value = "UPM_UNCALLED_PRIVATE_METHOD",
             justification = "https://github.com/spotbugs/spotbugs/issues/811")
     private ListenableFuture<SchemaContext> assembleSchemaContext(final DeviceSources deviceSources,
-            final NetconfSessionPreferences remoteSessionCapabilities) {
+            final NetconfSessionPreferences remoteSessionCapabilities, final NetconfDeviceCommunicator listener) {
         LOG.debug("{}: Resolved device sources to {}", id, deviceSources);
         final SchemaSourceProvider<YangTextSchemaSource> yangProvider = deviceSources.getSourceProvider();
         for (final SourceIdentifier sourceId : deviceSources.getProvidedSources()) {
@@ -305,7 +321,8 @@ public class NetconfDevice
                     PotentialSchemaSource.Costs.REMOTE_IO.getValue())));
         }
 
-        return new SchemaSetup(deviceSources, remoteSessionCapabilities).startResolution();
+        return new SchemaSetup(deviceSources, remoteSessionCapabilities).startResolution(
+            listener.getConcurrentRpcLimit());
     }
 
     private ListenableFuture<MountPointContext> createMountPointContext(final SchemaContext schemaContext,
@@ -371,8 +388,9 @@ public class NetconfDevice
     }
 
     protected NetconfDeviceRpc getDeviceSpecificRpc(final MountPointContext result,
-            final RemoteDeviceCommunicator<NetconfMessage> listener) {
-        return new NetconfDeviceRpc(result.getSchemaContext(), listener, new NetconfMessageTransformer(result, true));
+            final RemoteDeviceCommunicator<NetconfMessage> listener,
+            final MessageTransformer<NetconfMessage> transformer) {
+        return new NetconfDeviceRpc(result.getSchemaContext(), listener, transformer);
     }
 
     /**
@@ -434,6 +452,8 @@ public class NetconfDevice
         private final NetconfSessionPreferences remoteSessionCapabilities;
         private final NetconfDeviceCapabilities capabilities;
 
+        private final List<SchemaSourceRegistration<?>> prefetchRegistrations = new ArrayList<>();
+
         private Collection<SourceIdentifier> requiredSources;
 
         SchemaSetup(final DeviceSources deviceSources, final NetconfSessionPreferences remoteSessionCapabilities) {
@@ -442,18 +462,75 @@ public class NetconfDevice
             this.capabilities = remoteSessionCapabilities.getNetconfDeviceCapabilities();
 
             requiredSources = deviceSources.getRequiredSources();
-            final Collection<SourceIdentifier> missingSources = filterMissingSources(requiredSources);
-
-            capabilities.addUnresolvedCapabilities(getQNameFromSourceIdentifiers(missingSources),
-                    UnavailableCapability.FailureReason.MissingSource);
-            requiredSources.removeAll(missingSources);
         }
 
-        ListenableFuture<SchemaContext> startResolution() {
-            trySetupSchema();
+        ListenableFuture<SchemaContext> startResolution(final int concurrentRpcLimit) {
+            // Fetch all sources up front, so that sources missing in the cache are downloaded from the device
+            // concurrently rather than one by one while the schema context is being assembled. The number of fetches
+            // in flight is bounded by the session's concurrent-rpc-limit, as get-schema requests over it may fail.
+            final List<SourceIdentifier> sources = new ArrayList<>(requiredSources);
+            final List<SettableFuture<YangTextSchemaSource>> fetches = sources.stream()
+                    .map(sourceId -> SettableFuture.<YangTextSchemaSource>create())
+                    .collect(Collectors.toList());
+            final int window = concurrentRpcLimit > 0 ? Math.min(concurrentRpcLimit, sources.size()) : sources.size();
+            LOG.debug("{}: Prefetching {} sources, {} at a time", id, fetches.size(), window);
+
+            final AtomicInteger nextFetch = new AtomicInteger();
+            for (int i = 0; i < window; ++i) {
+                fetchNext(sources, fetches, nextFetch);
+            }
+
+            Futures.whenAllComplete(fetches).run(() -> {
+                final Collection<SourceIdentifier> missingSources = new ArrayList<>();
+                for (int i = 0; i < fetches.size(); i++) {
+                    final SourceIdentifier sourceId = sources.get(i);
+                    try {
+                        registerPrefetchedSource(sourceId, Futures.getDone(fetches.get(i)));
+                    } catch (ExecutionException e) {
+                        LOG.debug("{}: Source {} is not available", id, sourceId, e);
+                        missingSources.add(sourceId);
+                    }
+                }
+
+                capabilities.addUnresolvedCapabilities(getQNameFromSourceIdentifiers(missingSources),
+                        UnavailableCapability.FailureReason.MissingSource);
+                requiredSources.removeAll(missingSources);
+                trySetupSchema();
+            }, processingExecutor);
+
+            resultFuture.addListener(() -> {
+                prefetchRegistrations.forEach(SchemaSourceRegistration::close);
+                prefetchRegistrations.clear();
+            }, MoreExecutors.directExecutor());
             return resultFuture;
         }
 
+        private void fetchNext(final List<SourceIdentifier> sources,
+                final List<SettableFuture<YangTextSchemaSource>> fetches, final AtomicInteger nextFetch) {
+            for (int index = nextFetch.getAndIncrement(); index < sources.size(); index = nextFetch.getAndIncrement()) {
+                final ListenableFuture<YangTextSchemaSource> fetch = schemaRepository.getSchemaSource(
+                    sources.get(index), YangTextSchemaSource.class);
+                fetches.get(index).setFuture(fetch);
+                if (!fetch.isDone()) {
+                    // Take the next source once this one completes, keeping the number of fetches in flight
+                    fetch.addListener(() -> fetchNext(sources, fetches, nextFetch), MoreExecutors.directExecutor());
+                    return;
+                }
+            }
+        }
+
+        private void registerPrefetchedSource(final SourceIdentifier sourceId, final Object source) {
+            // Make the fetched source available for assembly without going back to the device. The registration is
+            // only kept until assembly is done, any persistent caching is up to the schema repository.
+            if (source instanceof YangTextSchemaSource) {
+                final ListenableFuture<YangTextSchemaSource> fetched =
+                        Futures.immediateFuture((YangTextSchemaSource) source);
+                prefetchRegistrations.add(schemaRegistry.registerSchemaSource(requested -> fetched,
+                    PotentialSchemaSource.create(sourceId, YangTextSchemaSource.class,
+                        PotentialSchemaSource.Costs.IMMEDIATE.getValue())));
+            }
+        }
+
         @Override
         public void onSuccess(final SchemaContext result) {
             LOG.debug("{}: Schema context built successfully from {}", id, requiredSources);
@@ -505,17 +582,6 @@ public class NetconfDevice
             }
         }
 
-        private Collection<SourceIdentifier> filterMissingSources(final Collection<SourceIdentifier> origSources) {
-            return origSources.parallelStream().filter(sourceIdentifier -> {
-                try {
-                    schemaRepository.getSchemaSource(sourceIdentifier, YangTextSchemaSource.class).get();
-                    return false;
-                } catch (InterruptedException | ExecutionException e) {
-                    return true;
-                }
-            }).collect(Collectors.toList());
-        }
-
         private Collection<SourceIdentifier> handleMissingSchemaSourceException(
                 final MissingSchemaSourceException exception) {
             // In case source missing, try without it
@@ -17,6 +17,7 @@ import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPrefe
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.optional.rev190614.NetconfNodeAugmentedOptional;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeConnectionParameters.NotificationOverflowPolicy;
 
 public class NetconfDeviceBuilder {
 
@@ -29,6 +30,8 @@ public class NetconfDeviceBuilder {
     private NetconfNode node;
     private EventExecutor eventExecutor;
     private NetconfNodeAugmentedOptional nodeOptional;
+    private int notificationQueueDepth;
+    private NotificationOverflowPolicy notificationOverflowPolicy = NotificationOverflowPolicy.DropOldest;
 
     public NetconfDeviceBuilder() {
     }
@@ -78,11 +81,22 @@ public class NetconfDeviceBuilder {
         return this;
     }
 
+    public NetconfDeviceBuilder setNotificationQueueDepth(final int notificationQueueDepth) {
+        this.notificationQueueDepth = notificationQueueDepth;
+        return this;
+    }
+
+    public NetconfDeviceBuilder setNotificationOverflowPolicy(
+            final NotificationOverflowPolicy notificationOverflowPolicy) {
+        this.notificationOverflowPolicy = notificationOverflowPolicy;
+        return this;
+    }
+
     public NetconfDevice build() {
         validation();
         return new NetconfDevice(this.schemaResourcesDTO, this.id, this.salFacade, this.globalProcessingExecutor,
                 this.reconnectOnSchemasChange, this.deviceActionFactory, this.node, this.eventExecutor,
-                this.nodeOptional);
+                this.nodeOptional, this.notificationQueueDepth, this.notificationOverflowPolicy);
     }
 
     private void validation() {
@@ -90,5 +104,6 @@ public class NetconfDeviceBuilder {
         requireNonNull(this.salFacade, "RemoteDeviceHandler is not initialized");
         requireNonNull(this.globalProcessingExecutor, "ExecutorService is not initialized");
         requireNonNull(this.schemaResourcesDTO, "SchemaResourceDTO is not initialized");
+        requireNonNull(this.notificationOverflowPolicy, "NotificationOverflowPolicy is not initialized");
     }
 }
@@ -169,15 +169,19 @@ public final class NetconfStateSchemas implements NetconfDeviceSchemas {
         }
 
         final DataContainerChild<?, ?> rpcResult = rpcResultOpt.get();
-        verify(rpcResult instanceof DOMSourceAnyxmlNode, "Unexpected result %s", rpcResult);
         final NormalizedNode<?, ?> dataNode;
-
-        try {
-            dataNode = NetconfUtil.transformDOMSourceToNormalizedNode(schemaContext,
-                    ((DOMSourceAnyxmlNode) rpcResult).getValue()).getResult();
-        } catch (XMLStreamException | URISyntaxException | IOException | SAXException e) {
-            LOG.warn("Failed to transform {}", rpcResult, e);
-            return Optional.empty();
+        if (rpcResult instanceof DOMSourceAnyxmlNode) {
+            try {
+                dataNode = NetconfUtil.transformDOMSourceToNormalizedNode(schemaContext,
+                        ((DOMSourceAnyxmlNode) rpcResult).getValue()).getResult();
+            } catch (XMLStreamException | URISyntaxException | IOException | SAXException e) {
+                LOG.warn("Failed to transform {}", rpcResult, e);
+                return Optional.empty();
+            }
+        } else {
+            // Already parsed from raw message bytes
+            verify(rpcResult instanceof ContainerNode, "Unexpected result %s", rpcResult);
+            dataNode = rpcResult;
         }
 
         final Optional<DataContainerChild<?, ?>> nStateNode = ((DataContainerNode<?>) dataNode).getChild(
@@ -7,47 +7,123 @@
  */
 package org.opendaylight.netconf.sal.connect.netconf;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static java.util.Objects.requireNonNull;
 
+import java.util.ArrayDeque;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.checkerframework.checker.lock.qual.GuardedBy;
 import org.opendaylight.mdsal.dom.api.DOMNotification;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.sal.connect.api.MessageTransformer;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeConnectionParameters.NotificationOverflowPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 
 /**
  * Handles incoming notifications. Either caches them(until onRemoteSchemaUp is called) or passes to sal Facade.
+ *
+ * <p>
+ * By default notifications are decoded on the thread which received them. If a decode executor is supplied,
+ * notifications are decoded on that executor instead, in parallel, and are forwarded to the sal facade in the order
+ * they were received. At most {@code queueDepth} notifications can be pending at any time, what happens to any
+ * further notifications is governed by the {@link NotificationOverflowPolicy}. The thread delivering notifications is
+ * never blocked: {@link NotificationOverflowPolicy#Block} pauses reading from the device through {@link ReadControl}
+ * instead, until the pending notifications drain.
  */
 final class NotificationHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(NotificationHandler.class);
+    private static final String EVENT_TIME = "eventTime";
 
     private final RemoteDeviceHandler<?> salFacade;
     private final List<NetconfMessage> queue = new LinkedList<>();
     private final RemoteDeviceId id;
+    private final Executor decodeExecutor;
+    private final int queueDepth;
+    private final NotificationOverflowPolicy overflowPolicy;
+    // Serializes read control updates, always acquired before this object's lock
+    private final Object readLock = new Object();
+
+    // Notifications handed to decodeExecutor, in the order they were received
+    @GuardedBy("this")
+    private final ArrayDeque<PendingNotification> pending = new ArrayDeque<>();
+    // Number of notifications in pending which are still to be forwarded
+    @GuardedBy("this")
+    private int livePending;
+    @GuardedBy("this")
+    private long nextSequence;
+    @GuardedBy("this")
+    private ReadControl readControl;
+    @GuardedBy("this")
+    private boolean readPaused;
+
     private boolean passNotifications = false;
 
     private NotificationFilter filter;
     private MessageTransformer<NetconfMessage> messageTransformer;
 
     NotificationHandler(final RemoteDeviceHandler<?> salFacade, final RemoteDeviceId id) {
+        this(salFacade, id, null, 0, NotificationOverflowPolicy.DropOldest);
+    }
+
+    NotificationHandler(final RemoteDeviceHandler<?> salFacade, final RemoteDeviceId id,
+            final Executor decodeExecutor, final int queueDepth, final NotificationOverflowPolicy overflowPolicy) {
         this.salFacade = requireNonNull(salFacade);
         this.id = requireNonNull(id);
+        checkArgument(decodeExecutor == null || queueDepth > 0, "Queue depth %s has to be positive", queueDepth);
+        this.decodeExecutor = decodeExecutor;
+        this.queueDepth = queueDepth;
+        this.overflowPolicy = requireNonNull(overflowPolicy);
+    }
+
+    /**
+     * Set the control used to pause reading from the device while too many notifications are pending.
+     *
+     * @param newReadControl Read control of the current session
+     */
+    synchronized void setReadControl(final ReadControl newReadControl) {
+        readControl = newReadControl;
+        // A new session starts reading
+        readPaused = false;
     }
 
-    synchronized void handleNotification(final NetconfMessage notification) {
-        if (passNotifications) {
-            passNotification(transformNotification(notification));
+    void handleNotification(final NetconfMessage notification) {
+        // Parse the type outside of the lock, so that it is not recomputed for each pending notification
+        final String type = decodeExecutor != null && overflowPolicy == NotificationOverflowPolicy.Coalesce
+            ? notificationType(notification) : null;
+
+        final PendingNotification rejected;
+        synchronized (this) {
+            if (!passNotifications) {
+                queueNotification(notification);
+                rejected = null;
+            } else if (decodeExecutor != null) {
+                rejected = submitNotification(notification, type);
+            } else {
+                passNotification(transformNotification(notification));
+                rejected = null;
+            }
+        }
+
+        if (rejected != null) {
+            // Decoding takes the locks in the usual order, it must not run while this object's lock is held
+            decodeNotification(rejected);
         } else {
-            queueNotification(notification);
+            updateReading();
         }
     }
 
@@ -68,7 +144,12 @@ final class NotificationHandler {
     }
 
     private DOMNotification transformNotification(final NetconfMessage cachedNotification) {
-        return checkNotNull(messageTransformer.toNotification(cachedNotification),
+        return transformNotification(messageTransformer, cachedNotification);
+    }
+
+    private DOMNotification transformNotification(final MessageTransformer<NetconfMessage> transformer,
+            final NetconfMessage cachedNotification) {
+        return checkNotNull(transformer.toNotification(cachedNotification),
             "%s: Unable to parse received notification: %s", id, cachedNotification);
     }
 
@@ -83,6 +164,106 @@ final class NotificationHandler {
         queue.add(notification);
     }
 
+    /**
+     * Record a notification as pending and hand it to the decode executor.
+     *
+     * @return the pending notification if the executor rejected it and it has to be decoded by the caller once it
+     *         releases this object's lock, null otherwise
+     */
+    @GuardedBy("this")
+    private PendingNotification submitNotification(final NetconfMessage notification, final String type) {
+        // Block does not drop anything, reading is paused once the queue fills up
+        if (livePending >= queueDepth && overflowPolicy != NotificationOverflowPolicy.Block) {
+            evictPending(type);
+        }
+
+        final PendingNotification entry = new PendingNotification(nextSequence++, notification, type,
+            messageTransformer);
+        pending.addLast(entry);
+        livePending++;
+
+        try {
+            decodeExecutor.execute(() -> decodeNotification(entry));
+        } catch (RejectedExecutionException e) {
+            LOG.debug("{}: Decode executor rejected notification {}, decoding it inline", id, entry.sequence, e);
+            return entry;
+        }
+        return null;
+    }
+
+    @GuardedBy("this")
+    private void evictPending(final String type) {
+        PendingNotification victim = null;
+        if (type != null) {
+            for (PendingNotification candidate : pending) {
+                if (!candidate.skipped && type.equals(candidate.type)) {
+                    victim = candidate;
+                    break;
+                }
+            }
+        }
+        if (victim == null) {
+            for (PendingNotification candidate : pending) {
+                if (!candidate.skipped) {
+                    victim = candidate;
+                    break;
+                }
+            }
+        }
+
+        if (victim != null) {
+            LOG.warn("{}: {} notifications pending, dropping notification {} ({})", id, livePending,
+                victim.sequence, overflowPolicy);
+            skip(victim);
+        }
+    }
+
+    private void decodeNotification(final PendingNotification entry) {
+        final NetconfMessage message;
+        synchronized (this) {
+            message = entry.skipped ? null : entry.message;
+        }
+
+        DOMNotification decoded = null;
+        if (message != null) {
+            try {
+                decoded = transformNotification(entry.transformer, message);
+            } catch (RuntimeException e) {
+                LOG.warn("{}: Failed to decode notification {}, it will not be forwarded", id, entry.sequence, e);
+            }
+        }
+
+        synchronized (this) {
+            entry.decoded = decoded;
+            entry.done = true;
+            if (decoded == null && !entry.skipped) {
+                skip(entry);
+            }
+            forwardDecoded();
+        }
+        updateReading();
+    }
+
+    @GuardedBy("this")
+    private void forwardDecoded() {
+        // Notifications are forwarded strictly in the order they were received
+        for (PendingNotification head = pending.peekFirst(); head != null && head.done; head = pending.peekFirst()) {
+            pending.removeFirst();
+            if (!head.skipped) {
+                livePending--;
+                passNotification(head.decoded);
+            }
+        }
+    }
+
+    @GuardedBy("this")
+    private void skip(final PendingNotification entry) {
+        entry.skipped = true;
+        entry.message = null;
+        entry.decoded = null;
+        livePending--;
+    }
+
     private synchronized void passNotification(final DOMNotification parsedNotification) {
         LOG.debug("{}: Forwarding notification {}", id, parsedNotification);
 
@@ -95,10 +276,93 @@ final class NotificationHandler {
         this.filter = newFilter;
     }
 
-    synchronized void onRemoteSchemaDown() {
-        queue.clear();
-        passNotifications = false;
-        messageTransformer = null;
+    void onRemoteSchemaDown() {
+        synchronized (this) {
+            queue.clear();
+            passNotifications = false;
+            messageTransformer = null;
+
+            // Decoders still running will not find their notification in pending and will not forward it
+            for (Iterator<PendingNotification> it = pending.iterator(); it.hasNext(); ) {
+                final PendingNotification entry = it.next();
+                entry.skipped = true;
+                entry.message = null;
+                entry.decoded = null;
+                it.remove();
+            }
+            livePending = 0;
+        }
+        updateReading();
+    }
+
+    /**
+     * Pause reading when {@link NotificationOverflowPolicy#Block} queue is full and resume it once it has drained.
+     * This must not be invoked while holding this object's lock, as the read control may end up delivering further
+     * notifications.
+     */
+    private void updateReading() {
+        if (decodeExecutor == null || overflowPolicy != NotificationOverflowPolicy.Block) {
+            return;
+        }
+
+        synchronized (readLock) {
+            final ReadControl control;
+            final boolean pause;
+            synchronized (this) {
+                pause = passNotifications && livePending >= queueDepth;
+                if (pause == readPaused) {
+                    return;
+                }
+                readPaused = pause;
+                control = readControl;
+            }
+
+            if (control != null) {
+                LOG.debug("{}: {} reading of notifications", id, pause ? "Pausing" : "Resuming");
+                control.setAutoRead(!pause);
+            }
+        }
+    }
+
+    /**
+     * Return the type of a raw notification, i.e. the namespace and name of its only non-eventTime child.
+     */
+    private static String notificationType(final NetconfMessage notification) {
+        final Element root = notification.getDocument().getDocumentElement();
+        for (Node child = root.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE && !EVENT_TIME.equals(child.getLocalName())) {
+                return Objects.toString(child.getNamespaceURI(), "") + ' ' + child.getLocalName();
+            }
+        }
+        return null;
+    }
+
+    private static final class PendingNotification {
+        final long sequence;
+        final String type;
+        final MessageTransformer<NetconfMessage> transformer;
+
+        // All of the below are guarded by the owning NotificationHandler
+        NetconfMessage message;
+        DOMNotification decoded;
+        boolean done;
+        boolean skipped;
+
+        PendingNotification(final long sequence, final NetconfMessage message, final String type,
+                final MessageTransformer<NetconfMessage> transformer) {
+            this.sequence = sequence;
+            this.message = message;
+            this.type = type;
+            this.transformer = transformer;
+        }
+    }
+
+    /**
+     * Control over reading of messages from the device.
+     */
+    interface ReadControl {
+
+        void setAutoRead(boolean autoRead);
     }
 
     interface NotificationFilter {
@@ -7,17 +7,25 @@
  */
 package org.opendaylight.netconf.sal.connect.netconf.listener;
 
+import static java.util.Objects.requireNonNull;
+
 import com.google.common.base.Strings;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import io.netty.util.concurrent.Future;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -25,6 +33,7 @@ import org.opendaylight.netconf.api.FailedNetconfMessage;
 import org.opendaylight.netconf.api.NetconfDocumentedException;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.NetconfTerminationReason;
+import org.opendaylight.netconf.api.RawNetconfMessage;
 import org.opendaylight.netconf.api.xml.XmlElement;
 import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.api.xml.XmlUtil;
@@ -58,8 +67,28 @@ public class NetconfDeviceCommunicator
     private final Semaphore semaphore;
     private final int concurentRpcMsgs;
 
-    private final Queue<Request> requests = new ArrayDeque<>();
+    // Requests waiting for a permit when concurentRpcMsgs is reached, or for the session to become writable, guarded by
+    // sessionLock. Requests for high-priority RPCs are kept in a separate queue, which is always drained first. Since
+    // all requests share the same timeout, each queue is also ordered by deadline.
+    private final int admissionQueueDepth;
+    private final long admissionTimeoutNanos;
+    // Fails queued requests once their deadline passes, even if no permit is released in the meantime
+    private final ScheduledExecutorService admissionTimer;
+    private final Deque<QueuedRequest> priorityAdmissions = new ArrayDeque<>();
+    private final Deque<QueuedRequest> admissions = new ArrayDeque<>();
+    private volatile int queuedRequests;
+
+    // Requests waiting for the session to become writable when there is no admission queue, guarded by sessionLock.
+    // They already hold a permit, if concurentRpcMsgs is set. They are not bounded, the callers are expected to be
+    // throttled by their replies not arriving.
+    private final Deque<QueuedRequest> unwritableRequests = new ArrayDeque<>();
+
+    // Outstanding requests indexed by their message-id, so that replies can be matched in any order without holding
+    // sessionLock. Requests are only added with sessionLock held.
+    private final ConcurrentMap<String, Request> requests = new ConcurrentHashMap<>();
     private NetconfClientSession currentSession;
+    // Guarded by sessionLock
+    private long requestSequence;
 
     private final SettableFuture<NetconfDeviceCapabilities> firstConnectionFuture;
     private Future<?> initFuture;
@@ -77,25 +106,62 @@ public class NetconfDeviceCommunicator
         return closing != 0;
     }
 
+    /**
+     * Return the limit of concurrent requests of this communicator.
+     *
+     * @return limit of concurrent requests, non-positive values mean no limit
+     */
+    public int getConcurrentRpcLimit() {
+        return concurentRpcMsgs;
+    }
+
     public NetconfDeviceCommunicator(
             final RemoteDeviceId id,
             final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
             final UserPreferences netconfSessionPreferences, final int rpcMessageLimit) {
-        this(id, remoteDevice, Optional.of(netconfSessionPreferences), rpcMessageLimit);
+        this(id, remoteDevice, Optional.of(netconfSessionPreferences), rpcMessageLimit, 0, 0, null);
     }
 
     public NetconfDeviceCommunicator(
             final RemoteDeviceId id,
             final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
             final int rpcMessageLimit) {
-        this(id, remoteDevice, Optional.empty(), rpcMessageLimit);
+        this(id, remoteDevice, Optional.empty(), rpcMessageLimit, 0, 0, null);
+    }
+
+    /**
+     * Create a communicator which queues requests exceeding {@code rpcMessageLimit} instead of failing them.
+     *
+     * @param id device id
+     * @param remoteDevice remote device
+     * @param netconfSessionPreferences user capability overrides, may be null
+     * @param rpcMessageLimit limit of concurrent requests, non-positive values mean no limit
+     * @param admissionQueueDepth number of requests which can wait for a permit, non-positive values mean requests
+     *                            over limit are failed immediately
+     * @param admissionTimeoutMillis time a request can wait for a permit before it is failed
+     * @param admissionTimer executor used to fail requests which have waited for a permit for too long, required
+     *                       if requests can be queued
+     */
+    public NetconfDeviceCommunicator(
+            final RemoteDeviceId id,
+            final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
+            final UserPreferences netconfSessionPreferences, final int rpcMessageLimit,
+            final int admissionQueueDepth, final long admissionTimeoutMillis,
+            final ScheduledExecutorService admissionTimer) {
+        this(id, remoteDevice, Optional.ofNullable(netconfSessionPreferences), rpcMessageLimit, admissionQueueDepth,
+            admissionTimeoutMillis, admissionTimer);
     }
 
     private NetconfDeviceCommunicator(
             final RemoteDeviceId id,
             final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
-            final Optional<UserPreferences> overrideNetconfCapabilities, final int rpcMessageLimit) {
+            final Optional<UserPreferences> overrideNetconfCapabilities, final int rpcMessageLimit,
+            final int admissionQueueDepth, final long admissionTimeoutMillis,
+            final ScheduledExecutorService admissionTimer) {
         this.concurentRpcMsgs = rpcMessageLimit;
+        this.admissionQueueDepth = rpcMessageLimit > 0 ? admissionQueueDepth : 0;
+        this.admissionTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(admissionTimeoutMillis);
+        this.admissionTimer = this.admissionQueueDepth > 0 ? requireNonNull(admissionTimer) : null;
         this.id = id;
         this.remoteDevice = remoteDevice;
         this.overrideNetconfCapabilities = overrideNetconfCapabilities;
@@ -174,12 +240,25 @@ public class NetconfDeviceCommunicator
         }
     }
 
+    /**
+     * Pause or resume reading of messages from the current session, if there is one.
+     *
+     * @param autoRead True to resume reading, false to pause it
+     */
+    public void setAutoRead(final boolean autoRead) {
+        final NetconfClientSession session = currentSession;
+        if (session != null) {
+            session.setAutoRead(autoRead);
+        }
+    }
+
     private void tearDown(final String reason) {
         if (!isSessionClosing()) {
             LOG.warn("It's curious that no one to close the session but tearDown is called!");
         }
         LOG.debug("Tearing down {}", reason);
         final List<UncancellableFuture<RpcResult<NetconfMessage>>> futuresToCancel = new ArrayList<>();
+        final List<QueuedRequest> queuedToCancel = new ArrayList<>();
         sessionLock.lock();
         try {
             if (currentSession != null) {
@@ -188,18 +267,29 @@ public class NetconfDeviceCommunicator
                  * Walk all requests, check if they have been executing
                  * or cancelled and remove them from the queue.
                  */
-                final Iterator<Request> it = requests.iterator();
+                final Iterator<Request> it = requests.values().iterator();
                 while (it.hasNext()) {
                     final Request r = it.next();
                     if (r.future.isUncancellable()) {
                         futuresToCancel.add(r.future);
                         it.remove();
+                        releasePermit();
                     } else if (r.future.isCancelled()) {
                         // This just does some house-cleaning
                         it.remove();
+                        releasePermit();
                     }
                 }
 
+                // Requests waiting for admission would only fail on a disconnected session
+                queuedToCancel.addAll(priorityAdmissions);
+                queuedToCancel.addAll(admissions);
+                queuedToCancel.addAll(unwritableRequests);
+                priorityAdmissions.clear();
+                admissions.clear();
+                unwritableRequests.clear();
+                queuedRequests = 0;
+
                 remoteDevice.onRemoteSessionDown();
             }
         } finally {
@@ -215,6 +305,14 @@ public class NetconfDeviceCommunicator
                 future.set(createErrorRpcResult(RpcError.ErrorType.TRANSPORT, reason));
             }
         }
+        for (final QueuedRequest queued : queuedToCancel) {
+            queued.cancelTimeout();
+            if (Strings.isNullOrEmpty(reason)) {
+                queued.future.set(createSessionDownRpcResult());
+            } else {
+                queued.future.set(createErrorRpcResult(RpcError.ErrorType.TRANSPORT, reason));
+            }
+        }
 
         closing = 0;
     }
@@ -260,8 +358,8 @@ public class NetconfDeviceCommunicator
     @Override
     public void onMessage(final NetconfClientSession session, final NetconfMessage message) {
         /*
-         * Dispatch between notifications and messages. Messages need to be processed
-         * with lock held, notifications do not.
+         * Dispatch between notifications and messages. Neither needs the session lock, replies are matched to
+         * requests by their message-id.
          */
         if (isNotification(message)) {
             processNotification(message);
@@ -271,70 +369,79 @@ public class NetconfDeviceCommunicator
     }
 
     private void processMessage(final NetconfMessage message) {
-        Request request = null;
-        sessionLock.lock();
-
-        try {
-            request = requests.peek();
-            if (request != null && request.future.isUncancellable()) {
-                request = requests.poll();
-                // we have just removed one request from the queue
-                // we can also release one permit
-                if (semaphore != null) {
-                    semaphore.release();
-                }
-            } else {
-                request = null;
-                LOG.warn("{}: Ignoring unsolicited message {}", id,
-                        msgToS(message));
-            }
-        } finally {
-            sessionLock.unlock();
-        }
-
+        final Request request = removeRequest(message);
         if (request != null) {
+            // we have just removed one request, we can also release one permit
+            releasePermit();
+            drainAdmissionQueue();
+        }
+        if (request == null || !request.future.isUncancellable()) {
+            LOG.warn("{}: Ignoring unsolicited message {}", id, msgToS(message));
+            return;
+        }
 
-            if (FailedNetconfMessage.class.isInstance(message)) {
-                request.future.set(NetconfMessageTransformUtil.toRpcResult((FailedNetconfMessage) message));
-                return;
-            }
+        if (FailedNetconfMessage.class.isInstance(message)) {
+            request.future.set(NetconfMessageTransformUtil.toRpcResult((FailedNetconfMessage) message));
+            return;
+        }
 
-            LOG.debug("{}: Message received {}", id, message);
+        LOG.debug("{}: Message received {}", id, message);
 
-            if (LOG.isTraceEnabled()) {
-                LOG.trace("{}: Matched request: {} to response: {}", id, msgToS(request.request), msgToS(message));
-            }
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("{}: Matched request: {} to response: {}", id, msgToS(request.request), msgToS(message));
+        }
 
-            try {
-                NetconfMessageTransformUtil.checkValidReply(request.request, message);
-            } catch (final NetconfDocumentedException e) {
-                LOG.warn(
-                        "{}: Invalid request-reply match,"
-                                + "reply message contains different message-id, request: {}, response: {}",
-                        id, msgToS(request.request), msgToS(message), e);
+        try {
+            NetconfMessageTransformUtil.checkValidReply(request.request, message);
+        } catch (final NetconfDocumentedException e) {
+            LOG.warn(
+                    "{}: Invalid request-reply match,"
+                            + "reply message contains different message-id, request: {}, response: {}",
+                    id, msgToS(request.request), msgToS(message), e);
+
+            request.future.set(RpcResultBuilder.<NetconfMessage>failed()
+                    .withRpcError(NetconfMessageTransformUtil.toRpcError(e)).build());
+            return;
+        }
 
-                request.future.set(RpcResultBuilder.<NetconfMessage>failed()
-                        .withRpcError(NetconfMessageTransformUtil.toRpcError(e)).build());
+        try {
+            NetconfMessageTransformUtil.checkSuccessReply(message);
+        } catch (final NetconfDocumentedException e) {
+            LOG.warn(
+                    "{}: Error reply from remote device, request: {}, response: {}",
+                    id, msgToS(request.request), msgToS(message), e);
+
+            request.future.set(RpcResultBuilder.<NetconfMessage>failed()
+                    .withRpcError(NetconfMessageTransformUtil.toRpcError(e)).build());
+            return;
+        }
 
-                //recursively processing message to eventually find matching request
-                processMessage(message);
+        request.future.set(RpcResultBuilder.success(message).build());
+    }
 
-                return;
+    private Request removeRequest(final NetconfMessage message) {
+        if (!(message instanceof FailedNetconfMessage)) {
+            final Request request = requests.remove(NetconfMessageTransformUtil.getMessageId(message));
+            if (request != null) {
+                return request;
             }
+        }
 
-            try {
-                NetconfMessageTransformUtil.checkSuccessReply(message);
-            } catch (final NetconfDocumentedException e) {
-                LOG.warn(
-                        "{}: Error reply from remote device, request: {}, response: {}",
-                        id, msgToS(request.request), msgToS(message), e);
-
-                request.future.set(RpcResultBuilder.<NetconfMessage>failed()
-                        .withRpcError(NetconfMessageTransformUtil.toRpcError(e)).build());
-                return;
+        // The reply could not be parsed, or it carries no or an unknown message-id. The device has most likely failed
+        // to process the oldest outstanding request, so we match the reply to that one.
+        while (true) {
+            Request oldest = null;
+            for (Request request : requests.values()) {
+                if (oldest == null || request.sequence < oldest.sequence) {
+                    oldest = request;
+                }
+            }
+            if (oldest == null) {
+                return null;
+            }
+            if (requests.remove(oldest.key, oldest)) {
+                return oldest;
             }
-
-            request.future.set(RpcResultBuilder.success(message).build());
         }
     }
 
@@ -346,7 +453,14 @@ public class NetconfDeviceCommunicator
     public ListenableFuture<RpcResult<NetconfMessage>> sendRequest(final NetconfMessage message, final QName rpc) {
         sessionLock.lock();
         try {
-            if (semaphore != null && !semaphore.tryAcquire()) {
+            if (admissionQueueDepth > 0 && (queuedRequests != 0 || !isWritable() || !semaphore.tryAcquire())) {
+                // Keep FIFO order with respect to requests already waiting, wait for the session to become writable
+                final ListenableFuture<RpcResult<NetconfMessage>> future = enqueueRequest(message, rpc);
+                drainAdmissionQueue();
+                return future;
+            }
+
+            if (admissionQueueDepth <= 0 && semaphore != null && !semaphore.tryAcquire()) {
                 LOG.warn("Limit of concurrent rpc messages was reached (limit: {}). Rpc reply message is needed. "
                     + "Discarding request of Netconf device with id {}", concurentRpcMsgs, id.getName());
                 return FluentFutures.immediateFailedFluentFuture(new NetconfDocumentedException(
@@ -354,6 +468,15 @@ public class NetconfDeviceCommunicator
                         + ") waiting for emptying the queue of Netconf device with id" + id.getName()));
             }
 
+            if (!unwritableRequests.isEmpty() || !isWritable()) {
+                // Keep FIFO order with respect to requests already waiting, send it once the device catches up
+                final QueuedRequest queued = new QueuedRequest(message, rpc, 0);
+                unwritableRequests.add(queued);
+                LOG.debug("{}: Outbound queue is over its high watermark, request {} waits for it to drain ({} "
+                    + "waiting)", id, rpc, unwritableRequests.size());
+                return queued.future;
+            }
+
             return sendRequestWithLock(message, rpc);
         } finally {
             sessionLock.unlock();
@@ -369,14 +492,31 @@ public class NetconfDeviceCommunicator
         if (currentSession == null) {
             LOG.warn("{}: Session is disconnected, failing RPC request {}",
                     id, message);
+            releasePermit();
             return FluentFutures.immediateFluentFuture(createSessionDownRpcResult());
         }
 
-        final Request req = new Request(new UncancellableFuture<>(true), message);
-        requests.add(req);
+        final String messageId = NetconfMessageTransformUtil.getMessageId(message);
+        final long sequence = requestSequence++;
+        // Requests without a message-id are stored under a key which cannot appear in an XML attribute value
+        final String key = messageId.isEmpty() ? "\u0000" + sequence : messageId;
+        final Request req = new Request(new UncancellableFuture<>(true), message, key, sequence);
+        if (requests.putIfAbsent(key, req) != null) {
+            LOG.warn("{}: Request with message-id {} is already outstanding, failing RPC request {}", id, messageId,
+                rpc);
+            releasePermit();
+            return FluentFutures.immediateFluentFuture(createErrorRpcResult(RpcError.ErrorType.PROTOCOL,
+                "Duplicate message-id " + messageId));
+        }
 
         currentSession.sendMessage(req.request).addListener(future -> {
             if (!future.isSuccess()) {
+                // The request will not receive a reply, stop tracking it
+                if (requests.remove(key, req)) {
+                    releasePermit();
+                    drainAdmissionQueue();
+                }
+
                 // We expect that a session down will occur at this point
                 LOG.debug("{}: Failed to send request {}", id,
                         XmlUtil.toString(req.request.getDocument()),
@@ -397,6 +537,123 @@ public class NetconfDeviceCommunicator
         return req.future;
     }
 
+    private ListenableFuture<RpcResult<NetconfMessage>> enqueueRequest(final NetconfMessage message,
+                                                                       final QName rpc) {
+        final long now = System.nanoTime();
+        expireAdmissions(now);
+        if (queuedRequests >= admissionQueueDepth) {
+            LOG.warn("Limit of concurrent rpc messages was reached (limit: {}) and {} requests are already waiting. "
+                + "Discarding request of Netconf device with id {}", concurentRpcMsgs, queuedRequests, id.getName());
+            return FluentFutures.immediateFailedFluentFuture(new NetconfDocumentedException(
+                    "Limit of rpc messages was reached (Limit :" + concurentRpcMsgs + ", queued: " + queuedRequests
+                    + ") waiting for emptying the queue of Netconf device with id" + id.getName()));
+        }
+
+        final QueuedRequest queued = new QueuedRequest(message, rpc, now + admissionTimeoutNanos);
+        (NetconfMessageTransformUtil.isPriorityRpc(rpc) ? priorityAdmissions : admissions).add(queued);
+        queuedRequests++;
+        try {
+            queued.timeout = admissionTimer.schedule(() -> expireAdmission(queued), admissionTimeoutNanos,
+                TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            LOG.debug("{}: Cannot schedule timeout of request {}, it will expire once permits are released", id, rpc,
+                e);
+        }
+        LOG.debug("{}: Request {} cannot be sent right away, queued it ({} waiting)", id, rpc,
+            queuedRequests);
+        return queued.future;
+    }
+
+    private void drainAdmissionQueue() {
+        if (queuedRequests == 0) {
+            return;
+        }
+
+        sessionLock.lock();
+        try {
+            expireAdmissions(System.nanoTime());
+            while (queuedRequests != 0 && isWritable() && semaphore.tryAcquire()) {
+                final QueuedRequest queued = priorityAdmissions.isEmpty() ? admissions.poll()
+                    : priorityAdmissions.poll();
+                queuedRequests--;
+                queued.cancelTimeout();
+                if (queued.future.isCancelled()) {
+                    releasePermit();
+                } else {
+                    queued.future.setFuture(sendRequestWithLock(queued.message, queued.rpc));
+                }
+            }
+        } finally {
+            sessionLock.unlock();
+        }
+    }
+
+    private boolean isWritable() {
+        // A missing session fails requests once they are sent
+        return currentSession == null || currentSession.isWritable();
+    }
+
+    private void drainUnwritableRequests() {
+        sessionLock.lock();
+        try {
+            while (!unwritableRequests.isEmpty() && isWritable()) {
+                final QueuedRequest queued = unwritableRequests.poll();
+                if (queued.future.isCancelled()) {
+                    releasePermit();
+                } else {
+                    queued.future.setFuture(sendRequestWithLock(queued.message, queued.rpc));
+                }
+            }
+        } finally {
+            sessionLock.unlock();
+        }
+    }
+
+    @Override
+    public void onSessionWritable(final NetconfClientSession session) {
+        LOG.debug("{}: Session is writable again", id);
+        drainUnwritableRequests();
+        drainAdmissionQueue();
+    }
+
+    private void expireAdmission(final QueuedRequest queued) {
+        sessionLock.lock();
+        try {
+            if (priorityAdmissions.remove(queued) || admissions.remove(queued)) {
+                queuedRequests--;
+                failExpired(queued);
+            }
+        } finally {
+            sessionLock.unlock();
+        }
+    }
+
+    private void expireAdmissions(final long now) {
+        expireAdmissions(priorityAdmissions, now);
+        expireAdmissions(admissions, now);
+    }
+
+    private void expireAdmissions(final Deque<QueuedRequest> queue, final long now) {
+        for (QueuedRequest head = queue.peek(); head != null && now - head.deadline >= 0; head = queue.peek()) {
+            queue.poll();
+            queuedRequests--;
+            head.cancelTimeout();
+            failExpired(head);
+        }
+    }
+
+    private void failExpired(final QueuedRequest queued) {
+        LOG.debug("{}: Request {} timed out waiting for a concurrent rpc permit", id, queued.rpc);
+        queued.future.set(createErrorRpcResult(RpcError.ErrorType.TRANSPORT, "Request to Netconf device with id "
+            + id.getName() + " timed out waiting for one of " + concurentRpcMsgs + " concurrent rpc slots"));
+    }
+
+    private void releasePermit() {
+        if (semaphore != null) {
+            semaphore.release();
+        }
+    }
+
     private void processNotification(final NetconfMessage notification) {
         if (LOG.isTraceEnabled()) {
             LOG.trace("{}: Notification received: {}", id, notification);
@@ -406,6 +663,10 @@ public class NetconfDeviceCommunicator
     }
 
     private static boolean isNotification(final NetconfMessage message) {
+        if (message instanceof RawNetconfMessage) {
+            return XmlNetconfConstants.NOTIFICATION_ELEMENT_NAME.equals(
+                ((RawNetconfMessage) message).getRootElementName());
+        }
         if (message.getDocument() == null) {
             // We have no message, which mean we have a FailedNetconfMessage
             return false;
@@ -417,11 +678,37 @@ public class NetconfDeviceCommunicator
     private static final class Request {
         final UncancellableFuture<RpcResult<NetconfMessage>> future;
         final NetconfMessage request;
+        final String key;
+        final long sequence;
 
         private Request(final UncancellableFuture<RpcResult<NetconfMessage>> future,
-                        final NetconfMessage request) {
+                        final NetconfMessage request, final String key, final long sequence) {
             this.future = future;
             this.request = request;
+            this.key = key;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class QueuedRequest {
+        final SettableFuture<RpcResult<NetconfMessage>> future = SettableFuture.create();
+        final NetconfMessage message;
+        final QName rpc;
+        final long deadline;
+
+        // Guarded by sessionLock
+        ScheduledFuture<?> timeout;
+
+        QueuedRequest(final NetconfMessage message, final QName rpc, final long deadline) {
+            this.message = message;
+            this.rpc = rpc;
+            this.deadline = deadline;
+        }
+
+        void cancelTimeout() {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
         }
     }
 
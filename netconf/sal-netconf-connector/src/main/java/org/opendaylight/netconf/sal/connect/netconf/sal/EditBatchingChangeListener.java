@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal;
+
+import java.util.Collection;
+import org.opendaylight.mdsal.binding.api.DataObjectModification;
+import org.opendaylight.mdsal.binding.api.DataTreeChangeListener;
+import org.opendaylight.mdsal.binding.api.DataTreeModification;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.optional.rev190614.netconf.node.fields.optional.topology.node.EditConfigBatching;
+import org.opendaylight.yangtools.yang.common.Uint16;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class EditBatchingChangeListener implements DataTreeChangeListener<EditConfigBatching> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EditBatchingChangeListener.class);
+
+    private final NetconfDeviceDataBroker netconfDeviceDataBroker;
+
+    EditBatchingChangeListener(final NetconfDeviceDataBroker netconfDeviceDataBroker) {
+        this.netconfDeviceDataBroker = netconfDeviceDataBroker;
+    }
+
+    @Override
+    public void onDataTreeChanged(final Collection<DataTreeModification<EditConfigBatching>> changes) {
+        for (final DataTreeModification<EditConfigBatching> change : changes) {
+            final DataObjectModification<EditConfigBatching> rootNode = change.getRootNode();
+            switch (rootNode.getModificationType()) {
+                case SUBTREE_MODIFIED:
+                case WRITE:
+                    final Uint16 maxEdits = rootNode.getDataAfter().getMaxEditsPerRequest();
+                    netconfDeviceDataBroker.setMaxBatchedEdits(maxEdits == null ? 0 : maxEdits.toJava());
+                    break;
+                case DELETE:
+                    netconfDeviceDataBroker.setMaxBatchedEdits(0);
+                    break;
+                default:
+                    LOG.debug("Unsupported modification type: {}.", rootNode.getModificationType());
+            }
+        }
+    }
+}
@@ -8,20 +8,26 @@
 package org.opendaylight.netconf.sal.connect.netconf.sal;
 
 import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps.getSourceNode;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_GET_CONFIG_NODEID;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_GET_CONFIG_PATH;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_RUNNING_QNAME;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.opendaylight.mdsal.dom.api.DOMActionService;
 import org.opendaylight.mdsal.dom.api.DOMNotification;
 import org.opendaylight.mdsal.dom.api.DOMRpcAvailabilityListener;
@@ -58,31 +64,46 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
     private final RemoteDeviceId id;
     private final RemoteDeviceHandler<NetconfSessionPreferences> salFacade;
     private final ScheduledExecutorService executor;
-    private final long keepaliveDelaySeconds;
+    private final Timer timer;
+    private final Ticker ticker;
+    private final long keepaliveDelayNanos;
     private final ResetKeepalive resetKeepaliveTask;
     private final long defaultRequestTimeoutMillis;
 
     private volatile NetconfDeviceCommunicator listener;
-    private volatile ScheduledFuture<?> currentKeepalive;
+    private volatile Keepalive currentKeepalive;
     private volatile DOMRpcService currentDeviceRpc;
-    private final AtomicBoolean lastKeepAliveSucceeded = new AtomicBoolean(false);
+    // Time of the last reply or notification received from the device, as per ticker
+    private volatile long lastActivityNanos;
+    // Number of RPCs invoked through KeepaliveDOMRpcService which are still waiting for a reply
+    private final AtomicInteger pendingRpcs = new AtomicInteger();
 
     public KeepaliveSalFacade(final RemoteDeviceId id, final RemoteDeviceHandler<NetconfSessionPreferences> salFacade,
-                              final ScheduledExecutorService executor, final long keepaliveDelaySeconds,
-                              final long defaultRequestTimeoutMillis) {
+                              final ScheduledExecutorService executor, final Timer timer,
+                              final long keepaliveDelaySeconds, final long defaultRequestTimeoutMillis) {
+        this(id, salFacade, executor, timer, Ticker.systemTicker(), keepaliveDelaySeconds,
+            defaultRequestTimeoutMillis);
+    }
+
+    public KeepaliveSalFacade(final RemoteDeviceId id, final RemoteDeviceHandler<NetconfSessionPreferences> salFacade,
+                              final ScheduledExecutorService executor, final Timer timer) {
+        this(id, salFacade, executor, timer, DEFAULT_DELAY, DEFAULT_TRANSACTION_TIMEOUT_MILLI);
+    }
+
+    @VisibleForTesting
+    KeepaliveSalFacade(final RemoteDeviceId id, final RemoteDeviceHandler<NetconfSessionPreferences> salFacade,
+            final ScheduledExecutorService executor, final Timer timer, final Ticker ticker,
+            final long keepaliveDelaySeconds, final long defaultRequestTimeoutMillis) {
         this.id = id;
         this.salFacade = salFacade;
         this.executor = executor;
-        this.keepaliveDelaySeconds = keepaliveDelaySeconds;
+        this.timer = requireNonNull(timer);
+        this.ticker = requireNonNull(ticker);
+        this.keepaliveDelayNanos = TimeUnit.SECONDS.toNanos(keepaliveDelaySeconds);
         this.defaultRequestTimeoutMillis = defaultRequestTimeoutMillis;
         this.resetKeepaliveTask = new ResetKeepalive();
     }
 
-    public KeepaliveSalFacade(final RemoteDeviceId id, final RemoteDeviceHandler<NetconfSessionPreferences> salFacade,
-                              final ScheduledExecutorService executor) {
-        this(id, salFacade, executor, DEFAULT_DELAY, DEFAULT_TRANSACTION_TIMEOUT_MILLI);
-    }
-
     /**
      * Set the netconf session listener whenever ready.
      *
@@ -93,26 +114,21 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
     }
 
     /**
-     * Just cancel current keepalive task.
-     * If its already started, let it finish ... not such a big deal.
-     *
-     * <p>
-     * Then schedule next keepalive.
+     * Record traffic from the device. The pending keepalive notices it once it expires and postpones itself, so
+     * there is nothing to cancel or reschedule here.
      */
     void resetKeepalive() {
         LOG.trace("{}: Resetting netconf keepalive timer", id);
-        if (currentKeepalive != null) {
-            currentKeepalive.cancel(false);
-        }
-        scheduleKeepalives();
+        lastActivityNanos = ticker.read();
     }
 
     /**
      * Cancel current keepalive and also reset current deviceRpc.
      */
     private void stopKeepalives() {
-        if (currentKeepalive != null) {
-            currentKeepalive.cancel(false);
+        final Keepalive keepalive = currentKeepalive;
+        if (keepalive != null) {
+            keepalive.stop();
         }
         currentDeviceRpc = null;
     }
@@ -136,8 +152,8 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
             final DOMActionService deviceAction) {
         this.currentDeviceRpc = deviceRpc;
         final DOMRpcService deviceRpc1 =
-                new KeepaliveDOMRpcService(deviceRpc, resetKeepaliveTask, defaultRequestTimeoutMillis, executor,
-                        new ResponseWaitingScheduler());
+                new KeepaliveDOMRpcService(deviceRpc, resetKeepaliveTask, defaultRequestTimeoutMillis, timer,
+                        pendingRpcs);
 
         salFacade.onDeviceConnected(remoteSchemaContext, netconfSessionPreferences, deviceRpc1, deviceAction);
 
@@ -146,11 +162,17 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
     }
 
     private void scheduleKeepalives() {
-        lastKeepAliveSucceeded.set(true);
         checkState(currentDeviceRpc != null);
-        LOG.trace("{}: Scheduling keepalives every  {} {}", id, keepaliveDelaySeconds, TimeUnit.SECONDS);
-        currentKeepalive = executor.scheduleWithFixedDelay(new Keepalive(),
-          keepaliveDelaySeconds, keepaliveDelaySeconds, TimeUnit.SECONDS);
+        LOG.trace("{}: Scheduling keepalives every {} {}", id, TimeUnit.NANOSECONDS.toSeconds(keepaliveDelayNanos),
+            TimeUnit.SECONDS);
+        final Keepalive previous = currentKeepalive;
+        if (previous != null) {
+            previous.stop();
+        }
+        resetKeepalive();
+        final Keepalive keepalive = new Keepalive();
+        currentKeepalive = keepalive;
+        keepalive.schedule(keepaliveDelayNanos);
     }
 
     @Override
@@ -186,21 +208,77 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
      * is considered successful and schedules next keepalive with a fixed delay. If the response is unsuccessful (no
      * response received, or the rcp could not even be sent) immediate reconnect is triggered as netconf session
      * is considered inactive/failed.
+     *
+     * <p>
+     * The keepalive is only sent once the session has been idle for the whole keepalive delay, and no RPC is waiting
+     * for its reply. Otherwise it just waits for the remainder of the delay.
      */
-    private class Keepalive implements Runnable, FutureCallback<DOMRpcResult> {
+    private class Keepalive implements TimerTask, Runnable, FutureCallback<DOMRpcResult> {
+        private volatile Timeout timeout;
+        private volatile boolean stopped;
+        // Time the last keepalive RPC was sent, as per ticker, zero if none is outstanding
+        private volatile long sentNanos;
+
+        void schedule(final long delayNanos) {
+            if (!stopped) {
+                timeout = timer.newTimeout(this, delayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        void stop() {
+            stopped = true;
+            final Timeout local = timeout;
+            if (local != null) {
+                local.cancel();
+            }
+        }
+
+        @Override
+        public void run(final Timeout expired) {
+            if (stopped) {
+                return;
+            }
+
+            final long now = ticker.read();
+            final long sent = sentNanos;
+            if (sent != 0) {
+                sentNanos = 0;
+                if (lastActivityNanos - sent < 0) {
+                    onFailure(new IllegalStateException("Previous keepalive timed out"));
+                    return;
+                }
+            }
+
+            if (pendingRpcs.get() > 0) {
+                LOG.trace("{}: Waiting for RPC replies, postponing keepalive", id);
+                schedule(keepaliveDelayNanos);
+                return;
+            }
+
+            final long idleNanos = now - lastActivityNanos;
+            if (idleNanos < keepaliveDelayNanos) {
+                schedule(keepaliveDelayNanos - idleNanos);
+                return;
+            }
+
+            // Sending the keepalive serializes it, which should not hold up the timer thread
+            sentNanos = now;
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                LOG.debug("{}: Keepalive executor rejected keepalive, skipping it", id, e);
+                sentNanos = 0;
+            }
+            schedule(keepaliveDelayNanos);
+        }
 
         @Override
         public void run() {
             LOG.trace("{}: Invoking keepalive RPC", id);
 
             try {
-                final boolean lastJobSucceeded = lastKeepAliveSucceeded.getAndSet(false);
-                if (!lastJobSucceeded) {
-                    onFailure(new IllegalStateException("Previous keepalive timed out"));
-                } else {
-                    Futures.addCallback(currentDeviceRpc.invokeRpc(NETCONF_GET_CONFIG_PATH, KEEPALIVE_PAYLOAD), this,
-                        MoreExecutors.directExecutor());
-                }
+                Futures.addCallback(currentDeviceRpc.invokeRpc(NETCONF_GET_CONFIG_PATH, KEEPALIVE_PAYLOAD), this,
+                    MoreExecutors.directExecutor());
             } catch (final NullPointerException e) {
                 LOG.debug("{}: Skipping keepalive while reconnecting", id);
                 // Empty catch block intentional
@@ -223,10 +301,10 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
             }
 
             if (result.getResult() != null) {
-                lastKeepAliveSucceeded.set(true);
+                resetKeepalive();
             }  else if (result.getErrors() != null) {
                 LOG.warn("{}: Keepalive RPC failed with error: {}", id, result.getErrors());
-                lastKeepAliveSucceeded.set(true);
+                resetKeepalive();
             } else {
                 LOG.warn("{} Keepalive RPC returned null with response. Reconnecting netconf session", id);
                 reconnect();
@@ -235,6 +313,9 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
 
         @Override
         public void onFailure(final Throwable throwable) {
+            if (stopped) {
+                return;
+            }
             LOG.warn("{}: Keepalive RPC failed. Reconnecting netconf session.", id, throwable);
             reconnect();
         }
@@ -261,89 +342,6 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
         }
     }
 
-    private final class ResponseWaitingScheduler {
-
-        private ScheduledFuture<?> schedule;
-
-        public void initScheduler(final Runnable runnable) {
-            if (currentKeepalive != null) {
-                currentKeepalive.cancel(true);
-            } else {
-                LOG.trace("Keepalive does not exist.");
-            }
-            scheduleKeepalives();
-            //Listening on the result should be done before the keepalive rpc will be send
-            final long delay = keepaliveDelaySeconds * 1000 - 500;
-            schedule = executor.schedule(runnable, delay, TimeUnit.MILLISECONDS);
-        }
-
-        public void stopScheduler() {
-            if (schedule != null) {
-                schedule.cancel(true);
-            } else {
-                LOG.trace("Scheduler does not exist.");
-            }
-        }
-    }
-
-    private static final class ResponseWaiting implements Runnable {
-
-        private final ListenableFuture<DOMRpcResult> rpcResultFuture;
-        private final ResponseWaitingScheduler responseWaitingScheduler;
-
-        ResponseWaiting(final ResponseWaitingScheduler responseWaitingScheduler,
-                final ListenableFuture<DOMRpcResult> rpcResultFuture) {
-            this.responseWaitingScheduler = responseWaitingScheduler;
-            this.rpcResultFuture = rpcResultFuture;
-        }
-
-        public void start() {
-            LOG.trace("Start to waiting for result.");
-            responseWaitingScheduler.initScheduler(this);
-        }
-
-        public void stop() {
-            LOG.info("Stop to waiting for result.");
-            responseWaitingScheduler.stopScheduler();
-        }
-
-        @Override
-        public void run() {
-            if (!rpcResultFuture.isCancelled() && !rpcResultFuture.isDone()) {
-                LOG.trace("Waiting for result");
-                responseWaitingScheduler.initScheduler(this);
-            } else {
-                LOG.trace("Result has been cancelled or done.");
-            }
-        }
-    }
-
-    /*
-     * Request timeout task is called once the defaultRequestTimeoutMillis is
-     * reached. At this moment, if the request is not yet finished, we cancel
-     * it.
-     */
-    private static final class RequestTimeoutTask implements Runnable {
-        private final ListenableFuture<DOMRpcResult> rpcResultFuture;
-        private final ResponseWaiting responseWaiting;
-
-        RequestTimeoutTask(final ListenableFuture<DOMRpcResult> rpcResultFuture,
-            final ResponseWaiting responseWaiting) {
-            this.rpcResultFuture = rpcResultFuture;
-            this.responseWaiting = responseWaiting;
-        }
-
-        @Override
-        public void run() {
-            if (!rpcResultFuture.isDone()) {
-                rpcResultFuture.cancel(true);
-            }
-            if (responseWaiting != null) {
-                responseWaiting.stop();
-            }
-        }
-    }
-
     /**
      * DOMRpcService proxy that attaches reset-keepalive-task and schedule
      * request-timeout-task to each RPC invocation.
@@ -353,17 +351,16 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
         private final DOMRpcService deviceRpc;
         private final ResetKeepalive resetKeepaliveTask;
         private final long defaultRequestTimeoutMillis;
-        private final ScheduledExecutorService executor;
-        private final ResponseWaitingScheduler responseWaitingScheduler;
+        private final Timer timer;
+        private final AtomicInteger pendingRpcs;
 
         KeepaliveDOMRpcService(final DOMRpcService deviceRpc, final ResetKeepalive resetKeepaliveTask,
-                final long defaultRequestTimeoutMillis, final ScheduledExecutorService executor,
-                final ResponseWaitingScheduler responseWaitingScheduler) {
+                final long defaultRequestTimeoutMillis, final Timer timer, final AtomicInteger pendingRpcs) {
             this.deviceRpc = deviceRpc;
             this.resetKeepaliveTask = resetKeepaliveTask;
             this.defaultRequestTimeoutMillis = defaultRequestTimeoutMillis;
-            this.executor = executor;
-            this.responseWaitingScheduler = responseWaitingScheduler;
+            this.timer = timer;
+            this.pendingRpcs = pendingRpcs;
         }
 
         public DOMRpcService getDeviceRpc() {
@@ -373,13 +370,17 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
         @Override
         public ListenableFuture<DOMRpcResult> invokeRpc(final SchemaPath type, final NormalizedNode<?, ?> input) {
             final ListenableFuture<DOMRpcResult> rpcResultFuture = deviceRpc.invokeRpc(type, input);
-            final ResponseWaiting responseWaiting = new ResponseWaiting(responseWaitingScheduler, rpcResultFuture);
-            responseWaiting.start();
+            pendingRpcs.incrementAndGet();
+
+            // Request timeout is reached only if the request is not yet finished, we cancel it
+            final Timeout timeout = timer.newTimeout(expired -> rpcResultFuture.cancel(true),
+                defaultRequestTimeoutMillis, TimeUnit.MILLISECONDS);
+            rpcResultFuture.addListener(() -> {
+                pendingRpcs.decrementAndGet();
+                timeout.cancel();
+            }, MoreExecutors.directExecutor());
             Futures.addCallback(rpcResultFuture, resetKeepaliveTask, MoreExecutors.directExecutor());
 
-            final RequestTimeoutTask timeoutTask = new RequestTimeoutTask(rpcResultFuture, responseWaiting);
-            executor.schedule(timeoutTask, defaultRequestTimeoutMillis, TimeUnit.MILLISECONDS);
-
             return rpcResultFuture;
         }
 
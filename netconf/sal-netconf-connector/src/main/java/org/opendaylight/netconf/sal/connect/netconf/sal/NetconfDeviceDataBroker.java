@@ -10,6 +10,7 @@ package org.opendaylight.netconf.sal.connect.netconf.sal;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ClassToInstanceMap;
 import com.google.common.collect.ImmutableClassToInstanceMap;
+import java.util.concurrent.ScheduledExecutorService;
 import org.opendaylight.mdsal.dom.api.DOMDataBrokerExtension;
 import org.opendaylight.mdsal.dom.api.DOMDataTreeReadTransaction;
 import org.opendaylight.mdsal.dom.api.DOMDataTreeReadWriteTransaction;
@@ -19,6 +20,7 @@ import org.opendaylight.mdsal.dom.api.DOMTransactionChain;
 import org.opendaylight.mdsal.dom.api.DOMTransactionChainListener;
 import org.opendaylight.mdsal.dom.spi.PingPongMergingDOMDataBroker;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.ReadCoalescer;
 import org.opendaylight.netconf.sal.connect.netconf.sal.tx.ReadOnlyTx;
 import org.opendaylight.netconf.sal.connect.netconf.sal.tx.ReadWriteTx;
 import org.opendaylight.netconf.sal.connect.netconf.sal.tx.TxChain;
@@ -38,6 +40,8 @@ public final class NetconfDeviceDataBroker implements PingPongMergingDOMDataBrok
     private final boolean runningWritable;
 
     private boolean isLockAllowed = true;
+    private int maxBatchedEdits = 0;
+    private ReadCoalescer readCoalescer = null;
 
     public NetconfDeviceDataBroker(final RemoteDeviceId id, final MountPointContext mountContext,
                                    final DOMRpcService rpc, final NetconfSessionPreferences netconfSessionPreferences) {
@@ -55,7 +59,7 @@ public final class NetconfDeviceDataBroker implements PingPongMergingDOMDataBrok
 
     @Override
     public DOMDataTreeReadTransaction newReadOnlyTransaction() {
-        return new ReadOnlyTx(netconfOps, id);
+        return new ReadOnlyTx(netconfOps, id, readCoalescer);
     }
 
     @Override
@@ -67,12 +71,12 @@ public final class NetconfDeviceDataBroker implements PingPongMergingDOMDataBrok
     public DOMDataTreeWriteTransaction newWriteOnlyTransaction() {
         if (candidateSupported) {
             if (runningWritable) {
-                return new WriteCandidateRunningTx(id, netconfOps, rollbackSupport, isLockAllowed);
+                return new WriteCandidateRunningTx(id, netconfOps, rollbackSupport, isLockAllowed, maxBatchedEdits);
             } else {
-                return new WriteCandidateTx(id, netconfOps, rollbackSupport, isLockAllowed);
+                return new WriteCandidateTx(id, netconfOps, rollbackSupport, isLockAllowed, maxBatchedEdits);
             }
         } else {
-            return new WriteRunningTx(id, netconfOps, rollbackSupport, isLockAllowed);
+            return new WriteRunningTx(id, netconfOps, rollbackSupport, isLockAllowed, maxBatchedEdits);
         }
     }
 
@@ -90,4 +94,14 @@ public final class NetconfDeviceDataBroker implements PingPongMergingDOMDataBrok
         this.isLockAllowed = isLockAllowedOrig;
     }
 
+    void setMaxBatchedEdits(final int maxBatchedEdits) {
+        this.maxBatchedEdits = maxBatchedEdits;
+    }
+
+    void setReadCoalescing(final int maxReads, final int windowMillis, final ScheduledExecutorService scheduler) {
+        // Without a scheduler reads are only combined while another read is in flight
+        this.readCoalescer = maxReads > 1
+            ? new ReadCoalescer(id, netconfOps, maxReads, scheduler == null ? 0 : windowMillis, scheduler) : null;
+    }
+
 }
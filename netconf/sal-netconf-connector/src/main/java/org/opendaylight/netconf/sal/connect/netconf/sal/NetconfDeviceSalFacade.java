@@ -11,6 +11,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
 import org.opendaylight.mdsal.binding.api.DataBroker;
 import org.opendaylight.mdsal.binding.api.DataTreeIdentifier;
 import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
@@ -28,6 +29,8 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.optional.rev19
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.optional.rev190614.netconf.node.fields.optional.topology.Node;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.optional.rev190614.netconf.node.fields.optional.topology.NodeKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.optional.rev190614.netconf.node.fields.optional.topology.node.DatastoreLock;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.optional.rev190614.netconf.node.fields.optional.topology.node.EditConfigBatching;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.optional.rev190614.netconf.node.fields.optional.topology.node.ReadCoalescing;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeConnectionStatus.ConnectionStatus;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
@@ -48,21 +51,43 @@ public final class NetconfDeviceSalFacade implements AutoCloseable, RemoteDevice
     private final List<AutoCloseable> salRegistrations = new ArrayList<>();
     private final DataBroker dataBroker;
     private final String topologyId;
+    // Sends coalesced reads once their window passes, reads are only combined while another one is in flight if null
+    private final ScheduledExecutorService scheduler;
 
     private ListenerRegistration<LockChangeListener> listenerRegistration = null;
+    private ListenerRegistration<EditBatchingChangeListener> editBatchingRegistration = null;
+    private ListenerRegistration<ReadCoalescingChangeListener> readCoalescingRegistration = null;
 
     public NetconfDeviceSalFacade(final RemoteDeviceId id, final DOMMountPointService mountPointService,
             final DataBroker dataBroker, final String topologyId) {
         this(id, new NetconfDeviceSalProvider(id, mountPointService, dataBroker), dataBroker, topologyId);
     }
 
+    public NetconfDeviceSalFacade(final RemoteDeviceId id, final DOMMountPointService mountPointService,
+            final DataBroker dataBroker, final String topologyId, final NetconfTopologyStatusWriter statusWriter) {
+        this(id, mountPointService, dataBroker, topologyId, statusWriter, null);
+    }
+
+    public NetconfDeviceSalFacade(final RemoteDeviceId id, final DOMMountPointService mountPointService,
+            final DataBroker dataBroker, final String topologyId, final NetconfTopologyStatusWriter statusWriter,
+            final ScheduledExecutorService scheduler) {
+        this(id, new NetconfDeviceSalProvider(id, mountPointService, dataBroker, statusWriter), dataBroker,
+            topologyId, scheduler);
+    }
+
     @VisibleForTesting
     NetconfDeviceSalFacade(final RemoteDeviceId id, final NetconfDeviceSalProvider salProvider,
             final DataBroker dataBroker, final String topologyId) {
+        this(id, salProvider, dataBroker, topologyId, null);
+    }
+
+    private NetconfDeviceSalFacade(final RemoteDeviceId id, final NetconfDeviceSalProvider salProvider,
+            final DataBroker dataBroker, final String topologyId, final ScheduledExecutorService scheduler) {
         this.id = id;
         this.salProvider = salProvider;
         this.dataBroker = dataBroker;
         this.topologyId = topologyId;
+        this.scheduler = scheduler;
     }
 
     @Override
@@ -78,6 +103,8 @@ public final class NetconfDeviceSalFacade implements AutoCloseable, RemoteDevice
         final NetconfDeviceDataBroker netconfDeviceDataBroker =
                 new NetconfDeviceDataBroker(id, mountContext, deviceRpc, netconfSessionPreferences);
         registerLockListener(netconfDeviceDataBroker);
+        registerEditBatchingListener(netconfDeviceDataBroker);
+        registerReadCoalescingListener(netconfDeviceDataBroker);
         final NetconfDeviceNotificationService notificationService = new NetconfDeviceNotificationService();
 
         salProvider.getMountInstance()
@@ -98,14 +125,14 @@ public final class NetconfDeviceSalFacade implements AutoCloseable, RemoteDevice
     public synchronized void onDeviceDisconnected() {
         salProvider.getTopologyDatastoreAdapter().updateDeviceData(false, new NetconfDeviceCapabilities());
         salProvider.getMountInstance().onTopologyDeviceDisconnected();
-        closeLockChangeListener();
+        closeChangeListeners();
     }
 
     @Override
     public synchronized void onDeviceFailed(final Throwable throwable) {
         salProvider.getTopologyDatastoreAdapter().setDeviceAsFailed(throwable);
         salProvider.getMountInstance().onTopologyDeviceDisconnected();
-        closeLockChangeListener();
+        closeChangeListeners();
     }
 
     @Override
@@ -114,7 +141,7 @@ public final class NetconfDeviceSalFacade implements AutoCloseable, RemoteDevice
             closeGracefully(reg);
         }
         closeGracefully(salProvider);
-        closeLockChangeListener();
+        closeChangeListeners();
     }
 
     @SuppressWarnings("checkstyle:IllegalCatch")
@@ -128,10 +155,16 @@ public final class NetconfDeviceSalFacade implements AutoCloseable, RemoteDevice
         }
     }
 
-    private void closeLockChangeListener() {
+    private void closeChangeListeners() {
         if (listenerRegistration != null) {
             listenerRegistration.close();
         }
+        if (editBatchingRegistration != null) {
+            editBatchingRegistration.close();
+        }
+        if (readCoalescingRegistration != null) {
+            readCoalescingRegistration.close();
+        }
     }
 
     private void registerLockListener(final NetconfDeviceDataBroker netconfDeviceDataBroker) {
@@ -140,11 +173,27 @@ public final class NetconfDeviceSalFacade implements AutoCloseable, RemoteDevice
                 new LockChangeListener(netconfDeviceDataBroker));
     }
 
+    private void registerEditBatchingListener(final NetconfDeviceDataBroker netconfDeviceDataBroker) {
+        editBatchingRegistration = dataBroker.registerDataTreeChangeListener(
+                DataTreeIdentifier.create(LogicalDatastoreType.CONFIGURATION, createOptionalNodePath()
+                    .child(EditConfigBatching.class)),
+                new EditBatchingChangeListener(netconfDeviceDataBroker));
+    }
+
+    private void registerReadCoalescingListener(final NetconfDeviceDataBroker netconfDeviceDataBroker) {
+        readCoalescingRegistration = dataBroker.registerDataTreeChangeListener(
+                DataTreeIdentifier.create(LogicalDatastoreType.CONFIGURATION, createOptionalNodePath()
+                    .child(ReadCoalescing.class)),
+                new ReadCoalescingChangeListener(netconfDeviceDataBroker, scheduler));
+    }
+
     private InstanceIdentifier<DatastoreLock> createTopologyListPath() {
+        return createOptionalNodePath().child(DatastoreLock.class);
+    }
+
+    private InstanceIdentifier<Node> createOptionalNodePath() {
         return InstanceIdentifier.create(NetconfNodeFieldsOptional.class)
                 .child(Topology.class, new TopologyKey(new TopologyId(topologyId)))
-                .child(Node.class, new NodeKey(new NodeId(id.getName())))
-                .child(DatastoreLock.class);
-
+                .child(Node.class, new NodeKey(new NodeId(id.getName())));
     }
 }
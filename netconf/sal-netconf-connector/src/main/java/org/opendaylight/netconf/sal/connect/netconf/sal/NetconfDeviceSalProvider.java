@@ -62,12 +62,17 @@ public class NetconfDeviceSalProvider implements AutoCloseable {
 
     public NetconfDeviceSalProvider(final RemoteDeviceId deviceId, final DOMMountPointService mountService,
             final DataBroker dataBroker) {
+        this(deviceId, mountService, dataBroker, null);
+    }
+
+    public NetconfDeviceSalProvider(final RemoteDeviceId deviceId, final DOMMountPointService mountService,
+            final DataBroker dataBroker, final NetconfTopologyStatusWriter statusWriter) {
         this.id = deviceId;
         mountInstance = new MountInstance(mountService, id);
         this.dataBroker = dataBroker;
         if (dataBroker != null) {
             txChain = requireNonNull(dataBroker).createTransactionChain(transactionChainListener);
-            topologyDatastoreAdapter = new NetconfDeviceTopologyAdapter(id, txChain);
+            topologyDatastoreAdapter = new NetconfDeviceTopologyAdapter(id, txChain, statusWriter);
         }
     }
 
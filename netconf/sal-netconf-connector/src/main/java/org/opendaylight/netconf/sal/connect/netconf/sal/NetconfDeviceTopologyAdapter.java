@@ -56,6 +56,7 @@ public class NetconfDeviceTopologyAdapter implements AutoCloseable {
     private static final Logger LOG = LoggerFactory.getLogger(NetconfDeviceTopologyAdapter.class);
 
     private final RemoteDeviceId id;
+    private final NetconfTopologyStatusWriter statusWriter;
     private TransactionChain txChain;
 
     private final InstanceIdentifier<NetworkTopology> networkTopologyPath;
@@ -63,8 +64,18 @@ public class NetconfDeviceTopologyAdapter implements AutoCloseable {
     private static final String UNKNOWN_REASON = "Unknown reason";
 
     NetconfDeviceTopologyAdapter(final RemoteDeviceId id, final TransactionChain txChain) {
+        this(id, txChain, null);
+    }
+
+    /**
+     * Create an adapter. If a status writer is supplied, operational data of the device is written through it,
+     * batched with the data of other devices, rather than through the adapter's own transaction chain.
+     */
+    NetconfDeviceTopologyAdapter(final RemoteDeviceId id, final TransactionChain txChain,
+            final NetconfTopologyStatusWriter statusWriter) {
         this.id = id;
         this.txChain = requireNonNull(txChain);
+        this.statusWriter = statusWriter;
 
         this.networkTopologyPath = InstanceIdentifier.builder(NetworkTopology.class).build();
         this.topologyListPath = networkTopologyPath
@@ -74,10 +85,6 @@ public class NetconfDeviceTopologyAdapter implements AutoCloseable {
     }
 
     private void initDeviceData() {
-        final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
-
-        createNetworkTopologyIfNotPresent(writeTx);
-
         final InstanceIdentifier<Node> path = id.getTopologyBindingPath();
         final NodeBuilder nodeBuilder = getNodeIdBuilder(id);
         NetconfNodeBuilder netconfNodeBuilder = new NetconfNodeBuilder();
@@ -87,6 +94,15 @@ public class NetconfDeviceTopologyAdapter implements AutoCloseable {
         nodeBuilder.addAugmentation(NetconfNode.class, netconfNodeBuilder.build());
         Node node = nodeBuilder.build();
 
+        if (statusWriter != null) {
+            statusWriter.initNode(path, node);
+            return;
+        }
+
+        final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
+
+        createNetworkTopologyIfNotPresent(writeTx);
+
         LOG.trace("{}: Init device state transaction {} putting if absent operational data started.",
                 id, writeTx.getIdentifier());
         writeTx.put(LogicalDatastoreType.OPERATIONAL, path, node);
@@ -107,6 +123,11 @@ public class NetconfDeviceTopologyAdapter implements AutoCloseable {
             data = buildDataForNetconfNode(connectionStatus, capabilities, dsType, node);
         }
 
+        if (statusWriter != null && dsType == LogicalDatastoreType.OPERATIONAL) {
+            statusWriter.updateNode(id.getTopologyBindingPath(), data);
+            return;
+        }
+
         final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
         LOG.trace("{}: Update device state transaction {} merging operational data started.",
                 id, writeTx.getIdentifier());
@@ -126,6 +147,11 @@ public class NetconfDeviceTopologyAdapter implements AutoCloseable {
                                           final NetconfDeviceCapabilities capabilities) {
         final NetconfNode data = buildDataForNetconfClusteredNode(up, masterAddress, capabilities);
 
+        if (statusWriter != null) {
+            statusWriter.updateNode(id.getTopologyBindingPath(), data);
+            return;
+        }
+
         final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
         LOG.trace("{}: Update device state transaction {} merging operational data started.",
                 id, writeTx.getIdentifier());
@@ -145,6 +171,11 @@ public class NetconfDeviceTopologyAdapter implements AutoCloseable {
                 .setPort(new PortNumber(Uint16.valueOf(id.getAddress().getPort())))
                 .setConnectionStatus(ConnectionStatus.UnableToConnect).setConnectedMessage(reason).build();
 
+        if (statusWriter != null) {
+            statusWriter.updateNode(id.getTopologyBindingPath(), data);
+            return;
+        }
+
         final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
         LOG.trace(
                 "{}: Setting device state as failed {} putting operational data started.",
@@ -203,6 +234,16 @@ public class NetconfDeviceTopologyAdapter implements AutoCloseable {
     }
 
     public void removeDeviceConfiguration() {
+        if (statusWriter != null) {
+            try {
+                statusWriter.removeNode(id.getTopologyBindingPath()).get();
+            } catch (InterruptedException | ExecutionException e) {
+                LOG.error("{}: Removing device state FAILED!", id, e);
+                throw new IllegalStateException(id + "  Device state not removed correctly", e);
+            }
+            return;
+        }
+
         final WriteTransaction writeTx = txChain.newWriteOnlyTransaction();
 
         LOG.trace(
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.checkerframework.checker.lock.qual.GuardedBy;
+import org.opendaylight.mdsal.binding.api.DataBroker;
+import org.opendaylight.mdsal.binding.api.Transaction;
+import org.opendaylight.mdsal.binding.api.TransactionChain;
+import org.opendaylight.mdsal.binding.api.TransactionChainListener;
+import org.opendaylight.mdsal.binding.api.WriteTransaction;
+import org.opendaylight.mdsal.common.api.CommitInfo;
+import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the operational status of the nodes of a topology in batches, shared by the
+ * {@link NetconfDeviceTopologyAdapter}s of all of its devices.
+ *
+ * <p>
+ * Status updates are collected for at most {@code windowMillis} and are then written in a single transaction. Only the
+ * latest status of each node is kept, updates made while a transaction is in flight are written once it completes.
+ * Capabilities of a node are only written when they change, otherwise just its status is merged. Removal of a node is
+ * written right away, without waiting for the window to pass.
+ */
+public final class NetconfTopologyStatusWriter implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NetconfTopologyStatusWriter.class);
+
+    // Fields written by NetconfDeviceTopologyAdapter besides capabilities
+    private static final List<Function<NetconfNode, Object>> STATUS_FIELDS = ImmutableList.of(
+        NetconfNode::getHost, NetconfNode::getPort, NetconfNode::getConnectionStatus, NetconfNode::getConnectedMessage,
+        NetconfNode::getClusteredConnectionStatus);
+
+    private final DataBroker dataBroker;
+    private final long windowMillis;
+    private final ScheduledExecutorService scheduler;
+    private final TransactionChainListener chainListener = new TransactionChainListener() {
+        @Override
+        public void onTransactionChainFailed(final TransactionChain chain, final Transaction transaction,
+                final Throwable cause) {
+            LOG.error("TransactionChain({}) {} FAILED!", chain, transaction.getIdentifier(), cause);
+        }
+
+        @Override
+        public void onTransactionChainSuccessful(final TransactionChain chain) {
+            LOG.trace("TransactionChain({}) SUCCESSFUL", chain);
+        }
+    };
+
+    @GuardedBy("this")
+    private final Map<InstanceIdentifier<Node>, NodeUpdate> pending = new LinkedHashMap<>();
+    // Last status written for each node
+    @GuardedBy("this")
+    private final Map<InstanceIdentifier<Node>, NetconfNode> written = new HashMap<>();
+    @GuardedBy("this")
+    private TransactionChain txChain;
+    @GuardedBy("this")
+    private boolean inFlight;
+    @GuardedBy("this")
+    private boolean scheduled;
+    @GuardedBy("this")
+    private boolean closed;
+
+    /**
+     * Create a status writer.
+     *
+     * @param dataBroker data broker to write to
+     * @param windowMillis time over which status updates are collected
+     * @param scheduler executor writing updates once their window passes, required if {@code windowMillis} is positive
+     */
+    public NetconfTopologyStatusWriter(final DataBroker dataBroker, final long windowMillis,
+            final ScheduledExecutorService scheduler) {
+        this.dataBroker = requireNonNull(dataBroker);
+        checkArgument(windowMillis >= 0, "Window %s has to be non-negative", windowMillis);
+        checkArgument(windowMillis == 0 || scheduler != null, "Window %s requires a scheduler", windowMillis);
+        this.windowMillis = windowMillis;
+        this.scheduler = scheduler;
+        txChain = dataBroker.createTransactionChain(chainListener);
+    }
+
+    /**
+     * Replace a node with its initial data.
+     */
+    void initNode(final InstanceIdentifier<Node> path, final Node node) {
+        enqueue(path, false, update -> update.init(node));
+    }
+
+    /**
+     * Update the status of a node.
+     */
+    void updateNode(final InstanceIdentifier<Node> path, final NetconfNode data) {
+        enqueue(path, false, update -> update.update(data));
+    }
+
+    /**
+     * Remove a node.
+     *
+     * @return future completing once the node is removed
+     */
+    ListenableFuture<?> removeNode(final InstanceIdentifier<Node> path) {
+        return enqueue(path, true, NodeUpdate::remove).removed;
+    }
+
+    private NodeUpdate enqueue(final InstanceIdentifier<Node> path, final boolean urgent,
+            final Consumer<NodeUpdate> change) {
+        final NodeUpdate update;
+        final boolean flushNow;
+        synchronized (this) {
+            checkState(!closed, "Status writer is closed, cannot update %s", path);
+            update = pending.computeIfAbsent(path, key -> new NodeUpdate());
+            change.accept(update);
+            flushNow = scheduleFlush(urgent);
+        }
+
+        if (flushNow) {
+            flush();
+        }
+        return update;
+    }
+
+    /**
+     * Schedule flushing of pending updates.
+     *
+     * @return true if the pending updates should be flushed right away
+     */
+    @GuardedBy("this")
+    private boolean scheduleFlush(final boolean urgent) {
+        if (inFlight) {
+            // Flushed once the transaction in flight completes
+            return false;
+        }
+        if (urgent || windowMillis == 0) {
+            return true;
+        }
+        if (!scheduled) {
+            scheduled = true;
+            scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+        }
+        return false;
+    }
+
+    private void flush() {
+        final List<NodeUpdate> batch;
+        final WriteTransaction tx;
+        synchronized (this) {
+            scheduled = false;
+            if (inFlight || pending.isEmpty() || closed) {
+                return;
+            }
+
+            tx = txChain.newWriteOnlyTransaction();
+            pending.forEach((path, update) -> apply(tx, path, update));
+            batch = ImmutableList.copyOf(pending.values());
+            pending.clear();
+            inFlight = true;
+        }
+
+        LOG.debug("Writing status of {} nodes in transaction {}", batch.size(), tx.getIdentifier());
+        tx.commit().addCallback(new FutureCallback<CommitInfo>() {
+            @Override
+            public void onSuccess(final CommitInfo result) {
+                LOG.trace("Transaction {} SUCCESSFUL", tx.getIdentifier());
+                batch.forEach(update -> update.completed(null));
+                completed(false);
+            }
+
+            @Override
+            public void onFailure(final Throwable cause) {
+                LOG.error("Transaction {} FAILED!", tx.getIdentifier(), cause);
+                batch.forEach(update -> update.completed(cause));
+                completed(true);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    @GuardedBy("this")
+    private void apply(final WriteTransaction tx, final InstanceIdentifier<Node> path, final NodeUpdate update) {
+        if (update.removed != null) {
+            tx.delete(LogicalDatastoreType.OPERATIONAL, path);
+            written.remove(path);
+        }
+        if (update.node != null) {
+            tx.put(LogicalDatastoreType.OPERATIONAL, path, update.node, true);
+            written.put(path, update.node.augmentation(NetconfNode.class));
+        }
+        if (update.data != null) {
+            final NetconfNode last = written.put(path, update.data);
+            if (last != null && canMergeStatus(last, update.data)) {
+                tx.merge(LogicalDatastoreType.OPERATIONAL, path.augmentation(NetconfNode.class),
+                    new NetconfNodeBuilder(update.data).setAvailableCapabilities(null)
+                        .setUnavailableCapabilities(null).build(), true);
+            } else {
+                tx.put(LogicalDatastoreType.OPERATIONAL, path.augmentation(NetconfNode.class), update.data, true);
+            }
+        }
+    }
+
+    private void completed(final boolean failed) {
+        final boolean flushNow;
+        synchronized (this) {
+            inFlight = false;
+            if (closed) {
+                return;
+            }
+            if (failed) {
+                // Start over with a new chain, writing full data of all nodes
+                txChain.close();
+                txChain = dataBroker.createTransactionChain(chainListener);
+                written.clear();
+            }
+            flushNow = !pending.isEmpty()
+                && scheduleFlush(pending.values().stream().anyMatch(update -> update.removed != null));
+        }
+
+        if (flushNow) {
+            flush();
+        }
+    }
+
+    /**
+     * Check whether a node's status can be updated by merging, without writing its capabilities. A merge cannot
+     * remove anything, so the new status has to set everything the last one did.
+     */
+    private static boolean canMergeStatus(final NetconfNode last, final NetconfNode next) {
+        return Objects.equals(last.getAvailableCapabilities(), next.getAvailableCapabilities())
+            && Objects.equals(last.getUnavailableCapabilities(), next.getUnavailableCapabilities())
+            && STATUS_FIELDS.stream().allMatch(field -> field.apply(last) == null || field.apply(next) != null);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            pending.values().forEach(update -> update.completed(
+                new IllegalStateException("Status writer closed before the update was written")));
+            pending.clear();
+            txChain.close();
+        }
+    }
+
+    private static final class NodeUpdate {
+        // All of the below are guarded by the owning NetconfTopologyStatusWriter
+        SettableFuture<Void> removed;
+        Node node;
+        NetconfNode data;
+
+        void init(final Node newNode) {
+            node = newNode;
+            data = null;
+        }
+
+        void update(final NetconfNode newData) {
+            data = newData;
+        }
+
+        void remove() {
+            if (removed == null) {
+                removed = SettableFuture.create();
+            }
+            node = null;
+            data = null;
+        }
+
+        void completed(final Throwable cause) {
+            if (removed != null) {
+                if (cause == null) {
+                    removed.set(null);
+                } else {
+                    removed.setException(cause);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal;
+
+import java.util.Collection;
+import java.util.concurrent.ScheduledExecutorService;
+import org.opendaylight.mdsal.binding.api.DataObjectModification;
+import org.opendaylight.mdsal.binding.api.DataTreeChangeListener;
+import org.opendaylight.mdsal.binding.api.DataTreeModification;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.optional.rev190614.netconf.node.fields.optional.topology.node.ReadCoalescing;
+import org.opendaylight.yangtools.yang.common.Uint16;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class ReadCoalescingChangeListener implements DataTreeChangeListener<ReadCoalescing> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReadCoalescingChangeListener.class);
+
+    private final NetconfDeviceDataBroker netconfDeviceDataBroker;
+    private final ScheduledExecutorService scheduler;
+
+    ReadCoalescingChangeListener(final NetconfDeviceDataBroker netconfDeviceDataBroker,
+            final ScheduledExecutorService scheduler) {
+        this.netconfDeviceDataBroker = netconfDeviceDataBroker;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public void onDataTreeChanged(final Collection<DataTreeModification<ReadCoalescing>> changes) {
+        for (final DataTreeModification<ReadCoalescing> change : changes) {
+            final DataObjectModification<ReadCoalescing> rootNode = change.getRootNode();
+            switch (rootNode.getModificationType()) {
+                case SUBTREE_MODIFIED:
+                case WRITE:
+                    final Uint16 maxReads = rootNode.getDataAfter().getMaxReadsPerRequest();
+                    final Uint16 window = rootNode.getDataAfter().getWindow();
+                    netconfDeviceDataBroker.setReadCoalescing(maxReads == null ? 0 : maxReads.toJava(),
+                        window == null ? 0 : window.toJava(), scheduler);
+                    break;
+                case DELETE:
+                    netconfDeviceDataBroker.setReadCoalescing(0, 0, null);
+                    break;
+                default:
+                    LOG.debug("Unsupported modification type: {}.", rootNode.getModificationType());
+            }
+        }
+    }
+}
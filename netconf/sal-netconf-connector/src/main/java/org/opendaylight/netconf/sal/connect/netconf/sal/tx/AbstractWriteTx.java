@@ -30,6 +30,7 @@ import org.opendaylight.mdsal.dom.api.DOMRpcResult;
 import org.opendaylight.netconf.api.DocumentedException;
 import org.opendaylight.netconf.api.ModifyAction;
 import org.opendaylight.netconf.api.NetconfDocumentedException;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.EditBatcher.BatchedEdit;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.yangtools.yang.common.RpcError;
@@ -54,13 +55,27 @@ public abstract class AbstractWriteTx implements DOMDataTreeWriteTransaction {
     // Allow commit to be called only once
     protected volatile boolean finished = false;
     protected final boolean isLockAllowed;
+    // Edits collected until commit, null if each edit is sent right away
+    private final EditBatcher editBatcher;
 
     public AbstractWriteTx(final RemoteDeviceId id, final NetconfBaseOps netconfOps, final boolean rollbackSupport,
             final boolean isLockAllowed) {
+        this(id, netconfOps, rollbackSupport, isLockAllowed, 0);
+    }
+
+    /**
+     * Create a transaction.
+     *
+     * @param maxBatchedEdits maximum number of edits sent in a single edit-config at commit time. If value <1 is
+     *                        provided, each edit is sent in its own edit-config as soon as it is made.
+     */
+    public AbstractWriteTx(final RemoteDeviceId id, final NetconfBaseOps netconfOps, final boolean rollbackSupport,
+            final boolean isLockAllowed, final int maxBatchedEdits) {
         this.netOps = netconfOps;
         this.id = id;
         this.rollbackSupport = rollbackSupport;
         this.isLockAllowed = isLockAllowed;
+        this.editBatcher = maxBatchedEdits > 0 ? new EditBatcher(maxBatchedEdits) : null;
         init();
     }
 
@@ -110,6 +125,10 @@ public abstract class AbstractWriteTx implements DOMDataTreeWriteTransaction {
 
         final DataContainerChild<?, ?> editStructure = netOps.createEditConfigStrcture(Optional.ofNullable(data),
                         Optional.of(ModifyAction.REPLACE), path);
+        if (editBatcher != null) {
+            editBatcher.add(path, ModifyAction.REPLACE, editStructure);
+            return;
+        }
         editConfig(path, Optional.ofNullable(data), editStructure, Optional.empty(), "put");
     }
 
@@ -125,6 +144,13 @@ public abstract class AbstractWriteTx implements DOMDataTreeWriteTransaction {
             return;
         }
 
+        if (editBatcher != null) {
+            // Merge is explicit, so that the edited node is told apart from its ancestors once edits are sent together
+            editBatcher.add(path, ModifyAction.MERGE, netOps.createEditConfigStrcture(Optional.ofNullable(data),
+                Optional.of(ModifyAction.MERGE), path));
+            return;
+        }
+
         final DataContainerChild<?, ?> editStructure =  netOps.createEditConfigStrcture(Optional.ofNullable(data),
             Optional.empty(), path);
         editConfig(path, Optional.ofNullable(data), editStructure, Optional.empty(), "merge");
@@ -145,9 +171,26 @@ public abstract class AbstractWriteTx implements DOMDataTreeWriteTransaction {
         checkEditable(store);
         final DataContainerChild<?, ?> editStructure = netOps.createEditConfigStrcture(Optional.empty(),
                         Optional.of(ModifyAction.DELETE), path);
+        if (editBatcher != null) {
+            editBatcher.add(path, ModifyAction.DELETE, editStructure);
+            return;
+        }
         editConfig(path, Optional.empty(), editStructure, Optional.of(ModifyAction.NONE), "delete");
     }
 
+    private void sendBatchedEdits() {
+        if (editBatcher == null || editBatcher.isEmpty()) {
+            return;
+        }
+
+        final List<BatchedEdit> batches = editBatcher.build();
+        LOG.debug("{}: Sending edits of transaction {} in {} edit-config(s)", id, getIdentifier(), batches.size());
+        for (BatchedEdit batch : batches) {
+            editConfig(YangInstanceIdentifier.empty(), Optional.empty(), batch.editStructure, batch.defaultOperation,
+                "batch of " + batch.size);
+        }
+    }
+
     @Override
     public FluentFuture<? extends CommitInfo> commit() {
         final SettableFuture<CommitInfo> resultFuture = SettableFuture.create();
@@ -179,6 +222,9 @@ public abstract class AbstractWriteTx implements DOMDataTreeWriteTransaction {
         listeners.forEach(listener -> listener.onTransactionSubmitted(this));
         checkNotFinished();
         finished = true;
+        synchronized (this) {
+            sendBatchedEdits();
+        }
         final ListenableFuture<RpcResult<Void>> result = performCommit();
         Futures.addCallback(result, new FutureCallback<RpcResult<Void>>() {
             @Override
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.EDIT_CONTENT_NODEID;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_CONFIG_NODEID;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_OPERATION_QNAME;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import javax.xml.transform.dom.DOMSource;
+import org.opendaylight.netconf.api.ModifyAction;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DOMSourceAnyxmlNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Collects the edits of a write transaction and combines them into as few edit-config structures as possible.
+ *
+ * <p>
+ * Every edit carries its own operation attribute, so edits can be sent together. Batches containing a put or a merge
+ * are sent with the default {@code merge} operation, so that missing ancestors of the edited nodes are created, only
+ * batches consisting of deletes alone are sent with the {@code none} default operation.
+ *
+ * <p>
+ * A put of the same or a parent path of earlier edits replaces them, as does a delete of earlier deletes. A delete
+ * does not replace earlier puts and merges, as the data it deletes may only exist once they are applied. Any other
+ * edit overlapping an earlier one, as well as an edit which does not fit into the current batch anymore, starts a new
+ * batch, so that the device applies the edits in the order they were made.
+ */
+final class EditBatcher {
+    private static final String OPERATION_NS = NETCONF_OPERATION_QNAME.getNamespace().toString();
+    private static final String OPERATION = NETCONF_OPERATION_QNAME.getLocalName();
+
+    private final List<List<Edit>> batches = new ArrayList<>();
+    private final int maxEdits;
+
+    EditBatcher(final int maxEdits) {
+        checkArgument(maxEdits > 0, "Maximum number of edits %s has to be positive", maxEdits);
+        this.maxEdits = maxEdits;
+    }
+
+    /**
+     * Add an edit.
+     *
+     * @param path path of the edit
+     * @param operation operation of the edit, as present in editStructure
+     * @param editStructure edit-config structure of the edit, with the operation attribute set on the edited node
+     */
+    void add(final YangInstanceIdentifier path, final ModifyAction operation,
+            final DataContainerChild<?, ?> editStructure) {
+        List<Edit> current = batches.isEmpty() ? null : batches.get(batches.size() - 1);
+        if (current != null) {
+            if (operation == ModifyAction.REPLACE) {
+                current.removeIf(edit -> path.contains(edit.path));
+            } else if (operation == ModifyAction.DELETE) {
+                current.removeIf(edit -> edit.operation == ModifyAction.DELETE && path.contains(edit.path));
+            }
+            if (current.size() >= maxEdits || current.stream().anyMatch(edit -> edit.path.contains(path)
+                    || path.contains(edit.path))) {
+                current = null;
+            }
+        }
+        if (current == null) {
+            current = new ArrayList<>();
+            batches.add(current);
+        }
+        current.add(new Edit(path, operation, editStructure));
+    }
+
+    boolean isEmpty() {
+        return batches.stream().allMatch(List::isEmpty);
+    }
+
+    /**
+     * Return the edit-config structures of all batches, in the order they need to be sent.
+     */
+    List<BatchedEdit> build() {
+        final List<BatchedEdit> result = new ArrayList<>(batches.size());
+        for (List<Edit> batch : batches) {
+            if (!batch.isEmpty()) {
+                result.add(new BatchedEdit(batch.size() == 1 ? batch.get(0).editStructure : merge(batch),
+                    defaultOperation(batch), batch.size()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Default operation of a batch. Merge would create missing ancestors of deleted nodes, deletes are therefore sent
+     * with none, unless the batch needs to create them anyway.
+     */
+    private static Optional<ModifyAction> defaultOperation(final List<Edit> batch) {
+        return batch.stream().allMatch(edit -> edit.operation == ModifyAction.DELETE)
+            ? Optional.of(ModifyAction.NONE) : Optional.empty();
+    }
+
+    private static DataContainerChild<?, ?> merge(final List<Edit> batch) {
+        final Iterator<Edit> it = batch.iterator();
+        final Element first = configElement(it.next().editStructure);
+        final Document document = XmlUtil.newDocument();
+        final Element config = (Element) document.importNode(first, true);
+        document.appendChild(config);
+
+        while (it.hasNext()) {
+            mergeChildren(config, configElement(it.next().editStructure));
+        }
+
+        return Builders.choiceBuilder().withNodeIdentifier(EDIT_CONTENT_NODEID)
+                .withChild(Builders.anyXmlBuilder().withNodeIdentifier(NETCONF_CONFIG_NODEID)
+                    .withValue(new DOMSource(config)).build())
+                .build();
+    }
+
+    private static Element configElement(final DataContainerChild<?, ?> editStructure) {
+        final DOMSourceAnyxmlNode anyxml = (DOMSourceAnyxmlNode) ((ChoiceNode) editStructure)
+                .getChild(NETCONF_CONFIG_NODEID).get();
+        final Node node = anyxml.getValue().getNode();
+        return node instanceof Document ? ((Document) node).getDocumentElement() : (Element) node;
+    }
+
+    private static void mergeChildren(final Element target, final Element source) {
+        for (Node child = source.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() != Node.ELEMENT_NODE) {
+                continue;
+            }
+
+            final Element sourceChild = (Element) child;
+            final Element targetChild = findSame(target, sourceChild);
+            if (targetChild == null) {
+                target.appendChild(target.getOwnerDocument().importNode(sourceChild, true));
+            } else if (!isLeaf(sourceChild)) {
+                mergeChildren(targetChild, sourceChild);
+            }
+        }
+    }
+
+    /**
+     * Find the child of target which represents the same data node as source. Only nodes leading to edited nodes, and
+     * leaves identifying them, are considered. Edited nodes, i.e. those with an operation attribute, are not.
+     */
+    private static Element findSame(final Element target, final Element source) {
+        if (hasOperation(source)) {
+            return null;
+        }
+        for (Node child = target.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE && isSame((Element) child, source)) {
+                return (Element) child;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSame(final Element first, final Element second) {
+        if (hasOperation(first) || !Objects.equals(first.getNamespaceURI(), second.getNamespaceURI())
+                || !Objects.equals(first.getLocalName(), second.getLocalName())) {
+            return false;
+        }
+
+        final boolean leaf = isLeaf(first);
+        if (leaf != isLeaf(second)) {
+            return false;
+        }
+        // Leaves have to have the same value, list entries the same keys
+        return leaf ? Objects.equals(first.getTextContent(), second.getTextContent())
+            : leafSignature(first).equals(leafSignature(second));
+    }
+
+    private static List<String> leafSignature(final Element element) {
+        final List<String> signature = new ArrayList<>();
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE && !hasOperation((Element) child)
+                    && isLeaf((Element) child)) {
+                signature.add(child.getNamespaceURI() + ' ' + child.getLocalName() + '=' + child.getTextContent());
+            }
+        }
+        return signature;
+    }
+
+    private static boolean isLeaf(final Element element) {
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasOperation(final Element element) {
+        return element.hasAttributeNS(OPERATION_NS, OPERATION);
+    }
+
+    private static final class Edit {
+        final YangInstanceIdentifier path;
+        final ModifyAction operation;
+        final DataContainerChild<?, ?> editStructure;
+
+        Edit(final YangInstanceIdentifier path, final ModifyAction operation,
+                final DataContainerChild<?, ?> editStructure) {
+            this.path = path;
+            this.operation = operation;
+            this.editStructure = editStructure;
+        }
+    }
+
+    static final class BatchedEdit {
+        final DataContainerChild<?, ?> editStructure;
+        final Optional<ModifyAction> defaultOperation;
+        final int size;
+
+        BatchedEdit(final DataContainerChild<?, ?> editStructure, final Optional<ModifyAction> defaultOperation,
+                final int size) {
+            this.editStructure = editStructure;
+            this.defaultOperation = defaultOperation;
+            this.size = size;
+        }
+    }
+}
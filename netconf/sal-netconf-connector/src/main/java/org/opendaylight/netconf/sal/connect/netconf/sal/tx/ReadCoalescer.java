@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.checkerframework.checker.lock.qual.GuardedBy;
+import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfRpcFutureCallback;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Combines reads of a device's datastore issued at about the same time into a single get or get-config, with a
+ * subtree filter selecting the data of all of them. Each read completes with its own part of the reply.
+ *
+ * <p>
+ * A read issued while no read of the same datastore is in flight is sent after at most {@code windowMillis}, together
+ * with the reads issued in the meantime. Reads issued while a read is in flight are sent together once it completes.
+ * At most {@code maxReads} reads are combined into a single request. Should a combined request fail, its reads are
+ * retried one by one, so that a single invalid read does not fail the others.
+ */
+public final class ReadCoalescer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReadCoalescer.class);
+
+    private final RemoteDeviceId id;
+    private final NetconfBaseOps netconfOps;
+    private final int maxReads;
+    private final long windowMillis;
+    private final ScheduledExecutorService scheduler;
+    private final ReadQueue configuration = new ReadQueue(LogicalDatastoreType.CONFIGURATION);
+    private final ReadQueue operational = new ReadQueue(LogicalDatastoreType.OPERATIONAL);
+
+    /**
+     * Create a coalescer.
+     *
+     * @param id device id
+     * @param netconfOps operations used to read the device's data
+     * @param maxReads maximum number of reads combined into a single request
+     * @param windowMillis time a read waits for further reads to be combined with
+     * @param scheduler executor sending reads once their window passes, required if {@code windowMillis} is positive
+     */
+    public ReadCoalescer(final RemoteDeviceId id, final NetconfBaseOps netconfOps, final int maxReads,
+            final long windowMillis, final ScheduledExecutorService scheduler) {
+        this.id = requireNonNull(id);
+        this.netconfOps = requireNonNull(netconfOps);
+        checkArgument(maxReads > 0, "Maximum number of reads %s has to be positive", maxReads);
+        checkArgument(windowMillis >= 0, "Window %s has to be non-negative", windowMillis);
+        checkArgument(windowMillis == 0 || scheduler != null, "Window %s requires a scheduler", windowMillis);
+        this.maxReads = maxReads;
+        this.windowMillis = windowMillis;
+        this.scheduler = scheduler;
+    }
+
+    ListenableFuture<Optional<NormalizedNode<?, ?>>> read(final LogicalDatastoreType store,
+            final YangInstanceIdentifier path) {
+        // The filter of a leaf-list entry is a content match node, which would restrict its parent in a combined
+        // filter
+        if (path.isEmpty() || path.getLastPathArgument() instanceof NodeWithValue) {
+            return readSingle(store, path);
+        }
+
+        switch (store) {
+            case CONFIGURATION:
+                return configuration.add(path);
+            case OPERATIONAL:
+                return operational.add(path);
+            default:
+                throw new IllegalArgumentException(String.format(
+                    "%s, Cannot read data %s for %s datastore, unknown datastore type", id, path, store));
+        }
+    }
+
+    private ListenableFuture<Optional<NormalizedNode<?, ?>>> readSingle(final LogicalDatastoreType store,
+            final YangInstanceIdentifier path) {
+        final NetconfRpcFutureCallback callback = new NetconfRpcFutureCallback("Data read", id);
+        return store == LogicalDatastoreType.CONFIGURATION
+            ? netconfOps.getConfigRunningData(callback, Optional.of(path))
+                : netconfOps.getData(callback, Optional.of(path));
+    }
+
+    private ListenableFuture<List<Optional<NormalizedNode<?, ?>>>> readMultiple(final LogicalDatastoreType store,
+            final List<YangInstanceIdentifier> paths) {
+        final NetconfRpcFutureCallback callback = new NetconfRpcFutureCallback("Coalesced data read", id);
+        return store == LogicalDatastoreType.CONFIGURATION ? netconfOps.getConfigRunningData(callback, paths)
+            : netconfOps.getData(callback, paths);
+    }
+
+    private final class ReadQueue {
+        private final LogicalDatastoreType store;
+
+        @GuardedBy("this")
+        private final List<PendingRead> pending = new ArrayList<>();
+        @GuardedBy("this")
+        private boolean inFlight;
+        @GuardedBy("this")
+        private boolean scheduled;
+
+        ReadQueue(final LogicalDatastoreType store) {
+            this.store = store;
+        }
+
+        ListenableFuture<Optional<NormalizedNode<?, ?>>> add(final YangInstanceIdentifier path) {
+            final PendingRead read = new PendingRead(path);
+            final boolean flushNow;
+            synchronized (this) {
+                pending.add(read);
+                if (inFlight) {
+                    // Sent once the read in flight completes
+                    flushNow = false;
+                } else if (windowMillis == 0 || pending.size() >= maxReads) {
+                    flushNow = true;
+                } else {
+                    if (!scheduled) {
+                        scheduled = true;
+                        scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+                    }
+                    flushNow = false;
+                }
+            }
+
+            if (flushNow) {
+                flush();
+            }
+            return read.future;
+        }
+
+        private void flush() {
+            final List<PendingRead> batch;
+            synchronized (this) {
+                scheduled = false;
+                if (inFlight || pending.isEmpty()) {
+                    return;
+                }
+
+                final List<PendingRead> head = pending.subList(0, Math.min(maxReads, pending.size()));
+                batch = new ArrayList<>(head);
+                head.clear();
+                inFlight = true;
+            }
+
+            send(batch).addListener(this::completed, MoreExecutors.directExecutor());
+        }
+
+        private void completed() {
+            final boolean more;
+            synchronized (this) {
+                inFlight = false;
+                more = !pending.isEmpty();
+            }
+            if (more) {
+                flush();
+            }
+        }
+
+        @SuppressWarnings("checkstyle:IllegalCatch")
+        private ListenableFuture<?> send(final List<PendingRead> batch) {
+            try {
+                if (batch.size() == 1) {
+                    final PendingRead read = batch.get(0);
+                    final ListenableFuture<Optional<NormalizedNode<?, ?>>> future = readSingle(store, read.path);
+                    read.future.setFuture(future);
+                    return future;
+                }
+
+                LOG.debug("{}: Combining {} reads of {} datastore", id, batch.size(), store);
+                final ListenableFuture<List<Optional<NormalizedNode<?, ?>>>> future = readMultiple(store,
+                    batch.stream().map(read -> read.path).collect(Collectors.toList()));
+                Futures.addCallback(future, new FutureCallback<List<Optional<NormalizedNode<?, ?>>>>() {
+                    @Override
+                    public void onSuccess(final List<Optional<NormalizedNode<?, ?>>> result) {
+                        for (int i = 0; i < batch.size(); i++) {
+                            batch.get(i).future.set(result.get(i));
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(final Throwable cause) {
+                        LOG.debug("{}: Combined read of {} failed, retrying reads one by one", id, store, cause);
+                        sendEach(batch);
+                    }
+                }, MoreExecutors.directExecutor());
+                return future;
+            } catch (RuntimeException e) {
+                if (batch.size() == 1) {
+                    LOG.debug("{}: Failed to send read of {} datastore", id, store, e);
+                    batch.get(0).future.setException(e);
+                    return Futures.immediateFailedFuture(e);
+                }
+
+                LOG.debug("{}: Failed to send combined read of {}, retrying reads one by one", id, store, e);
+                return sendEach(batch);
+            }
+        }
+
+        private ListenableFuture<?> sendEach(final List<PendingRead> batch) {
+            return Futures.whenAllComplete(batch.stream().map(read -> send(ImmutableList.of(read)))
+                .collect(Collectors.toList())).call(() -> null, MoreExecutors.directExecutor());
+        }
+    }
+
+    private static final class PendingRead {
+        final YangInstanceIdentifier path;
+        final SettableFuture<Optional<NormalizedNode<?, ?>>> future = SettableFuture.create();
+
+        PendingRead(final YangInstanceIdentifier path) {
+            this.path = path;
+        }
+    }
+}
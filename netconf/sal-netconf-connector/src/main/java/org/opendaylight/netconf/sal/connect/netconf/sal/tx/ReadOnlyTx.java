@@ -31,20 +31,39 @@ public final class ReadOnlyTx implements DOMDataTreeReadTransaction {
 
     private final NetconfBaseOps netconfOps;
     private final RemoteDeviceId id;
+    private final ReadCoalescer readCoalescer;
 
     public ReadOnlyTx(final NetconfBaseOps netconfOps, final RemoteDeviceId id) {
+        this(netconfOps, id, null);
+    }
+
+    /**
+     * Create a read-only transaction.
+     *
+     * @param netconfOps base operations
+     * @param id device id
+     * @param readCoalescer coalescer to issue reads through, null to issue each read on its own
+     */
+    public ReadOnlyTx(final NetconfBaseOps netconfOps, final RemoteDeviceId id, final ReadCoalescer readCoalescer) {
         this.netconfOps = netconfOps;
         this.id = id;
+        this.readCoalescer = readCoalescer;
     }
 
     private FluentFuture<Optional<NormalizedNode<?, ?>>> readConfigurationData(
             final YangInstanceIdentifier path) {
+        if (readCoalescer != null && path != null) {
+            return remapException(readCoalescer.read(LogicalDatastoreType.CONFIGURATION, path));
+        }
         return remapException(netconfOps.getConfigRunningData(
             new NetconfRpcFutureCallback("Data read", id), Optional.ofNullable(path)));
     }
 
     private FluentFuture<Optional<NormalizedNode<?, ?>>> readOperationalData(
             final YangInstanceIdentifier path) {
+        if (readCoalescer != null && path != null) {
+            return remapException(readCoalescer.read(LogicalDatastoreType.OPERATIONAL, path));
+        }
         return remapException(netconfOps.getData(
             new NetconfRpcFutureCallback("Data read", id), Optional.ofNullable(path)));
     }
@@ -89,8 +108,18 @@ public final class ReadOnlyTx implements DOMDataTreeReadTransaction {
 
     @Override
     public FluentFuture<Boolean> exists(final LogicalDatastoreType store, final YangInstanceIdentifier path) {
-        return read(store, path).transform(optionalNode -> optionalNode != null && optionalNode.isPresent(),
-                MoreExecutors.directExecutor());
+        switch (store) {
+            case CONFIGURATION:
+                return remapException(netconfOps.getConfigRunningExists(
+                    new NetconfRpcFutureCallback("Data exists", id), path));
+            case OPERATIONAL:
+                return remapException(netconfOps.getExists(
+                    new NetconfRpcFutureCallback("Data exists", id), path));
+            default:
+                LOG.info("Unknown datastore type: {}.", store);
+                throw new IllegalArgumentException(String.format(
+                    "%s, Cannot check data %s for %s datastore, unknown datastore type", id, path, store));
+        }
     }
 
     @Override
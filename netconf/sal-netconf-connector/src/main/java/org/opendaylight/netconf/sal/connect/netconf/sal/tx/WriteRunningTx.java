@@ -55,6 +55,11 @@ public class WriteRunningTx extends AbstractWriteTx {
         super(id, netconfOps, rollbackSupport, isLockAllowed);
     }
 
+    public WriteRunningTx(final RemoteDeviceId id, final NetconfBaseOps netconfOps, final boolean rollbackSupport,
+            final boolean isLockAllowed, final int maxBatchedEdits) {
+        super(id, netconfOps, rollbackSupport, isLockAllowed, maxBatchedEdits);
+    }
+
     @Override
     protected synchronized void init() {
         lock();
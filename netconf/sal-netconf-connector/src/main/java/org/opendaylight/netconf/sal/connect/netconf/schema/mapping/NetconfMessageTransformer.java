@@ -15,12 +15,15 @@ import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTr
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.Instant;
@@ -29,7 +32,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.dom.DOMSource;
 import org.opendaylight.mdsal.dom.api.DOMActionResult;
@@ -40,6 +45,7 @@ import org.opendaylight.mdsal.dom.api.DOMRpcResult;
 import org.opendaylight.mdsal.dom.spi.DefaultDOMRpcResult;
 import org.opendaylight.mdsal.dom.spi.SimpleDOMActionResult;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.RawNetconfMessage;
 import org.opendaylight.netconf.api.xml.MissingNameSpaceException;
 import org.opendaylight.netconf.api.xml.XmlElement;
 import org.opendaylight.netconf.sal.connect.api.MessageTransformer;
@@ -50,6 +56,7 @@ import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.common.Revision;
 import org.opendaylight.yangtools.yang.common.YangConstants;
 import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.codec.xml.XmlParserStream;
@@ -80,6 +87,16 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
 
     private static final Logger LOG = LoggerFactory.getLogger(NetconfMessageTransformer.class);
 
+    private static final XMLInputFactory INPUT_FACTORY;
+
+    static {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        INPUT_FACTORY = factory;
+    }
+
     private static final ImmutableSet<URI> BASE_OR_NOTIFICATION_NS = ImmutableSet.of(
         NETCONF_URI,
         IETF_NETCONF_NOTIFICATIONS.getNamespace(),
@@ -90,9 +107,13 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
     private final BaseSchema baseSchema;
     private final MessageCounter counter;
     private final ImmutableMap<QName, RpcDefinition> mappedRpcs;
-    private final Multimap<QName, NotificationDefinition> mappedNotifications;
+    // Notification schemas indexed by QName without revision, pointing to the most recent revision
+    private final ImmutableMap<QName, ContainerSchemaNode> mappedNotifications;
+    private final ContainerSchemaNode dataReadSchema;
     private final boolean strictParsing;
     private final ImmutableMap<SchemaPath, ActionDefinition> actions;
+    // Keeps the shared index, and hence its cache entry, alive while this transformer is in use
+    private final SchemaIndex schemaIndex;
 
     public NetconfMessageTransformer(final MountPointContext mountContext, final boolean strictParsing) {
         this(mountContext, strictParsing, BaseSchema.BASE_NETCONF_CTX);
@@ -103,17 +124,21 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
         this.counter = new MessageCounter();
         this.mountContext = requireNonNull(mountContext);
 
-        final SchemaContext schemaContext = mountContext.getSchemaContext();
-        this.contextTree = DataSchemaContextTree.from(schemaContext);
-
-        this.mappedRpcs = Maps.uniqueIndex(schemaContext.getOperations(), SchemaNode::getQName);
-        this.actions = Maps.uniqueIndex(getActions(schemaContext), ActionDefinition::getPath);
-        this.mappedNotifications = Multimaps.index(schemaContext.getNotifications(),
-            node -> node.getQName().withoutRevision());
+        this.schemaIndex = SchemaIndex.forSchemaContext(mountContext.getSchemaContext());
+        this.contextTree = schemaIndex.contextTree;
+        this.mappedRpcs = schemaIndex.mappedRpcs;
+        this.actions = schemaIndex.actions;
+        this.mappedNotifications = schemaIndex.mappedNotifications;
+        this.dataReadSchema = schemaIndex.dataReadSchema;
         this.baseSchema = baseSchema;
         this.strictParsing = strictParsing;
     }
 
+    @VisibleForTesting
+    SchemaIndex getSchemaIndex() {
+        return schemaIndex;
+    }
+
     @VisibleForTesting
     static List<ActionDefinition> getActions(final SchemaContext schemaContext) {
         final List<ActionDefinition> builder = new ArrayList<>();
@@ -139,7 +164,7 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
     }
 
     @Override
-    public synchronized DOMNotification toNotification(final NetconfMessage message) {
+    public DOMNotification toNotification(final NetconfMessage message) {
         final Map.Entry<Instant, XmlElement> stripped = NetconfMessageTransformUtil.stripNotification(message);
         final QName notificationNoRev;
         try {
@@ -149,15 +174,10 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
             throw new IllegalArgumentException(
                     "Unable to parse notification " + message + ", cannot find namespace", e);
         }
-        final Collection<NotificationDefinition> notificationDefinitions = mappedNotifications.get(notificationNoRev);
-        Preconditions.checkArgument(notificationDefinitions.size() > 0,
+        final ContainerSchemaNode notificationAsContainerSchemaNode = mappedNotifications.get(notificationNoRev);
+        Preconditions.checkArgument(notificationAsContainerSchemaNode != null,
                 "Unable to parse notification %s, unknown notification. Available notifications: %s",
-                notificationDefinitions, mappedNotifications.keySet());
-
-        final NotificationDefinition mostRecentNotification = getMostRecentNotification(notificationDefinitions);
-
-        final ContainerSchemaNode notificationAsContainerSchemaNode =
-                NetconfMessageTransformUtil.createSchemaForNotification(mostRecentNotification);
+                notificationNoRev, mappedNotifications.keySet());
 
         final Element element = stripped.getValue().getDomElement();
         final ContainerNode content;
@@ -263,11 +283,24 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
         return BASE_OR_NOTIFICATION_NS.contains(rpc.getNamespace());
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The data of a get or get-config reply is returned as an anyxml {@code data} node, unless the reply was
+     * received as a {@link RawNetconfMessage}. Such a reply is parsed straight into a {@code data} container without
+     * building a DOM document, hence users of data retrieval results need to handle both forms.
+     */
     @Override
-    public synchronized DOMRpcResult toRpcResult(final NetconfMessage message, final SchemaPath rpc) {
+    public DOMRpcResult toRpcResult(final NetconfMessage message, final SchemaPath rpc) {
         final NormalizedNode<?, ?> normalizedNode;
         final QName rpcQName = rpc.getLastComponent();
         if (NetconfMessageTransformUtil.isDataRetrievalOperation(rpcQName)) {
+            if (message instanceof RawNetconfMessage) {
+                return new DefaultDOMRpcResult(Builders.containerBuilder()
+                    .withNodeIdentifier(NetconfMessageTransformUtil.NETCONF_RPC_REPLY_NODEID)
+                    .withChild((DataContainerChild<?, ?>) parseRaw((RawNetconfMessage) message, dataReadSchema))
+                    .build());
+            }
             normalizedNode = Builders.containerBuilder()
                     .withNodeIdentifier(NetconfMessageTransformUtil.NETCONF_RPC_REPLY_NODEID)
                     .withChild(Builders.anyXmlBuilder()
@@ -311,6 +344,27 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
 
     private NormalizedNode<?, ?> parseResult(final NetconfMessage message,
             final OperationDefinition operationDefinition) {
+        if (message instanceof RawNetconfMessage) {
+            final RawNetconfMessage raw = (RawNetconfMessage) message;
+            if (operationDefinition.getOutput().getChildNodes().isEmpty()) {
+                Preconditions.checkArgument(raw.isOkReply(), "Unexpected content in response of rpc: %s, %s",
+                    operationDefinition.getQName(), message);
+                return null;
+            }
+
+            // Root element is parsed as the output container
+            try (InputStream is = raw.openStream()) {
+                final XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(is);
+                try {
+                    return parse(reader, operationDefinition.getOutput());
+                } finally {
+                    reader.close();
+                }
+            } catch (XMLStreamException | URISyntaxException | IOException | SAXException e) {
+                throw new IllegalArgumentException(String.format("Failed to parse RPC response %s", message), e);
+            }
+        }
+
         if (operationDefinition.getOutput().getChildNodes().isEmpty()) {
             Preconditions.checkArgument(XmlElement.fromDomDocument(
                 message.getDocument()).getOnlyChildElementWithSameNamespaceOptionally("ok").isPresent(),
@@ -331,6 +385,38 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
         }
     }
 
+    /**
+     * Parse the {@code data} element of a data retrieval reply directly from message bytes.
+     */
+    private NormalizedNode<?, ?> parseRaw(final RawNetconfMessage message, final ContainerSchemaNode dataSchema) {
+        final String dataName = NetconfMessageTransformUtil.NETCONF_DATA_NODEID.getNodeType().getLocalName();
+        Preconditions.checkArgument(dataName.equals(message.getFirstChildName().orElse(null)),
+            "Unexpected content in data reply %s", message);
+
+        try (InputStream is = message.openStream()) {
+            final XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(is);
+            try {
+                // Position the reader on rpc-reply, the parser moves on to its first child, which is data
+                reader.nextTag();
+                return parse(reader, dataSchema);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | URISyntaxException | IOException | SAXException e) {
+            throw new IllegalArgumentException(String.format("Failed to parse data reply %s", message), e);
+        }
+    }
+
+    private NormalizedNode<?, ?> parse(final XMLStreamReader reader, final SchemaNode parentNode)
+            throws XMLStreamException, URISyntaxException, IOException, SAXException {
+        final NormalizedNodeResult resultHolder = new NormalizedNodeResult();
+        final NormalizedNodeStreamWriter writer = ImmutableNormalizedNodeStreamWriter.from(resultHolder);
+        try (XmlParserStream xmlParser = XmlParserStream.create(writer, mountContext, parentNode, strictParsing)) {
+            xmlParser.parse(reader);
+        }
+        return resultHolder.getResult();
+    }
+
     static class NetconfDeviceNotification implements DOMNotification, DOMEvent {
         private final ContainerNode content;
         private final SchemaPath schemaPath;
@@ -357,4 +443,36 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
             return eventTime;
         }
     }
+
+    /**
+     * Lookup structures derived from a SchemaContext. Devices with the same set of sources share the same
+     * SchemaContext, hence these are computed once per SchemaContext and shared by all transformers using it. They
+     * are retained only as long as some transformer uses them.
+     */
+    static final class SchemaIndex {
+        // Keys are compared by identity and the values reference their keys, hence weak values as well
+        private static final LoadingCache<SchemaContext, SchemaIndex> CACHE = CacheBuilder.newBuilder()
+                .weakKeys().weakValues().build(CacheLoader.from(SchemaIndex::new));
+
+        final DataSchemaContextTree contextTree;
+        final ImmutableMap<QName, RpcDefinition> mappedRpcs;
+        final ImmutableMap<QName, ContainerSchemaNode> mappedNotifications;
+        final ContainerSchemaNode dataReadSchema;
+        final ImmutableMap<SchemaPath, ActionDefinition> actions;
+
+        private SchemaIndex(final SchemaContext schemaContext) {
+            this.contextTree = DataSchemaContextTree.from(schemaContext);
+            this.mappedRpcs = Maps.uniqueIndex(schemaContext.getOperations(), SchemaNode::getQName);
+            this.actions = Maps.uniqueIndex(getActions(schemaContext), ActionDefinition::getPath);
+            this.mappedNotifications = ImmutableMap.copyOf(Maps.transformValues(
+                Multimaps.index(schemaContext.getNotifications(), node -> node.getQName().withoutRevision()).asMap(),
+                definitions -> NetconfMessageTransformUtil.createSchemaForNotification(
+                    getMostRecentNotification(definitions))));
+            this.dataReadSchema = NetconfMessageTransformUtil.createSchemaForDataRead(schemaContext);
+        }
+
+        static SchemaIndex forSchemaContext(final SchemaContext schemaContext) {
+            return CACHE.getUnchecked(requireNonNull(schemaContext));
+        }
+    }
 }
@@ -38,6 +38,7 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import org.opendaylight.mdsal.dom.api.DOMRpcResult;
@@ -215,6 +216,57 @@ public final class NetconfBaseOps {
         return extractData(filterPath, configRunning);
     }
 
+    /**
+     * Read data at multiple paths from the running datastore with a single get-config.
+     *
+     * @param callback callback of the get-config
+     * @param filterPaths paths to read, none of them empty
+     * @return data at each of the paths, in the order of filterPaths
+     */
+    public ListenableFuture<List<Optional<NormalizedNode<?, ?>>>> getConfigRunningData(
+            final FutureCallback<DOMRpcResult> callback, final List<YangInstanceIdentifier> filterPaths) {
+        requireNonNull(callback);
+        checkArgument(!filterPaths.isEmpty() && filterPaths.stream().noneMatch(YangInstanceIdentifier::isEmpty),
+            "Invalid paths %s", filterPaths);
+
+        final ListenableFuture<DOMRpcResult> future = rpc.invokeRpc(NETCONF_GET_CONFIG_PATH,
+            NetconfMessageTransformUtil.wrap(NETCONF_GET_CONFIG_NODEID, getSourceNode(NETCONF_RUNNING_QNAME),
+                transformer.toFilterStructure(filterPaths)));
+        Futures.addCallback(future, callback, MoreExecutors.directExecutor());
+        return extractData(filterPaths, future);
+    }
+
+    /**
+     * Read data at multiple paths from the datastore exposed by get with a single get.
+     *
+     * @param callback callback of the get
+     * @param filterPaths paths to read, none of them empty
+     * @return data at each of the paths, in the order of filterPaths
+     */
+    public ListenableFuture<List<Optional<NormalizedNode<?, ?>>>> getData(final FutureCallback<DOMRpcResult> callback,
+            final List<YangInstanceIdentifier> filterPaths) {
+        requireNonNull(callback);
+        checkArgument(!filterPaths.isEmpty() && filterPaths.stream().noneMatch(YangInstanceIdentifier::isEmpty),
+            "Invalid paths %s", filterPaths);
+
+        final ListenableFuture<DOMRpcResult> future = rpc.invokeRpc(NETCONF_GET_PATH,
+            NetconfMessageTransformUtil.wrap(NETCONF_GET_NODEID, transformer.toFilterStructure(filterPaths)));
+        Futures.addCallback(future, callback, MoreExecutors.directExecutor());
+        return extractData(filterPaths, future);
+    }
+
+    private ListenableFuture<List<Optional<NormalizedNode<?, ?>>>> extractData(
+            final List<YangInstanceIdentifier> paths, final ListenableFuture<DOMRpcResult> future) {
+        return Futures.transform(future, result -> {
+            checkArgument(result.getErrors().isEmpty(), "Unable to read data: %s, errors: %s", paths,
+                result.getErrors());
+            final DataContainerChild<? extends YangInstanceIdentifier.PathArgument, ?> dataNode =
+                    ((ContainerNode) result.getResult()).getChild(NetconfMessageTransformUtil.NETCONF_DATA_NODEID)
+                    .get();
+            return transformer.selectFromDataStructure(dataNode, paths);
+        }, MoreExecutors.directExecutor());
+    }
+
     private ListenableFuture<Optional<NormalizedNode<?, ?>>> extractData(
             final Optional<YangInstanceIdentifier> path, final ListenableFuture<DOMRpcResult> configRunning) {
         return Futures.transform(configRunning, result -> {
@@ -227,6 +279,56 @@ public final class NetconfBaseOps {
         }, MoreExecutors.directExecutor());
     }
 
+    /**
+     * Check whether data at the specified path exists in the running datastore. Only as much data as needed to
+     * find out is requested from the device, and the reply is not parsed into NormalizedNodes.
+     */
+    public ListenableFuture<Boolean> getConfigRunningExists(final FutureCallback<DOMRpcResult> callback,
+                                                            final YangInstanceIdentifier path) {
+        if (path.isEmpty()) {
+            return transformPresent(getConfigRunningData(callback, Optional.of(path)));
+        }
+
+        final ListenableFuture<DOMRpcResult> future = rpc.invokeRpc(NETCONF_GET_CONFIG_PATH,
+            NetconfMessageTransformUtil.wrap(NETCONF_GET_CONFIG_NODEID, getSourceNode(NETCONF_RUNNING_QNAME),
+                transformer.toExistenceFilterStructure(path)));
+        Futures.addCallback(future, callback, MoreExecutors.directExecutor());
+        return extractPresence(path, future);
+    }
+
+    /**
+     * Check whether data at the specified path exists in the datastore exposed by get. Only as much data as needed to
+     * find out is requested from the device, and the reply is not parsed into NormalizedNodes.
+     */
+    public ListenableFuture<Boolean> getExists(final FutureCallback<DOMRpcResult> callback,
+                                               final YangInstanceIdentifier path) {
+        if (path.isEmpty()) {
+            return transformPresent(getData(callback, Optional.of(path)));
+        }
+
+        final ListenableFuture<DOMRpcResult> future = rpc.invokeRpc(NETCONF_GET_PATH,
+            NetconfMessageTransformUtil.wrap(NETCONF_GET_NODEID, transformer.toExistenceFilterStructure(path)));
+        Futures.addCallback(future, callback, MoreExecutors.directExecutor());
+        return extractPresence(path, future);
+    }
+
+    private ListenableFuture<Boolean> extractPresence(final YangInstanceIdentifier path,
+            final ListenableFuture<DOMRpcResult> future) {
+        return Futures.transform(future, result -> {
+            checkArgument(result.getErrors().isEmpty(), "Unable to read data: %s, errors: %s", path,
+                result.getErrors());
+            final DataContainerChild<? extends YangInstanceIdentifier.PathArgument, ?> dataNode =
+                    ((ContainerNode) result.getResult()).getChild(NetconfMessageTransformUtil.NETCONF_DATA_NODEID)
+                    .get();
+            return transformer.isDataPresent(dataNode, path);
+        }, MoreExecutors.directExecutor());
+    }
+
+    private static ListenableFuture<Boolean> transformPresent(
+            final ListenableFuture<Optional<NormalizedNode<?, ?>>> future) {
+        return Futures.transform(future, Optional::isPresent, MoreExecutors.directExecutor());
+    }
+
     public ListenableFuture<DOMRpcResult> getConfigRunning(final FutureCallback<DOMRpcResult> callback,
                                                            final Optional<YangInstanceIdentifier> filterPath) {
         return getConfig(callback, NETCONF_RUNNING_QNAME, filterPath);
@@ -13,12 +13,14 @@ import static org.opendaylight.netconf.util.NetconfUtil.NETCONF_QNAME;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.io.IOException;
 import java.net.URI;
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.Iterator;
@@ -26,6 +28,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
@@ -37,6 +40,7 @@ import org.opendaylight.netconf.api.FailedNetconfMessage;
 import org.opendaylight.netconf.api.ModifyAction;
 import org.opendaylight.netconf.api.NetconfDocumentedException;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.RawNetconfMessage;
 import org.opendaylight.netconf.api.xml.XmlElement;
 import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.notifications.NetconfNotification;
@@ -73,6 +77,10 @@ import org.opendaylight.yangtools.yang.data.impl.schema.SchemaOrderedNormalizedN
 import org.opendaylight.yangtools.yang.data.util.DataSchemaContextNode;
 import org.opendaylight.yangtools.yang.data.util.DataSchemaContextTree;
 import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.NotificationDefinition;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
@@ -80,6 +88,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 
 public final class NetconfMessageTransformUtil {
 
@@ -190,6 +199,10 @@ public final class NetconfMessageTransformUtil {
     public static final NodeIdentifier NETCONF_UNLOCK_NODEID = NodeIdentifier.create(NETCONF_UNLOCK_QNAME);
     public static final SchemaPath NETCONF_UNLOCK_PATH = toPath(NETCONF_UNLOCK_QNAME);
 
+    private static final ImmutableSet<String> PRIORITY_RPCS = ImmutableSet.of(NETCONF_COMMIT_QNAME.getLocalName(),
+        "cancel-commit", NETCONF_DISCARD_CHANGES_QNAME.getLocalName(), NETCONF_LOCK_QNAME.getLocalName(),
+        NETCONF_UNLOCK_QNAME.getLocalName(), "close-session", "kill-session");
+
     public static final NodeIdentifier EDIT_CONTENT_NODEID = NodeIdentifier.create(EditContent.QNAME);
 
     // Discard changes message
@@ -226,6 +239,211 @@ public final class NetconfMessageTransformUtil {
 
     public static DataContainerChild<?, ?> toFilterStructure(final YangInstanceIdentifier identifier,
                                                              final SchemaContext ctx) {
+        return Builders.anyXmlBuilder().withNodeIdentifier(NETCONF_FILTER_NODEID)
+                .withValue(new DOMSource(createFilterElement(identifier, ctx))).build();
+    }
+
+    /**
+     * Create a filter structure which selects only as much data at the specified path as needed to find out whether
+     * it exists. A list entry is selected by its keys and a single leaf, as only content match nodes would select the
+     * whole entry. A keyed list is selected by the keys of its entries. Anything else is selected as by
+     * {@link #toFilterStructure(YangInstanceIdentifier, SchemaContext)}.
+     *
+     * @param identifier path to check
+     * @param ctx schema context
+     * @return filter structure
+     */
+    public static DataContainerChild<?, ?> toExistenceFilterStructure(final YangInstanceIdentifier identifier,
+                                                                      final SchemaContext ctx) {
+        final Element filter = createFilterElement(identifier, ctx);
+        final DataSchemaContextNode<?> root = DataSchemaContextTree.from(ctx).getRoot();
+        DataSchemaContextNode<?> target = root;
+        for (PathArgument arg : identifier.getPathArguments()) {
+            target = target.getChild(arg);
+            if (target == null) {
+                break;
+            }
+        }
+
+        if (target != null && target.getDataSchemaNode() instanceof ListSchemaNode) {
+            final ListSchemaNode list = (ListSchemaNode) target.getDataSchemaNode();
+            final List<QName> keys = list.getKeyDefinition();
+            final Element element = findDataElement(root, filter, identifier, false);
+            if (element != null && !keys.isEmpty()) {
+                if (target.isMixin()) {
+                    // The whole list, select only the keys of its entries
+                    final Element entry = appendElement(element, list.getQName());
+                    keys.forEach(key -> appendElement(entry, key));
+                } else {
+                    // A single entry, content match nodes of its keys are already present
+                    list.getChildNodes().stream()
+                        .filter(child -> child instanceof LeafSchemaNode && !keys.contains(child.getQName()))
+                        .findFirst()
+                        .ifPresent(leaf -> appendElement(element, leaf.getQName()));
+                }
+            }
+        }
+
+        return Builders.anyXmlBuilder().withNodeIdentifier(NETCONF_FILTER_NODEID).withValue(new DOMSource(filter))
+                .build();
+    }
+
+    /**
+     * Find the element representing the data at the specified path, without parsing the data. Elements are matched
+     * by name only, hence the data must be the result of a filter selecting the path. A path to a whole list or
+     * leaf-list is represented by the parent element of its entries, which is returned only if at least one entry is
+     * present.
+     *
+     * @param ctx schema context
+     * @param data data element, or null
+     * @param identifier path to find
+     * @return the element, or null if it is not present
+     */
+    public static Element findDataElement(final SchemaContext ctx, final Element data,
+                                          final YangInstanceIdentifier identifier) {
+        return data == null ? null
+            : findDataElement(DataSchemaContextTree.from(ctx).getRoot(), data, identifier, true);
+    }
+
+    private static Element findDataElement(final DataSchemaContextNode<?> root, final Element data,
+                                           final YangInstanceIdentifier identifier, final boolean requireEntries) {
+        DataSchemaContextNode<?> current = root;
+        Element element = data;
+        for (PathArgument arg : identifier.getPathArguments()) {
+            current = current.getChild(arg);
+            Preconditions.checkArgument(current != null, "Invalid input: schema for argument %s not found", arg);
+            if (current.isMixin()) {
+                continue;
+            }
+
+            element = findChildElement(element, arg.getNodeType());
+            if (element == null) {
+                return null;
+            }
+        }
+
+        if (requireEntries && current.isMixin()) {
+            // The parent of a list or leaf-list is present even if it has no entries, e.g. an empty container
+            final DataSchemaNode schema = current.getDataSchemaNode();
+            if ((schema instanceof ListSchemaNode || schema instanceof LeafListSchemaNode)
+                    && findChildElement(element, schema.getQName()) == null) {
+                return null;
+            }
+        }
+        return element;
+    }
+
+    private static Element findChildElement(final Element parent, final QName name) {
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node.getNodeType() == Node.ELEMENT_NODE
+                    && name.getNamespace().toString().equals(node.getNamespaceURI())
+                    && name.getLocalName().equals(node.getLocalName())) {
+                return (Element) node;
+            }
+        }
+        return null;
+    }
+
+    private static Element appendElement(final Element parent, final QName name) {
+        final Element element = XmlUtil.createElement(parent.getOwnerDocument(), name.getLocalName(),
+                Optional.of(name.getNamespace().toString()));
+        parent.appendChild(element);
+        return element;
+    }
+
+    /**
+     * Merge subtree filter structures into a single one, selecting the union of the data selected by each of them.
+     * Containment nodes representing the same data node are merged, a selection node selecting all of a data node
+     * takes precedence over any partial selection of the same node. List entries with different content match nodes
+     * are kept apart. The filters must not contain content match nodes other than list entry keys.
+     *
+     * @param filters filter structures, as created by {@link #toFilterStructure(YangInstanceIdentifier, SchemaContext)}
+     * @return merged filter structure
+     */
+    public static DataContainerChild<?, ?> mergeFilterStructures(final List<DataContainerChild<?, ?>> filters) {
+        Preconditions.checkArgument(!filters.isEmpty(), "No filters to merge");
+        final Iterator<DataContainerChild<?, ?>> it = filters.iterator();
+        final Document document = XmlUtil.newDocument();
+        final Element merged = (Element) document.importNode(filterElement(it.next()), true);
+        document.appendChild(merged);
+        while (it.hasNext()) {
+            mergeFilterChildren(merged, filterElement(it.next()));
+        }
+
+        return Builders.anyXmlBuilder().withNodeIdentifier(NETCONF_FILTER_NODEID).withValue(new DOMSource(merged))
+                .build();
+    }
+
+    private static Element filterElement(final DataContainerChild<?, ?> filter) {
+        final Node node = ((DOMSourceAnyxmlNode) filter).getValue().getNode();
+        return node instanceof Document ? ((Document) node).getDocumentElement() : (Element) node;
+    }
+
+    private static void mergeFilterChildren(final Element target, final Element source) {
+        for (Node node = source.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node.getNodeType() != Node.ELEMENT_NODE || isContentMatch((Element) node)) {
+                // Content match nodes are the same in both target and source, see findSameFilterNode()
+                continue;
+            }
+
+            final Element sourceChild = (Element) node;
+            final Element targetChild = findSameFilterNode(target, sourceChild);
+            if (targetChild == null) {
+                target.appendChild(target.getOwnerDocument().importNode(sourceChild, true));
+            } else if (selectsAll(sourceChild)) {
+                target.replaceChild(target.getOwnerDocument().importNode(sourceChild, true), targetChild);
+            } else if (!selectsAll(targetChild)) {
+                mergeFilterChildren(targetChild, sourceChild);
+            }
+        }
+    }
+
+    private static Element findSameFilterNode(final Element parent, final Element node) {
+        final List<String> signature = contentMatchSignature(node);
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE
+                    && Objects.equals(child.getNamespaceURI(), node.getNamespaceURI())
+                    && Objects.equals(child.getLocalName(), node.getLocalName())
+                    && !isContentMatch((Element) child)
+                    && signature.equals(contentMatchSignature((Element) child))) {
+                return (Element) child;
+            }
+        }
+        return null;
+    }
+
+    private static List<String> contentMatchSignature(final Element element) {
+        final List<String> signature = new ArrayList<>();
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE && isContentMatch((Element) child)) {
+                signature.add(child.getNamespaceURI() + ' ' + child.getLocalName() + '=' + child.getTextContent());
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * A node selects all of its data node if it has no children other than content match nodes.
+     */
+    private static boolean selectsAll(final Element element) {
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE && !isContentMatch((Element) child)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isContentMatch(final Element element) {
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                return false;
+            }
+        }
+        return !element.getTextContent().trim().isEmpty();
+    }
+
+    private static Element createFilterElement(final YangInstanceIdentifier identifier, final SchemaContext ctx) {
         final Element element = XmlUtil.createElement(BLANK_DOCUMENT, NETCONF_FILTER_QNAME.getLocalName(),
                 Optional.of(NETCONF_FILTER_QNAME.getNamespace().toString()));
         element.setAttributeNS(NETCONF_FILTER_QNAME.getNamespace().toString(), NETCONF_TYPE_QNAME.getLocalName(),
@@ -236,15 +454,13 @@ public final class NetconfMessageTransformUtil {
         } catch (IOException | XMLStreamException e) {
             throw new IllegalStateException("Unable to serialize filter element for path " + identifier, e);
         }
-
-        return Builders.anyXmlBuilder().withNodeIdentifier(NETCONF_FILTER_NODEID).withValue(new DOMSource(element))
-                .build();
+        return element;
     }
 
     public static void checkValidReply(final NetconfMessage input, final NetconfMessage output)
             throws NetconfDocumentedException {
-        final String inputMsgId = input.getDocument().getDocumentElement().getAttribute(MESSAGE_ID_ATTR);
-        final String outputMsgId = output.getDocument().getDocumentElement().getAttribute(MESSAGE_ID_ATTR);
+        final String inputMsgId = getMessageId(input);
+        final String outputMsgId = getMessageId(output);
 
         if (!inputMsgId.equals(outputMsgId)) {
             final Map<String, String> errorInfo = ImmutableMap.<String, String>builder()
@@ -259,7 +475,25 @@ public final class NetconfMessageTransformUtil {
         }
     }
 
+    /**
+     * Return the value of {@code message-id} attribute of a message's root element. This does not require the DOM
+     * document to be available if the message is a {@link RawNetconfMessage}.
+     *
+     * @param message Message to examine
+     * @return Message id, empty string if not present
+     */
+    public static String getMessageId(final NetconfMessage message) {
+        if (message instanceof RawNetconfMessage) {
+            return ((RawNetconfMessage) message).getMessageId().orElse("");
+        }
+        final Element root = message.getDocument().getDocumentElement();
+        return root == null ? "" : root.getAttribute(MESSAGE_ID_ATTR);
+    }
+
     public static void checkSuccessReply(final NetconfMessage output) throws NetconfDocumentedException {
+        if (output instanceof RawNetconfMessage && !((RawNetconfMessage) output).isErrorReply()) {
+            return;
+        }
         if (NetconfMessageUtil.isErrorMessage(output)) {
             throw NetconfDocumentedException.fromXMLDocument(output.getDocument());
         }
@@ -325,6 +559,17 @@ public final class NetconfMessageTransformUtil {
                 || NETCONF_GET_QNAME.getLocalName().equals(rpc.getLocalName()));
     }
 
+    /**
+     * Check whether an RPC finishes or guards a configuration change, and should therefore not wait behind bulk
+     * operations for a device's concurrent RPC slot.
+     *
+     * @param rpc RPC name
+     * @return True for commit, cancel-commit, discard-changes, lock, unlock, close-session and kill-session
+     */
+    public static boolean isPriorityRpc(final QName rpc) {
+        return NETCONF_URI.equals(rpc.getNamespace()) && PRIORITY_RPCS.contains(rpc.getLocalName());
+    }
+
     public static ContainerSchemaNode createSchemaForDataRead(final SchemaContext schemaContext) {
         return new NodeContainerProxy(NETCONF_DATA_QNAME, schemaContext.getChildNodes());
     }
@@ -9,7 +9,9 @@ package org.opendaylight.netconf.sal.connect.netconf.util;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import javax.xml.stream.XMLStreamException;
 import org.opendaylight.netconf.api.ModifyAction;
 import org.opendaylight.netconf.util.NetconfUtil;
@@ -22,6 +24,9 @@ import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
 import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 import org.xml.sax.SAXException;
 
 /**
@@ -55,6 +60,29 @@ class NetconfRpcStructureTransformer implements RpcStructureTransformer {
         }
     }
 
+    @Override
+    public List<Optional<NormalizedNode<?, ?>>> selectFromDataStructure(
+            final DataContainerChild<? extends YangInstanceIdentifier.PathArgument, ?> data,
+            final List<YangInstanceIdentifier> paths) {
+        // Parse the data only once, no matter how many paths are selected from it
+        final NormalizedNode<?, ?> parsed;
+        if (data instanceof DOMSourceAnyxmlNode) {
+            try {
+                parsed = NetconfUtil.transformDOMSourceToNormalizedNode(mountContext,
+                    ((DOMSourceAnyxmlNode)data).getValue()).getResult();
+            } catch (final XMLStreamException | URISyntaxException | IOException | SAXException e) {
+                LOG.error("Cannot parse anyxml.", e);
+                return paths.stream().map(path -> Optional.<NormalizedNode<?, ?>>empty())
+                    .collect(Collectors.toList());
+            }
+        } else {
+            parsed = data;
+        }
+        return paths.stream()
+            .map(path -> NormalizedNodes.findNode(parsed, path.getPathArguments()))
+            .collect(Collectors.toList());
+    }
+
     @Override
     public DOMSourceAnyxmlNode createEditConfigStructure(final Optional<NormalizedNode<?, ?>> data,
                                                          final YangInstanceIdentifier dataPath,
@@ -69,4 +97,21 @@ class NetconfRpcStructureTransformer implements RpcStructureTransformer {
         // FIXME: propagate MountPointContext
         return NetconfMessageTransformUtil.toFilterStructure(path, mountContext.getSchemaContext());
     }
+
+    @Override
+    public DataContainerChild<?, ?> toExistenceFilterStructure(final YangInstanceIdentifier path) {
+        return NetconfMessageTransformUtil.toExistenceFilterStructure(path, mountContext.getSchemaContext());
+    }
+
+    @Override
+    public boolean isDataPresent(final DataContainerChild<? extends YangInstanceIdentifier.PathArgument, ?> data,
+            final YangInstanceIdentifier path) {
+        if (data instanceof DOMSourceAnyxmlNode) {
+            // Only the presence of the element matters, there is no need to parse it
+            final Node node = ((DOMSourceAnyxmlNode) data).getValue().getNode();
+            final Element element = node instanceof Document ? ((Document) node).getDocumentElement() : (Element) node;
+            return NetconfMessageTransformUtil.findDataElement(mountContext.getSchemaContext(), element, path) != null;
+        }
+        return RpcStructureTransformer.super.isDataPresent(data, path);
+    }
 }
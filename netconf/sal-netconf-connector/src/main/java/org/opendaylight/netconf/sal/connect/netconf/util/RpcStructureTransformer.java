@@ -7,7 +7,9 @@
  */
 package org.opendaylight.netconf.sal.connect.netconf.util;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import org.opendaylight.netconf.api.ModifyAction;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.DOMSourceAnyxmlNode;
@@ -37,6 +39,17 @@ interface RpcStructureTransformer {
      */
     DataContainerChild<?,?> toFilterStructure(YangInstanceIdentifier path);
 
+    /**
+     * Transforms multiple paths to a single filter structure, selecting the data of all of them.
+     * @param paths paths
+     * @return filter structure
+     */
+    default DataContainerChild<?,?> toFilterStructure(final List<YangInstanceIdentifier> paths) {
+        return NetconfMessageTransformUtil.mergeFilterStructures(paths.stream()
+            .map(this::toFilterStructure)
+            .collect(Collectors.toList()));
+    }
+
     /**
      * Selects data specified by path from data node. Data must be product of get-config rpc with filter created by
      * {@link #toFilterStructure(YangInstanceIdentifier)} with same path.
@@ -46,4 +59,41 @@ interface RpcStructureTransformer {
      */
     Optional<NormalizedNode<?, ?>> selectFromDataStructure(
             DataContainerChild<? extends YangInstanceIdentifier.PathArgument, ?> data, YangInstanceIdentifier path);
+
+    /**
+     * Selects data specified by each of the paths from data node. Data must be product of get-config rpc with filter
+     * created by {@link #toFilterStructure(List)} with same paths.
+     * @param data data
+     * @param paths paths to select
+     * @return selected data, in the order of paths
+     */
+    default List<Optional<NormalizedNode<?, ?>>> selectFromDataStructure(
+            final DataContainerChild<? extends YangInstanceIdentifier.PathArgument, ?> data,
+            final List<YangInstanceIdentifier> paths) {
+        return paths.stream()
+            .map(path -> selectFromDataStructure(data, path))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Transforms path to filter structure selecting only as much data as needed to find out whether data at the path
+     * exists. Defaults to {@link #toFilterStructure(YangInstanceIdentifier)}.
+     * @param path path
+     * @return filter structure
+     */
+    default DataContainerChild<?,?> toExistenceFilterStructure(final YangInstanceIdentifier path) {
+        return toFilterStructure(path);
+    }
+
+    /**
+     * Checks whether data specified by path is present in data node. Data must be product of get-config rpc with
+     * filter created by {@link #toExistenceFilterStructure(YangInstanceIdentifier)} with same path.
+     * @param data data
+     * @param path path to check
+     * @return true if data is present
+     */
+    default boolean isDataPresent(final DataContainerChild<? extends YangInstanceIdentifier.PathArgument, ?> data,
+            final YangInstanceIdentifier path) {
+        return selectFromDataStructure(data, path).isPresent();
+    }
 }
@@ -10,6 +10,7 @@ package org.opendaylight.netconf.sal.connect.netconf;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollectionOf;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.after;
@@ -254,6 +255,88 @@ public class NetconfDeviceTest extends AbstractTestModelTest {
         Mockito.verify(schemaFactory, times(1)).createSchemaContext(anyCollectionOf(SourceIdentifier.class));
     }
 
+    @Test
+    public void testNetconfDevicePrefetchesSources() throws Exception {
+        final RemoteDeviceHandler<NetconfSessionPreferences> facade = getFacade();
+        final NetconfDeviceCommunicator listener = getListener();
+
+        final SchemaContextFactory schemaFactory = getSchemaFactory();
+        final SchemaSourceRegistry schemaRegistry = getSchemaRegistry();
+        final SchemaRepository schemaRepository = mock(SchemaRepository.class);
+        final SettableFuture<YangTextSchemaSource> first = SettableFuture.create();
+        final SettableFuture<YangTextSchemaSource> second = SettableFuture.create();
+        doReturn(first).when(schemaRepository).getSchemaSource(eq(TEST_SID), eq(YangTextSchemaSource.class));
+        doReturn(second).when(schemaRepository).getSchemaSource(eq(TEST_SID2), eq(YangTextSchemaSource.class));
+
+        final NetconfDevice.SchemaResourcesDTO schemaResourcesDTO = new NetconfDevice.SchemaResourcesDTO(
+                schemaRegistry, schemaRepository, schemaFactory, STATE_SCHEMAS_RESOLVER);
+        final NetconfDevice device = new NetconfDeviceBuilder()
+                .setReconnectOnSchemasChange(true)
+                .setSchemaResourcesDTO(schemaResourcesDTO)
+                .setGlobalProcessingExecutor(getExecutor())
+                .setId(getId())
+                .setSalFacade(facade)
+                .build();
+        device.onRemoteSessionUp(getSessionCaps(false, Lists.newArrayList(TEST_CAPABILITY, TEST_CAPABILITY2)),
+            listener);
+
+        // Both sources are requested before either of them is available
+        verify(schemaRepository, timeout(5000)).getSchemaSource(TEST_SID, YangTextSchemaSource.class);
+        verify(schemaRepository, timeout(5000)).getSchemaSource(TEST_SID2, YangTextSchemaSource.class);
+        first.set(mock(YangTextSchemaSource.class));
+        verify(schemaFactory, after(500).never()).createSchemaContext(anyCollectionOf(SourceIdentifier.class));
+
+        second.setException(new MissingSchemaSourceException("missing", TEST_SID2));
+        verify(facade, timeout(5000)).onDeviceConnected(any(MountPointContext.class),
+            any(NetconfSessionPreferences.class), any(NetconfDeviceRpc.class), isNull());
+        verify(schemaFactory).createSchemaContext(argThat(sources -> sources.size() == 1
+            && sources.contains(TEST_SID)));
+
+        // The fetched source is offered for assembly, without going back to the device
+        final ArgumentCaptor<PotentialSchemaSource> captor = ArgumentCaptor.forClass(PotentialSchemaSource.class);
+        verify(schemaRegistry).registerSchemaSource(any(), captor.capture());
+        assertEquals(TEST_SID, captor.getValue().getSourceIdentifier());
+        assertEquals(PotentialSchemaSource.Costs.IMMEDIATE.getValue(), captor.getValue().getCost());
+    }
+
+    @Test
+    public void testNetconfDevicePrefetchBoundedByRpcLimit() throws Exception {
+        final RemoteDeviceHandler<NetconfSessionPreferences> facade = getFacade();
+        final NetconfDeviceCommunicator listener = getListener();
+        doReturn(1).when(listener).getConcurrentRpcLimit();
+
+        final SchemaRepository schemaRepository = mock(SchemaRepository.class);
+        final SettableFuture<YangTextSchemaSource> first = SettableFuture.create();
+        final SettableFuture<YangTextSchemaSource> second = SettableFuture.create();
+        doReturn(first).when(schemaRepository).getSchemaSource(eq(TEST_SID), eq(YangTextSchemaSource.class));
+        doReturn(second).when(schemaRepository).getSchemaSource(eq(TEST_SID2), eq(YangTextSchemaSource.class));
+
+        final NetconfDevice.SchemaResourcesDTO schemaResourcesDTO = new NetconfDevice.SchemaResourcesDTO(
+                getSchemaRegistry(), schemaRepository, getSchemaFactory(), STATE_SCHEMAS_RESOLVER);
+        final NetconfDevice device = new NetconfDeviceBuilder()
+                .setReconnectOnSchemasChange(true)
+                .setSchemaResourcesDTO(schemaResourcesDTO)
+                .setGlobalProcessingExecutor(getExecutor())
+                .setId(getId())
+                .setSalFacade(facade)
+                .build();
+        device.onRemoteSessionUp(getSessionCaps(false, Lists.newArrayList(TEST_CAPABILITY, TEST_CAPABILITY2)),
+            listener);
+
+        // Only one source is requested while the session allows a single outstanding request
+        verify(schemaRepository, timeout(5000)).getSchemaSource(any(SourceIdentifier.class),
+            eq(YangTextSchemaSource.class));
+        verify(schemaRepository, after(500).times(1)).getSchemaSource(any(SourceIdentifier.class),
+            eq(YangTextSchemaSource.class));
+
+        first.set(mock(YangTextSchemaSource.class));
+        second.set(mock(YangTextSchemaSource.class));
+        verify(schemaRepository, timeout(5000).times(2)).getSchemaSource(any(SourceIdentifier.class),
+            eq(YangTextSchemaSource.class));
+        verify(facade, timeout(5000)).onDeviceConnected(any(MountPointContext.class),
+            any(NetconfSessionPreferences.class), any(NetconfDeviceRpc.class), isNull());
+    }
+
     private static SchemaSourceRegistry getSchemaRegistry() {
         final SchemaSourceRegistry mock = mock(SchemaSourceRegistry.class);
         final SchemaSourceRegistration<?> mockReg = mock(SchemaSourceRegistration.class);
@@ -13,7 +13,12 @@ import static org.junit.Assert.assertTrue;
 
 import com.google.common.collect.Iterables;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.Before;
 import org.junit.Test;
 import org.opendaylight.mdsal.dom.api.DOMEvent;
@@ -80,4 +85,26 @@ public class NetconfToNotificationTest {
         assertEquals(NetconfNotification.RFC3339_DATE_PARSER.apply("2015-10-23T09:42:27.67175+00:00").toInstant(),
                 ((DOMEvent) domNotification).getEventInstant());
     }
+
+    @Test
+    public void testToNotificationConcurrently() throws Exception {
+        final SchemaContext schemaContext = getNotificationSchemaContext(getClass(), false);
+        messageTransformer = new NetconfMessageTransformer(new EmptyMountPointContext(schemaContext), true);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<DOMNotification>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; ++i) {
+                // Each notification needs its own document, as parsing strips eventTime from it
+                final NetconfMessage message = new NetconfMessage(XmlUtil.readXmlToDocument(
+                    getClass().getResourceAsStream("/notification-payload.xml")));
+                futures.add(executor.submit(() -> messageTransformer.toNotification(message)));
+            }
+            for (Future<DOMNotification> future : futures) {
+                assertEquals(6, Iterables.size(future.get().getBody().getValue()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.mdsal.dom.api.DOMNotification;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.opendaylight.netconf.sal.connect.api.MessageTransformer;
+import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
+import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeConnectionParameters.NotificationOverflowPolicy;
+
+public class NotificationHandlerTest {
+    private static final RemoteDeviceId ID = new RemoteDeviceId("id", new InetSocketAddress("localhost", 22));
+
+    @Mock
+    private RemoteDeviceHandler<NetconfSessionPreferences> salFacade;
+    @Mock
+    private MessageTransformer<NetconfMessage> transformer;
+    @Mock
+    private NotificationHandler.ReadControl readControl;
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final Executor executor = tasks::add;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void testDecodeInline() throws Exception {
+        final NotificationHandler handler = new NotificationHandler(salFacade, ID);
+        final NetconfMessage first = notification("a");
+        final DOMNotification firstNotification = decodesTo(first);
+        final NetconfMessage second = notification("b");
+        final DOMNotification secondNotification = decodesTo(second);
+
+        handler.handleNotification(first);
+        verify(salFacade, never()).onNotification(firstNotification);
+
+        handler.onRemoteSchemaUp(transformer);
+        verify(salFacade).onNotification(firstNotification);
+
+        handler.handleNotification(second);
+        verify(salFacade).onNotification(secondNotification);
+    }
+
+    @Test
+    public void testDecodeParallelKeepsOrder() throws Exception {
+        final NotificationHandler handler = new NotificationHandler(salFacade, ID, executor, 3,
+            NotificationOverflowPolicy.Block);
+        handler.onRemoteSchemaUp(transformer);
+
+        final List<DOMNotification> expected = new ArrayList<>();
+        for (String name : new String[] { "a", "b", "c" }) {
+            final NetconfMessage message = notification(name);
+            expected.add(decodesTo(message));
+            handler.handleNotification(message);
+        }
+        assertEquals(3, tasks.size());
+        verifyNoMoreInteractions(salFacade);
+
+        // Decode out of order, nothing may be forwarded until the first one is done
+        tasks.get(2).run();
+        tasks.get(1).run();
+        verifyNoMoreInteractions(salFacade);
+        tasks.get(0).run();
+
+        final InOrder inOrder = inOrder(salFacade);
+        for (DOMNotification notification : expected) {
+            inOrder.verify(salFacade).onNotification(notification);
+        }
+    }
+
+    @Test
+    public void testDecodeFailureSkipsNotification() throws Exception {
+        final NotificationHandler handler = new NotificationHandler(salFacade, ID, executor, 2,
+            NotificationOverflowPolicy.Block);
+        handler.onRemoteSchemaUp(transformer);
+
+        final NetconfMessage broken = notification("a");
+        when(transformer.toNotification(broken)).thenThrow(new IllegalArgumentException("broken"));
+        final NetconfMessage valid = notification("b");
+        final DOMNotification validNotification = decodesTo(valid);
+
+        handler.handleNotification(broken);
+        handler.handleNotification(valid);
+        tasks.get(1).run();
+        tasks.get(0).run();
+
+        verify(salFacade).onNotification(validNotification);
+        verifyNoMoreInteractions(salFacade);
+    }
+
+    @Test
+    public void testOverflowDropOldest() throws Exception {
+        final NotificationHandler handler = new NotificationHandler(salFacade, ID, executor, 2,
+            NotificationOverflowPolicy.DropOldest);
+        handler.onRemoteSchemaUp(transformer);
+
+        final NetconfMessage first = notification("a");
+        final DOMNotification firstNotification = decodesTo(first);
+        final NetconfMessage second = notification("b");
+        final DOMNotification secondNotification = decodesTo(second);
+        final NetconfMessage third = notification("c");
+        final DOMNotification thirdNotification = decodesTo(third);
+
+        handler.handleNotification(first);
+        handler.handleNotification(second);
+        handler.handleNotification(third);
+        Collections.reverse(tasks);
+        tasks.forEach(Runnable::run);
+
+        final InOrder inOrder = inOrder(salFacade);
+        inOrder.verify(salFacade).onNotification(secondNotification);
+        inOrder.verify(salFacade).onNotification(thirdNotification);
+        verify(salFacade, never()).onNotification(firstNotification);
+    }
+
+    @Test
+    public void testOverflowCoalesce() throws Exception {
+        final NotificationHandler handler = new NotificationHandler(salFacade, ID, executor, 2,
+            NotificationOverflowPolicy.Coalesce);
+        handler.onRemoteSchemaUp(transformer);
+
+        final NetconfMessage first = notification("a");
+        final DOMNotification firstNotification = decodesTo(first);
+        final NetconfMessage second = notification("b");
+        final DOMNotification secondNotification = decodesTo(second);
+        final NetconfMessage third = notification("b");
+        final DOMNotification thirdNotification = decodesTo(third);
+
+        handler.handleNotification(first);
+        handler.handleNotification(second);
+        handler.handleNotification(third);
+        tasks.forEach(Runnable::run);
+
+        final InOrder inOrder = inOrder(salFacade);
+        inOrder.verify(salFacade).onNotification(firstNotification);
+        inOrder.verify(salFacade).onNotification(thirdNotification);
+        verify(salFacade, never()).onNotification(secondNotification);
+    }
+
+    @Test
+    public void testOverflowBlock() throws Exception {
+        final NotificationHandler handler = new NotificationHandler(salFacade, ID, executor, 1,
+            NotificationOverflowPolicy.Block);
+        handler.setReadControl(readControl);
+        handler.onRemoteSchemaUp(transformer);
+
+        final NetconfMessage first = notification("a");
+        final DOMNotification firstNotification = decodesTo(first);
+        final NetconfMessage second = notification("b");
+        final DOMNotification secondNotification = decodesTo(second);
+
+        // Reading is paused once the queue is full, a notification which has already been read is not dropped
+        handler.handleNotification(first);
+        verify(readControl).setAutoRead(false);
+        handler.handleNotification(second);
+        assertEquals(2, tasks.size());
+
+        tasks.get(0).run();
+        verify(readControl, never()).setAutoRead(true);
+        tasks.get(1).run();
+        verify(readControl).setAutoRead(true);
+
+        final InOrder inOrder = inOrder(salFacade);
+        inOrder.verify(salFacade).onNotification(firstNotification);
+        inOrder.verify(salFacade).onNotification(secondNotification);
+    }
+
+    @Test
+    public void testRejectedDecodedOutsideLock() throws Exception {
+        final NotificationHandler handler = new NotificationHandler(salFacade, ID, task -> {
+            throw new RejectedExecutionException();
+        }, 1, NotificationOverflowPolicy.Block);
+        handler.setReadControl(readControl);
+        handler.onRemoteSchemaUp(transformer);
+
+        // Decoding takes the read control lock, holding the handler's lock while doing so would invert lock order
+        final NetconfMessage message = notification("a");
+        final DOMNotification notification = mock(DOMNotification.class);
+        when(transformer.toNotification(message)).thenAnswer(invocation -> {
+            assertFalse(Thread.holdsLock(handler));
+            return notification;
+        });
+
+        handler.handleNotification(message);
+        verify(salFacade).onNotification(notification);
+        verify(readControl, never()).setAutoRead(false);
+    }
+
+    @Test
+    public void testSchemaDownDropsPending() throws Exception {
+        final NotificationHandler handler = new NotificationHandler(salFacade, ID, executor, 2,
+            NotificationOverflowPolicy.Block);
+        handler.onRemoteSchemaUp(transformer);
+
+        final NetconfMessage message = notification("a");
+        decodesTo(message);
+        handler.handleNotification(message);
+        handler.onRemoteSchemaDown();
+        tasks.forEach(Runnable::run);
+
+        verifyNoMoreInteractions(salFacade);
+    }
+
+    private DOMNotification decodesTo(final NetconfMessage message) {
+        final DOMNotification notification = mock(DOMNotification.class);
+        when(transformer.toNotification(message)).thenReturn(notification);
+        return notification;
+    }
+
+    private static NetconfMessage notification(final String name) throws Exception {
+        return new NetconfMessage(XmlUtil.readXmlToDocument(
+            "<notification xmlns=\"urn:ietf:params:xml:ns:netconf:notification:1.0\">"
+                + "<eventTime>2020-01-01T00:00:00Z</eventTime>"
+                + "<" + name + " xmlns=\"urn:test\"/>"
+                + "</notification>"));
+    }
+}
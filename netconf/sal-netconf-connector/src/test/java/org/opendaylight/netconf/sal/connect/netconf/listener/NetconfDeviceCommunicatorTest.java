@@ -11,7 +11,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doNothing;
@@ -21,6 +23,7 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.opendaylight.netconf.api.xml.XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0;
 
@@ -42,6 +45,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import javax.xml.parsers.ParserConfigurationException;
@@ -50,6 +56,7 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.opendaylight.netconf.api.NetconfDocumentedException;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.NetconfTerminationReason;
 import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
@@ -83,11 +90,16 @@ public class NetconfDeviceCommunicatorTest {
     @Mock
     RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> mockDevice;
 
+    @Mock
+    ScheduledExecutorService admissionTimer;
+
     NetconfDeviceCommunicator communicator;
 
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
+        doReturn(mock(ScheduledFuture.class)).when(admissionTimer).schedule(any(Runnable.class), anyLong(),
+            any(TimeUnit.class));
 
         communicator = new NetconfDeviceCommunicator(
                 new RemoteDeviceId("test", InetSocketAddress.createUnresolved("localhost", 22)), mockDevice, 10);
@@ -95,6 +107,7 @@ public class NetconfDeviceCommunicatorTest {
 
     void setupSession() {
         doReturn(Collections.<String>emptySet()).when(mockSession).getServerCapabilities();
+        doReturn(true).when(mockSession).isWritable();
         doNothing().when(mockDevice).onRemoteSessionUp(any(NetconfSessionPreferences.class),
                 any(NetconfDeviceCommunicator.class));
         communicator.onSessionUp(mockSession);
@@ -104,9 +117,19 @@ public class NetconfDeviceCommunicatorTest {
         return sendRequest(UUID.randomUUID().toString(), true);
     }
 
-    @SuppressWarnings("unchecked")
     private ListenableFuture<RpcResult<NetconfMessage>> sendRequest(final String messageID,
                                                                     final boolean doLastTest) throws Exception {
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture =
+                sendRequest(messageID, QName.create("", "mockRpc"));
+        if (doLastTest) {
+            assertNotNull("ListenableFuture is null", resultFuture);
+        }
+        return resultFuture;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ListenableFuture<RpcResult<NetconfMessage>> sendRequest(final String messageID, final QName rpc)
+            throws Exception {
         Document doc = UntrustedXML.newDocumentBuilder().newDocument();
         Element element = doc.createElement("request");
         element.setAttribute("message-id", messageID);
@@ -118,12 +141,7 @@ public class NetconfDeviceCommunicatorTest {
                 .addListener(any(GenericFutureListener.class));
         doReturn(mockChannelFuture).when(mockSession).sendMessage(same(message));
 
-        ListenableFuture<RpcResult<NetconfMessage>> resultFuture =
-                communicator.sendRequest(message, QName.create("", "mockRpc"));
-        if (doLastTest) {
-            assertNotNull("ListenableFuture is null", resultFuture);
-        }
-        return resultFuture;
+        return communicator.sendRequest(message, rpc);
     }
 
     @Test
@@ -238,6 +256,71 @@ public class NetconfDeviceCommunicatorTest {
         } // expected
     }
 
+    @Test
+    public void testSendRequestNotWritable() throws Exception {
+        // No concurrent rpc limit, hence no admission queue either
+        communicator = new NetconfDeviceCommunicator(
+                new RemoteDeviceId("test", InetSocketAddress.createUnresolved("localhost", 22)), mockDevice, 0);
+        setupSession();
+        doReturn(false).when(mockSession).isWritable();
+
+        // requests wait for the session to become writable instead of failing, and are sent in order
+        final String messageID1 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture1 = sendRequest(messageID1, true);
+        final String messageID2 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture2 = sendRequest(messageID2, true);
+        verify(mockSession, never()).sendMessage(any(NetconfMessage.class));
+        assertFalse(resultFuture1.isDone());
+        assertFalse(resultFuture2.isDone());
+
+        doReturn(true).when(mockSession).isWritable();
+        communicator.onSessionWritable(mockSession);
+        final ArgumentCaptor<NetconfMessage> sent = ArgumentCaptor.forClass(NetconfMessage.class);
+        verify(mockSession, times(2)).sendMessage(sent.capture());
+        assertEquals(messageID1, NetconfMessageTransformUtil.getMessageId(sent.getAllValues().get(0)));
+        assertEquals(messageID2, NetconfMessageTransformUtil.getMessageId(sent.getAllValues().get(1)));
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID1));
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID2));
+        verifyResponseMessage(resultFuture1.get(), messageID1);
+        verifyResponseMessage(resultFuture2.get(), messageID2);
+    }
+
+    @Test
+    public void testSendRequestNotWritableSessionDown() throws Exception {
+        setupSession();
+        doReturn(false).when(mockSession).isWritable();
+
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture = sendRequest();
+        assertFalse(resultFuture.isDone());
+
+        communicator.onSessionDown(mockSession, new Exception("mock ex"));
+        verifyErrorRpcResult(resultFuture.get(), RpcError.ErrorType.TRANSPORT, "operation-failed");
+        verify(mockSession, never()).sendMessage(any(NetconfMessage.class));
+    }
+
+    @Test
+    public void testSendRequestNotWritableQueued() throws Exception {
+        communicator = new NetconfDeviceCommunicator(
+                new RemoteDeviceId("test", InetSocketAddress.createUnresolved("localhost", 22)), mockDevice, null,
+                10, 10, 60000, admissionTimer);
+        setupSession();
+        doReturn(false).when(mockSession).isWritable();
+
+        // the request waits for the session to become writable instead of failing
+        final String messageID = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture = sendRequest(messageID, true);
+        verify(mockSession, never()).sendMessage(any(NetconfMessage.class));
+        assertFalse(resultFuture.isDone());
+
+        doReturn(true).when(mockSession).isWritable();
+        communicator.onSessionWritable(mockSession);
+        verify(mockSession).sendMessage(any(NetconfMessage.class));
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID));
+        verifyResponseMessage(resultFuture.get(), messageID);
+    }
+
     @Test
     public void testSendRequestWithNoSession() throws Exception {
         NetconfMessage message = new NetconfMessage(UntrustedXML.newDocumentBuilder().newDocument());
@@ -340,6 +423,46 @@ public class NetconfDeviceCommunicatorTest {
         verifyResponseMessage(resultFuture2.get(), messageID2);
     }
 
+    @Test
+    public void testOnOutOfOrderResponseMessage() throws Exception {
+        setupSession();
+
+        final String messageID1 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture1 = sendRequest(messageID1, true);
+        final String messageID2 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture2 = sendRequest(messageID2, true);
+        final String messageID3 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture3 = sendRequest(messageID3, true);
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID3));
+        verifyResponseMessage(resultFuture3.get(), messageID3);
+        assertFalse(resultFuture1.isDone());
+        assertFalse(resultFuture2.isDone());
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID2));
+        verifyResponseMessage(resultFuture2.get(), messageID2);
+        assertFalse(resultFuture1.isDone());
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID1));
+        verifyResponseMessage(resultFuture1.get(), messageID1);
+    }
+
+    @Test
+    public void testOnUnknownResponseFailsOnlyOldestRequest() throws Exception {
+        setupSession();
+
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture1 = sendRequest();
+        final String messageID2 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture2 = sendRequest(messageID2, true);
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(UUID.randomUUID().toString()));
+        verifyErrorRpcResult(resultFuture1.get(), RpcError.ErrorType.PROTOCOL, "bad-attribute");
+        assertFalse(resultFuture2.isDone());
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID2));
+        verifyResponseMessage(resultFuture2.get(), messageID2);
+    }
+
     @Test
     public void testOnResponseMessageWithError() throws Exception {
         setupSession();
@@ -451,6 +574,114 @@ public class NetconfDeviceCommunicatorTest {
         assertNotNull("ListenableFuture is null", resultFuture);
     }
 
+    @Test
+    public void testAdmissionQueue() throws Exception {
+        communicator = new NetconfDeviceCommunicator(
+                new RemoteDeviceId("test", InetSocketAddress.createUnresolved("localhost", 22)), mockDevice, null,
+                1, 2, 60000, admissionTimer);
+        setupSession();
+
+        final String messageID1 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture1 = sendRequest(messageID1, true);
+        final String messageID2 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture2 = sendRequest(messageID2, true);
+        final String messageID3 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture3 = sendRequest(messageID3, true);
+        final String messageID4 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture4 = sendRequest(messageID4, true);
+
+        // second and third request wait for a permit, the fourth one does not fit into the queue
+        verify(mockSession, times(1)).sendMessage(any(NetconfMessage.class));
+        assertFalse(resultFuture2.isDone());
+        assertFalse(resultFuture3.isDone());
+        try {
+            resultFuture4.get();
+            fail("Request should have been rejected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof NetconfDocumentedException);
+        }
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID1));
+        verifyResponseMessage(resultFuture1.get(), messageID1);
+        verify(mockSession, times(2)).sendMessage(any(NetconfMessage.class));
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID2));
+        verifyResponseMessage(resultFuture2.get(), messageID2);
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID3));
+        verifyResponseMessage(resultFuture3.get(), messageID3);
+    }
+
+    @Test
+    public void testAdmissionQueuePriority() throws Exception {
+        communicator = new NetconfDeviceCommunicator(
+                new RemoteDeviceId("test", InetSocketAddress.createUnresolved("localhost", 22)), mockDevice, null,
+                1, 10, 60000, admissionTimer);
+        setupSession();
+
+        final String messageID1 = UUID.randomUUID().toString();
+        sendRequest(messageID1, true);
+        final String messageID2 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> getFuture = sendRequest(messageID2, true);
+        final String messageID3 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> commitFuture = sendRequest(messageID3,
+            NetconfMessageTransformUtil.NETCONF_COMMIT_QNAME);
+
+        // commit goes ahead of the queued get
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID1));
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID3));
+        verifyResponseMessage(commitFuture.get(), messageID3);
+        assertFalse(getFuture.isDone());
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID2));
+        verifyResponseMessage(getFuture.get(), messageID2);
+    }
+
+    @Test
+    public void testAdmissionQueueTimeout() throws Exception {
+        communicator = new NetconfDeviceCommunicator(
+                new RemoteDeviceId("test", InetSocketAddress.createUnresolved("localhost", 22)), mockDevice, null,
+                1, 10, 0, admissionTimer);
+        setupSession();
+
+        sendRequest();
+        verifyErrorRpcResult(sendRequest().get(), RpcError.ErrorType.TRANSPORT, "operation-failed");
+    }
+
+    @Test
+    public void testAdmissionQueueTimer() throws Exception {
+        communicator = new NetconfDeviceCommunicator(
+                new RemoteDeviceId("test", InetSocketAddress.createUnresolved("localhost", 22)), mockDevice, null,
+                1, 10, 60000, admissionTimer);
+        setupSession();
+
+        sendRequest();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture = sendRequest();
+        assertFalse(resultFuture.isDone());
+
+        // the queued request is failed once its deadline passes, even though no reply arrives
+        final ArgumentCaptor<Runnable> timeoutCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(admissionTimer).schedule(timeoutCaptor.capture(), eq(TimeUnit.MILLISECONDS.toNanos(60000)),
+            eq(TimeUnit.NANOSECONDS));
+        timeoutCaptor.getValue().run();
+        verifyErrorRpcResult(resultFuture.get(), RpcError.ErrorType.TRANSPORT, "operation-failed");
+    }
+
+    @Test
+    public void testAdmissionQueueSessionDown() throws Exception {
+        communicator = new NetconfDeviceCommunicator(
+                new RemoteDeviceId("test", InetSocketAddress.createUnresolved("localhost", 22)), mockDevice, null,
+                1, 10, 60000, admissionTimer);
+        setupSession();
+
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture1 = sendRequest();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture2 = sendRequest();
+        assertFalse(resultFuture2.isDone());
+
+        communicator.onSessionDown(mockSession, new Exception("mock ex"));
+        verifyErrorRpcResult(resultFuture1.get(), RpcError.ErrorType.TRANSPORT, "operation-failed");
+        verifyErrorRpcResult(resultFuture2.get(), RpcError.ErrorType.TRANSPORT, "operation-failed");
+    }
+
     private static NetconfMessage createErrorResponseMessage(final String messageID) throws Exception {
         String xmlStr = "<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\""
                 + "           message-id=\"" + messageID + "\">"
@@ -17,6 +17,7 @@ import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTr
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_RUNNING_QNAME;
 
 import com.google.common.util.concurrent.SettableFuture;
+import io.netty.util.HashedWheelTimer;
 import java.net.InetSocketAddress;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -51,6 +52,7 @@ public class KeepaliveSalFacadeResponseWaitingTest {
 
     private KeepaliveSalFacade keepaliveSalFacade;
     private ScheduledExecutorService executorService;
+    private HashedWheelTimer timer;
 
     private LocalNetconfSalFacade underlyingSalFacade;
 
@@ -71,16 +73,19 @@ public class KeepaliveSalFacadeResponseWaitingTest {
         MockitoAnnotations.initMocks(this);
 
         executorService = Executors.newScheduledThreadPool(2);
+        timer = new HashedWheelTimer();
 
         underlyingSalFacade = new LocalNetconfSalFacade();
         doNothing().when(listener).disconnect();
-        keepaliveSalFacade = new KeepaliveSalFacade(REMOTE_DEVICE_ID, underlyingSalFacade, executorService, 2L, 10000L);
+        keepaliveSalFacade = new KeepaliveSalFacade(REMOTE_DEVICE_ID, underlyingSalFacade, executorService, timer,
+            2L, 10000L);
         keepaliveSalFacade.setListener(listener);
     }
 
     @After
     public void tearDown() {
         executorService.shutdown();
+        timer.stop();
     }
 
     /**
@@ -7,26 +7,41 @@
  */
 package org.opendaylight.netconf.sal.connect.netconf.sal;
 
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import com.google.common.base.Ticker;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
 import java.net.InetSocketAddress;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.opendaylight.mdsal.dom.api.DOMNotification;
 import org.opendaylight.mdsal.dom.api.DOMRpcResult;
 import org.opendaylight.mdsal.dom.api.DOMRpcService;
 import org.opendaylight.mdsal.dom.spi.DefaultDOMRpcResult;
@@ -52,6 +67,7 @@ public class KeepaliveSalFacadeTest {
     private RemoteDeviceHandler<NetconfSessionPreferences> underlyingSalFacade;
 
     private ScheduledExecutorService executorServiceSpy;
+    private HashedWheelTimer timer;
 
     @Mock
     private NetconfDeviceCommunicator listener;
@@ -68,6 +84,7 @@ public class KeepaliveSalFacadeTest {
     @Before
     public void setUp() throws Exception {
         executorServiceSpy = Executors.newScheduledThreadPool(1);
+        timer = new HashedWheelTimer();
 
         MockitoAnnotations.initMocks(this);
 
@@ -88,13 +105,14 @@ public class KeepaliveSalFacadeTest {
         Mockito.when(currentKeepalive.isDone()).thenReturn(true);
 
         keepaliveSalFacade =
-                new KeepaliveSalFacade(REMOTE_DEVICE_ID, underlyingSalFacade, executorServiceSpy, 1L, 1L);
+                new KeepaliveSalFacade(REMOTE_DEVICE_ID, underlyingSalFacade, executorServiceSpy, timer, 1L, 1L);
         keepaliveSalFacade.setListener(listener);
     }
 
     @After
     public void tearDown() throws Exception {
         executorServiceSpy.shutdownNow();
+        timer.stop();
     }
 
     @Test
@@ -161,7 +179,7 @@ public class KeepaliveSalFacadeTest {
                 .when(deviceRpc).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
 
         keepaliveSalFacade =
-                new KeepaliveSalFacade(REMOTE_DEVICE_ID, underlyingSalFacade, executorServiceSpy, 100L, 1L);
+                new KeepaliveSalFacade(REMOTE_DEVICE_ID, underlyingSalFacade, executorServiceSpy, timer, 100L, 1L);
         keepaliveSalFacade.setListener(listener);
 
         keepaliveSalFacade.onDeviceConnected(null, null, deviceRpc);
@@ -170,4 +188,76 @@ public class KeepaliveSalFacadeTest {
 
         verify(listener, times(1)).disconnect();
     }
+
+    @Test
+    public void testKeepalivePostponedByTraffic() throws Exception {
+        final DOMRpcResult result = new DefaultDOMRpcResult(Builders.containerBuilder().withNodeIdentifier(
+                new YangInstanceIdentifier.NodeIdentifier(NetconfMessageTransformUtil.NETCONF_RUNNING_QNAME)).build());
+        doReturn(FluentFutures.immediateFluentFuture(result))
+                .when(deviceRpc).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+
+        final Timer manualTimer = mock(Timer.class);
+        final Timeout expired = mock(Timeout.class);
+        doReturn(expired).when(manualTimer).newTimeout(any(TimerTask.class), anyLong(), any(TimeUnit.class));
+        final ScheduledExecutorService directExecutor = mock(ScheduledExecutorService.class);
+        doAnswer(invocationOnMock -> {
+            invocationOnMock.<Runnable>getArgument(0).run();
+            return null;
+        }).when(directExecutor).execute(any(Runnable.class));
+        final AtomicLong nanos = new AtomicLong(1);
+        final Ticker ticker = new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        };
+
+        keepaliveSalFacade = new KeepaliveSalFacade(REMOTE_DEVICE_ID, underlyingSalFacade, directExecutor,
+            manualTimer, ticker, 1L, 1L);
+        keepaliveSalFacade.setListener(listener);
+        keepaliveSalFacade.onDeviceConnected(null, null, deviceRpc);
+
+        final ArgumentCaptor<TimerTask> keepalive = ArgumentCaptor.forClass(TimerTask.class);
+        verify(manualTimer).newTimeout(keepalive.capture(), eq(TimeUnit.SECONDS.toNanos(1)),
+            eq(TimeUnit.NANOSECONDS));
+
+        // A notification half way through the delay postpones the keepalive until the session is idle long enough
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        keepaliveSalFacade.onNotification(mock(DOMNotification.class));
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        keepalive.getValue().run(expired);
+        verify(deviceRpc, never()).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+        verify(manualTimer).newTimeout(keepalive.getValue(), TimeUnit.MILLISECONDS.toNanos(500),
+            TimeUnit.NANOSECONDS);
+
+        // Once the traffic stops, the keepalive is sent
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        keepalive.getValue().run(expired);
+        verify(deviceRpc).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+        verify(listener, never()).disconnect();
+    }
+
+    @Test
+    public void testRequestTimeout() throws Exception {
+        doAnswer(
+            invocationOnMock -> {
+                proxyRpc = (DOMRpcService) invocationOnMock.getArguments()[2];
+                return null;
+            }).when(underlyingSalFacade).onDeviceConnected(isNull(), isNull(), any(DOMRpcService.class), isNull());
+
+        final SettableFuture<DOMRpcResult> neverCompleted = SettableFuture.create();
+        doReturn(neverCompleted).when(deviceRpc).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+
+        keepaliveSalFacade =
+                new KeepaliveSalFacade(REMOTE_DEVICE_ID, underlyingSalFacade, executorServiceSpy, timer, 100L, 200L);
+        keepaliveSalFacade.setListener(listener);
+
+        keepaliveSalFacade.onDeviceConnected(null, null, deviceRpc);
+
+        final ListenableFuture<DOMRpcResult> future =
+                proxyRpc.invokeRpc(mock(SchemaPath.class), mock(NormalizedNode.class));
+
+        verify(listener, timeout(15000).times(1)).disconnect();
+        assertTrue(future.isCancelled());
+    }
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.util.concurrent.FluentFuture;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.mdsal.binding.api.DataBroker;
+import org.opendaylight.mdsal.binding.api.TransactionChain;
+import org.opendaylight.mdsal.binding.api.TransactionChainListener;
+import org.opendaylight.mdsal.binding.api.WriteTransaction;
+import org.opendaylight.mdsal.common.api.CommitInfo;
+import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeConnectionStatus.ConnectionStatus;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.AvailableCapabilitiesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.available.capabilities.AvailableCapabilityBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+public class NetconfTopologyStatusWriterTest {
+    private static final InstanceIdentifier<Node> FIRST =
+        new RemoteDeviceId("first", new InetSocketAddress("localhost", 22)).getTopologyBindingPath();
+    private static final InstanceIdentifier<Node> SECOND =
+        new RemoteDeviceId("second", new InetSocketAddress("localhost", 22)).getTopologyBindingPath();
+
+    @Mock
+    private DataBroker dataBroker;
+    @Mock
+    private TransactionChain txChain;
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    private final List<WriteTransaction> transactions = new ArrayList<>();
+    private final List<SettableFuture<CommitInfo>> commits = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doReturn(txChain).when(dataBroker).createTransactionChain(any(TransactionChainListener.class));
+        doAnswer(invocation -> {
+            final WriteTransaction tx = mock(WriteTransaction.class);
+            final SettableFuture<CommitInfo> commit = SettableFuture.create();
+            doReturn(FluentFuture.from(commit)).when(tx).commit();
+            doReturn("tx" + transactions.size()).when(tx).getIdentifier();
+            transactions.add(tx);
+            commits.add(commit);
+            return tx;
+        }).when(txChain).newWriteOnlyTransaction();
+    }
+
+    @Test
+    public void testUpdatesCoalescedWhileInFlight() {
+        final NetconfTopologyStatusWriter writer = new NetconfTopologyStatusWriter(dataBroker, 0, null);
+        final NetconfNode connecting = status(ConnectionStatus.Connecting, "a");
+        final NetconfNode connected = status(ConnectionStatus.Connected, "a");
+
+        writer.updateNode(FIRST, connecting);
+        writer.updateNode(FIRST, connected);
+        writer.updateNode(SECOND, connecting);
+        writer.updateNode(FIRST, connecting);
+        assertEquals(1, transactions.size());
+
+        // Only the latest status of each node is written, in a single transaction
+        commits.get(0).set(CommitInfo.empty());
+        assertEquals(2, transactions.size());
+        final WriteTransaction tx = transactions.get(1);
+        verify(tx).put(LogicalDatastoreType.OPERATIONAL, SECOND.augmentation(NetconfNode.class), connecting, true);
+        verify(tx, never()).merge(any(LogicalDatastoreType.class), eq(SECOND.augmentation(NetconfNode.class)),
+            any(NetconfNode.class), anyBoolean());
+        verify(tx).merge(eq(LogicalDatastoreType.OPERATIONAL), eq(FIRST.augmentation(NetconfNode.class)),
+            any(NetconfNode.class), eq(true));
+        verify(tx).commit();
+    }
+
+    @Test
+    public void testCapabilitiesWrittenOnlyWhenChanged() {
+        final NetconfTopologyStatusWriter writer = new NetconfTopologyStatusWriter(dataBroker, 0, null);
+
+        writer.updateNode(FIRST, status(ConnectionStatus.Connected, "a"));
+        commits.get(0).set(CommitInfo.empty());
+        verify(transactions.get(0)).put(eq(LogicalDatastoreType.OPERATIONAL),
+            eq(FIRST.augmentation(NetconfNode.class)), any(NetconfNode.class), eq(true));
+
+        writer.updateNode(FIRST, status(ConnectionStatus.Connecting, "a"));
+        commits.get(1).set(CommitInfo.empty());
+        final ArgumentCaptor<NetconfNode> captor = ArgumentCaptor.forClass(NetconfNode.class);
+        verify(transactions.get(1)).merge(eq(LogicalDatastoreType.OPERATIONAL),
+            eq(FIRST.augmentation(NetconfNode.class)), captor.capture(), eq(true));
+        assertEquals(ConnectionStatus.Connecting, captor.getValue().getConnectionStatus());
+        assertNull(captor.getValue().getAvailableCapabilities());
+
+        final NetconfNode changed = status(ConnectionStatus.Connected, "b");
+        writer.updateNode(FIRST, changed);
+        verify(transactions.get(2)).put(LogicalDatastoreType.OPERATIONAL, FIRST.augmentation(NetconfNode.class),
+            changed, true);
+    }
+
+    @Test
+    public void testRemoveWrittenRightAway() throws Exception {
+        final NetconfTopologyStatusWriter writer = new NetconfTopologyStatusWriter(dataBroker, 3600000, scheduler);
+
+        writer.updateNode(FIRST, status(ConnectionStatus.Connecting, "a"));
+        assertTrue(transactions.isEmpty());
+        verify(scheduler).schedule(any(Runnable.class), eq(3600000L), eq(TimeUnit.MILLISECONDS));
+
+        final ListenableFuture<?> removed = writer.removeNode(FIRST);
+        assertEquals(1, transactions.size());
+        final WriteTransaction tx = transactions.get(0);
+        verify(tx).delete(LogicalDatastoreType.OPERATIONAL, FIRST);
+        verify(tx, never()).put(any(LogicalDatastoreType.class), any(InstanceIdentifier.class),
+            any(NetconfNode.class), anyBoolean());
+
+        assertFalse(removed.isDone());
+        commits.get(0).set(CommitInfo.empty());
+        assertNull(removed.get());
+    }
+
+    @Test
+    public void testFailedTransactionRecreatesChain() {
+        final NetconfTopologyStatusWriter writer = new NetconfTopologyStatusWriter(dataBroker, 0, null);
+        final NetconfNode connected = status(ConnectionStatus.Connected, "a");
+
+        writer.updateNode(FIRST, connected);
+        commits.get(0).setException(new IllegalStateException("failed"));
+        verify(txChain).close();
+        verify(dataBroker, times(2)).createTransactionChain(any(TransactionChainListener.class));
+
+        // Nothing is known to be written anymore, so the full status is written again
+        writer.updateNode(FIRST, connected);
+        verify(transactions.get(1)).put(LogicalDatastoreType.OPERATIONAL, FIRST.augmentation(NetconfNode.class),
+            connected, true);
+    }
+
+    private static NetconfNode status(final ConnectionStatus connectionStatus, final String capability) {
+        return new NetconfNodeBuilder()
+            .setConnectionStatus(connectionStatus)
+            .setAvailableCapabilities(new AvailableCapabilitiesBuilder()
+                .setAvailableCapability(Collections.singletonList(new AvailableCapabilityBuilder()
+                    .setCapability(capability).build()))
+                .build())
+            .build();
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2020 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.xml.transform.dom.DOMSource;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
+import org.opendaylight.mdsal.dom.api.DOMRpcResult;
+import org.opendaylight.mdsal.dom.api.DOMRpcService;
+import org.opendaylight.mdsal.dom.spi.DefaultDOMRpcResult;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.opendaylight.netconf.sal.connect.netconf.AbstractTestModelTest;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DOMSourceAnyxmlNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+public class ReadCoalescerTest extends AbstractTestModelTest {
+    private static final RemoteDeviceId ID = new RemoteDeviceId("a", new InetSocketAddress("localhost", 196));
+    private static final QName C = QName.create("test:namespace", "2013-07-22", "c");
+    private static final QName A = QName.create(C, "a");
+    private static final QName B = QName.create(C, "b");
+    private static final QName L = QName.create(C, "l");
+    private static final QName NAME = QName.create(C, "name");
+    private static final String DATA = "<data xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">"
+        + "<c xmlns=\"test:namespace\"><a>1</a><b>2</b><l><name>x</name></l></c></data>";
+
+    @Mock
+    private DOMRpcService rpc;
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    private final List<SettableFuture<DOMRpcResult>> replies = new ArrayList<>();
+    private NetconfBaseOps netconfOps;
+    private ReadOnlyTx tx;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doAnswer(invocation -> {
+            final SettableFuture<DOMRpcResult> reply = SettableFuture.create();
+            replies.add(reply);
+            return reply;
+        }).when(rpc).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+
+        netconfOps = new NetconfBaseOps(rpc, SCHEMA_CONTEXT);
+        tx = new ReadOnlyTx(netconfOps, ID, new ReadCoalescer(ID, netconfOps, 10, 0, null));
+    }
+
+    @Test
+    public void testReadsCombinedWhileInFlight() throws Exception {
+        final YangInstanceIdentifier entry = YangInstanceIdentifier.builder().node(C).node(L)
+            .nodeWithKey(L, NAME, "x").build();
+
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> first =
+            tx.read(LogicalDatastoreType.CONFIGURATION, YangInstanceIdentifier.create(C, A));
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> second =
+            tx.read(LogicalDatastoreType.CONFIGURATION, YangInstanceIdentifier.create(C, B));
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> third =
+            tx.read(LogicalDatastoreType.CONFIGURATION, entry);
+        assertEquals(1, replies.size());
+
+        replies.get(0).set(reply());
+        assertEquals("1", first.get().get().getValue());
+        assertEquals(2, replies.size());
+        assertFalse(second.isDone());
+
+        // Both queued reads are sent in a single get-config
+        final List<NormalizedNode<?, ?>> inputs = sentInputs(2);
+        final Element container = (Element) filter(inputs.get(1)).getFirstChild();
+        assertEquals("c", container.getLocalName());
+        assertEquals(2, container.getChildNodes().getLength());
+        assertEquals("b", container.getFirstChild().getLocalName());
+        assertEquals("l", container.getLastChild().getLocalName());
+
+        replies.get(1).set(reply());
+        assertEquals("2", second.get().get().getValue());
+        assertTrue(third.get().isPresent());
+    }
+
+    @Test
+    public void testFailedCombinedReadRetried() throws Exception {
+        tx.read(LogicalDatastoreType.OPERATIONAL, YangInstanceIdentifier.create(C, A));
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> second =
+            tx.read(LogicalDatastoreType.OPERATIONAL, YangInstanceIdentifier.create(C, B));
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> third =
+            tx.read(LogicalDatastoreType.OPERATIONAL, YangInstanceIdentifier.create(C, A));
+
+        replies.get(0).set(reply());
+        replies.get(1).setException(new IllegalStateException("failed"));
+        assertEquals(4, replies.size());
+
+        replies.get(2).set(reply());
+        replies.get(3).set(reply());
+        assertEquals("2", second.get().get().getValue());
+        assertEquals("1", third.get().get().getValue());
+    }
+
+    @Test
+    public void testFailedSendRetried() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            // The combined read cannot even be sent
+            if (calls.getAndIncrement() == 1) {
+                throw new IllegalStateException("failed");
+            }
+            final SettableFuture<DOMRpcResult> reply = SettableFuture.create();
+            replies.add(reply);
+            return reply;
+        }).when(rpc).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+
+        tx.read(LogicalDatastoreType.CONFIGURATION, YangInstanceIdentifier.create(C, A));
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> second =
+            tx.read(LogicalDatastoreType.CONFIGURATION, YangInstanceIdentifier.create(C, B));
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> third =
+            tx.read(LogicalDatastoreType.CONFIGURATION, YangInstanceIdentifier.create(C, A));
+
+        replies.get(0).set(reply());
+        assertEquals(3, replies.size());
+
+        replies.get(1).set(reply());
+        replies.get(2).set(reply());
+        assertEquals("2", second.get().get().getValue());
+        assertEquals("1", third.get().get().getValue());
+    }
+
+    @Test
+    public void testReadsCombinedWithinWindow() throws Exception {
+        final ReadOnlyTx windowTx = new ReadOnlyTx(netconfOps, ID,
+            new ReadCoalescer(ID, netconfOps, 10, 100, scheduler));
+
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> first =
+            windowTx.read(LogicalDatastoreType.CONFIGURATION, YangInstanceIdentifier.create(C, A));
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> second =
+            windowTx.read(LogicalDatastoreType.CONFIGURATION, YangInstanceIdentifier.create(C, B));
+        assertEquals(0, replies.size());
+
+        // Both reads are sent once the window passes, on the scheduler of the device
+        final ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(flush.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+        flush.getValue().run();
+        assertEquals(1, replies.size());
+
+        replies.get(0).set(reply());
+        assertEquals("1", first.get().get().getValue());
+        assertEquals("2", second.get().get().getValue());
+    }
+
+    private List<NormalizedNode<?, ?>> sentInputs(final int count) {
+        final ArgumentCaptor<NormalizedNode<?, ?>> captor = ArgumentCaptor.forClass(NormalizedNode.class);
+        verify(rpc, times(count)).invokeRpc(eq(NetconfMessageTransformUtil.NETCONF_GET_CONFIG_PATH),
+            captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static Element filter(final NormalizedNode<?, ?> input) {
+        final DOMSourceAnyxmlNode filter = (DOMSourceAnyxmlNode) ((ContainerNode) input)
+            .getChild(NetconfMessageTransformUtil.NETCONF_FILTER_NODEID).get();
+        final Node node = filter.getValue().getNode();
+        return (Element) node;
+    }
+
+    private static DOMRpcResult reply() throws Exception {
+        return new DefaultDOMRpcResult(Builders.containerBuilder()
+            .withNodeIdentifier(NetconfMessageTransformUtil.NETCONF_GET_CONFIG_NODEID)
+            .withChild(Builders.anyXmlBuilder().withNodeIdentifier(NetconfMessageTransformUtil.NETCONF_DATA_NODEID)
+                .withValue(new DOMSource(XmlUtil.readXmlToElement(DATA))).build())
+            .build());
+    }
+}
@@ -10,14 +10,21 @@ package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
 
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
 import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
 import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
 import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
 
 final class TxTestUtils {
 
     private static final QName Q_NAME_1 = QName.create("test:namespace", "2013-07-22", "c");
     private static final QName Q_NAME_2 = QName.create(Q_NAME_1, "a");
+    private static final QName Q_NAME_B = QName.create(Q_NAME_1, "b");
+    private static final QName Q_NAME_LIST = QName.create(Q_NAME_1, "l");
+    private static final QName Q_NAME_KEY = QName.create(Q_NAME_1, "name");
+    private static final QName Q_NAME_VALUE = QName.create(Q_NAME_1, "value");
 
     private TxTestUtils() {
 
@@ -49,4 +56,34 @@ final class TxTestUtils {
                 .build();
     }
 
+    static YangInstanceIdentifier getOtherLeafId() {
+        return getContainerId().node(Q_NAME_B);
+    }
+
+    static LeafNode<String> getOtherLeafNode() {
+        return Builders.<String>leafBuilder()
+                .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(Q_NAME_B))
+                .withValue("other")
+                .build();
+    }
+
+    static YangInstanceIdentifier getListEntryId(final String name) {
+        return getContainerId().node(Q_NAME_LIST).node(NodeIdentifierWithPredicates.of(Q_NAME_LIST, Q_NAME_KEY, name));
+    }
+
+    static MapEntryNode getListEntryNode(final String name, final String value) {
+        return Builders.mapEntryBuilder()
+                .withNodeIdentifier(NodeIdentifierWithPredicates.of(Q_NAME_LIST, Q_NAME_KEY, name))
+                .withChild(ImmutableNodes.leafNode(Q_NAME_KEY, name))
+                .withChild(ImmutableNodes.leafNode(Q_NAME_VALUE, value))
+                .build();
+    }
+
+    static YangInstanceIdentifier getListValueId(final String name) {
+        return getListEntryId(name).node(Q_NAME_VALUE);
+    }
+
+    static LeafNode<String> getListValueNode(final String value) {
+        return ImmutableNodes.leafNode(Q_NAME_VALUE, value);
+    }
 }
@@ -7,15 +7,22 @@
  */
 package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
@@ -26,7 +33,13 @@ import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.yangtools.util.concurrent.FluentFutures;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DOMSourceAnyxmlNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 
 public class WriteCandidateTxTest extends AbstractTestModelTest {
     @Mock
@@ -60,4 +73,132 @@ public class WriteCandidateTxTest extends AbstractTestModelTest {
         verify(rpc).invokeRpc(eq(SchemaPath.create(true, NetconfMessageTransformUtil.NETCONF_UNLOCK_QNAME)), any());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testSubmitBatched() throws Exception {
+        final WriteCandidateTx tx = new WriteCandidateTx(id, netconfOps, true, true, 10);
+
+        tx.merge(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getLeafId(), TxTestUtils.getLeafNode());
+        tx.delete(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getOtherLeafId());
+        tx.put(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getListEntryId("x"),
+            TxTestUtils.getListEntryNode("x", "1"));
+        tx.merge(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getListValueId("y"),
+            TxTestUtils.getListValueNode("2"));
+        // Replaces the previous edit of the entry
+        tx.put(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getListEntryId("x"),
+            TxTestUtils.getListEntryNode("x", "3"));
+        //check, that nothing is sent before commit
+        verify(rpc, never())
+                .invokeRpc(eq(SchemaPath.create(true, NetconfMessageTransformUtil.NETCONF_EDIT_CONFIG_QNAME)), any());
+
+        tx.commit().get();
+
+        final List<ContainerNode> edits = captureEdits(1);
+        // Puts and merges rely on the default merge operation to create missing parents
+        assertEquals(Optional.empty(), defaultOperation(edits.get(0)));
+
+        final Element container = getOnlyChild(editConfigContent(edits.get(0)), "c");
+        final List<Element> children = childElements(container);
+        assertEquals(4, children.size());
+        assertEquals("merge", operation(children.get(0), "a"));
+        assertEquals("delete", operation(children.get(1), "b"));
+        assertEquals("", operation(children.get(2), "l"));
+        assertEquals("merge", operation(getOnlyChild(children.get(2), "value"), "value"));
+        assertEquals("replace", operation(children.get(3), "l"));
+        assertEquals("3", getOnlyChild(children.get(3), "value").getTextContent());
+
+        verify(rpc).invokeRpc(SchemaPath.create(true, NetconfMessageTransformUtil.NETCONF_COMMIT_QNAME),
+                NetconfMessageTransformUtil.COMMIT_RPC_CONTENT);
+    }
+
+    @Test
+    public void testSubmitBatchedOverlapping() throws Exception {
+        final WriteCandidateTx tx = new WriteCandidateTx(id, netconfOps, true, true, 2);
+
+        tx.merge(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getListEntryId("x"),
+            TxTestUtils.getListEntryNode("x", "1"));
+        // Overlaps the previous edit, has to be sent after it
+        tx.merge(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getListValueId("x"),
+            TxTestUtils.getListValueNode("2"));
+        tx.merge(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getLeafId(), TxTestUtils.getLeafNode());
+        // Does not fit into the previous batch anymore
+        tx.merge(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getOtherLeafId(), TxTestUtils.getOtherLeafNode());
+        tx.commit().get();
+
+        final List<ContainerNode> edits = captureEdits(3);
+        assertEquals(1, childElements(getOnlyChild(editConfigContent(edits.get(0)), "c")).size());
+        assertEquals(2, childElements(getOnlyChild(editConfigContent(edits.get(1)), "c")).size());
+        assertEquals("b", childElements(getOnlyChild(editConfigContent(edits.get(2)), "c")).get(0).getLocalName());
+    }
+
+    @Test
+    public void testSubmitBatchedDeletes() throws Exception {
+        final WriteCandidateTx tx = new WriteCandidateTx(id, netconfOps, true, true, 10);
+
+        tx.delete(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getLeafId());
+        tx.delete(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getOtherLeafId());
+        tx.commit().get();
+
+        final List<ContainerNode> edits = captureEdits(1);
+        assertEquals(Optional.of("none"), defaultOperation(edits.get(0)));
+        assertEquals(2, childElements(getOnlyChild(editConfigContent(edits.get(0)), "c")).size());
+    }
+
+    @Test
+    public void testSubmitBatchedPutThenDelete() throws Exception {
+        final WriteCandidateTx tx = new WriteCandidateTx(id, netconfOps, true, true, 10);
+
+        tx.put(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getListEntryId("x"),
+            TxTestUtils.getListEntryNode("x", "1"));
+        // The entry may not exist before the put, the delete has to be sent after it
+        tx.delete(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getListEntryId("x"));
+        tx.commit().get();
+
+        final List<ContainerNode> edits = captureEdits(2);
+        assertEquals(Optional.empty(), defaultOperation(edits.get(0)));
+        assertEquals("replace", operation(getOnlyChild(getOnlyChild(editConfigContent(edits.get(0)), "c"), "l"), "l"));
+        assertEquals(Optional.of("none"), defaultOperation(edits.get(1)));
+        assertEquals("delete", operation(getOnlyChild(getOnlyChild(editConfigContent(edits.get(1)), "c"), "l"), "l"));
+    }
+
+    private List<ContainerNode> captureEdits(final int count) {
+        final ArgumentCaptor<NormalizedNode<?, ?>> captor = ArgumentCaptor.forClass(NormalizedNode.class);
+        verify(rpc, times(count)).invokeRpc(
+            eq(SchemaPath.create(true, NetconfMessageTransformUtil.NETCONF_EDIT_CONFIG_QNAME)), captor.capture());
+        return captor.getAllValues().stream().map(ContainerNode.class::cast).collect(Collectors.toList());
+    }
+
+    private static Optional<Object> defaultOperation(final ContainerNode editConfig) {
+        return editConfig.getChild(NetconfMessageTransformUtil.NETCONF_DEFAULT_OPERATION_NODEID)
+            .map(NormalizedNode::getValue);
+    }
+
+    private static Element editConfigContent(final ContainerNode editConfig) {
+        final ChoiceNode editContent = (ChoiceNode) editConfig.getChild(NetconfMessageTransformUtil.EDIT_CONTENT_NODEID)
+            .get();
+        return (Element) ((DOMSourceAnyxmlNode) editContent.getChild(NetconfMessageTransformUtil.NETCONF_CONFIG_NODEID)
+            .get()).getValue().getNode();
+    }
+
+    private static Element getOnlyChild(final Element parent, final String name) {
+        final List<Element> children = childElements(parent);
+        assertEquals(1, children.size());
+        assertEquals(name, children.get(0).getLocalName());
+        return children.get(0);
+    }
+
+    private static List<Element> childElements(final Element parent) {
+        final List<Element> children = new ArrayList<>();
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element && !"name".equals(child.getLocalName())) {
+                children.add((Element) child);
+            }
+        }
+        return children;
+    }
+
+    private static String operation(final Element element, final String name) {
+        assertEquals(name, element.getLocalName());
+        return element.getAttributeNS(NetconfMessageTransformUtil.NETCONF_OPERATION_QNAME.getNamespace().toString(),
+            NetconfMessageTransformUtil.NETCONF_OPERATION_QNAME.getLocalName());
+    }
+}
@@ -9,7 +9,9 @@ package org.opendaylight.netconf.sal.connect.netconf.schema.mapping;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.CREATE_SUBSCRIPTION_RPC_CONTENT;
@@ -32,6 +34,7 @@ import static org.opendaylight.netconf.util.NetconfUtil.NETCONF_DATA_QNAME;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -54,6 +57,7 @@ import org.opendaylight.mdsal.dom.api.DOMActionResult;
 import org.opendaylight.mdsal.dom.api.DOMDataTreeIdentifier;
 import org.opendaylight.mdsal.dom.api.DOMRpcResult;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.RawNetconfMessage;
 import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.sal.connect.netconf.schema.NetconfRemoteSchemaYangSourceProvider;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
@@ -195,6 +199,15 @@ public class NetconfMessageTransformerTest {
         assertThat(XmlUtil.toString(netconfMessage.getDocument()), CoreMatchers.containsString("<rpc"));
     }
 
+    @Test
+    public void testSchemaIndexShared() {
+        // Transformers of devices sharing a SchemaContext share the structures derived from it
+        final NetconfMessageTransformer transformer = new NetconfMessageTransformer(new EmptyMountPointContext(SCHEMA),
+            false, BaseSchema.BASE_NETCONF_CTX_WITH_NOTIFICATIONS);
+        assertSame(netconfMessageTransformer.getSchemaIndex(), transformer.getSchemaIndex());
+        assertNotSame(netconfMessageTransformer.getSchemaIndex(), getTransformer(PARTIAL_SCHEMA).getSchemaIndex());
+    }
+
     @Test
     public void testCreateSubscriberNotificationSchemaNotPresent() throws Exception {
         final NetconfMessageTransformer transformer = new NetconfMessageTransformer(new EmptyMountPointContext(SCHEMA),
@@ -312,6 +325,37 @@ public class NetconfMessageTransformerTest {
         assertEquals(schemaNode, schemaParent.getValue().iterator().next());
     }
 
+    @Test
+    public void testGetConfigRawResponse() throws Exception {
+        final String reply = "<rpc-reply message-id=\"101\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">\n"
+                + "<data>\n"
+                + "<netconf-state xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\">\n"
+                + "<schemas>\n"
+                + "<schema>\n"
+                + "<identifier>module</identifier>\n"
+                + "<version>2012-12-12</version>\n"
+                + "<format xmlns:x=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\">x:yang</format>\n"
+                + "</schema>\n"
+                + "</schemas>\n"
+                + "</netconf-state>\n"
+                + "</data>\n"
+                + "</rpc-reply>";
+        final RawNetconfMessage response = new RawNetconfMessage(reply.getBytes(StandardCharsets.UTF_8),
+            "urn:ietf:params:xml:ns:netconf:base:1.0", "rpc-reply", "101", "data", true);
+
+        final DOMRpcResult compositeNodeRpcResult =
+                getTransformer(SCHEMA).toRpcResult(response, toPath(NETCONF_GET_CONFIG_QNAME));
+        assertTrue(compositeNodeRpcResult.getErrors().isEmpty());
+
+        // Data is parsed straight into a container, not an anyxml node
+        final ContainerNode data = (ContainerNode) ((ContainerNode) compositeNodeRpcResult.getResult())
+                .getChild(toId(NETCONF_DATA_QNAME)).get();
+        final ContainerNode state = (ContainerNode) data.getChild(toId(NetconfState.QNAME)).get();
+        final ContainerNode schemas = (ContainerNode) state.getChild(toId(Schemas.QNAME)).get();
+        final MapNode schemaParent = (MapNode) schemas.getChild(toId(Schema.QNAME)).get();
+        assertEquals(1, Iterables.size(schemaParent.getValue()));
+    }
+
     @Test
     public void testGetConfigLeafRequest() throws Exception {
         final DataContainerChild<?, ?> filter = toFilterStructure(
@@ -462,6 +506,16 @@ public class NetconfMessageTransformerTest {
         assertNull(compositeNodeRpcResult.getResult());
     }
 
+    @Test
+    public void testCommitRawResponse() throws Exception {
+        final String reply = "<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><ok/></rpc-reply>";
+        final DOMRpcResult compositeNodeRpcResult = netconfMessageTransformer.toRpcResult(
+            new RawNetconfMessage(reply.getBytes(StandardCharsets.UTF_8), "urn:ietf:params:xml:ns:netconf:base:1.0",
+                "rpc-reply", null, "ok", true), toPath(NETCONF_COMMIT_QNAME));
+        assertTrue(compositeNodeRpcResult.getErrors().isEmpty());
+        assertNull(compositeNodeRpcResult.getResult());
+    }
+
     @Test
     public void getActionsTest() {
         Set<SchemaPath> schemaPaths = new HashSet<>();
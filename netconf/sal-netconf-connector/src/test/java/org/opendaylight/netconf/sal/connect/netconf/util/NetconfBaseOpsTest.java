@@ -17,6 +17,7 @@ import com.google.common.util.concurrent.FluentFuture;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -25,12 +26,14 @@ import org.custommonkey.xmlunit.XMLUnit;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatcher;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.opendaylight.mdsal.dom.api.DOMRpcService;
 import org.opendaylight.netconf.api.ModifyAction;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.RawNetconfMessage;
 import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.sal.connect.api.MessageTransformer;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceCommunicator;
@@ -41,6 +44,7 @@ import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.netconf.util.NetconfUtil;
 import org.opendaylight.yangtools.rcf8528.data.util.EmptyMountPointContext;
 import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
@@ -50,6 +54,7 @@ import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
 public class NetconfBaseOpsTest extends AbstractTestModelTest {
@@ -190,6 +195,25 @@ public class NetconfBaseOpsTest extends AbstractTestModelTest {
         Assert.assertEquals(NetconfUtil.NETCONF_DATA_QNAME, dataOpt.get().getNodeType());
     }
 
+    @Test
+    public void testGetConfigRunningDataRaw() throws Exception {
+        // Raw replies yield a data container rather than an anyxml node, reads have to select from it all the same
+        final String reply = "<rpc-reply message-id=\"a\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">"
+                + "<data><c xmlns=\"test:namespace\"><a>value</a></c></data></rpc-reply>";
+        final NetconfMessage data = new RawNetconfMessage(reply.getBytes(StandardCharsets.UTF_8),
+                "urn:ietf:params:xml:ns:netconf:base:1.0", "rpc-reply", "a", "data", true);
+        when(listener.sendRequest(any(), eq(NetconfMessageTransformUtil.NETCONF_GET_CONFIG_QNAME)))
+                .thenReturn(FluentFuture.from(RpcResultBuilder.success(data).buildFuture()));
+
+        final YangInstanceIdentifier leafPath = YangInstanceIdentifier.builder().node(CONTAINER_Q_NAME)
+                .node(QName.create(CONTAINER_Q_NAME, "a")).build();
+        final Optional<NormalizedNode<?, ?>> dataOpt =
+                baseOps.getConfigRunningData(callback, Optional.of(leafPath)).get();
+        Assert.assertTrue(dataOpt.isPresent());
+        Assert.assertEquals("value", dataOpt.get().getValue());
+        Assert.assertTrue(baseOps.getConfigRunningExists(callback, leafPath).get());
+    }
+
     @Test
     public void testGetConfigRunning() throws Exception {
         baseOps.getConfigRunning(callback, Optional.empty());
@@ -217,6 +241,74 @@ public class NetconfBaseOpsTest extends AbstractTestModelTest {
         verifyMessageSent("get", NetconfMessageTransformUtil.NETCONF_GET_QNAME);
     }
 
+    @Test
+    public void testGetConfigRunningExists() throws Exception {
+        final QName listQName = QName.create(CONTAINER_Q_NAME, "l");
+        final QName keyQName = QName.create(CONTAINER_Q_NAME, "name");
+        final NetconfMessage reply = new NetconfMessage(XmlUtil.readXmlToDocument(
+            "<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\" message-id=\"a\"><data>"
+                + "<c xmlns=\"test:namespace\"><l><name>x</name></l></c></data></rpc-reply>"));
+        when(listener.sendRequest(any(), eq(NetconfMessageTransformUtil.NETCONF_GET_CONFIG_QNAME)))
+                .thenReturn(FluentFuture.from(RpcResultBuilder.success(reply).buildFuture()));
+        final YangInstanceIdentifier id = YangInstanceIdentifier.builder()
+                .node(CONTAINER_Q_NAME)
+                .node(listQName)
+                .nodeWithKey(listQName, keyQName, "x")
+                .build();
+
+        Assert.assertTrue(baseOps.getConfigRunningExists(callback, id).get());
+
+        // The entry is selected by its key and a single other leaf
+        final Element entry = sentFilterElement(NetconfMessageTransformUtil.NETCONF_GET_CONFIG_QNAME, "l");
+        final NodeList children = entry.getChildNodes();
+        Assert.assertEquals(2, children.getLength());
+        Assert.assertEquals("name", children.item(0).getLocalName());
+        Assert.assertEquals("x", children.item(0).getTextContent());
+        Assert.assertEquals("value", children.item(1).getLocalName());
+        Assert.assertFalse(children.item(1).hasChildNodes());
+    }
+
+    @Test
+    public void testGetExists() throws Exception {
+        final QName listQName = QName.create(CONTAINER_Q_NAME, "l");
+        final YangInstanceIdentifier id = YangInstanceIdentifier.builder()
+                .node(CONTAINER_Q_NAME)
+                .node(listQName)
+                .build();
+
+        Assert.assertFalse(baseOps.getExists(callback, id).get());
+
+        // The list is selected by the keys of its entries only
+        final Element entry = sentFilterElement(NetconfMessageTransformUtil.NETCONF_GET_QNAME, "l");
+        final NodeList children = entry.getChildNodes();
+        Assert.assertEquals(1, children.getLength());
+        Assert.assertEquals("name", children.item(0).getLocalName());
+        Assert.assertFalse(children.item(0).hasChildNodes());
+    }
+
+    @Test
+    public void testGetExistsListWithoutEntries() throws Exception {
+        final QName listQName = QName.create(CONTAINER_Q_NAME, "l");
+        final YangInstanceIdentifier id = YangInstanceIdentifier.builder()
+                .node(CONTAINER_Q_NAME)
+                .node(listQName)
+                .build();
+
+        // The device echoes the parent container first, the list has no entries though
+        when(listener.sendRequest(any(), eq(NetconfMessageTransformUtil.NETCONF_GET_QNAME)))
+                .thenReturn(dataReply("<c xmlns=\"test:namespace\"/>"))
+                .thenReturn(dataReply("<c xmlns=\"test:namespace\"><l><name>x</name></l></c>"));
+
+        Assert.assertFalse(baseOps.getExists(callback, id).get());
+        Assert.assertTrue(baseOps.getExists(callback, id).get());
+    }
+
+    private static FluentFuture<RpcResult<NetconfMessage>> dataReply(final String data) throws Exception {
+        return FluentFuture.from(RpcResultBuilder.success(new NetconfMessage(XmlUtil.readXmlToDocument(
+            "<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\" message-id=\"a\"><data>" + data
+                + "</data></rpc-reply>"))).buildFuture());
+    }
+
     @Test
     public void testEditConfigCandidate() throws Exception {
         final QName leafQName = QName.create(CONTAINER_Q_NAME, "a");
@@ -252,6 +344,15 @@ public class NetconfBaseOpsTest extends AbstractTestModelTest {
         verifyMessageSent("edit-config-test-module-running", NetconfMessageTransformUtil.NETCONF_EDIT_CONFIG_QNAME);
     }
 
+    private Element sentFilterElement(final QName rpc, final String localName) {
+        final ArgumentCaptor<NetconfMessage> captor = ArgumentCaptor.forClass(NetconfMessage.class);
+        verify(listener).sendRequest(captor.capture(), eq(rpc));
+        final NodeList elements = captor.getValue().getDocument()
+                .getElementsByTagNameNS(CONTAINER_Q_NAME.getNamespace().toString(), localName);
+        Assert.assertEquals(1, elements.getLength());
+        return (Element) elements.item(0);
+    }
+
     private void verifyMessageSent(final String fileName, final QName name) {
         final String path = "/netconfMessages/" + fileName + ".xml";
         verify(listener).sendRequest(msg(path), eq(name));
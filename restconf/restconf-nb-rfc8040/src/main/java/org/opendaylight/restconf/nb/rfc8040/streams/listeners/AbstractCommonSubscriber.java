@@ -9,6 +9,7 @@ package org.opendaylight.restconf.nb.rfc8040.streams.listeners;
 
 import com.google.common.base.Preconditions;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
@@ -82,7 +83,8 @@ abstract class AbstractCommonSubscriber extends AbstractQueryParams implements B
      * @param data Data of incoming notifications.
      */
     synchronized void post(final String data) {
-        for (final WebSocketSessionHandler subscriber : subscribers) {
+        // a subscriber may be removed while the data is being sent to it, for example when it is disconnected
+        for (final WebSocketSessionHandler subscriber : new ArrayList<>(subscribers)) {
             final Optional<InetSocketAddress> remoteEndpointAddress = subscriber.getRemoteEndpointAddress();
             if (remoteEndpointAddress.isPresent()) {
                 subscriber.sendDataMessage(data);
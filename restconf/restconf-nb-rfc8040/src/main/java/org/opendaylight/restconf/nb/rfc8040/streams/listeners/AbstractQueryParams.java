@@ -108,6 +108,15 @@ abstract class AbstractQueryParams extends AbstractNotificationsData {
         return false;
     }
 
+    /**
+     * Check whether a filter is set, which has to be evaluated against the XML form of notifications.
+     *
+     * @return true if a filter is set
+     */
+    boolean hasFilter() {
+        return filter != null;
+    }
+
     /**
      * Check if is filter used and then prepare and post data do client.
      *
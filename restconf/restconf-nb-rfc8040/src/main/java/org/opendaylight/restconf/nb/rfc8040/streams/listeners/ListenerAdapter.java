@@ -12,27 +12,42 @@ import static com.google.common.base.Preconditions.checkState;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.base.MoreObjects;
+import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.dom.DOMResult;
-import org.json.XML;
 import org.opendaylight.mdsal.dom.api.ClusteredDOMDataTreeChangeListener;
+import org.opendaylight.restconf.common.errors.RestconfDocumentedException;
 import org.opendaylight.yang.gen.v1.urn.sal.restconf.event.subscription.rev140708.NotificationOutputTypeGrouping.NotificationOutputType;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetEntryNode;
 import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.codec.gson.JSONCodecFactory;
+import org.opendaylight.yangtools.yang.data.codec.gson.JSONCodecFactorySupplier;
+import org.opendaylight.yangtools.yang.data.codec.gson.JSONNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.codec.gson.JsonWriterFactory;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
 import org.opendaylight.yangtools.yang.data.util.DataSchemaContextNode;
 import org.opendaylight.yangtools.yang.data.util.DataSchemaContextTree;
 import org.opendaylight.yangtools.yang.model.api.Module;
@@ -46,6 +61,10 @@ import org.w3c.dom.Node;
 
 /**
  * {@link ListenerAdapter} is responsible to track events, which occurred by changing data in data source.
+ *
+ * <p>
+ * JSON output is written directly from the data-tree candidates in the RFC7951 encoding. The XML form of an event is
+ * only built if XML output is requested or a filter, which is evaluated against the XML form, is set.
  */
 public class ListenerAdapter extends AbstractCommonSubscriber implements ClusteredDOMDataTreeChangeListener {
 
@@ -55,6 +74,10 @@ public class ListenerAdapter extends AbstractCommonSubscriber implements Cluster
     private final String streamName;
     private final NotificationOutputType outputType;
 
+    // Context tree of the last seen schema context, events are delivered to a listener one at a time
+    private SchemaContext lastSchemaContext;
+    private DataSchemaContextTree lastDataContextTree;
+
     /**
      * Creates new {@link ListenerAdapter} listener specified by path and stream name and register for subscribing.
      *
@@ -79,10 +102,35 @@ public class ListenerAdapter extends AbstractCommonSubscriber implements Cluster
             return;
         }
 
-        final String xml = prepareXml(dataTreeCandidates);
+        final SchemaContext schemaContext = schemaHandler.get();
+        final DataSchemaContextTree dataContextTree = dataSchemaContextTree(schemaContext);
+        final List<DataChangeEvent> events = new ArrayList<>();
+        for (DataTreeCandidate dataTreeCandidate : dataTreeCandidates) {
+            final DataTreeCandidateNode candidateNode = dataTreeCandidate.getRootNode();
+            if (candidateNode != null) {
+                collectDataChangeEvents(events, candidateNode, dataTreeCandidate.getRootPath().getParent(),
+                    dataContextTree);
+            }
+        }
+
+        final boolean json = outputType.equals(NotificationOutputType.JSON);
+        if (json && !hasFilter()) {
+            post(prepareJson(events, schemaContext, dataContextTree));
+            return;
+        }
+
+        final String xml = prepareXml(events, schemaContext, dataContextTree);
         if (checkFilter(xml)) {
-            prepareAndPostData(xml);
+            post(json ? prepareJson(events, schemaContext, dataContextTree) : xml);
+        }
+    }
+
+    private DataSchemaContextTree dataSchemaContextTree(final SchemaContext schemaContext) {
+        if (schemaContext != lastSchemaContext) {
+            lastDataContextTree = DataSchemaContextTree.from(schemaContext);
+            lastSchemaContext = schemaContext;
         }
+        return lastDataContextTree;
     }
 
     /**
@@ -110,62 +158,97 @@ public class ListenerAdapter extends AbstractCommonSubscriber implements Cluster
     }
 
     /**
-     * Prepare data of notification and data to client.
+     * Prepare data in JSON form, as specified by RFC7951.
      *
-     * @param xml XML-formatted data.
+     * @param events Data-change events to be transformed.
+     * @return Data in JSON form.
      */
-    private void prepareAndPostData(final String xml) {
-        if (this.outputType.equals(NotificationOutputType.JSON)) {
-            post(XML.toJSONObject(xml).toString());
-        } else {
-            post(xml);
+    private static String prepareJson(final List<DataChangeEvent> events, final SchemaContext schemaContext,
+            final DataSchemaContextTree dataContextTree) {
+        final JSONCodecFactory codecs = JSONCodecFactorySupplier.RFC7951.getShared(schemaContext);
+        final StringWriter writer = new StringWriter();
+        try (JsonWriter jsonWriter = JsonWriterFactory.createJsonWriter(writer)) {
+            jsonWriter.beginObject().name("ietf-restconf:notification").beginObject();
+            jsonWriter.name("eventTime").value(toRFC3339(Instant.now()));
+            jsonWriter.name("sal-remote:data-changed-notification").beginObject();
+            jsonWriter.name("data-change-event").beginArray();
+            for (DataChangeEvent event : events) {
+                jsonWriter.beginObject();
+                jsonWriter.name("path").value(formatJsonPath(event.path, schemaContext));
+                jsonWriter.name("operation").value(event.operation.value);
+                if (event.operation != Operation.DELETED) {
+                    jsonWriter.name("data").beginObject();
+                    writeJsonData(jsonWriter, codecs, event, dataContextTree);
+                    jsonWriter.endObject();
+                }
+                jsonWriter.endObject();
+            }
+            jsonWriter.endArray().endObject().endObject().endObject();
+        } catch (final IOException e) {
+            throw new RestconfDocumentedException("Problem while writing data-change event to JSON.", e);
         }
+        return writer.toString();
+    }
+
+    private static void writeJsonData(final JsonWriter jsonWriter, final JSONCodecFactory codecs,
+            final DataChangeEvent event, final DataSchemaContextTree dataContextTree) throws IOException {
+        final Optional<DataSchemaContextNode<?>> schemaNode = dataContextTree.findChild(event.path);
+        checkState(schemaNode.isPresent());
+        final NormalizedNodeStreamWriter streamWriter = JSONNormalizedNodeStreamWriter.createNestedWriter(codecs,
+            schemaNode.get().getDataSchemaNode().getPath().getParent(), null, jsonWriter);
+        final NormalizedNodeWriter nodeWriter = NormalizedNodeWriter.forStreamWriter(streamWriter);
+        nodeWriter.write(wrapEntry(event.data));
+        nodeWriter.flush();
+    }
+
+    /**
+     * Wrap a list or leaf-list entry into its parent node, as entries are encoded within arrays in JSON.
+     */
+    @SuppressWarnings("unchecked")
+    private static NormalizedNode<?, ?> wrapEntry(final NormalizedNode<?, ?> data) {
+        if (data instanceof MapEntryNode) {
+            return ImmutableNodes.mapNodeBuilder(data.getNodeType()).withChild((MapEntryNode) data).build();
+        }
+        if (data instanceof UnkeyedListEntryNode) {
+            return Builders.unkeyedListBuilder().withNodeIdentifier(NodeIdentifier.create(data.getNodeType()))
+                .withChild((UnkeyedListEntryNode) data).build();
+        }
+        if (data instanceof LeafSetEntryNode) {
+            return Builders.leafSetBuilder().withNodeIdentifier(NodeIdentifier.create(data.getNodeType()))
+                .withChild((LeafSetEntryNode<Object>) data).build();
+        }
+        return data;
     }
 
     /**
      * Prepare data in printable form and transform it to String.
      *
-     * @param dataTreeCandidates Data-tree candidates to be transformed.
+     * @param events Data-change events to be transformed.
      * @return Data in printable form.
      */
-    private String prepareXml(final Collection<DataTreeCandidate> dataTreeCandidates) {
-        final SchemaContext schemaContext = schemaHandler.get();
-        final DataSchemaContextTree dataContextTree = DataSchemaContextTree.from(schemaContext);
+    private String prepareXml(final List<DataChangeEvent> events, final SchemaContext schemaContext,
+            final DataSchemaContextTree dataContextTree) {
         final Document doc = createDocument();
         final Element notificationElement = basePartDoc(doc);
 
         final Element dataChangedNotificationEventElement = doc.createElementNS(
                 "urn:opendaylight:params:xml:ns:yang:controller:md:sal:remote", "data-changed-notification");
 
-        addValuesToDataChangedNotificationEventElement(doc, dataChangedNotificationEventElement, dataTreeCandidates,
-                schemaContext, dataContextTree);
+        for (DataChangeEvent event : events) {
+            dataChangedNotificationEventElement.appendChild(event.operation == Operation.DELETED
+                ? createDataChangeEventElement(doc, event.path, schemaContext)
+                : createCreatedChangedDataChangeEventElement(doc, event.path, event.data, event.operation,
+                    schemaContext, dataContextTree));
+        }
         notificationElement.appendChild(dataChangedNotificationEventElement);
         return transformDoc(doc);
     }
 
     /**
-     * Adds values to data changed notification event element.
+     * Collects data-change events of a candidate node and its children.
      */
-    @SuppressWarnings("checkstyle:hiddenField")
-    private void addValuesToDataChangedNotificationEventElement(final Document doc,
-            final Element dataChangedNotificationEventElement, final Collection<DataTreeCandidate> dataTreeCandidates,
-            final SchemaContext schemaContext, final DataSchemaContextTree dataSchemaContextTree) {
-
-        for (DataTreeCandidate dataTreeCandidate : dataTreeCandidates) {
-            DataTreeCandidateNode candidateNode = dataTreeCandidate.getRootNode();
-            if (candidateNode == null) {
-                continue;
-            }
-            YangInstanceIdentifier yiid = dataTreeCandidate.getRootPath();
-            addNodeToDataChangeNotificationEventElement(doc, dataChangedNotificationEventElement, candidateNode,
-                    yiid.getParent(), schemaContext, dataSchemaContextTree);
-        }
-    }
-
-    private void addNodeToDataChangeNotificationEventElement(final Document doc,
-            final Element dataChangedNotificationEventElement, final DataTreeCandidateNode candidateNode,
-            final YangInstanceIdentifier parentYiid, final SchemaContext schemaContext,
-            final DataSchemaContextTree dataSchemaContextTree) {
+    private void collectDataChangeEvents(final List<DataChangeEvent> events, final DataTreeCandidateNode candidateNode,
+            final YangInstanceIdentifier parentYiid, final DataSchemaContextTree dataSchemaContextTree) {
 
         Optional<NormalizedNode<?, ?>> optionalNormalizedNode = Optional.empty();
         switch (candidateNode.getModificationType()) {
@@ -197,31 +280,25 @@ public class ListenerAdapter extends AbstractCommonSubscriber implements Cluster
         boolean isNodeMixin = childrenSchemaNode.get().isMixin();
         boolean isSkippedNonLeaf = getLeafNodesOnly() && !(normalizedNode instanceof LeafNode);
         if (!isNodeMixin && !isSkippedNonLeaf) {
-            Node node = null;
             switch (candidateNode.getModificationType()) {
                 case APPEARED:
                 case SUBTREE_MODIFIED:
                 case WRITE:
                     Operation op = candidateNode.getDataBefore().isPresent() ? Operation.UPDATED : Operation.CREATED;
-                    node = createCreatedChangedDataChangeEventElement(doc, yiid, normalizedNode, op,
-                            schemaContext, dataSchemaContextTree);
+                    events.add(new DataChangeEvent(yiid, normalizedNode, op));
                     break;
                 case DELETE:
                 case DISAPPEARED:
-                    node = createDataChangeEventElement(doc, yiid, schemaContext);
+                    events.add(new DataChangeEvent(yiid, normalizedNode, Operation.DELETED));
                     break;
                 case UNMODIFIED:
                 default:
                     break;
             }
-            if (node != null) {
-                dataChangedNotificationEventElement.appendChild(node);
-            }
         }
 
         for (DataTreeCandidateNode childNode : candidateNode.getChildNodes()) {
-            addNodeToDataChangeNotificationEventElement(
-                    doc, dataChangedNotificationEventElement, childNode, yiid, schemaContext, dataSchemaContextTree);
+            collectDataChangeEvents(events, childNode, yiid, dataSchemaContextTree);
         }
     }
 
@@ -320,6 +397,54 @@ public class ListenerAdapter extends AbstractCommonSubscriber implements Cluster
         element.setTextContent(textContent.toString());
     }
 
+    /**
+     * Formats path as instance-identifier in the RFC7951 encoding, where node names are qualified by module name only
+     * if their module differs from the module of their parent.
+     *
+     * @param eventPath     Path to data in data store.
+     * @param schemaContext Schema context.
+     * @return Formatted path.
+     */
+    private static String formatJsonPath(final YangInstanceIdentifier eventPath, final SchemaContext schemaContext) {
+        final StringBuilder textContent = new StringBuilder();
+        final List<PathArgument> pathArguments = eventPath.getPathArguments();
+        QName parent = null;
+        for (int i = 0; i < pathArguments.size(); i++) {
+            final PathArgument pathArgument = pathArguments.get(i);
+            if (pathArgument instanceof YangInstanceIdentifier.AugmentationIdentifier) {
+                continue;
+            }
+            // list and leaf-list nodes are identified by their entries
+            if (i + 1 < pathArguments.size() && isEntry(pathArguments.get(i + 1))
+                    && pathArgument.getNodeType().equals(pathArguments.get(i + 1).getNodeType())) {
+                continue;
+            }
+
+            final QName nodeType = pathArgument.getNodeType();
+            textContent.append("/");
+            if (parent == null || !Objects.equals(parent.getModule(), nodeType.getModule())) {
+                writeIdentifierWithNamespacePrefix(textContent, nodeType, schemaContext);
+            } else {
+                textContent.append(nodeType.getLocalName());
+            }
+            parent = nodeType;
+
+            if (pathArgument instanceof NodeIdentifierWithPredicates) {
+                for (final Entry<QName, Object> entry : ((NodeIdentifierWithPredicates) pathArgument).entrySet()) {
+                    textContent.append("[").append(entry.getKey().getLocalName()).append("='")
+                        .append(entry.getValue()).append("']");
+                }
+            } else if (pathArgument instanceof NodeWithValue) {
+                textContent.append("[.='").append(((NodeWithValue) pathArgument).getValue()).append("']");
+            }
+        }
+        return textContent.toString();
+    }
+
+    private static boolean isEntry(final PathArgument pathArgument) {
+        return pathArgument instanceof NodeIdentifierWithPredicates || pathArgument instanceof NodeWithValue;
+    }
+
     /**
      * Writes identifier that consists of prefix and QName.
      *
@@ -342,6 +467,22 @@ public class ListenerAdapter extends AbstractCommonSubscriber implements Cluster
         }
     }
 
+    /**
+     * A data-change event of a single node.
+     */
+    private static final class DataChangeEvent {
+        final YangInstanceIdentifier path;
+        final NormalizedNode<?, ?> data;
+        final Operation operation;
+
+        DataChangeEvent(final YangInstanceIdentifier path, final NormalizedNode<?, ?> data,
+                final Operation operation) {
+            this.path = path;
+            this.data = data;
+            this.operation = operation;
+        }
+    }
+
     /**
      * Consists of three types {@link Operation#CREATED}, {@link Operation#UPDATED} and {@link Operation#DELETED}.
      */
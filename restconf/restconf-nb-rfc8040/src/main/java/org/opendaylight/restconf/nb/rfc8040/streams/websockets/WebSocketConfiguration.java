@@ -9,6 +9,8 @@
 package org.opendaylight.restconf.nb.rfc8040.streams.websockets;
 
 import com.google.common.base.Preconditions;
+import java.util.Locale;
+import org.opendaylight.restconf.nb.rfc8040.streams.websockets.WebSocketSessionHandler.OverflowPolicy;
 
 /**
  * Web-socket configuration holder and verifier.
@@ -20,6 +22,8 @@ public class WebSocketConfiguration {
     private final int maximumFragmentLength;
     private final int idleTimeout;
     private final int heartbeatInterval;
+    private final int maximumQueuedMessages;
+    private final OverflowPolicy overflowPolicy;
 
     /**
      * Creation of the web-socket configuration holder with verification of input parameters.
@@ -30,16 +34,48 @@ public class WebSocketConfiguration {
      * @param heartbeatInterval     Interval in milliseconds between sending of ping control frames.
      */
     public WebSocketConfiguration(int maximumFragmentLength, int idleTimeout, int heartbeatInterval) {
+        this(maximumFragmentLength, idleTimeout, heartbeatInterval,
+                WebSocketSessionHandler.DEFAULT_MAXIMUM_QUEUED_MESSAGES, OverflowPolicy.DROP.name());
+    }
+
+    /**
+     * Creation of the web-socket configuration holder with verification of input parameters.
+     *
+     * @param maximumFragmentLength Maximum web-socket fragment length in number of Unicode code units (characters)
+     *                              (exceeded message length leads to fragmentation of messages).
+     * @param idleTimeout           Maximum idle time of web-socket session before the session is closed (milliseconds).
+     * @param heartbeatInterval     Interval in milliseconds between sending of ping control frames.
+     * @param maximumQueuedMessages Maximum number of messages queued for sending to a single web-socket session.
+     * @param overflowPolicy        Default policy applied to messages posted to a session with full queue: 'drop',
+     *                              'disconnect' or 'coalesce'.
+     */
+    public WebSocketConfiguration(int maximumFragmentLength, int idleTimeout, int heartbeatInterval,
+            int maximumQueuedMessages, String overflowPolicy) {
         Preconditions.checkArgument(idleTimeout > 0, "Idle timeout must be specified by positive value.");
         Preconditions.checkArgument(maximumFragmentLength >= 0 && maximumFragmentLength < MAX_FRAGMENT_LENGTH,
                 "Maximum fragment length must be disabled (0) or specified by positive value "
                         + "less than 64 KB.");
         Preconditions.checkArgument(heartbeatInterval >= 0, "Heartbeat ping interval must be "
                 + "disabled (0) or specified by positive value.");
+        Preconditions.checkArgument(maximumQueuedMessages > 0, "Maximum number of queued messages must be "
+                + "specified by positive value.");
 
         this.maximumFragmentLength = maximumFragmentLength;
         this.idleTimeout = idleTimeout;
         this.heartbeatInterval = heartbeatInterval;
+        this.maximumQueuedMessages = maximumQueuedMessages;
+        this.overflowPolicy = parseOverflowPolicy(overflowPolicy);
+    }
+
+    /**
+     * Parse the name of an overflow policy, ignoring case.
+     *
+     * @param name Name of the policy.
+     * @return Overflow policy.
+     * @throws IllegalArgumentException if there is no such policy
+     */
+    static OverflowPolicy parseOverflowPolicy(String name) {
+        return OverflowPolicy.valueOf(name.toUpperCase(Locale.ROOT));
     }
 
     public int getMaximumFragmentLength() {
@@ -53,4 +89,12 @@ public class WebSocketConfiguration {
     public int getHeartbeatInterval() {
         return heartbeatInterval;
     }
-}
\ No newline at end of file
+
+    public int getMaximumQueuedMessages() {
+        return maximumQueuedMessages;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+}
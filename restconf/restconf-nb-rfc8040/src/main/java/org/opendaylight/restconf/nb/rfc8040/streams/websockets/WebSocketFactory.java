@@ -8,6 +8,8 @@
 
 package org.opendaylight.restconf.nb.rfc8040.streams.websockets;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ScheduledExecutorService;
 import javax.servlet.http.HttpServletResponse;
@@ -16,20 +18,27 @@ import org.eclipse.jetty.websocket.servlet.ServletUpgradeResponse;
 import org.eclipse.jetty.websocket.servlet.WebSocketCreator;
 import org.opendaylight.restconf.nb.rfc8040.streams.listeners.BaseListenerInterface;
 import org.opendaylight.restconf.nb.rfc8040.streams.listeners.ListenersBroker;
+import org.opendaylight.restconf.nb.rfc8040.streams.websockets.WebSocketSessionHandler.OverflowPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Factory that is used for creation of new web-sockets based on HTTP/HTTPS upgrade request.
+ * Factory that is used for creation of new web-sockets based on HTTP/HTTPS upgrade request. A client may override
+ * the default policy applied when too many messages are queued for its session using the {@value #OVERFLOW_POLICY}
+ * query parameter.
  */
 class WebSocketFactory implements WebSocketCreator {
 
+    static final String OVERFLOW_POLICY = "overflow-policy";
+
     private static final Logger LOG = LoggerFactory.getLogger(WebSocketFactory.class);
 
     private final ScheduledExecutorService executorService;
     private final ListenersBroker listenersBroker = ListenersBroker.getInstance();
     private final int maximumFragmentLength;
     private final int heartbeatInterval;
+    private final int maximumQueuedMessages;
+    private final OverflowPolicy overflowPolicy;
 
     /**
      * Creation of the web-socket factory.
@@ -41,15 +50,34 @@ class WebSocketFactory implements WebSocketCreator {
      */
     WebSocketFactory(final ScheduledExecutorService executorService, final int maximumFragmentLength,
             final int heartbeatInterval) {
+        this(executorService, maximumFragmentLength, heartbeatInterval,
+            WebSocketSessionHandler.DEFAULT_MAXIMUM_QUEUED_MESSAGES, OverflowPolicy.DROP);
+    }
+
+    /**
+     * Creation of the web-socket factory.
+     *
+     * @param executorService       Executor for creation of threads for controlling of web-socket sessions.
+     * @param maximumFragmentLength Maximum web-socket fragment length in number of Unicode code units (characters)
+     *                              (exceeded message length leads to fragmentation of messages).
+     * @param heartbeatInterval     Interval in milliseconds between sending of ping control frames.
+     * @param maximumQueuedMessages Maximum number of messages queued for sending to a single web-socket session.
+     * @param overflowPolicy        Policy applied to messages posted to a session with full queue, unless the client
+     *                              requests another one.
+     */
+    WebSocketFactory(final ScheduledExecutorService executorService, final int maximumFragmentLength,
+            final int heartbeatInterval, final int maximumQueuedMessages, final OverflowPolicy overflowPolicy) {
         this.executorService = executorService;
         this.maximumFragmentLength = maximumFragmentLength;
         this.heartbeatInterval = heartbeatInterval;
+        this.maximumQueuedMessages = maximumQueuedMessages;
+        this.overflowPolicy = overflowPolicy;
     }
 
     /**
      * Creation of the new web-socket based on input HTTP/HTTPS upgrade request. Web-socket is created only if the
      * data listener for input URI can be found (results in status code 101); otherwise status code 404 is set
-     * in upgrade response.
+     * in upgrade response. Status code 400 is set if the requested overflow policy is not known.
      *
      * @param servletUpgradeRequest  Upgrade request.
      * @param servletUpgradeResponse Upgrade response.
@@ -63,6 +91,16 @@ class WebSocketFactory implements WebSocketCreator {
 
         final Optional<BaseListenerInterface> listener = listenersBroker.getListenerFor(streamName);
         if (listener.isPresent()) {
+            final OverflowPolicy sessionOverflowPolicy;
+            try {
+                sessionOverflowPolicy = requestedOverflowPolicy(servletUpgradeRequest.getParameterMap());
+            } catch (IllegalArgumentException e) {
+                LOG.debug("Web-socket for stream with name {} requested unknown overflow policy.", streamName, e);
+                servletUpgradeResponse.setSuccess(false);
+                servletUpgradeResponse.setStatusCode(HttpServletResponse.SC_BAD_REQUEST);
+                return null;
+            }
+
             LOG.debug("Listener for stream with name {} has been found, web-socket session handler will be created.",
                     streamName);
             servletUpgradeResponse.setSuccess(true);
@@ -70,7 +108,7 @@ class WebSocketFactory implements WebSocketCreator {
             // note: every web-socket manages PING process individually because this approach scales better than sending
             // of PING frames at once over all web-socket sessions
             return new WebSocketSessionHandler(executorService, listener.get(), maximumFragmentLength,
-                    heartbeatInterval);
+                    heartbeatInterval, maximumQueuedMessages, sessionOverflowPolicy);
         } else {
             LOG.debug("Listener for stream with name {} was not found.", streamName);
             servletUpgradeResponse.setSuccess(false);
@@ -78,4 +116,10 @@ class WebSocketFactory implements WebSocketCreator {
             return null;
         }
     }
-}
\ No newline at end of file
+
+    private OverflowPolicy requestedOverflowPolicy(final Map<String, List<String>> parameters) {
+        final List<String> values = parameters == null ? null : parameters.get(OVERFLOW_POLICY);
+        return values == null || values.isEmpty() ? overflowPolicy
+            : WebSocketConfiguration.parseOverflowPolicy(values.get(0));
+    }
+}
@@ -48,6 +48,7 @@ public class WebSocketInitializer extends WebSocketServlet {
     public void configure(final WebSocketServletFactory factory) {
         factory.getPolicy().setIdleTimeout(webSocketConfiguration.getIdleTimeout());
         factory.setCreator(new WebSocketFactory(executorService, webSocketConfiguration.getMaximumFragmentLength(),
-                webSocketConfiguration.getHeartbeatInterval()));
+                webSocketConfiguration.getHeartbeatInterval(), webSocketConfiguration.getMaximumQueuedMessages(),
+                webSocketConfiguration.getOverflowPolicy()));
     }
 }
\ No newline at end of file
@@ -8,24 +8,38 @@
 
 package org.opendaylight.restconf.nb.rfc8040.streams.websockets;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
 import com.google.common.base.Strings;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.lock.qual.GuardedBy;
 import org.eclipse.jetty.websocket.api.RemoteEndpoint;
 import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketConnect;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketError;
 import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+import org.eclipse.jetty.websocket.common.WebSocketFrame;
+import org.eclipse.jetty.websocket.common.WebSocketRemoteEndpoint;
+import org.eclipse.jetty.websocket.common.frames.ContinuationFrame;
+import org.eclipse.jetty.websocket.common.frames.TextFrame;
 import org.opendaylight.restconf.nb.rfc8040.streams.listeners.BaseListenerInterface;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,10 +47,36 @@ import org.slf4j.LoggerFactory;
 /**
  * Web-socket session handler that is responsible for controlling of session, managing subscription
  * to data-change-event or notification listener, and sending of data over established web-socket session.
+ *
+ * <p>
+ * Data messages are queued and sent one after another using non-blocking sends, so that a slow client does not hold up
+ * the listener posting the messages. Once {@code maximumQueuedMessages} messages are queued, the
+ * {@link OverflowPolicy} of the session decides what happens with further messages.
  */
 @WebSocket
 public class WebSocketSessionHandler {
 
+    /**
+     * Policy applied when a message is posted to a session which already has the maximum number of messages queued.
+     */
+    public enum OverflowPolicy {
+        /**
+         * The posted message is dropped.
+         */
+        DROP,
+        /**
+         * The session is closed.
+         */
+        DISCONNECT,
+        /**
+         * The oldest queued message which is not being sent yet is dropped, so that the client receives the most
+         * recent messages.
+         */
+        COALESCE
+    }
+
+    static final int DEFAULT_MAXIMUM_QUEUED_MESSAGES = 1000;
+
     private static final Logger LOG = LoggerFactory.getLogger(WebSocketSessionHandler.class);
     private static final byte[] PING_PAYLOAD = "ping".getBytes(Charset.defaultCharset());
 
@@ -44,10 +84,25 @@ public class WebSocketSessionHandler {
     private final BaseListenerInterface listener;
     private final int maximumFragmentLength;
     private final int heartbeatInterval;
+    private final int maximumQueuedMessages;
+    private final OverflowPolicy overflowPolicy;
 
     private Session session;
     private ScheduledFuture<?> pingProcess;
 
+    // Messages yet to be sent, the first one is being sent if sending is set
+    @GuardedBy("this")
+    private final Deque<QueuedMessage> queue = new ArrayDeque<>();
+    @GuardedBy("this")
+    private boolean sending;
+    // Set while a non-blocking send is being started, to detect its completion within it
+    @GuardedBy("this")
+    private boolean startingSend;
+    @GuardedBy("this")
+    private boolean sentWhileStarting;
+    @GuardedBy("this")
+    private long droppedMessages;
+
     /**
      * Creation of the new web-socket session handler.
      *
@@ -60,16 +115,38 @@ public class WebSocketSessionHandler {
      *                              If this parameter is set to 0, the maximum fragment length is disabled and messages
      *                              up to 64 KB can be sent in TCP segment (exceeded notification length ends in error).
      *                              If the parameter is set to non-zero positive value, messages longer than this
-     *                              parameter are fragmented into multiple web-socket messages sent in one transaction.
+     *                              parameter are fragmented into multiple web-socket frames sent one after another.
      * @param heartbeatInterval     Interval in milliseconds of sending of ping control frames to remote endpoint
      *                              to keep session up. Ping control frames are disabled if this parameter is set to 0.
      */
     WebSocketSessionHandler(final ScheduledExecutorService executorService, final BaseListenerInterface listener,
             final int maximumFragmentLength, final int heartbeatInterval) {
+        this(executorService, listener, maximumFragmentLength, heartbeatInterval, DEFAULT_MAXIMUM_QUEUED_MESSAGES,
+            OverflowPolicy.DROP);
+    }
+
+    /**
+     * Creation of the new web-socket session handler with a bounded queue of outgoing messages.
+     *
+     * @param executorService       Executor that is used for periodical sending of web-socket ping messages.
+     * @param listener              YANG notification or data-change event listener to which client on this web-socket
+     *                              session subscribes to.
+     * @param maximumFragmentLength Maximum fragment length in number of Unicode code units (characters).
+     * @param heartbeatInterval     Interval in milliseconds of sending of ping control frames to remote endpoint.
+     * @param maximumQueuedMessages Maximum number of messages queued for sending.
+     * @param overflowPolicy        Policy applied to messages posted while the queue is full.
+     */
+    WebSocketSessionHandler(final ScheduledExecutorService executorService, final BaseListenerInterface listener,
+            final int maximumFragmentLength, final int heartbeatInterval, final int maximumQueuedMessages,
+            final OverflowPolicy overflowPolicy) {
+        checkArgument(maximumQueuedMessages > 0, "Maximum number of queued messages %s has to be positive",
+            maximumQueuedMessages);
         this.executorService = executorService;
         this.listener = listener;
         this.maximumFragmentLength = maximumFragmentLength;
         this.heartbeatInterval = heartbeatInterval;
+        this.maximumQueuedMessages = maximumQueuedMessages;
+        this.overflowPolicy = requireNonNull(overflowPolicy);
     }
 
     /**
@@ -112,6 +189,7 @@ public class WebSocketSessionHandler {
                     statusCode, reason);
             listener.removeSubscriber(this);
             stopPingProcess();
+            discardQueuedMessages();
         }
     }
 
@@ -132,6 +210,7 @@ public class WebSocketSessionHandler {
                 session.close();
             }
             stopPingProcess();
+            discardQueuedMessages();
         }
     }
 
@@ -144,7 +223,10 @@ public class WebSocketSessionHandler {
     /**
      * Sensing of string message to remote endpoint of {@link org.eclipse.jetty.websocket.api.Session}. If the maximum
      * fragment length is set to non-zero positive value and input message exceeds this value, message is fragmented
-     * to multiple message fragments which are send individually but still in one web-socket transaction.
+     * to multiple web-socket frames which are sent one after another.
+     *
+     * <p>
+     * The message is queued and this method returns without waiting for it to be sent.
      *
      * @param message Message data to be send over web-socket session.
      */
@@ -154,49 +236,177 @@ public class WebSocketSessionHandler {
             return;
         }
 
-        if (session != null && session.isOpen()) {
-            final RemoteEndpoint remoteEndpoint = session.getRemote();
-            if (maximumFragmentLength != 0) {
-                if (message.length() <= maximumFragmentLength) {
-                    sendDataMessage(message, remoteEndpoint);
-                } else {
-                    sendFragmentedMessage(splitMessageToFragments(message, maximumFragmentLength), remoteEndpoint);
-                }
-            } else {
-                sendDataMessage(message, remoteEndpoint);
-            }
-        } else {
+        if (session == null || !session.isOpen()) {
             LOG.trace("Message with body '{}' is not sent because underlay web-socket session is not open.", message);
+            return;
+        }
+
+        if (queue.size() >= maximumQueuedMessages) {
+            switch (overflowPolicy) {
+                case DROP:
+                    onMessageDropped();
+                    return;
+                case COALESCE:
+                    final Iterator<QueuedMessage> it = queue.iterator();
+                    it.next();
+                    if (sending) {
+                        // The first message is being sent already, it cannot be dropped
+                        if (!it.hasNext()) {
+                            onMessageDropped();
+                            return;
+                        }
+                        it.next();
+                    }
+                    it.remove();
+                    onMessageDropped();
+                    break;
+                case DISCONNECT:
+                    LOG.warn("Web-socket session {} has {} messages queued, closing it.", session, queue.size());
+                    discardQueuedMessages();
+                    session.close(StatusCode.POLICY_VIOLATION, "Too many messages queued");
+                    return;
+                default:
+                    throw new IllegalStateException("Unhandled overflow policy " + overflowPolicy);
+            }
+        }
+
+        queue.addLast(new QueuedMessage(maximumFragmentLength != 0 && message.length() > maximumFragmentLength
+            ? splitMessageToFragments(message, maximumFragmentLength) : List.of(message)));
+        if (!sending) {
+            sendQueuedMessages();
         }
     }
 
-    private void sendDataMessage(final String message, final RemoteEndpoint remoteEndpoint) {
-        try {
-            remoteEndpoint.sendString(message);
-            LOG.trace("Message with body '{}' has been successfully sent to remote endpoint {}.", message,
-                remoteEndpoint);
-        } catch (IOException e) {
-            LOG.warn("Cannot send message over web-socket session {}.", session, e);
+    @GuardedBy("this")
+    private void discardQueuedMessages() {
+        // The message being sent is removed once it is sent
+        final QueuedMessage first = sending ? queue.peekFirst() : null;
+        queue.clear();
+        if (first != null) {
+            queue.addFirst(first);
+        }
+    }
+
+    @GuardedBy("this")
+    private void onMessageDropped() {
+        if (droppedMessages++ == 0) {
+            LOG.warn("Web-socket session {} does not keep up, messages are dropped.", session);
+        } else {
+            LOG.debug("Web-socket session {} does not keep up, {} messages were dropped so far.", session,
+                droppedMessages);
         }
     }
 
-    private void sendFragmentedMessage(final List<String> orderedFragments, final RemoteEndpoint remoteEndpoint) {
-        for (int i = 0; i < orderedFragments.size(); i++) {
-            final String fragment = orderedFragments.get(i);
-            final boolean last = i == orderedFragments.size() - 1;
+    /**
+     * Send queued messages, until a message is not sent right away. Fragments of a message are sent as a text frame
+     * followed by continuation frames, the last one of which completes the message.
+     */
+    @GuardedBy("this")
+    private void sendQueuedMessages() {
+        while (true) {
+            final QueuedMessage next = queue.peekFirst();
+            if (next == null || session == null || !session.isOpen()) {
+                sending = false;
+                queue.clear();
+                return;
+            }
+
+            sending = true;
+            final RemoteEndpoint remoteEndpoint = session.getRemote();
+            final String fragment = next.fragments.get(next.sentFragments);
+            final WriteCallback callback = new WriteCallback() {
+                @Override
+                public void writeSuccess() {
+                    LOG.trace("Message with body '{}' has been successfully sent to remote endpoint {}.",
+                        fragment, remoteEndpoint);
+                    fragmentSent(next, true);
+                }
+
+                @Override
+                public void writeFailed(final Throwable cause) {
+                    LOG.warn("Cannot send message over web-socket session {}. All remaining fragments of the message "
+                        + "are dropped too.", session, cause);
+                    fragmentSent(next, false);
+                }
+            };
+
+            startingSend = true;
+            sentWhileStarting = false;
+            if (next.fragments.size() == 1) {
+                remoteEndpoint.sendString(fragment, callback);
+            } else {
+                sendFragment(remoteEndpoint, fragment, next.sentFragments == 0,
+                    next.sentFragments == next.fragments.size() - 1, callback);
+            }
+            startingSend = false;
+            if (!sentWhileStarting) {
+                // Continued from messageSent() once the message is sent
+                return;
+            }
+        }
+    }
 
+    private static void sendFragment(final RemoteEndpoint remoteEndpoint, final String fragment, final boolean isFirst,
+            final boolean isLast, final WriteCallback callback) {
+        if (!(remoteEndpoint instanceof WebSocketRemoteEndpoint)) {
+            // The API offers only blocking partial sends
             try {
-                remoteEndpoint.sendPartialString(fragment, last);
+                remoteEndpoint.sendPartialString(fragment, isLast);
             } catch (IOException e) {
-                LOG.warn("Cannot send message fragment number {} over web-socket session {}. All other fragments of "
-                    + " the message are dropped too.", i, session, e);
+                callback.writeFailed(e);
                 return;
             }
-            LOG.trace("Message fragment number {} with body '{}' has been successfully sent to remote endpoint {}.", i,
-                fragment, remoteEndpoint);
+            callback.writeSuccess();
+            return;
+        }
+
+        // Sent without blocking, like sendString(). Messages are sent one at a time, so frames cannot interleave.
+        final WebSocketFrame frame = isFirst ? new TextFrame() : new ContinuationFrame();
+        frame.setPayload(ByteBuffer.wrap(fragment.getBytes(StandardCharsets.UTF_8)));
+        frame.setFin(isLast);
+        ((WebSocketRemoteEndpoint) remoteEndpoint).uncheckedSendFrame(frame, callback);
+    }
+
+    private synchronized void fragmentSent(final QueuedMessage message, final boolean success) {
+        if (!success || ++message.sentFragments == message.fragments.size()) {
+            queue.pollFirst();
+        }
+        if (startingSend) {
+            // Completed within sendString(), sendQueuedMessages() continues with the next message
+            sentWhileStarting = true;
+        } else {
+            sendQueuedMessages();
         }
     }
 
+    /**
+     * Get the number of messages queued for sending, including the one being sent.
+     *
+     * @return Number of queued messages.
+     */
+    public synchronized int getQueuedMessages() {
+        return queue.size();
+    }
+
+    /**
+     * Get the time the oldest queued message has been waiting for, i.e. how much the client lags behind.
+     *
+     * @return Lag in milliseconds, 0 if no messages are queued.
+     */
+    public synchronized long getLagMillis() {
+        final QueuedMessage oldest = queue.peekFirst();
+        return oldest == null ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest.queuedNanos);
+    }
+
+    /**
+     * Get the number of messages which were not sent because too many messages were queued.
+     *
+     * @return Number of dropped messages.
+     */
+    public synchronized long getDroppedMessages() {
+        return droppedMessages;
+    }
+
     private synchronized void sendPingMessage() {
         try {
             Objects.requireNonNull(session).getRemote().sendPing(ByteBuffer.wrap(PING_PAYLOAD));
@@ -214,6 +424,18 @@ public class WebSocketSessionHandler {
         return parts;
     }
 
+    private static final class QueuedMessage {
+        final List<String> fragments;
+        final long queuedNanos = System.nanoTime();
+
+        // Guarded by the owning WebSocketSessionHandler
+        int sentFragments;
+
+        QueuedMessage(final List<String> fragments) {
+            this.fragments = fragments;
+        }
+    }
+
     /**
      * Get remote endpoint address of the current web-socket session.
      *
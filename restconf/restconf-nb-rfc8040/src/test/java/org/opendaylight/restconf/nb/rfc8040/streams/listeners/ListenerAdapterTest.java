@@ -125,7 +125,7 @@ public class ListenerAdapterTest extends AbstractConcurrentDataBrokerTest {
 
     static String withFakeDate(final String in) {
         JSONObject doc = new JSONObject(in);
-        JSONObject notification = doc.getJSONObject("notification");
+        JSONObject notification = doc.getJSONObject("ietf-restconf:notification");
         if (notification == null) {
             return in;
         }
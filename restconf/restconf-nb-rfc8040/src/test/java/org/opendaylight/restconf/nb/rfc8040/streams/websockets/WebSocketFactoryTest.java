@@ -8,6 +8,8 @@
 
 package org.opendaylight.restconf.nb.rfc8040.streams.websockets;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import java.net.URI;
 import java.util.concurrent.ScheduledExecutorService;
 import org.eclipse.jetty.websocket.servlet.ServletUpgradeRequest;
@@ -62,4 +64,31 @@ public class WebSocketFactoryTest {
         Mockito.verify(upgradeResponse).setSuccess(false);
         Mockito.verify(upgradeResponse).setStatusCode(404);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void createWebSocketWithOverflowPolicy() {
+        final ServletUpgradeRequest upgradeRequest = Mockito.mock(ServletUpgradeRequest.class);
+        final ServletUpgradeResponse upgradeResponse = Mockito.mock(ServletUpgradeResponse.class);
+        Mockito.when(upgradeRequest.getRequestURI()).thenReturn(URI.create('/' + REGISTERED_STREAM_NAME + '/'));
+        Mockito.when(upgradeRequest.getParameterMap()).thenReturn(ImmutableMap.of(WebSocketFactory.OVERFLOW_POLICY,
+                ImmutableList.of("coalesce")));
+
+        final Object webSocket = webSocketFactory.createWebSocket(upgradeRequest, upgradeResponse);
+        Assert.assertTrue(webSocket instanceof WebSocketSessionHandler);
+        Mockito.verify(upgradeResponse).setSuccess(true);
+    }
+
+    @Test
+    public void createWebSocketWithUnknownOverflowPolicy() {
+        final ServletUpgradeRequest upgradeRequest = Mockito.mock(ServletUpgradeRequest.class);
+        final ServletUpgradeResponse upgradeResponse = Mockito.mock(ServletUpgradeResponse.class);
+        Mockito.when(upgradeRequest.getRequestURI()).thenReturn(URI.create('/' + REGISTERED_STREAM_NAME + '/'));
+        Mockito.when(upgradeRequest.getParameterMap()).thenReturn(ImmutableMap.of(WebSocketFactory.OVERFLOW_POLICY,
+                ImmutableList.of("block")));
+
+        final Object webSocket = webSocketFactory.createWebSocket(upgradeRequest, upgradeResponse);
+        Assert.assertNull(webSocket);
+        Mockito.verify(upgradeResponse).setSuccess(false);
+        Mockito.verify(upgradeResponse).setStatusCode(400);
+    }
+}
@@ -8,18 +8,27 @@
 
 package org.opendaylight.restconf.nb.rfc8040.streams.websockets;
 
+import com.google.common.collect.ImmutableList;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import org.eclipse.jetty.websocket.api.RemoteEndpoint;
 import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.common.OpCode;
+import org.eclipse.jetty.websocket.common.WebSocketFrame;
+import org.eclipse.jetty.websocket.common.WebSocketRemoteEndpoint;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.opendaylight.restconf.nb.rfc8040.streams.listeners.BaseListenerInterface;
+import org.opendaylight.restconf.nb.rfc8040.streams.websockets.WebSocketSessionHandler.OverflowPolicy;
 
 public class WebSocketSessionHandlerTest {
 
@@ -32,12 +41,18 @@ public class WebSocketSessionHandlerTest {
         private final ScheduledFuture pingFuture;
 
         private WebSocketTestSessionState(final int maxFragmentSize, final int heartbeatInterval) {
+            this(maxFragmentSize, heartbeatInterval, WebSocketSessionHandler.DEFAULT_MAXIMUM_QUEUED_MESSAGES,
+                    OverflowPolicy.DROP);
+        }
+
+        private WebSocketTestSessionState(final int maxFragmentSize, final int heartbeatInterval,
+                final int maximumQueuedMessages, final OverflowPolicy overflowPolicy) {
             listener = Mockito.mock(BaseListenerInterface.class);
             executorService = Mockito.mock(ScheduledExecutorService.class);
             this.heartbeatInterval = heartbeatInterval;
             this.maxFragmentSize = maxFragmentSize;
             webSocketSessionHandler = new WebSocketSessionHandler(executorService, listener, maxFragmentSize,
-                    heartbeatInterval);
+                    heartbeatInterval, maximumQueuedMessages, overflowPolicy);
             pingFuture = Mockito.mock(ScheduledFuture.class);
             Mockito.when(executorService.scheduleWithFixedDelay(Mockito.any(Runnable.class),
                     Mockito.eq((long) heartbeatInterval), Mockito.eq((long) heartbeatInterval),
@@ -158,14 +173,14 @@ public class WebSocketSessionHandlerTest {
     public void sendDataMessageWithDisabledFragmentation() throws IOException {
         final WebSocketTestSessionState webSocketTestSessionState = new WebSocketTestSessionState(0, 0);
         final Session session = Mockito.mock(Session.class);
-        final RemoteEndpoint remoteEndpoint = Mockito.mock(RemoteEndpoint.class);
+        final RemoteEndpoint remoteEndpoint = mockRemoteEndpoint();
         Mockito.when(session.isOpen()).thenReturn(true);
         Mockito.when(session.getRemote()).thenReturn(remoteEndpoint);
         webSocketTestSessionState.webSocketSessionHandler.onWebSocketConnected(session);
 
         final String testMessage = generateRandomStringOfLength(100);
         webSocketTestSessionState.webSocketSessionHandler.sendDataMessage(testMessage);
-        Mockito.verify(remoteEndpoint).sendString(testMessage);
+        Mockito.verify(remoteEndpoint).sendString(Mockito.eq(testMessage), Mockito.any(WriteCallback.class));
     }
 
     @Test
@@ -186,7 +201,7 @@ public class WebSocketSessionHandlerTest {
     public void sendDataMessageWithEnabledFragAndSmallMessage() throws IOException {
         final WebSocketTestSessionState webSocketTestSessionState = new WebSocketTestSessionState(100, 0);
         final Session session = Mockito.mock(Session.class);
-        final RemoteEndpoint remoteEndpoint = Mockito.mock(RemoteEndpoint.class);
+        final RemoteEndpoint remoteEndpoint = mockRemoteEndpoint();
         Mockito.when(session.isOpen()).thenReturn(true);
         Mockito.when(session.getRemote()).thenReturn(remoteEndpoint);
         webSocketTestSessionState.webSocketSessionHandler.onWebSocketConnected(session);
@@ -196,8 +211,8 @@ public class WebSocketSessionHandlerTest {
         final String testMessage2 = generateRandomStringOfLength(50);
         webSocketTestSessionState.webSocketSessionHandler.sendDataMessage(testMessage1);
         webSocketTestSessionState.webSocketSessionHandler.sendDataMessage(testMessage2);
-        Mockito.verify(remoteEndpoint).sendString(testMessage1);
-        Mockito.verify(remoteEndpoint).sendString(testMessage2);
+        Mockito.verify(remoteEndpoint).sendString(Mockito.eq(testMessage1), Mockito.any(WriteCallback.class));
+        Mockito.verify(remoteEndpoint).sendString(Mockito.eq(testMessage2), Mockito.any(WriteCallback.class));
         Mockito.verify(remoteEndpoint, Mockito.never()).sendPartialString(Mockito.anyString(), Mockito.anyBoolean());
     }
 
@@ -205,7 +220,7 @@ public class WebSocketSessionHandlerTest {
     public void sendDataMessageWithZeroLength() {
         final WebSocketTestSessionState webSocketTestSessionState = new WebSocketTestSessionState(100, 0);
         final Session session = Mockito.mock(Session.class);
-        final RemoteEndpoint remoteEndpoint = Mockito.mock(RemoteEndpoint.class);
+        final RemoteEndpoint remoteEndpoint = mockRemoteEndpoint();
         Mockito.when(session.isOpen()).thenReturn(true);
         Mockito.when(session.getRemote()).thenReturn(remoteEndpoint);
         webSocketTestSessionState.webSocketSessionHandler.onWebSocketConnected(session);
@@ -218,7 +233,7 @@ public class WebSocketSessionHandlerTest {
     public void sendDataMessageWithEnabledFragAndLargeMessage1() throws IOException {
         final WebSocketTestSessionState webSocketTestSessionState = new WebSocketTestSessionState(100, 0);
         final Session session = Mockito.mock(Session.class);
-        final RemoteEndpoint remoteEndpoint = Mockito.mock(RemoteEndpoint.class);
+        final WebSocketRemoteEndpoint remoteEndpoint = mockFrameRemoteEndpoint(null);
         Mockito.when(session.isOpen()).thenReturn(true);
         Mockito.when(session.getRemote()).thenReturn(remoteEndpoint);
         webSocketTestSessionState.webSocketSessionHandler.onWebSocketConnected(session);
@@ -226,23 +241,26 @@ public class WebSocketSessionHandlerTest {
         // there should be 10 fragments of length 100 characters
         final String testMessage = generateRandomStringOfLength(1000);
         webSocketTestSessionState.webSocketSessionHandler.sendDataMessage(testMessage);
-        final ArgumentCaptor<String> messageCaptor = ArgumentCaptor.forClass(String.class);
-        final ArgumentCaptor<Boolean> isLastCaptor = ArgumentCaptor.forClass(Boolean.class);
-        Mockito.verify(remoteEndpoint, Mockito.times(10)).sendPartialString(
-                messageCaptor.capture(), isLastCaptor.capture());
-
-        final List<String> allMessages = messageCaptor.getAllValues();
-        final List<Boolean> isLastFlags = isLastCaptor.getAllValues();
+        final ArgumentCaptor<WebSocketFrame> frameCaptor = ArgumentCaptor.forClass(WebSocketFrame.class);
+        Mockito.verify(remoteEndpoint, Mockito.times(10)).uncheckedSendFrame(
+                frameCaptor.capture(), Mockito.any(WriteCallback.class));
+        Mockito.verify(remoteEndpoint, Mockito.never()).sendString(Mockito.anyString(),
+                Mockito.any(WriteCallback.class));
+
+        final List<String> allMessages = payloads(frameCaptor.getAllValues());
+        final List<Boolean> isLastFlags = isLastFlags(frameCaptor.getAllValues());
         Assert.assertTrue(allMessages.stream().allMatch(s -> s.length() == webSocketTestSessionState.maxFragmentSize));
         Assert.assertTrue(isLastFlags.subList(0, 9).stream().noneMatch(isLast -> isLast));
         Assert.assertTrue(isLastFlags.get(9));
+        assertSingleMessage(frameCaptor.getAllValues());
+        Assert.assertEquals(testMessage, String.join("", allMessages));
     }
 
     @Test
     public void sendDataMessageWithEnabledFragAndLargeMessage2() throws IOException {
         final WebSocketTestSessionState webSocketTestSessionState = new WebSocketTestSessionState(100, 0);
         final Session session = Mockito.mock(Session.class);
-        final RemoteEndpoint remoteEndpoint = Mockito.mock(RemoteEndpoint.class);
+        final WebSocketRemoteEndpoint remoteEndpoint = mockFrameRemoteEndpoint(null);
         Mockito.when(session.isOpen()).thenReturn(true);
         Mockito.when(session.getRemote()).thenReturn(remoteEndpoint);
         webSocketTestSessionState.webSocketSessionHandler.onWebSocketConnected(session);
@@ -250,18 +268,195 @@ public class WebSocketSessionHandlerTest {
         // there should be 10 fragments, the last fragment should be the shortest one
         final String testMessage = generateRandomStringOfLength(950);
         webSocketTestSessionState.webSocketSessionHandler.sendDataMessage(testMessage);
-        final ArgumentCaptor<String> messageCaptor = ArgumentCaptor.forClass(String.class);
-        final ArgumentCaptor<Boolean> isLastCaptor = ArgumentCaptor.forClass(Boolean.class);
-        Mockito.verify(remoteEndpoint, Mockito.times(10)).sendPartialString(
-                messageCaptor.capture(), isLastCaptor.capture());
+        final ArgumentCaptor<WebSocketFrame> frameCaptor = ArgumentCaptor.forClass(WebSocketFrame.class);
+        Mockito.verify(remoteEndpoint, Mockito.times(10)).uncheckedSendFrame(
+                frameCaptor.capture(), Mockito.any(WriteCallback.class));
 
-        final List<String> allMessages = messageCaptor.getAllValues();
-        final List<Boolean> isLastFlags = isLastCaptor.getAllValues();
+        final List<String> allMessages = payloads(frameCaptor.getAllValues());
+        final List<Boolean> isLastFlags = isLastFlags(frameCaptor.getAllValues());
         Assert.assertTrue(allMessages.subList(0, 9).stream().allMatch(s ->
                 s.length() == webSocketTestSessionState.maxFragmentSize));
         Assert.assertEquals(50, allMessages.get(9).length());
         Assert.assertTrue(isLastFlags.subList(0, 9).stream().noneMatch(isLast -> isLast));
         Assert.assertTrue(isLastFlags.get(9));
+        assertSingleMessage(frameCaptor.getAllValues());
+        Assert.assertEquals(testMessage, String.join("", allMessages));
+    }
+
+    @Test
+    public void sendDataMessageFragmentsQueuedUntilPreviousIsSent() {
+        final WebSocketTestSessionState webSocketTestSessionState = new WebSocketTestSessionState(3, 0);
+        final List<WriteCallback> callbacks = new ArrayList<>();
+        final WebSocketRemoteEndpoint remoteEndpoint = mockFrameRemoteEndpoint(callbacks);
+        final WebSocketSessionHandler handler = webSocketTestSessionState.webSocketSessionHandler;
+        handler.onWebSocketConnected(mockOpenSession(remoteEndpoint));
+
+        // fragments are sent one after another, without blocking the caller
+        handler.sendDataMessage("abcdef");
+        handler.sendDataMessage("xyz");
+        final ArgumentCaptor<WebSocketFrame> frameCaptor = ArgumentCaptor.forClass(WebSocketFrame.class);
+        Mockito.verify(remoteEndpoint).uncheckedSendFrame(frameCaptor.capture(), Mockito.any(WriteCallback.class));
+        Assert.assertEquals(ImmutableList.of("abc"), payloads(frameCaptor.getAllValues()));
+        Assert.assertEquals(2, handler.getQueuedMessages());
+
+        callbacks.get(0).writeSuccess();
+        Mockito.verify(remoteEndpoint, Mockito.times(2)).uncheckedSendFrame(frameCaptor.capture(),
+                Mockito.any(WriteCallback.class));
+        Assert.assertEquals("def", payloads(frameCaptor.getAllValues()).get(1));
+        Assert.assertTrue(frameCaptor.getAllValues().get(1).isFin());
+        Assert.assertEquals(2, handler.getQueuedMessages());
+        callbacks.get(1).writeSuccess();
+        Mockito.verify(remoteEndpoint).sendString(Mockito.eq("xyz"), Mockito.any(WriteCallback.class));
+        Assert.assertEquals(1, handler.getQueuedMessages());
+        Mockito.verifyZeroInteractions(webSocketTestSessionState.executorService);
+    }
+
+    @Test
+    public void sendDataMessageQueuedUntilPreviousIsSent() {
+        final WebSocketTestSessionState webSocketTestSessionState = new WebSocketTestSessionState(0, 0);
+        final List<WriteCallback> callbacks = new ArrayList<>();
+        final RemoteEndpoint remoteEndpoint = mockPendingRemoteEndpoint(callbacks);
+        final Session session = mockOpenSession(remoteEndpoint);
+        final WebSocketSessionHandler handler = webSocketTestSessionState.webSocketSessionHandler;
+        handler.onWebSocketConnected(session);
+
+        handler.sendDataMessage("first");
+        handler.sendDataMessage("second");
+        Mockito.verify(remoteEndpoint).sendString(Mockito.eq("first"), Mockito.any(WriteCallback.class));
+        Mockito.verify(remoteEndpoint, Mockito.never()).sendString(Mockito.eq("second"),
+                Mockito.any(WriteCallback.class));
+        Assert.assertEquals(2, handler.getQueuedMessages());
+        Assert.assertTrue(handler.getLagMillis() >= 0);
+
+        callbacks.get(0).writeSuccess();
+        Mockito.verify(remoteEndpoint).sendString(Mockito.eq("second"), Mockito.any(WriteCallback.class));
+        callbacks.get(1).writeFailed(new IOException("Simulated failure"));
+        Assert.assertEquals(0, handler.getQueuedMessages());
+        Assert.assertEquals(0, handler.getLagMillis());
+        Assert.assertEquals(0, handler.getDroppedMessages());
+    }
+
+    @Test
+    public void sendDataMessageWithFullQueueAndDropPolicy() {
+        final WebSocketTestSessionState webSocketTestSessionState = new WebSocketTestSessionState(0, 0, 2,
+                OverflowPolicy.DROP);
+        final List<WriteCallback> callbacks = new ArrayList<>();
+        final RemoteEndpoint remoteEndpoint = mockPendingRemoteEndpoint(callbacks);
+        final WebSocketSessionHandler handler = webSocketTestSessionState.webSocketSessionHandler;
+        handler.onWebSocketConnected(mockOpenSession(remoteEndpoint));
+
+        handler.sendDataMessage("first");
+        handler.sendDataMessage("second");
+        handler.sendDataMessage("third");
+        Assert.assertEquals(2, handler.getQueuedMessages());
+        Assert.assertEquals(1, handler.getDroppedMessages());
+
+        callbacks.get(0).writeSuccess();
+        callbacks.get(1).writeSuccess();
+        final ArgumentCaptor<String> messageCaptor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(remoteEndpoint, Mockito.times(2)).sendString(messageCaptor.capture(),
+                Mockito.any(WriteCallback.class));
+        Assert.assertEquals(ImmutableList.of("first", "second"), messageCaptor.getAllValues());
+    }
+
+    @Test
+    public void sendDataMessageWithFullQueueAndCoalescePolicy() {
+        final WebSocketTestSessionState webSocketTestSessionState = new WebSocketTestSessionState(0, 0, 2,
+                OverflowPolicy.COALESCE);
+        final List<WriteCallback> callbacks = new ArrayList<>();
+        final RemoteEndpoint remoteEndpoint = mockPendingRemoteEndpoint(callbacks);
+        final WebSocketSessionHandler handler = webSocketTestSessionState.webSocketSessionHandler;
+        handler.onWebSocketConnected(mockOpenSession(remoteEndpoint));
+
+        // the first message is being sent, the second one is replaced by the third one
+        handler.sendDataMessage("first");
+        handler.sendDataMessage("second");
+        handler.sendDataMessage("third");
+        Assert.assertEquals(2, handler.getQueuedMessages());
+        Assert.assertEquals(1, handler.getDroppedMessages());
+
+        callbacks.get(0).writeSuccess();
+        callbacks.get(1).writeSuccess();
+        final ArgumentCaptor<String> messageCaptor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(remoteEndpoint, Mockito.times(2)).sendString(messageCaptor.capture(),
+                Mockito.any(WriteCallback.class));
+        Assert.assertEquals(ImmutableList.of("first", "third"), messageCaptor.getAllValues());
+    }
+
+    @Test
+    public void sendDataMessageWithFullQueueAndDisconnectPolicy() {
+        final WebSocketTestSessionState webSocketTestSessionState = new WebSocketTestSessionState(0, 0, 1,
+                OverflowPolicy.DISCONNECT);
+        final List<WriteCallback> callbacks = new ArrayList<>();
+        final RemoteEndpoint remoteEndpoint = mockPendingRemoteEndpoint(callbacks);
+        final Session session = mockOpenSession(remoteEndpoint);
+        final WebSocketSessionHandler handler = webSocketTestSessionState.webSocketSessionHandler;
+        handler.onWebSocketConnected(session);
+
+        handler.sendDataMessage("first");
+        handler.sendDataMessage("second");
+        Mockito.verify(session).close(Mockito.eq(StatusCode.POLICY_VIOLATION), Mockito.anyString());
+        Mockito.verify(remoteEndpoint, Mockito.never()).sendString(Mockito.eq("second"),
+                Mockito.any(WriteCallback.class));
+        Assert.assertEquals(0, handler.getDroppedMessages());
+    }
+
+    private static Session mockOpenSession(final RemoteEndpoint remoteEndpoint) {
+        final Session session = Mockito.mock(Session.class);
+        Mockito.when(session.isOpen()).thenReturn(true);
+        Mockito.when(session.getRemote()).thenReturn(remoteEndpoint);
+        return session;
+    }
+
+    private static RemoteEndpoint mockRemoteEndpoint() {
+        final RemoteEndpoint remoteEndpoint = Mockito.mock(RemoteEndpoint.class);
+        Mockito.doAnswer(invocation -> {
+            invocation.<WriteCallback>getArgument(1).writeSuccess();
+            return null;
+        }).when(remoteEndpoint).sendString(Mockito.anyString(), Mockito.any(WriteCallback.class));
+        return remoteEndpoint;
+    }
+
+    private static WebSocketRemoteEndpoint mockFrameRemoteEndpoint(final List<WriteCallback> pendingCallbacks) {
+        final WebSocketRemoteEndpoint remoteEndpoint = Mockito.mock(WebSocketRemoteEndpoint.class);
+        Mockito.doAnswer(invocation -> {
+            final WriteCallback callback = invocation.getArgument(1);
+            if (pendingCallbacks != null) {
+                pendingCallbacks.add(callback);
+            } else {
+                callback.writeSuccess();
+            }
+            return null;
+        }).when(remoteEndpoint).uncheckedSendFrame(Mockito.any(WebSocketFrame.class), Mockito.any(WriteCallback.class));
+        Mockito.doAnswer(invocation -> {
+            pendingCallbacks.add(invocation.getArgument(1));
+            return null;
+        }).when(remoteEndpoint).sendString(Mockito.anyString(), Mockito.any(WriteCallback.class));
+        return remoteEndpoint;
+    }
+
+    private static List<String> payloads(final List<WebSocketFrame> frames) {
+        return frames.stream().map(WebSocketFrame::getPayloadAsUTF8).collect(Collectors.toList());
+    }
+
+    private static List<Boolean> isLastFlags(final List<WebSocketFrame> frames) {
+        return frames.stream().map(WebSocketFrame::isFin).collect(Collectors.toList());
+    }
+
+    private static void assertSingleMessage(final List<WebSocketFrame> frames) {
+        // A text frame starts the message, the other fragments continue it
+        Assert.assertEquals(OpCode.TEXT, frames.get(0).getOpCode());
+        Assert.assertTrue(frames.subList(1, frames.size()).stream()
+                .allMatch(frame -> frame.getOpCode() == OpCode.CONTINUATION));
+    }
+
+    private static RemoteEndpoint mockPendingRemoteEndpoint(final List<WriteCallback> callbacks) {
+        final RemoteEndpoint remoteEndpoint = Mockito.mock(RemoteEndpoint.class);
+        Mockito.doAnswer(invocation -> {
+            callbacks.add(invocation.getArgument(1));
+            return null;
+        }).when(remoteEndpoint).sendString(Mockito.anyString(), Mockito.any(WriteCallback.class));
+        return remoteEndpoint;
     }
 
     private static String generateRandomStringOfLength(final int length) {